@@ -42,7 +42,9 @@ public interface Subscriber extends Register {
   void setDataObserver(SubscriberDataObserver observer);
 
   /**
-   * Peek data user data multi.
+   * Peek data user data multi. The returned data is an immutable snapshot shared by all the callers
+   * until the next received data, modifying its zone map or lists throws {@link
+   * UnsupportedOperationException}, copy them before filtering in place.
    *
    * @return the user data multi
    */
@@ -89,6 +89,12 @@ public class DefaultRegistryClientConfig implements RegistryClientConfig {
   /** */
   private boolean eventBusEnable;
 
+  /** max number of registers sent in one batch request, no batch when less than or equal to 1 */
+  private int registerBatchSize = 1;
+
+  /** max number of in-flight register requests, send one by one when less than or equal to 1 */
+  private int registerWindowSize = 1;
+
   /**
    * Instantiates a new Default registry client config.
    *
@@ -395,6 +401,42 @@ public class DefaultRegistryClientConfig implements RegistryClientConfig {
     this.eventBusEnable = eventBusEnable;
   }
 
+  /**
+   * Getter method for property <tt>registerBatchSize</tt>.
+   *
+   * @return property value of registerBatchSize
+   */
+  public int getRegisterBatchSize() {
+    return registerBatchSize;
+  }
+
+  /**
+   * Setter method for property <tt>registerBatchSize</tt>.
+   *
+   * @param registerBatchSize value to be assigned to property registerBatchSize
+   */
+  public void setRegisterBatchSize(int registerBatchSize) {
+    this.registerBatchSize = registerBatchSize;
+  }
+
+  /**
+   * Getter method for property <tt>registerWindowSize</tt>.
+   *
+   * @return property value of registerWindowSize
+   */
+  public int getRegisterWindowSize() {
+    return registerWindowSize;
+  }
+
+  /**
+   * Setter method for property <tt>registerWindowSize</tt>.
+   *
+   * @param registerWindowSize value to be assigned to property registerWindowSize
+   */
+  public void setRegisterWindowSize(int registerWindowSize) {
+    this.registerWindowSize = registerWindowSize;
+  }
+
   /**
    * Equals boolean.
    *
@@ -511,6 +553,10 @@ public class DefaultRegistryClientConfig implements RegistryClientConfig {
         + authCacheInterval
         + ", eventBusEnable="
         + eventBusEnable
+        + ", registerBatchSize="
+        + registerBatchSize
+        + ", registerWindowSize="
+        + registerWindowSize
         + '}';
   }
 }
@@ -47,6 +47,8 @@ public class DefaultRegistryClientConfigBuilder {
   private String algorithm = "HmacSHA256";
   private long authCacheInterval = 5 * 60 * 1000;
   private boolean eventBusEnable = true;
+  private int registerBatchSize = 1;
+  private int registerWindowSize = 1;
 
   /**
    * Start default registry client config builder.
@@ -281,33 +283,57 @@ public class DefaultRegistryClientConfigBuilder {
     return this;
   }
 
+  /**
+   * Setter method for property <tt>registerBatchSize</tt>.
+   *
+   * @param registerBatchSize value to be assigned to property registerBatchSize
+   */
+  public DefaultRegistryClientConfigBuilder setRegisterBatchSize(int registerBatchSize) {
+    this.registerBatchSize = registerBatchSize;
+    return this;
+  }
+
+  /**
+   * Setter method for property <tt>registerWindowSize</tt>.
+   *
+   * @param registerWindowSize value to be assigned to property registerWindowSize
+   */
+  public DefaultRegistryClientConfigBuilder setRegisterWindowSize(int registerWindowSize) {
+    this.registerWindowSize = registerWindowSize;
+    return this;
+  }
+
   /**
    * Create default registry client config default registry client config.
    *
    * @return the default registry client config
    */
   public DefaultRegistryClientConfig build() {
-    return new DefaultRegistryClientConfig(
-        env,
-        instanceId,
-        zone,
-        registryEndpoint,
-        registryEndpointPort,
-        dataCenter,
-        appName,
-        connectTimeout,
-        socketTimeout,
-        invokeTimeout,
-        recheckInterval,
-        observerThreadCoreSize,
-        observerThreadMaxSize,
-        observerThreadQueueLength,
-        observerCallbackTimeout,
-        syncConfigRetryInterval,
-        accessKey,
-        secretKey,
-        algorithm,
-        authCacheInterval,
-        eventBusEnable);
+    DefaultRegistryClientConfig config =
+        new DefaultRegistryClientConfig(
+            env,
+            instanceId,
+            zone,
+            registryEndpoint,
+            registryEndpointPort,
+            dataCenter,
+            appName,
+            connectTimeout,
+            socketTimeout,
+            invokeTimeout,
+            recheckInterval,
+            observerThreadCoreSize,
+            observerThreadMaxSize,
+            observerThreadQueueLength,
+            observerCallbackTimeout,
+            syncConfigRetryInterval,
+            accessKey,
+            secretKey,
+            algorithm,
+            authCacheInterval,
+            eventBusEnable);
+    config.setRegisterBatchSize(registerBatchSize);
+    config.setRegisterWindowSize(registerWindowSize);
+    return config;
   }
 }
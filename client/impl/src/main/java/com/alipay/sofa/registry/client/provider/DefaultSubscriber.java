@@ -32,6 +32,7 @@ import com.alipay.sofa.registry.core.model.DataBox;
 import com.alipay.sofa.registry.core.model.ScopeEnum;
 import com.alipay.sofa.registry.core.model.SubscriberRegister;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -59,6 +60,7 @@ public class DefaultSubscriber extends AbstractInternalRegister implements Subsc
   private Worker worker;
   private volatile String localZone;
   private List<String> availableSegments = new ArrayList<String>();
+  private volatile UserData userData;
 
   /**
    * Instantiates a new Default subscriber multi.
@@ -93,53 +95,74 @@ public class DefaultSubscriber extends AbstractInternalRegister implements Subsc
   /** @see Subscriber#peekData() */
   @Override
   public UserData peekData() {
+    if (!init.get()) {
+      // todo sync read from server
+      return new DefaultUserData();
+    }
+    UserData view = userData;
+    if (null != view) {
+      return view;
+    }
     readLock.lock();
     try {
-      if (!init.get()) {
-        // todo sync read from server
-        return new DefaultUserData();
-      }
-      Set<Entry<String, SegmentData>> values = data.entrySet();
-      DefaultUserData userData = new DefaultUserData();
-      if (null == localZone) {
-        userData.setLocalZone(config.getZone());
-      } else {
-        userData.setLocalZone(localZone);
+      return buildUserData();
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  /**
+   * Build the immutable view of the received data, it is rebuilt only when the segment versions,
+   * the local zone or the available segments change, and shared by the route lookups and the data
+   * observer until then. The view is tagged with the versions of the segments it built from.
+   *
+   * @return the user data
+   */
+  private UserData buildUserData() {
+    Set<Entry<String, SegmentData>> values = data.entrySet();
+    DefaultUserData result = new DefaultUserData();
+    if (null == localZone) {
+      result.setLocalZone(config.getZone());
+    } else {
+      result.setLocalZone(localZone);
+    }
+    Map<String, List<String>> zoneMap = new HashMap<String, List<String>>();
+    Map<String, Long> segmentVersions = new HashMap<String, Long>();
+    for (Entry<String, SegmentData> segmentDataEntry : values) {
+      String segment = segmentDataEntry.getKey();
+
+      // only accept available segments, when available segments is empty accept all
+      if (CommonUtils.isNotEmpty(availableSegments) && !availableSegments.contains(segment)) {
+        continue;
       }
-      Map<String, List<String>> zoneMap = new HashMap<String, List<String>>();
-      for (Entry<String, SegmentData> segmentDataEntry : values) {
-        String segment = segmentDataEntry.getKey();
 
-        // only accept available segments, when available segments is empty accept all
-        if (CommonUtils.isNotEmpty(availableSegments) && !availableSegments.contains(segment)) {
-          continue;
-        }
+      SegmentData segmentData = segmentDataEntry.getValue();
 
-        SegmentData segmentData = segmentDataEntry.getValue();
+      if (null == segmentData) {
+        continue;
+      }
+      segmentVersions.put(segment, segmentData.getVersion());
 
-        if (null == segmentData) {
-          continue;
+      Map<String, List<DataBox>> data = segmentData.getData();
+      for (Entry<String, List<DataBox>> entry : data.entrySet()) {
+        String zone = entry.getKey();
+        List<String> resultList = zoneMap.get(zone);
+        if (null == resultList) {
+          resultList = new ArrayList<String>();
+          zoneMap.put(zone, resultList);
         }
-
-        Map<String, List<DataBox>> data = segmentData.getData();
-        for (Entry<String, List<DataBox>> entry : data.entrySet()) {
-          String zone = entry.getKey();
-          List<String> resultList = zoneMap.get(zone);
-          if (null == resultList) {
-            resultList = new ArrayList<String>();
-            zoneMap.put(zone, resultList);
-          }
-          List<DataBox> dataList = entry.getValue();
-          for (DataBox dataBox : dataList) {
-            resultList.add(dataBox.getData());
-          }
+        List<DataBox> dataList = entry.getValue();
+        for (DataBox dataBox : dataList) {
+          resultList.add(dataBox.getData());
         }
       }
-      userData.setZoneData(zoneMap);
-      return userData;
-    } finally {
-      readLock.unlock();
     }
+    for (Entry<String, List<String>> entry : zoneMap.entrySet()) {
+      entry.setValue(Collections.unmodifiableList(entry.getValue()));
+    }
+    result.setZoneData(Collections.unmodifiableMap(zoneMap));
+    result.setSegmentVersions(Collections.unmodifiableMap(segmentVersions));
+    return result;
   }
 
   /**
@@ -211,30 +234,39 @@ public class DefaultSubscriber extends AbstractInternalRegister implements Subsc
   public void putReceivedData(SegmentData segmentData, String localZone) {
     writeLock.lock();
     try {
-      putSegmentData(segmentData);
+      boolean changed = putSegmentData(segmentData);
+      if (null == localZone ? null != this.localZone : !localZone.equals(this.localZone)) {
+        changed = true;
+      }
       this.localZone = localZone;
+      // the stale version is skipped, the view is not rebuilt
+      if (changed || null == userData) {
+        userData = buildUserData();
+      }
     } finally {
       writeLock.unlock();
     }
   }
 
-  private void putSegmentData(SegmentData segmentData) {
+  private boolean putSegmentData(SegmentData segmentData) {
     if (null != segmentData) {
 
       SegmentData existsData = data.putIfAbsent(segmentData.getSegment(), segmentData);
       if (null == existsData) {
         init.compareAndSet(false, true);
-        return;
+        return true;
       }
 
       if (existsData.getVersion() < segmentData.getVersion()) {
         boolean result = data.replace(segmentData.getSegment(), existsData, segmentData);
         if (!result) {
-          putSegmentData(segmentData);
+          return putSegmentData(segmentData);
         }
         init.compareAndSet(false, true);
+        return true;
       }
     }
+    return false;
   }
 
   /**
@@ -294,6 +326,7 @@ public class DefaultSubscriber extends AbstractInternalRegister implements Subsc
       } else {
         this.availableSegments = new ArrayList<String>(availableSegments);
       }
+      userData = buildUserData();
     } finally {
       writeLock.unlock();
     }
@@ -17,6 +17,7 @@
 package com.alipay.sofa.registry.client.provider;
 
 import com.alipay.sofa.registry.client.api.model.UserData;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -33,6 +34,9 @@ public class DefaultUserData implements UserData {
   /** The current client`s zone */
   private String localZone;
 
+  /** segment, version of the segment data which the zone data built from */
+  private Map<String, Long> segmentVersions = Collections.emptyMap();
+
   /**
    * Getter method for property <tt>zoneData</tt>.
    *
@@ -71,6 +75,24 @@ public class DefaultUserData implements UserData {
     this.localZone = localZone;
   }
 
+  /**
+   * Getter method for property <tt>segmentVersions</tt>.
+   *
+   * @return property value of segmentVersions
+   */
+  public Map<String, Long> getSegmentVersions() {
+    return segmentVersions;
+  }
+
+  /**
+   * Setter method for property <tt>segmentVersions</tt>.
+   *
+   * @param segmentVersions value to be assigned to property segmentVersions
+   */
+  public void setSegmentVersions(Map<String, Long> segmentVersions) {
+    this.segmentVersions = segmentVersions;
+  }
+
   /**
    * To string string.
    *
@@ -78,6 +100,14 @@ public class DefaultUserData implements UserData {
    */
   @Override
   public String toString() {
-    return "DefaultUserData{" + "zoneData=" + zoneData + ", localZone='" + localZone + '\'' + '}';
+    return "DefaultUserData{"
+        + "zoneData="
+        + zoneData
+        + ", localZone='"
+        + localZone
+        + '\''
+        + ", segmentVersions="
+        + segmentVersions
+        + '}';
   }
 }
@@ -19,6 +19,7 @@ package com.alipay.sofa.registry.client.remoting;
 import com.alipay.remoting.Connection;
 import com.alipay.remoting.ConnectionEventProcessor;
 import com.alipay.remoting.ConnectionEventType;
+import com.alipay.remoting.InvokeCallback;
 import com.alipay.remoting.exception.RemotingException;
 import com.alipay.remoting.rpc.RpcClient;
 import com.alipay.remoting.rpc.protocol.UserProcessor;
@@ -166,6 +167,24 @@ public class ClientConnection implements Client {
     return client.invokeSync(clientConnection, request, config.getInvokeTimeout());
   }
 
+  /**
+   * Invoke with callback.
+   *
+   * @param request the request
+   * @param callback the callback
+   * @throws RemotingException the remoting exception
+   * @throws InterruptedException the interrupted exception
+   */
+  @Override
+  public void invokeWithCallback(Object request, InvokeCallback callback)
+      throws RemotingException, InterruptedException {
+    if (!isConnected()) {
+      throw new IllegalStateException("Not connected");
+    }
+
+    client.invokeWithCallback(clientConnection, request, callback, config.getInvokeTimeout());
+  }
+
   private void recycle(Connection connection) {
     if (null == connection) {
       return;
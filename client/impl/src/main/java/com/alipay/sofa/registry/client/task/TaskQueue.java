@@ -22,8 +22,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The type Task queue.
@@ -36,6 +39,11 @@ public class TaskQueue implements Iterable<TaskEvent> {
   private final ConcurrentMap<String, TaskEvent> taskMap =
       new ConcurrentHashMap<String, TaskEvent>();
 
+  /** Events waiting to be sent in schedule order, replaced or completed ones are skipped on poll */
+  private final Queue<TaskEvent> pending = new ConcurrentLinkedQueue<TaskEvent>();
+
+  private final AtomicInteger pendingSize = new AtomicInteger();
+
   /**
    * Iterator iterator.
    *
@@ -70,6 +78,7 @@ public class TaskQueue implements Iterable<TaskEvent> {
     Register register = event.getSource();
     String key = register.getRegistId();
     taskMap.put(key, event);
+    offer(event);
   }
 
   /**
@@ -91,4 +100,74 @@ public class TaskQueue implements Iterable<TaskEvent> {
   public boolean isEmpty() {
     return taskMap.isEmpty();
   }
+
+  /**
+   * Poll the next pending task event, skip the events which are replaced by a newer one or already
+   * synced, this keeps the queue incremental instead of sorting all the tasks on every round.
+   *
+   * @return the task event, null if no pending event
+   */
+  public TaskEvent poll() {
+    TaskEvent event;
+    while ((event = pending.poll()) != null) {
+      pendingSize.decrementAndGet();
+      String key = event.getSource().getRegistId();
+      if (taskMap.get(key) != event) {
+        continue;
+      }
+      if (isDone(event)) {
+        taskMap.remove(key, event);
+        continue;
+      }
+      return event;
+    }
+    return null;
+  }
+
+  /**
+   * Put back the polled task event, it is removed from the queue when synced, otherwise it waits to
+   * be resent.
+   *
+   * @param event the event
+   */
+  public void reschedule(TaskEvent event) {
+    String key = event.getSource().getRegistId();
+    if (taskMap.get(key) != event) {
+      return;
+    }
+    if (isDone(event)) {
+      taskMap.remove(key, event);
+      return;
+    }
+    offer(event);
+  }
+
+  /**
+   * Pending size int.
+   *
+   * @return the number of pending events, including the stale ones not polled yet
+   */
+  public int pendingSize() {
+    return pendingSize.get();
+  }
+
+  /**
+   * Has pending boolean.
+   *
+   * @return the boolean
+   */
+  public boolean hasPending() {
+    return !pending.isEmpty();
+  }
+
+  private void offer(TaskEvent event) {
+    pending.offer(event);
+    pendingSize.incrementAndGet();
+  }
+
+  private static boolean isDone(TaskEvent event) {
+    Register register = event.getSource();
+    return !(register instanceof AbstractInternalRegister)
+        || ((AbstractInternalRegister) register).isDone();
+  }
 }
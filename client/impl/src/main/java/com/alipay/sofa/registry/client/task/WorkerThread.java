@@ -16,16 +16,26 @@
  */
 package com.alipay.sofa.registry.client.task;
 
+import com.alipay.remoting.InvokeCallback;
+import com.alipay.remoting.rpc.exception.InvokeServerException;
 import com.alipay.sofa.registry.client.api.Register;
 import com.alipay.sofa.registry.client.api.RegistryClientConfig;
 import com.alipay.sofa.registry.client.log.LoggerFactory;
 import com.alipay.sofa.registry.client.provider.AbstractInternalRegister;
 import com.alipay.sofa.registry.client.provider.AbstractInternalRegister.SyncTask;
+import com.alipay.sofa.registry.client.provider.DefaultRegistryClientConfig;
 import com.alipay.sofa.registry.client.provider.RegisterCache;
 import com.alipay.sofa.registry.client.remoting.Client;
+import com.alipay.sofa.registry.core.model.BaseRegister;
+import com.alipay.sofa.registry.core.model.BatchRegisterRequest;
+import com.alipay.sofa.registry.core.model.BatchRegisterResponse;
 import com.alipay.sofa.registry.core.model.RegisterResponse;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 
@@ -38,6 +48,8 @@ import org.slf4j.Logger;
 public class WorkerThread extends AbstractWorkerThread {
   private static final Logger LOGGER = LoggerFactory.getLogger(WorkerThread.class);
 
+  private static final int RESEND_CHECK_INTERVAL = 100;
+
   /** Task queue */
   protected final TaskQueue requestQueue = new TaskQueue();
 
@@ -47,6 +59,17 @@ public class WorkerThread extends AbstractWorkerThread {
 
   private AtomicBoolean inited = new AtomicBoolean(false);
 
+  /** Bound the in-flight register requests when sending asynchronously */
+  private final Semaphore window;
+
+  /** The error message of the server which has no processor for the batch register request */
+  private static final String NO_PROCESSOR_MSG = "No user processor found";
+
+  /** Probe the batch register again after the backoff, the server may be upgraded */
+  private long batchRetryMillis = TimeUnit.MINUTES.toMillis(5);
+
+  private volatile long batchRetryTime;
+
   /**
    * Instantiates a new Worker thread.
    *
@@ -57,6 +80,7 @@ public class WorkerThread extends AbstractWorkerThread {
     super(client);
     this.config = config;
     this.registerCache = registerCache;
+    this.window = new Semaphore(Math.max(1, getRegisterWindowSize()));
     this.setName("RegistryWorkerThread");
     this.setDaemon(true);
   }
@@ -86,6 +110,7 @@ public class WorkerThread extends AbstractWorkerThread {
       this.start();
     }
     requestQueue.putAll(events);
+    signal();
   }
 
   /** Handle. */
@@ -97,98 +122,281 @@ public class WorkerThread extends AbstractWorkerThread {
         // check connection status, try to reconnect to the server when connection lose
         client.ensureConnected();
 
-        if (requestQueue.isEmpty()) {
+        if (!requestQueue.hasPending()) {
           await(config.getRecheckInterval());
           continue;
         }
 
-        Iterator<TaskEvent> lt = requestQueue.iterator();
-
-        while (lt.hasNext()) {
-          client.ensureConnected();
-          TaskEvent ev = lt.next();
-          lt.remove();
-          int sendCount = ev.incSendCount();
+        // only walk the events pending at the beginning of this round, the ones rescheduled
+        // during the round are handled in the next round
+        if (sendPending(requestQueue.pendingSize()) == 0) {
+          await(Math.min(config.getRecheckInterval(), RESEND_CHECK_INTERVAL));
+        }
+      } catch (Throwable e) {
+        LOGGER.error("[send] handle data error!", e);
+      }
+    }
+  }
 
-          // Resent needs delay when task event is not the first time to send.
-          if (sendCount != 0 && ev.delayTime() > 0) {
-            continue;
-          }
+  private int sendPending(int count) throws InterruptedException {
+    final int registerBatchSize = getRegisterBatchSize();
+    final boolean async = getRegisterWindowSize() > 1 || registerBatchSize > 1;
+    final int batchSize = isBatchSupported() ? Math.max(1, registerBatchSize) : 1;
+    List<TaskEvent> delayed = new ArrayList<TaskEvent>();
+    List<RegisterTask> batch = new ArrayList<RegisterTask>(batchSize);
+    int sent = 0;
+    try {
+      for (int i = 0; i < count; i++) {
+        client.ensureConnected();
+        TaskEvent ev = requestQueue.poll();
+        if (ev == null) {
+          break;
+        }
+        int sendCount = ev.incSendCount();
 
+        // Resent needs delay when task event is not the first time to send.
+        if (sendCount != 0 && ev.delayTime() > 0) {
+          delayed.add(ev);
+          continue;
+        }
+        sent++;
+        if (!async) {
           handleTask(ev);
+          requestQueue.reschedule(ev);
+          continue;
         }
+        RegisterTask task = assemblyTask(ev);
+        if (task == null) {
+          requestQueue.reschedule(ev);
+          continue;
+        }
+        batch.add(task);
+        if (batch.size() >= batchSize) {
+          invokeAsync(batch);
+          batch = new ArrayList<RegisterTask>(batchSize);
+        }
+      }
+      if (!batch.isEmpty()) {
+        invokeAsync(batch);
+      }
+    } finally {
+      for (TaskEvent ev : delayed) {
+        requestQueue.reschedule(ev);
+      }
+    }
+    return sent;
+  }
 
-        // Cleaning completed task, it will take more time when the registration number is large.
-        requestQueue.cleanCompletedTasks();
-      } catch (Throwable e) {
-        LOGGER.error("[send] handle data error!", e);
+  /**
+   * the batch and window sizes are only configurable by {@link DefaultRegistryClientConfig}, other
+   * implementations of {@link RegistryClientConfig} send the registers one by one
+   */
+  private int getRegisterBatchSize() {
+    if (config instanceof DefaultRegistryClientConfig) {
+      return ((DefaultRegistryClientConfig) config).getRegisterBatchSize();
+    }
+    return 1;
+  }
+
+  private int getRegisterWindowSize() {
+    if (config instanceof DefaultRegistryClientConfig) {
+      return ((DefaultRegistryClientConfig) config).getRegisterWindowSize();
+    }
+    return 1;
+  }
+
+  private RegisterTask assemblyTask(TaskEvent event) {
+    event.setTriggerTime(System.currentTimeMillis());
+    Register register = event.getSource();
+    if (!(register instanceof AbstractInternalRegister)) {
+      LOGGER.warn("[register] register type unknown, {}", register);
+      return null;
+    }
+    SyncTask syncTask = ((AbstractInternalRegister) register).assemblySyncTask();
+    if (syncTask.isDone()) {
+      LOGGER.info("[register] register already sync succeeded, {}", register);
+      return null;
+    }
+    return new RegisterTask(event, syncTask);
+  }
+
+  private void invokeAsync(final List<RegisterTask> tasks) throws InterruptedException {
+    if (tasks.size() > 1 && !isBatchSupported()) {
+      for (RegisterTask task : tasks) {
+        invokeAsync(Collections.singletonList(task));
+      }
+      return;
+    }
+    window.acquire();
+    final Object request;
+    if (tasks.size() == 1) {
+      request = tasks.get(0).syncTask.getRequest();
+    } else {
+      BatchRegisterRequest batchRequest = new BatchRegisterRequest();
+      for (RegisterTask task : tasks) {
+        batchRequest.add((BaseRegister) task.syncTask.getRequest());
       }
+      request = batchRequest;
+    }
+    try {
+      client.invokeWithCallback(
+          request,
+          new InvokeCallback() {
+            @Override
+            public void onResponse(Object result) {
+              try {
+                handleResult(tasks, request, result);
+              } catch (Throwable e) {
+                LOGGER.error("[send] handle response failed, {}", request, e);
+              } finally {
+                complete(tasks);
+              }
+            }
+
+            @Override
+            public void onException(Throwable e) {
+              try {
+                handleException(tasks, request, e);
+              } finally {
+                complete(tasks);
+              }
+            }
+
+            @Override
+            public Executor getExecutor() {
+              return null;
+            }
+          });
+    } catch (Throwable e) {
+      handleException(tasks, request, e);
+      complete(tasks);
     }
   }
 
+  private void handleResult(List<RegisterTask> tasks, Object request, Object result) {
+    if (!(request instanceof BatchRegisterRequest)) {
+      RegisterTask task = tasks.get(0);
+      handleResponse(task.event, task.syncTask, result);
+      return;
+    }
+    if (!(result instanceof BatchRegisterResponse)) {
+      LOGGER.warn("[register] batch result type is wrong, {}", result);
+      return;
+    }
+    List<RegisterResponse> responses = ((BatchRegisterResponse) result).getResponses();
+    if (responses == null || responses.size() != tasks.size()) {
+      LOGGER.warn("[register] batch result size mismatch, {}, {}", request, result);
+      return;
+    }
+    for (int i = 0; i < tasks.size(); i++) {
+      RegisterTask task = tasks.get(i);
+      handleResponse(task.event, task.syncTask, responses.get(i));
+    }
+  }
+
+  private void handleException(List<RegisterTask> tasks, Object request, Throwable e) {
+    if (request instanceof BatchRegisterRequest && isNoProcessor(e)) {
+      // the server does not know the batch request, register one by one until the backoff elapsed
+      batchRetryTime = System.currentTimeMillis() + batchRetryMillis;
+      LOGGER.warn("[register] batch register not supported by server, fallback, {}", request, e);
+      return;
+    }
+    LOGGER.error("[send] handle request failed, {}, size={}", request, tasks.size(), e);
+  }
+
+  private boolean isBatchSupported() {
+    return System.currentTimeMillis() >= batchRetryTime;
+  }
+
+  private static boolean isNoProcessor(Throwable e) {
+    return e instanceof InvokeServerException
+        && e.getMessage() != null
+        && e.getMessage().contains(NO_PROCESSOR_MSG);
+  }
+
+  /**
+   * Setter method for property <tt>batchRetryMillis</tt>.
+   *
+   * @param batchRetryMillis value to be assigned to property batchRetryMillis
+   */
+  void setBatchRetryMillis(long batchRetryMillis) {
+    this.batchRetryMillis = batchRetryMillis;
+  }
+
+  private void complete(List<RegisterTask> tasks) {
+    window.release();
+    for (RegisterTask task : tasks) {
+      requestQueue.reschedule(task.event);
+    }
+    signal();
+  }
+
   private void handleTask(TaskEvent event) {
     if (null == event) {
       return;
     }
 
     try {
-      event.setTriggerTime(System.currentTimeMillis());
-      Register register = event.getSource();
-
-      if (!(register instanceof AbstractInternalRegister)) {
-        LOGGER.warn("[register] register type unknown, {}", register);
+      RegisterTask task = assemblyTask(event);
+      if (task == null) {
         return;
       }
+      Object result = client.invokeSync(task.syncTask.getRequest());
+      handleResponse(event, task.syncTask, result);
+    } catch (Exception e) {
+      LOGGER.error("[send] handle request failed, {}", event, e);
+    }
+  }
 
-      AbstractInternalRegister abstractInternalRegister = (AbstractInternalRegister) register;
-
-      SyncTask syncTask = abstractInternalRegister.assemblySyncTask();
-      String requestId = syncTask.getRequestId();
+  private void handleResponse(TaskEvent event, SyncTask syncTask, Object result) {
+    Register register = event.getSource();
+    AbstractInternalRegister abstractInternalRegister = (AbstractInternalRegister) register;
+    String requestId = syncTask.getRequestId();
+    Object request = syncTask.getRequest();
 
-      if (syncTask.isDone()) {
-        LOGGER.info("[register] register already sync succeeded, {}", register);
-        return;
-      }
+    if (!(result instanceof RegisterResponse)) {
+      LOGGER.warn("[register] result type is wrong, {}", result);
+      return;
+    }
 
-      Object request = syncTask.getRequest();
+    RegisterResponse response = (RegisterResponse) result;
+    if (!response.isSuccess()) {
+      LOGGER.info("[register] register to server failed, {}, {}", request, response);
+      return;
+    }
 
-      Object result = client.invokeSync(request);
+    boolean syncOK =
+        abstractInternalRegister.syncOK(requestId, response.getVersion(), response.isRefused());
+    if (!syncOK) {
+      LOGGER.info(
+          "[register] requestId has expired, ignore this response, {}, {}, {}",
+          requestId,
+          request,
+          response);
+      return;
+    }
 
-      if (!(result instanceof RegisterResponse)) {
-        LOGGER.warn("[register] result type is wrong, {}", result);
-        return;
-      }
+    if (!register.isEnabled()) {
+      registerCache.remove(register.getRegistId());
+    }
 
-      RegisterResponse response = (RegisterResponse) result;
-      if (!response.isSuccess()) {
-        LOGGER.info("[register] register to server failed, {}, {}", request, response);
-        return;
-      }
+    if (response.isRefused()) {
+      LOGGER.info(
+          "[register] register refused by server, {}, {}, {}", requestId, request, response);
+    } else {
+      LOGGER.info(
+          "[register] register to server success, {}, {}, {}", requestId, request, response);
+    }
+  }
 
-      boolean syncOK =
-          abstractInternalRegister.syncOK(requestId, response.getVersion(), response.isRefused());
-      if (!syncOK) {
-        LOGGER.info(
-            "[register] requestId has expired, ignore this response, {}, {}, {}",
-            requestId,
-            request,
-            response);
-        return;
-      }
+  private static final class RegisterTask {
+    final TaskEvent event;
 
-      if (!register.isEnabled()) {
-        registerCache.remove(register.getRegistId());
-      }
+    final SyncTask syncTask;
 
-      if (response.isRefused()) {
-        LOGGER.info(
-            "[register] register refused by server, {}, {}, {}", requestId, request, response);
-      } else {
-        LOGGER.info(
-            "[register] register to server success, {}, {}, {}", requestId, request, response);
-      }
-    } catch (Exception e) {
-      LOGGER.error("[send] handle request failed, {}", event, e);
+    RegisterTask(TaskEvent event, SyncTask syncTask) {
+      this.event = event;
+      this.syncTask = syncTask;
     }
   }
 }
@@ -17,8 +17,11 @@
 package com.alipay.sofa.registry.client.provider;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import com.alipay.sofa.registry.client.api.model.UserData;
 import com.alipay.sofa.registry.client.model.SegmentData;
@@ -233,6 +236,61 @@ public class DefaultSubscriberTest {
     assertZoneDataEquals(expectedMap8, userData10.getZoneData());
   }
 
+  @Test
+  public void testPeekDataCached() {
+    DefaultRegistryClientConfig config = DefaultRegistryClientConfigBuilder.start().build();
+    DefaultSubscriber defaultSubscriber = new DefaultSubscriber(null, null, config);
+
+    Map<String, List<DataBox>> map1 = new HashMap<String, List<DataBox>>();
+    addToDataBoxMap(map1, ZHEJIANG, HANGZHOU);
+    SegmentData sd1 = new SegmentData();
+    sd1.setSegment(segmentA);
+    sd1.setVersion(1L);
+    sd1.setData(map1);
+    defaultSubscriber.putReceivedData(sd1, ZHEJIANG);
+
+    UserData userData1 = defaultSubscriber.peekData();
+    assertSame(userData1, defaultSubscriber.peekData());
+    assertEquals(
+        Collections.singletonMap(segmentA, 1L), ((DefaultUserData) userData1).getSegmentVersions());
+    try {
+      userData1.getZoneData().get(ZHEJIANG).add(NINGBO);
+      fail();
+    } catch (UnsupportedOperationException e) {
+      // the view is shared
+    }
+
+    // stale version, the view is not rebuilt
+    defaultSubscriber.putReceivedData(sd1, ZHEJIANG);
+    assertSame(userData1, defaultSubscriber.peekData());
+
+    // the local zone changed
+    defaultSubscriber.putReceivedData(sd1, JIANGSU);
+    UserData userData2 = defaultSubscriber.peekData();
+    assertNotSame(userData1, userData2);
+    assertEquals(JIANGSU, userData2.getLocalZone());
+    assertZoneDataEquals(userData1.getZoneData(), userData2.getZoneData());
+
+    Map<String, List<DataBox>> map2 = new HashMap<String, List<DataBox>>();
+    addToDataBoxMap(map2, ZHEJIANG, NINGBO);
+    SegmentData sd2 = new SegmentData();
+    sd2.setSegment(segmentA);
+    sd2.setVersion(2L);
+    sd2.setData(map2);
+    defaultSubscriber.putReceivedData(sd2, JIANGSU);
+    UserData userData3 = defaultSubscriber.peekData();
+    assertNotSame(userData2, userData3);
+    assertEquals(
+        Collections.singletonMap(segmentA, 2L), ((DefaultUserData) userData3).getSegmentVersions());
+    Map<String, List<String>> expectedMap = new HashMap<String, List<String>>();
+    addToStringMap(expectedMap, ZHEJIANG, NINGBO);
+    assertZoneDataEquals(expectedMap, userData3.getZoneData());
+
+    defaultSubscriber.setAvailableSegments(Collections.singletonList(segmentB));
+    assertTrue(defaultSubscriber.peekData().getZoneData().isEmpty());
+    assertTrue(((DefaultUserData) defaultSubscriber.peekData()).getSegmentVersions().isEmpty());
+  }
+
   private void addToDataBoxMap(Map<String, List<DataBox>> map, String key, String... values) {
     List<DataBox> list = map.get(key);
     if (list == null) {
@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.client.task;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.alipay.remoting.InvokeCallback;
+import com.alipay.remoting.rpc.exception.InvokeServerException;
+import com.alipay.sofa.registry.client.api.RegistryClientConfig;
+import com.alipay.sofa.registry.client.provider.AbstractInternalRegister;
+import com.alipay.sofa.registry.client.provider.DefaultRegistryClientConfig;
+import com.alipay.sofa.registry.client.provider.DefaultRegistryClientConfigBuilder;
+import com.alipay.sofa.registry.client.provider.RegisterCache;
+import com.alipay.sofa.registry.client.remoting.Client;
+import com.alipay.sofa.registry.core.model.BaseRegister;
+import com.alipay.sofa.registry.core.model.BatchRegisterRequest;
+import com.alipay.sofa.registry.core.model.BatchRegisterResponse;
+import com.alipay.sofa.registry.core.model.PublisherRegister;
+import com.alipay.sofa.registry.core.model.RegisterResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class WorkerThreadTest {
+  private static final String NO_PROCESSOR =
+      "Server exception! ServerErrorMsg:No user processor found for request: "
+          + BatchRegisterRequest.class.getName();
+
+  @Test
+  public void testSync() throws Exception {
+    DefaultRegistryClientConfig config = DefaultRegistryClientConfigBuilder.start().build();
+    Client client = mock(Client.class);
+    when(client.invokeSync(anyObject()))
+        .thenAnswer(
+            new Answer<Object>() {
+              @Override
+              public Object answer(InvocationOnMock invocation) {
+                return response((BaseRegister) invocation.getArguments()[0]);
+              }
+            });
+    List<TestRegister> registers = schedule(new WorkerThread(client, config, new RegisterCache()));
+    waitDone(registers);
+    verify(client, times(registers.size())).invokeSync(anyObject());
+    verify(client, never()).invokeWithCallback(anyObject(), any(InvokeCallback.class));
+  }
+
+  @Test
+  public void testCustomConfig() throws Exception {
+    // the registers are sent one by one with the configs other than the default one
+    RegistryClientConfig config = mock(RegistryClientConfig.class);
+    when(config.getRecheckInterval()).thenReturn(100);
+    Client client = mock(Client.class);
+    when(client.invokeSync(anyObject()))
+        .thenAnswer(
+            new Answer<Object>() {
+              @Override
+              public Object answer(InvocationOnMock invocation) {
+                return response((BaseRegister) invocation.getArguments()[0]);
+              }
+            });
+    List<TestRegister> registers = schedule(new WorkerThread(client, config, new RegisterCache()));
+    waitDone(registers);
+    verify(client, times(registers.size())).invokeSync(anyObject());
+    verify(client, never()).invokeWithCallback(anyObject(), any(InvokeCallback.class));
+  }
+
+  @Test
+  public void testBatch() throws Exception {
+    DefaultRegistryClientConfig config =
+        DefaultRegistryClientConfigBuilder.start()
+            .setRegisterBatchSize(10)
+            .setRegisterWindowSize(2)
+            .build();
+    Client client = mock(Client.class);
+    final AtomicInteger batchCount = new AtomicInteger();
+    doAnswer(
+            new Answer<Object>() {
+              @Override
+              public Object answer(InvocationOnMock invocation) {
+                Object request = invocation.getArguments()[0];
+                InvokeCallback callback = (InvokeCallback) invocation.getArguments()[1];
+                if (request instanceof BatchRegisterRequest) {
+                  batchCount.incrementAndGet();
+                  List<RegisterResponse> responses = new ArrayList<RegisterResponse>();
+                  for (BaseRegister register : ((BatchRegisterRequest) request).getRequests()) {
+                    responses.add(response(register));
+                  }
+                  callback.onResponse(new BatchRegisterResponse(responses));
+                } else {
+                  callback.onResponse(response((BaseRegister) request));
+                }
+                return null;
+              }
+            })
+        .when(client)
+        .invokeWithCallback(anyObject(), any(InvokeCallback.class));
+
+    List<TestRegister> registers = schedule(new WorkerThread(client, config, new RegisterCache()));
+    waitDone(registers);
+    verify(client, never()).invokeSync(anyObject());
+    Assert.assertTrue(batchCount.get() >= 1);
+  }
+
+  @Test
+  public void testBatchFallback() throws Exception {
+    DefaultRegistryClientConfig config =
+        DefaultRegistryClientConfigBuilder.start()
+            .setRegisterBatchSize(10)
+            .setRegisterWindowSize(2)
+            .build();
+    Client client = mock(Client.class);
+    final AtomicInteger batchCount = new AtomicInteger();
+    doAnswer(
+            new Answer<Object>() {
+              @Override
+              public Object answer(InvocationOnMock invocation) {
+                Object request = invocation.getArguments()[0];
+                InvokeCallback callback = (InvokeCallback) invocation.getArguments()[1];
+                if (request instanceof BatchRegisterRequest) {
+                  batchCount.incrementAndGet();
+                  callback.onException(new InvokeServerException(NO_PROCESSOR));
+                } else {
+                  callback.onResponse(response((BaseRegister) request));
+                }
+                return null;
+              }
+            })
+        .when(client)
+        .invokeWithCallback(anyObject(), any(InvokeCallback.class));
+
+    List<TestRegister> registers = schedule(new WorkerThread(client, config, new RegisterCache()));
+    waitDone(registers);
+    Assert.assertEquals(1, batchCount.get());
+  }
+
+  @Test
+  public void testBatchReprobe() throws Exception {
+    assertBatchRetried(NO_PROCESSOR, 0);
+    // other server errors do not fallback
+    assertBatchRetried("Server exception! Please check the server log", 60000);
+  }
+
+  private static void assertBatchRetried(final String errorMsg, long batchRetryMillis)
+      throws Exception {
+    DefaultRegistryClientConfig config =
+        DefaultRegistryClientConfigBuilder.start()
+            .setRegisterBatchSize(10)
+            .setRegisterWindowSize(1)
+            .build();
+    Client client = mock(Client.class);
+    final AtomicInteger batchCount = new AtomicInteger();
+    doAnswer(
+            new Answer<Object>() {
+              @Override
+              public Object answer(InvocationOnMock invocation) {
+                Object request = invocation.getArguments()[0];
+                InvokeCallback callback = (InvokeCallback) invocation.getArguments()[1];
+                if (request instanceof BatchRegisterRequest) {
+                  if (batchCount.incrementAndGet() == 1) {
+                    callback.onException(new InvokeServerException(errorMsg));
+                    return null;
+                  }
+                  List<RegisterResponse> responses = new ArrayList<RegisterResponse>();
+                  for (BaseRegister register : ((BatchRegisterRequest) request).getRequests()) {
+                    responses.add(response(register));
+                  }
+                  callback.onResponse(new BatchRegisterResponse(responses));
+                } else {
+                  callback.onResponse(response((BaseRegister) request));
+                }
+                return null;
+              }
+            })
+        .when(client)
+        .invokeWithCallback(anyObject(), any(InvokeCallback.class));
+
+    WorkerThread workerThread = new WorkerThread(client, config, new RegisterCache());
+    workerThread.setBatchRetryMillis(batchRetryMillis);
+    List<TestRegister> registers = schedule(workerThread);
+    waitDone(registers);
+    Assert.assertTrue(batchCount.get() > 1);
+  }
+
+  @Test
+  public void testTaskQueue() {
+    TaskQueue queue = new TaskQueue();
+    TestRegister register = new TestRegister("r1");
+    TaskEvent event1 = new TaskEvent(register);
+    TaskEvent event2 = new TaskEvent(register);
+    queue.put(event1);
+    queue.put(event2);
+    Assert.assertEquals(2, queue.pendingSize());
+    // event1 is replaced by event2
+    Assert.assertSame(event2, queue.poll());
+    Assert.assertNull(queue.poll());
+    Assert.assertFalse(queue.hasPending());
+
+    queue.reschedule(event2);
+    Assert.assertTrue(queue.hasPending());
+    Assert.assertSame(event2, queue.poll());
+
+    register.syncOK(
+        register.assemblySyncTask().getRequestId(), register.getPubVersion().get(), false);
+    Assert.assertTrue(register.isDone());
+    queue.reschedule(event2);
+    Assert.assertFalse(queue.hasPending());
+    Assert.assertTrue(queue.isEmpty());
+  }
+
+  private static List<TestRegister> schedule(WorkerThread workerThread) {
+    List<TestRegister> registers = new ArrayList<TestRegister>();
+    List<TaskEvent> events = new ArrayList<TaskEvent>();
+    for (int i = 0; i < 25; i++) {
+      TestRegister register = new TestRegister("register-" + i);
+      registers.add(register);
+      events.add(new TaskEvent(register));
+    }
+    workerThread.schedule(events.remove(0));
+    workerThread.schedule(events);
+    return registers;
+  }
+
+  private static void waitDone(List<TestRegister> registers) throws InterruptedException {
+    for (int i = 0; i < 100; i++) {
+      boolean done = true;
+      for (TestRegister register : registers) {
+        if (!register.isDone()) {
+          done = false;
+          break;
+        }
+      }
+      if (done) {
+        return;
+      }
+      Thread.sleep(100);
+    }
+    Assert.fail("registers not done");
+  }
+
+  private static RegisterResponse response(BaseRegister register) {
+    RegisterResponse response = new RegisterResponse();
+    response.setSuccess(true);
+    response.setRegistId(register.getRegistId());
+    response.setVersion(register.getVersion());
+    return response;
+  }
+
+  private static final class TestRegister extends AbstractInternalRegister {
+    private final String registId;
+
+    TestRegister(String registId) {
+      this.registId = registId;
+    }
+
+    @Override
+    public Object assembly() {
+      PublisherRegister register = new PublisherRegister();
+      register.setRegistId(registId);
+      register.setVersion(getPubVersion().get());
+      return register;
+    }
+
+    @Override
+    public String getDataId() {
+      return "dataId";
+    }
+
+    @Override
+    public String getGroup() {
+      return "group";
+    }
+
+    @Override
+    public String getRegistId() {
+      return registId;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.core.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Carries several publisher/subscriber/configurator registers to the session server in one round
+ * trip, the responses are returned in the same order by {@link BatchRegisterResponse}.
+ */
+public class BatchRegisterRequest implements Serializable {
+
+  private static final long serialVersionUID = 4713590466213391086L;
+
+  private List<BaseRegister> requests;
+
+  /** Instantiates a new Batch register request. */
+  public BatchRegisterRequest() {
+    this.requests = new ArrayList<BaseRegister>();
+  }
+
+  /**
+   * Instantiates a new Batch register request.
+   *
+   * @param requests the requests
+   */
+  public BatchRegisterRequest(List<BaseRegister> requests) {
+    this.requests = requests;
+  }
+
+  /**
+   * Add a register to the batch.
+   *
+   * @param request the request
+   */
+  public void add(BaseRegister request) {
+    requests.add(request);
+  }
+
+  /**
+   * Getter method for property <tt>requests</tt>.
+   *
+   * @return property value of requests
+   */
+  public List<BaseRegister> getRequests() {
+    return requests;
+  }
+
+  /**
+   * Setter method for property <tt>requests</tt>.
+   *
+   * @param requests value to be assigned to property requests
+   */
+  public void setRequests(List<BaseRegister> requests) {
+    this.requests = requests;
+  }
+
+  /**
+   * To string string.
+   *
+   * @return the string
+   */
+  @Override
+  public String toString() {
+    return "BatchRegisterRequest{" + "size=" + (requests == null ? 0 : requests.size()) + '}';
+  }
+}
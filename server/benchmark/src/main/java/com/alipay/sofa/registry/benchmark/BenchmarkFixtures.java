@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.benchmark;
+
+import com.alipay.sofa.registry.common.model.ProcessId;
+import com.alipay.sofa.registry.common.model.PublishSource;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.core.model.DataBox;
+import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * the fixtures of the benchmarks, all the data is generated by the fixed seed, so the runs on
+ * different releases or hardware are comparable
+ */
+public final class BenchmarkFixtures {
+  private BenchmarkFixtures() {}
+
+  public static final long SEED = 0x5eed_2021L;
+
+  public static final String DATA_CENTER = "DefaultDataCenter";
+
+  public static final String CELL = "RZ00A";
+
+  public static final ProcessId SESSION_PROCESS_ID =
+      new ProcessId("10.0.0.1", 1600000000000L, 1000, 1);
+
+  private static final String[] METHODS = {
+    "sayHello", "query", "queryById", "update", "delete", "batchQuery", "ping", "getVersion"
+  };
+
+  public static Random newRandom() {
+    return new Random(SEED);
+  }
+
+  public static String dataInfoId(int index) {
+    return DataInfo.toDataInfoId(
+        "com.alipay.sofa.registry.benchmark.service.BenchService" + index + ":1.0",
+        "DEFAULT_INSTANCE_ID",
+        "SOFA");
+  }
+
+  public static List<String> dataInfoIds(int count) {
+    List<String> list = Lists.newArrayListWithCapacity(count);
+    for (int i = 0; i < count; i++) {
+      list.add(dataInfoId(i));
+    }
+    return list;
+  }
+
+  public static String clientAddress(int index) {
+    return "11." + ((index >> 16) & 0xff) + "." + ((index >> 8) & 0xff) + "." + (index & 0xff);
+  }
+
+  /** a provider url of the typical size, about 300 bytes */
+  public static String providerUrl(Random random, String dataInfoId, int index) {
+    StringBuilder sb = new StringBuilder(384);
+    sb.append(clientAddress(index))
+        .append(":12200?_TIMEOUT=3000&p=1&_SERIALIZETYPE=hessian2&app_name=benchApp")
+        .append(random.nextInt(64))
+        .append("&v=4.0&_CONNECTTIMEOUT=1000&zone=")
+        .append(CELL)
+        .append("&_WARMUPTIME=0&_WARMUPWEIGHT=10&_WEIGHT=100&startTime=")
+        .append(1600000000000L + random.nextInt(1000000))
+        .append("&interface=")
+        .append(DataInfo.valueOf(dataInfoId).getDataId())
+        .append("&methods=");
+    final int methods = 1 + random.nextInt(METHODS.length);
+    for (int i = 0; i < methods; i++) {
+      if (i != 0) {
+        sb.append(',');
+      }
+      sb.append(METHODS[i]);
+    }
+    return sb.toString();
+  }
+
+  public static Publisher newPublisher(String dataInfoId, String registerId, String data) {
+    DataInfo dataInfo = DataInfo.valueOf(dataInfoId);
+    Publisher publisher = new Publisher();
+    publisher.setDataInfoId(dataInfoId);
+    publisher.setDataId(dataInfo.getDataId());
+    publisher.setInstanceId(dataInfo.getInstanceId());
+    publisher.setGroup(dataInfo.getGroup());
+    publisher.setRegisterId(registerId);
+    publisher.setCell(CELL);
+    publisher.setClientId("benchClient");
+    publisher.setAppName("benchApp");
+    publisher.setSessionProcessId(SESSION_PROCESS_ID);
+    publisher.setRegisterTimestamp(1600000000000L);
+    publisher.setVersion(1);
+    publisher.setSourceAddress(new URL("11.0.0.1", 12200));
+    publisher.setTargetAddress(new URL(SESSION_PROCESS_ID.getHostAddress(), 9600));
+    if (data != null) {
+      publisher.setDataList(
+          Collections.singletonList(new ServerDataBox(ServerDataBox.getBytes(data))));
+    }
+    return publisher;
+  }
+
+  /** republish the publisher with the version */
+  public static Publisher republish(Publisher publisher, long version) {
+    Publisher republish = newPublisher(publisher.getDataInfoId(), publisher.getRegisterId(), null);
+    republish.setDataList(publisher.getDataList());
+    republish.setVersion(version);
+    return republish;
+  }
+
+  public static List<Publisher> publishers(String dataInfoId, int count) {
+    final Random random = newRandom();
+    List<Publisher> list = Lists.newArrayListWithCapacity(count);
+    for (int i = 0; i < count; i++) {
+      list.add(newPublisher(dataInfoId, "benchPublisher-" + i, providerUrl(random, dataInfoId, i)));
+    }
+    return list;
+  }
+
+  public static List<SubPublisher> subPublishers(String dataInfoId, int count) {
+    final Random random = newRandom();
+    List<SubPublisher> list = Lists.newArrayListWithCapacity(count);
+    for (int i = 0; i < count; i++) {
+      list.add(
+          new SubPublisher(
+              "benchPublisher-" + i,
+              CELL,
+              Collections.singletonList(
+                  new ServerDataBox(ServerDataBox.getBytes(providerUrl(random, dataInfoId, i)))),
+              "benchClient",
+              1,
+              clientAddress(i) + ":12200",
+              1600000000000L,
+              PublishSource.CLIENT));
+    }
+    return list;
+  }
+
+  public static ReceivedData receivedData(String dataInfoId, int count) {
+    final Random random = newRandom();
+    List<DataBox> boxes = Lists.newArrayListWithCapacity(count);
+    for (int i = 0; i < count; i++) {
+      boxes.add(new DataBox(providerUrl(random, dataInfoId, i)));
+    }
+    DataInfo dataInfo = DataInfo.valueOf(dataInfoId);
+    Map<String, List<DataBox>> data = Collections.singletonMap(CELL, boxes);
+    ReceivedData receivedData =
+        new ReceivedData(
+            dataInfo.getDataId(),
+            dataInfo.getGroup(),
+            dataInfo.getInstanceId(),
+            CELL,
+            Collections.singletonList("benchSubscriber"),
+            data,
+            1L);
+    receivedData.setLocalZone(CELL);
+    receivedData.setScope(ScopeEnum.zone.name());
+    return receivedData;
+  }
+}
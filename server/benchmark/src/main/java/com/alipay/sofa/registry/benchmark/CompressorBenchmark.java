@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.benchmark;
+
+import com.alipay.sofa.registry.common.model.store.SubPublisherList;
+import com.alipay.sofa.registry.compress.CompressUtils;
+import com.alipay.sofa.registry.compress.Compressor;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** compress the serialized publishers of a datum, as the push of the session does */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressorBenchmark {
+
+  @Param({"gzip", "zstd"})
+  String encoding;
+
+  @Param({"100", "1000", "5000"})
+  int pubCount;
+
+  Compressor compressor;
+
+  byte[] data;
+
+  byte[] compressed;
+
+  @Setup
+  public void setup() throws Exception {
+    this.compressor = CompressUtils.mustGet(encoding);
+    this.data =
+        DatumUtils.serializer.serialize(
+            new SubPublisherList(
+                BenchmarkFixtures.subPublishers(BenchmarkFixtures.dataInfoId(0), pubCount)));
+    this.compressed = compressor.compress(data);
+  }
+
+  @Benchmark
+  public byte[] compress() throws Exception {
+    return compressor.compress(data);
+  }
+
+  @Benchmark
+  public byte[] decompress() throws Exception {
+    return compressor.decompress(compressed, data.length);
+  }
+}
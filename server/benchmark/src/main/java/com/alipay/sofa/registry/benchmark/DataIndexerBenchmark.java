@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.benchmark;
+
+import com.alipay.sofa.registry.common.model.ConnectId;
+import com.alipay.sofa.registry.server.session.store.DataIndexer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** the index of the connections, most of the adds are the re-registrations of the clients */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataIndexerBenchmark {
+  private static final int REGISTERS_PER_CONNECT = 4;
+
+  @Param({"1000", "100000"})
+  int connCount;
+
+  DataIndexer<ConnectId, String> indexer;
+
+  ConnectId[] connectIds;
+
+  String[] registerIds;
+
+  int index;
+
+  @Setup
+  public void setup() {
+    this.connectIds = new ConnectId[connCount];
+    this.registerIds = new String[connCount * REGISTERS_PER_CONNECT];
+    for (int i = 0; i < connCount; i++) {
+      connectIds[i] = ConnectId.of(BenchmarkFixtures.clientAddress(i) + ":12200", "10.0.0.1:9600");
+    }
+    for (int i = 0; i < registerIds.length; i++) {
+      registerIds[i] = "benchRegister-" + i;
+    }
+    this.indexer =
+        new DataIndexer<ConnectId, String>("BenchIndexer") {
+          @Override
+          protected void dataStoreForEach(BiConsumer<ConnectId, String> consumer) {
+            for (int i = 0; i < registerIds.length; i++) {
+              consumer.accept(connectIds[i % connCount], registerIds[i]);
+            }
+          }
+        };
+    for (int i = 0; i < registerIds.length; i++) {
+      add(i);
+    }
+  }
+
+  private Object add(int i) {
+    return indexer.add(connectIds[i % connCount], registerIds[i], () -> null);
+  }
+
+  @Benchmark
+  public Object add() {
+    index = (index + 1) % registerIds.length;
+    return add(index);
+  }
+
+  @Benchmark
+  public Object queryByKey() {
+    index = (index + 1) % connCount;
+    return indexer.queryByKey(connectIds[index]);
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.benchmark;
+
+import com.alipay.sofa.registry.common.model.client.pb.ReceivedDataPb;
+import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.remoting.bolt.serializer.ProtobufSerializer;
+import com.alipay.sofa.registry.server.session.converter.pb.ReceivedDataConvertor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** the convert and the codec of the pushed data of the pb clients */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProtobufSerializerBenchmark {
+
+  @Param({"10", "100", "1000", "5000"})
+  int pubCount;
+
+  final ProtobufSerializer serializer = ProtobufSerializer.getInstance();
+
+  ReceivedData receivedData;
+
+  ReceivedDataPb receivedDataPb;
+
+  byte[] bytes;
+
+  @Setup
+  public void setup() throws Exception {
+    this.receivedData = BenchmarkFixtures.receivedData(BenchmarkFixtures.dataInfoId(0), pubCount);
+    this.receivedDataPb = ReceivedDataConvertor.convert2Pb(receivedData);
+    this.bytes = serializer.serialize(receivedDataPb);
+  }
+
+  @Benchmark
+  public ReceivedDataPb convert() {
+    return ReceivedDataConvertor.convert2Pb(receivedData);
+  }
+
+  @Benchmark
+  public byte[] encode() throws Exception {
+    return serializer.serialize(receivedDataPb);
+  }
+
+  @Benchmark
+  public Object decode() throws Exception {
+    return serializer.decode(bytes, ReceivedDataPb.class);
+  }
+
+  @Benchmark
+  public Object deserialize() throws Exception {
+    // the path of bolt, lookup the class by name
+    return serializer.deserialize(bytes, ReceivedDataPb.class.getName());
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.benchmark.BenchmarkFixtures;
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** in the package of PublisherGroup to access the package-private methods */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PublisherGroupBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  int pubCount;
+
+  PublisherGroup group;
+
+  List<Publisher> publishers;
+
+  long version;
+
+  int index;
+
+  @Setup
+  public void setup() {
+    final String dataInfoId = BenchmarkFixtures.dataInfoId(0);
+    this.publishers = BenchmarkFixtures.publishers(dataInfoId, pubCount);
+    this.group = new PublisherGroup(dataInfoId, BenchmarkFixtures.DATA_CENTER);
+    for (Publisher publisher : publishers) {
+      group.addPublisher(publisher);
+    }
+    this.version = 1;
+  }
+
+  /** republish one of the publishers with a higher version, the size of the group is stable */
+  @Benchmark
+  public DatumVersion addPublisher() {
+    index = (index + 1) % pubCount;
+    return group.addPublisher(BenchmarkFixtures.republish(publishers.get(index), ++version));
+  }
+
+  @Benchmark
+  public Datum toDatum() {
+    return group.toDatum();
+  }
+}
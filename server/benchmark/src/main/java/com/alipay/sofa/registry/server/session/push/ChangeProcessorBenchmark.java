@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.push;
+
+import com.alipay.sofa.registry.benchmark.BenchmarkFixtures;
+import com.alipay.sofa.registry.util.ConcurrentUtils;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** the data changes of the keys are committed concurrently while the worker is consuming */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChangeProcessorBenchmark {
+
+  @Param({"1000", "100000"})
+  int keyCount;
+
+  ChangeProcessor.Worker worker;
+
+  ChangeProcessor.ChangeKey[] keys;
+
+  final AtomicLong version = new AtomicLong();
+
+  final ChangeProcessor.ChangeHandler handler = (dataInfoId, changeCtx) -> true;
+
+  @State(Scope.Thread)
+  public static class KeySequence {
+    final Random random = BenchmarkFixtures.newRandom();
+  }
+
+  @Setup
+  public void setup() {
+    this.keys = new ChangeProcessor.ChangeKey[keyCount];
+    for (int i = 0; i < keyCount; i++) {
+      keys[i] =
+          new ChangeProcessor.ChangeKey(
+              BenchmarkFixtures.DATA_CENTER, BenchmarkFixtures.dataInfoId(i));
+    }
+    this.worker = new ChangeProcessor.Worker(1000, 3000);
+    ConcurrentUtils.createDaemonThread("BenchChangeWorker", worker).start();
+  }
+
+  @TearDown
+  public void tearDown() {
+    worker.close();
+  }
+
+  private boolean commit(KeySequence sequence) {
+    final ChangeProcessor.ChangeKey key = keys[sequence.random.nextInt(keyCount)];
+    return worker.commitChange(
+        key,
+        handler,
+        new TriggerPushContext(
+            key.dataCenter, version.incrementAndGet(), null, System.currentTimeMillis()));
+  }
+
+  @Benchmark
+  @Threads(1)
+  public boolean commitChange(KeySequence sequence) {
+    return commit(sequence);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public boolean commitChangeContended(KeySequence sequence) {
+    return commit(sequence);
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.push;
+
+import com.alipay.sofa.registry.benchmark.BenchmarkFixtures;
+import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.common.model.store.PushData;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.Subscriber;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** buffer the push tasks of the subscribers, most of them replace the buffered one */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PushTaskBufferBenchmark {
+
+  @Param({"1000", "10000"})
+  int subscriberCount;
+
+  @Param({"false", "true"})
+  boolean timingWheel;
+
+  PushTaskBuffer buffer;
+
+  Map<String, Subscriber>[] subscriberMaps;
+
+  InetSocketAddress[] addresses;
+
+  long version;
+
+  int index;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    this.buffer = new PushTaskBuffer(4, timingWheel);
+    this.subscriberMaps = new Map[subscriberCount];
+    this.addresses = new InetSocketAddress[subscriberCount];
+    for (int i = 0; i < subscriberCount; i++) {
+      final String dataInfoId = BenchmarkFixtures.dataInfoId(i);
+      final DataInfo dataInfo = DataInfo.valueOf(dataInfoId);
+      Subscriber subscriber = new Subscriber();
+      subscriber.setDataInfoId(dataInfoId);
+      subscriber.setDataId(dataInfo.getDataId());
+      subscriber.setInstanceId(dataInfo.getInstanceId());
+      subscriber.setGroup(dataInfo.getGroup());
+      subscriber.setRegisterId("benchSubscriber-" + i);
+      subscriber.setScope(ScopeEnum.zone);
+      subscriber.setCell(BenchmarkFixtures.CELL);
+      subscriber.setAppName("benchApp");
+      subscriber.setSourceAddress(new URL(BenchmarkFixtures.clientAddress(i), 12200));
+      subscriberMaps[i] = Collections.singletonMap(subscriber.getRegisterId(), subscriber);
+      addresses[i] = new InetSocketAddress(BenchmarkFixtures.clientAddress(i), 12200);
+    }
+    this.version = 1;
+  }
+
+  @Benchmark
+  public boolean buffer() {
+    index = (index + 1) % subscriberCount;
+    final Subscriber subscriber = subscriberMaps[index].values().iterator().next();
+    final long now = System.currentTimeMillis();
+    SubDatum datum =
+        SubDatum.emptyOf(
+            subscriber.getDataInfoId(),
+            BenchmarkFixtures.DATA_CENTER,
+            ++version,
+            subscriber.getDataId(),
+            subscriber.getInstanceId(),
+            subscriber.getGroup());
+    BenchTask task =
+        new BenchTask(
+            new PushCause(null, PushType.Sub, now), addresses[index], subscriberMaps[index], datum);
+    task.expireTimestamp = now + 500;
+    return buffer.buffer(task);
+  }
+
+  static final class BenchTask extends PushTask {
+    BenchTask(
+        PushCause pushCause,
+        InetSocketAddress addr,
+        Map<String, Subscriber> subscriberMap,
+        SubDatum datum) {
+      super(pushCause, addr, subscriberMap, datum);
+    }
+
+    @Override
+    protected boolean commit() {
+      return false;
+    }
+
+    @Override
+    protected PushData createPushData() {
+      return null;
+    }
+  }
+}
@@ -32,6 +32,14 @@ public class TraceTimes implements Serializable {
     createTs = System.currentTimeMillis();
   }
 
+  public long getCreateTs() {
+    return createTs;
+  }
+
+  public void setCreateTs(long createTs) {
+    this.createTs = createTs;
+  }
+
   public long getDatumNotifyCreate() {
     return datumNotifyCreate;
   }
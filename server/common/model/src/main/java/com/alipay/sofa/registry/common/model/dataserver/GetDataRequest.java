@@ -36,6 +36,9 @@ public class GetDataRequest extends AbstractSlotRequest {
 
   private String[] acceptEncodes;
 
+  // the version of the datum cached by the session, >0 means accept the delta since the version
+  private long sinceVersion;
+
   public GetDataRequest(
       ProcessId sessionProcessId, String dataInfoId, String dataCenter, int slotId) {
     super(slotId, sessionProcessId);
@@ -64,12 +67,13 @@ public class GetDataRequest extends AbstractSlotRequest {
   @Override
   public String toString() {
     return StringFormatter.format(
-        "GetData:{},{},{},{},{}",
+        "GetData:{},{},{},{},{},since={}",
         dataInfoId,
         dataCenter,
         getSlotId(),
         getSlotLeaderEpoch(),
-        getSlotTableEpoch());
+        getSlotTableEpoch(),
+        sinceVersion);
   }
 
   public String[] getAcceptEncodes() {
@@ -79,4 +83,12 @@ public class GetDataRequest extends AbstractSlotRequest {
   public void setAcceptEncodes(String[] encodes) {
     acceptEncodes = encodes;
   }
+
+  public long getSinceVersion() {
+    return sinceVersion;
+  }
+
+  public void setSinceVersion(long sinceVersion) {
+    this.sinceVersion = sinceVersion;
+  }
 }
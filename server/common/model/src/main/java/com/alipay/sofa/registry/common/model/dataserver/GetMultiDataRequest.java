@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.dataserver;
+
+import com.alipay.sofa.registry.common.model.ProcessId;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.Map;
+
+/** request to get the data of multi dataInfoIds in the same slot */
+public class GetMultiDataRequest extends AbstractSlotRequest {
+
+  private static final long serialVersionUID = -3404549215487165352L;
+
+  /** if datacenter is null, means all datacenters */
+  private final String dataCenter;
+
+  // the version of the datum cached by the session, >0 means accept the delta since the version
+  private final Map<String /*dataInfoId*/, Long /*sinceVersion*/> dataInfoIds;
+
+  private String[] acceptEncodes;
+
+  public GetMultiDataRequest(
+      ProcessId sessionProcessId, String dataCenter, int slotId, Map<String, Long> dataInfoIds) {
+    super(slotId, sessionProcessId);
+    this.dataCenter = dataCenter;
+    this.dataInfoIds = Collections.unmodifiableMap(Maps.newHashMap(dataInfoIds));
+  }
+
+  public String getDataCenter() {
+    return dataCenter;
+  }
+
+  public Map<String, Long> getDataInfoIds() {
+    return dataInfoIds;
+  }
+
+  public String[] getAcceptEncodes() {
+    return acceptEncodes;
+  }
+
+  public void setAcceptEncodes(String[] encodes) {
+    acceptEncodes = encodes;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format(
+        "GetMultiData:{},{},{},{},num={}",
+        getSlotId(),
+        dataCenter,
+        getSlotLeaderEpoch(),
+        getSlotTableEpoch(),
+        dataInfoIds.size());
+  }
+}
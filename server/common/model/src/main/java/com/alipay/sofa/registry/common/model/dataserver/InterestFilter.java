@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.dataserver;
+
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.hash.Hashing;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/** bloom filter of the dataInfoIds which are subscribed by a session, no false negatives */
+public final class InterestFilter implements Serializable {
+  private static final long serialVersionUID = -3146214812098264870L;
+
+  private final long[] bits;
+  private final int numHashFunctions;
+
+  private InterestFilter(long[] bits, int numHashFunctions) {
+    this.bits = bits;
+    this.numHashFunctions = numHashFunctions;
+  }
+
+  public static InterestFilter create(int expectedInsertions, double fpp) {
+    ParaCheckUtil.checkIsPositive(expectedInsertions, "expectedInsertions");
+    if (fpp <= 0 || fpp >= 1) {
+      throw new IllegalArgumentException("fpp must be in (0, 1), " + fpp);
+    }
+    final long numBits = (long) (-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+    final int numHashFunctions =
+        Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+    final int words = (int) Math.min(Integer.MAX_VALUE, (numBits + 63) >>> 6);
+    return new InterestFilter(new long[Math.max(1, words)], numHashFunctions);
+  }
+
+  public static InterestFilter create(Collection<String> dataInfoIds, int capacity, double fpp) {
+    InterestFilter filter = create(Math.max(capacity, dataInfoIds.size()), fpp);
+    for (String dataInfoId : dataInfoIds) {
+      filter.put(dataInfoId);
+    }
+    return filter;
+  }
+
+  /**
+   * copy on write, the filter may be read by other threads without lock
+   *
+   * @param dataInfoIds
+   * @return a new filter contains the bits of this and the dataInfoIds
+   */
+  public InterestFilter copyWith(Collection<String> dataInfoIds) {
+    InterestFilter filter = new InterestFilter(bits.clone(), numHashFunctions);
+    for (String dataInfoId : dataInfoIds) {
+      filter.put(dataInfoId);
+    }
+    return filter;
+  }
+
+  public void put(String dataInfoId) {
+    final long hash64 = hash(dataInfoId);
+    final long bitSize = bitSize();
+    final int hash1 = (int) hash64;
+    final int hash2 = (int) (hash64 >>> 32);
+    for (int i = 1; i <= numHashFunctions; i++) {
+      final long index = index(hash1, hash2, i, bitSize);
+      bits[(int) (index >>> 6)] |= 1L << index;
+    }
+  }
+
+  public boolean mightContain(String dataInfoId) {
+    final long hash64 = hash(dataInfoId);
+    final long bitSize = bitSize();
+    final int hash1 = (int) hash64;
+    final int hash2 = (int) (hash64 >>> 32);
+    for (int i = 1; i <= numHashFunctions; i++) {
+      final long index = index(hash1, hash2, i, bitSize);
+      if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long index(int hash1, int hash2, int i, long bitSize) {
+    int combinedHash = hash1 + (i * hash2);
+    // flip all the bits if it's negative (guaranteed positive number)
+    if (combinedHash < 0) {
+      combinedHash = ~combinedHash;
+    }
+    return combinedHash % bitSize;
+  }
+
+  private static long hash(String dataInfoId) {
+    return Hashing.murmur3_128().hashString(dataInfoId, StandardCharsets.UTF_8).asLong();
+  }
+
+  public long bitSize() {
+    return (long) bits.length * Long.SIZE;
+  }
+
+  public int getNumHashFunctions() {
+    return numHashFunctions;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format("InterestFilter{bits={},hashes={}}", bitSize(), numHashFunctions);
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.dataserver;
+
+import com.alipay.sofa.registry.common.model.ProcessId;
+import com.alipay.sofa.registry.util.StringFormatter;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * session publishes the dataInfoIds it is interested in to data server, the data server only notify
+ * the changes which might be interested. a full request carries the whole filter of the version, an
+ * incremental request carries the dataInfoIds added into the filter of the version
+ */
+public class SessionInterestFilterRequest implements Serializable {
+  private static final long serialVersionUID = 5027409236167046731L;
+
+  private final ProcessId sessionProcessId;
+  private final long version;
+  private final InterestFilter filter;
+  private final List<String> increments;
+
+  private SessionInterestFilterRequest(
+      ProcessId sessionProcessId, long version, InterestFilter filter, List<String> increments) {
+    this.sessionProcessId = sessionProcessId;
+    this.version = version;
+    this.filter = filter;
+    this.increments = increments;
+  }
+
+  public static SessionInterestFilterRequest full(
+      ProcessId sessionProcessId, long version, InterestFilter filter) {
+    return new SessionInterestFilterRequest(
+        sessionProcessId, version, filter, Collections.emptyList());
+  }
+
+  public static SessionInterestFilterRequest incremental(
+      ProcessId sessionProcessId, long version, List<String> increments) {
+    return new SessionInterestFilterRequest(
+        sessionProcessId, version, null, Collections.unmodifiableList(increments));
+  }
+
+  public boolean isFull() {
+    return filter != null;
+  }
+
+  public ProcessId getSessionProcessId() {
+    return sessionProcessId;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public InterestFilter getFilter() {
+    return filter;
+  }
+
+  public List<String> getIncrements() {
+    return increments;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format(
+        "SessionInterestFilter{{},ver={},filter={},increments={}}",
+        sessionProcessId,
+        version,
+        filter,
+        increments.size());
+  }
+}
@@ -20,6 +20,7 @@ import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.MetaNode;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
 import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
 import com.google.common.collect.Sets;
 import java.io.Serializable;
 import java.util.*;
@@ -32,11 +33,15 @@ public class BaseHeartBeatResponse implements Serializable {
 
   private final boolean heartbeatOnLeader;
 
-  private final SlotTable slotTable;
+  // null means unchanged since the slotTable of the request, or changed by the slotTableDelta
+  private SlotTable slotTable;
 
-  private final VersionedList<MetaNode> metaNodes;
+  private SlotTableDelta slotTableDelta;
 
-  private final VersionedList<SessionNode> sessionNodes;
+  // null means unchanged since the epoch of the request
+  private VersionedList<MetaNode> metaNodes;
+
+  private VersionedList<SessionNode> sessionNodes;
 
   private final String metaLeader;
 
@@ -74,6 +79,46 @@ public class BaseHeartBeatResponse implements Serializable {
     return slotTable;
   }
 
+  public SlotTableDelta getSlotTableDelta() {
+    return slotTableDelta;
+  }
+
+  public BaseHeartBeatResponse setSlotTableDelta(SlotTableDelta slotTableDelta) {
+    this.slotTableDelta = slotTableDelta;
+    return this;
+  }
+
+  public VersionedList<MetaNode> getVersionedMetaNodes() {
+    return metaNodes;
+  }
+
+  public VersionedList<SessionNode> getVersionedSessionNodes() {
+    return sessionNodes;
+  }
+
+  /**
+   * fill the parts omitted by the meta server with the ones held by the node
+   *
+   * @param slotTable the slot table sent in the heartbeat request
+   * @param metaNodes the meta nodes held by the node
+   * @param sessionNodes the session nodes held by the node
+   */
+  public void fillUnchanged(
+      SlotTable slotTable,
+      VersionedList<MetaNode> metaNodes,
+      VersionedList<SessionNode> sessionNodes) {
+    if (this.slotTable == null) {
+      this.slotTable = slotTableDelta == null ? slotTable : slotTableDelta.apply(slotTable);
+      this.slotTableDelta = null;
+    }
+    if (this.metaNodes == null) {
+      this.metaNodes = metaNodes;
+    }
+    if (this.sessionNodes == null) {
+      this.sessionNodes = sessionNodes;
+    }
+  }
+
   public List<MetaNode> getMetaNodes() {
     return metaNodes.getClusterMembers();
   }
@@ -46,6 +46,13 @@ public class HeartbeatRequest<T extends Node> implements Serializable {
 
   private SlotTable slotTable;
 
+  // the node holds the slotTable and the node lists of the epochs, accepts the unchanged or delta
+  private boolean acceptDelta;
+
+  private long metaServerEpoch;
+
+  private long sessionServerEpoch;
+
   /**
    * constructor
    *
@@ -179,6 +186,48 @@ public class HeartbeatRequest<T extends Node> implements Serializable {
     return this;
   }
 
+  /**
+   * Sets the epochs of the node lists held by the node, the meta server would omit the unchanged
+   * node lists and send the slot table delta since the slotTable of the request
+   *
+   * @param metaServerEpoch the epoch of the meta nodes
+   * @param sessionServerEpoch the epoch of the session nodes
+   * @return the heartbeat request
+   */
+  public HeartbeatRequest<T> setKnownEpochs(long metaServerEpoch, long sessionServerEpoch) {
+    this.metaServerEpoch = metaServerEpoch;
+    this.sessionServerEpoch = sessionServerEpoch;
+    this.acceptDelta = true;
+    return this;
+  }
+
+  /**
+   * Is accept delta boolean.
+   *
+   * @return the boolean
+   */
+  public boolean isAcceptDelta() {
+    return acceptDelta;
+  }
+
+  /**
+   * Gets get meta server epoch.
+   *
+   * @return the get meta server epoch
+   */
+  public long getMetaServerEpoch() {
+    return metaServerEpoch;
+  }
+
+  /**
+   * Gets get session server epoch.
+   *
+   * @return the get session server epoch
+   */
+  public long getSessionServerEpoch() {
+    return sessionServerEpoch;
+  }
+
   /**
    * To string string.
    *
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.sessionserver;
+
+import com.alipay.sofa.registry.util.StringFormatter;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * the watermarks of the leader slots sent by data to session periodically, the slot which has
+ * inflight notifications to the session is absent
+ */
+public class DataSlotWatermarkRequest implements Serializable {
+  private static final long serialVersionUID = 4633413961237410231L;
+
+  private final String dataCenter;
+
+  private final Map<Integer, SlotWatermark> watermarks;
+
+  public DataSlotWatermarkRequest(String dataCenter, Map<Integer, SlotWatermark> watermarks) {
+    this.dataCenter = dataCenter;
+    this.watermarks = watermarks;
+  }
+
+  public String getDataCenter() {
+    return dataCenter;
+  }
+
+  public Map<Integer, SlotWatermark> getWatermarks() {
+    return Collections.unmodifiableMap(watermarks);
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format(
+        "DataSlotWatermarkRequest{{},slots={}}", dataCenter, watermarks.size());
+  }
+}
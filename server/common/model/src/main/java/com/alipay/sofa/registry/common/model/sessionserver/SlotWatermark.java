@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.sessionserver;
+
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.util.StringFormatter;
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * the watermark of a slot which the data leader has notified to a session. the checksum is the sum
+ * of {@link #versionHash} of all the (dataInfoId, version) which are notified by {@link
+ * DataChangeRequest}, the session compares it with the sum of the received to detect the gaps
+ */
+public final class SlotWatermark implements Serializable {
+  private static final long serialVersionUID = -2381738430318843095L;
+
+  private final long leaderEpoch;
+  private final long checksum;
+  // some notifications are lost, the session need to scan the versions of the slot
+  private final boolean gap;
+
+  public SlotWatermark(long leaderEpoch, long checksum, boolean gap) {
+    this.leaderEpoch = leaderEpoch;
+    this.checksum = checksum;
+    this.gap = gap;
+  }
+
+  public long getLeaderEpoch() {
+    return leaderEpoch;
+  }
+
+  public long getChecksum() {
+    return checksum;
+  }
+
+  public boolean isGap() {
+    return gap;
+  }
+
+  public static long versionHash(String dataInfoId, long version) {
+    long h = ((long) dataInfoId.hashCode() << 32) ^ version;
+    // fmix64 of murmur3, spread the bits to make the sum stable
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  public static long checksum(Map<String, DatumVersion> versions) {
+    long sum = 0;
+    for (Map.Entry<String, DatumVersion> e : versions.entrySet()) {
+      sum += versionHash(e.getKey(), e.getValue().getValue());
+    }
+    return sum;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format("Watermark{epoch={},sum={},gap={}}", leaderEpoch, checksum, gap);
+  }
+}
@@ -20,6 +20,7 @@ import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author yuzhi.lyz
@@ -30,12 +31,33 @@ public class DataSlotDiffDigestRequest implements Serializable {
   // all dataInfoIds, diff by digest
   private final Map<String, DatumDigest> datumDigest;
   private final int slotId;
+  // not null means only diff the bucket digests, see SlotDigestUtils
+  private final long[] bucketDigests;
+  // not null means the datumDigest only contains the dataInfoIds in the buckets
+  private final Set<Integer> buckets;
 
   public DataSlotDiffDigestRequest(
       long slotTableEpoch, int slotId, Map<String, DatumDigest> datumDigest) {
+    this(slotTableEpoch, slotId, datumDigest, null, null);
+  }
+
+  public DataSlotDiffDigestRequest(
+      long slotTableEpoch,
+      int slotId,
+      Map<String, DatumDigest> datumDigest,
+      long[] bucketDigests,
+      Set<Integer> buckets) {
     this.slotTableEpoch = slotTableEpoch;
     this.slotId = slotId;
     this.datumDigest = datumDigest == null ? Collections.emptyMap() : datumDigest;
+    this.bucketDigests = bucketDigests;
+    this.buckets = buckets;
+  }
+
+  public static DataSlotDiffDigestRequest ofBuckets(
+      long slotTableEpoch, int slotId, long[] bucketDigests) {
+    return new DataSlotDiffDigestRequest(
+        slotTableEpoch, slotId, Collections.emptyMap(), bucketDigests, null);
   }
 
   /**
@@ -60,6 +82,18 @@ public class DataSlotDiffDigestRequest implements Serializable {
     return Collections.unmodifiableMap(datumDigest);
   }
 
+  public boolean isBucketDigest() {
+    return bucketDigests != null;
+  }
+
+  public long[] getBucketDigests() {
+    return bucketDigests;
+  }
+
+  public Set<Integer> getBuckets() {
+    return buckets;
+  }
+
   @Override
   public String toString() {
     return "DiffDigest{"
@@ -69,6 +103,10 @@ public class DataSlotDiffDigestRequest implements Serializable {
         + slotTableEpoch
         + ", digests="
         + datumDigest.size()
+        + ", bucketDigests="
+        + (bucketDigests == null ? 0 : bucketDigests.length)
+        + ", buckets="
+        + buckets
         + '}';
   }
 }
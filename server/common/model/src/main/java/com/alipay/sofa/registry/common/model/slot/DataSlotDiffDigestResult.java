@@ -34,6 +34,8 @@ public class DataSlotDiffDigestResult implements Serializable {
   private final List<String> removedDataInfoIds;
   // if from session, return the sessionProcessId for lease
   private ProcessId sessionProcessId;
+  // the buckets which digest is different, only for the request of bucket digests
+  private List<Integer> diffBuckets;
 
   public DataSlotDiffDigestResult(
       List<String> updatedDataInfoIds,
@@ -97,8 +99,21 @@ public class DataSlotDiffDigestResult implements Serializable {
     this.sessionProcessId = sessionProcessId;
   }
 
+  public static DataSlotDiffDigestResult ofBuckets(List<Integer> diffBuckets) {
+    DataSlotDiffDigestResult result =
+        new DataSlotDiffDigestResult(
+            Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+    result.diffBuckets = Lists.newArrayList(diffBuckets);
+    return result;
+  }
+
+  public List<Integer> getDiffBuckets() {
+    return diffBuckets == null ? null : Collections.unmodifiableList(diffBuckets);
+  }
+
   public boolean isEmpty() {
-    return CollectionUtils.isEmpty(updatedDataInfoIds)
+    return CollectionUtils.isEmpty(diffBuckets)
+        && CollectionUtils.isEmpty(updatedDataInfoIds)
         && CollectionUtils.isEmpty(removedDataInfoIds)
         && CollectionUtils.isEmpty(addedDataInfoIds);
   }
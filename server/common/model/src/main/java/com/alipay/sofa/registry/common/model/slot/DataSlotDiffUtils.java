@@ -40,6 +40,32 @@ public final class DataSlotDiffUtils {
   public static DataSlotDiffDigestResult diffDigestResult(
       Map<String, DatumDigest> targetDigestMap,
       Map<String, Map<String, Publisher>> sourcePublishers) {
+    return diffDigestResult(targetDigestMap, sourcePublishers, null);
+  }
+
+  /**
+   * diff the request of DataSlotDiffDigestRequest
+   *
+   * @param request the request from the follower
+   * @param sourcePublishers all the publishers of the slot
+   * @return result
+   */
+  public static DataSlotDiffDigestResult diffDigestResult(
+      DataSlotDiffDigestRequest request, Map<String, Map<String, Publisher>> sourcePublishers) {
+    if (request.isBucketDigest()) {
+      long[] sourceBuckets = SlotDigestUtils.bucketDigestsOfPublishers(sourcePublishers);
+      return DataSlotDiffDigestResult.ofBuckets(
+          SlotDigestUtils.diffBuckets(request.getBucketDigests(), sourceBuckets));
+    }
+    return diffDigestResult(request.getDatumDigest(), sourcePublishers, request.getBuckets());
+  }
+
+  public static DataSlotDiffDigestResult diffDigestResult(
+      Map<String, DatumDigest> targetDigestMap,
+      Map<String, Map<String, Publisher>> sourcePublishers,
+      Set<Integer> buckets) {
+    // only diff the dataInfoIds in the buckets, others are the same
+    sourcePublishers = SlotDigestUtils.filterBuckets(sourcePublishers, buckets);
     Map<String, DatumSummary> sourceSummaryMap = PublisherUtils.getDatumSummary(sourcePublishers);
     Map<String, DatumDigest> digestMap = PublisherDigestUtil.digest(sourceSummaryMap);
     return diffDigest(targetDigestMap, digestMap);
@@ -143,6 +169,12 @@ public final class DataSlotDiffUtils {
   }
 
   public static void logDiffResult(DataSlotDiffDigestResult result, int slotId) {
+    if (result.getDiffBuckets() != null) {
+      if (!result.isEmpty()) {
+        SYNC_LOGGER.info("DiffBucket, slotId={}, buckets={}", slotId, result.getDiffBuckets());
+      }
+      return;
+    }
     if (!result.isEmpty()) {
       SYNC_LOGGER.info(
           "DiffDigest, slotId={}, update={}, add={}, remove={}, adds={}, removes={}",
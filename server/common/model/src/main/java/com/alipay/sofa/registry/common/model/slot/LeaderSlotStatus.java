@@ -26,6 +26,9 @@ public class LeaderSlotStatus extends BaseSlotStatus implements Serializable {
 
   private final LeaderStatus leaderStatus;
 
+  // null if the data server not reports the load
+  private SlotLoad slotLoad;
+
   /**
    * Constructor.
    *
@@ -49,11 +52,33 @@ public class LeaderSlotStatus extends BaseSlotStatus implements Serializable {
     return leaderStatus;
   }
 
+  /**
+   * Gets get slot load.
+   *
+   * @return the get slot load
+   */
+  public SlotLoad getSlotLoad() {
+    return slotLoad;
+  }
+
+  /**
+   * Sets set slot load.
+   *
+   * @param slotLoad the slot load
+   * @return the leader slot status
+   */
+  public LeaderSlotStatus setSlotLoad(SlotLoad slotLoad) {
+    this.slotLoad = slotLoad;
+    return this;
+  }
+
   @Override
   public String toString() {
     return "LeaderSlotStatus{"
         + "leaderStatus="
         + leaderStatus
+        + ", slotLoad="
+        + slotLoad
         + ", slotId="
         + slotId
         + ", slotLeaderEpoch="
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.slot;
+
+import com.alipay.sofa.registry.common.model.RegisterVersion;
+import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * the two levels digest of a slot: slot -> bucket -> dataInfoId. the hash of publishers in a
+ * dataInfoId is the sum of every publisher's hash, so it could be maintained incrementally when the
+ * publisher changes. the empty dataInfoId has no effect on the digest
+ */
+public final class SlotDigestUtils {
+  public static final int BUCKET_NUM = 64;
+
+  private SlotDigestUtils() {}
+
+  public static int bucketOf(String dataInfoId) {
+    return (dataInfoId.hashCode() & Integer.MAX_VALUE) % BUCKET_NUM;
+  }
+
+  public static long publisherHash(String registerId, RegisterVersion registerVersion) {
+    long h = mix(registerId.hashCode());
+    h = mix(h ^ registerVersion.getVersion());
+    return mix(h ^ registerVersion.getRegisterTimestamp());
+  }
+
+  public static long datumHash(String dataInfoId, int publisherNum, long publisherHashSum) {
+    if (publisherNum == 0) {
+      return 0;
+    }
+    return mix(mix(dataInfoId.hashCode() ^ publisherHashSum) + publisherNum);
+  }
+
+  public static void addDatum(
+      long[] buckets, String dataInfoId, int publisherNum, long publisherHashSum) {
+    buckets[bucketOf(dataInfoId)] += datumHash(dataInfoId, publisherNum, publisherHashSum);
+  }
+
+  public static long[] bucketDigests(Collection<DatumSummary> summaries) {
+    final long[] buckets = new long[BUCKET_NUM];
+    for (DatumSummary summary : summaries) {
+      long sum = 0;
+      for (Map.Entry<String, RegisterVersion> e : summary.getPublisherVersions().entrySet()) {
+        sum += publisherHash(e.getKey(), e.getValue());
+      }
+      addDatum(buckets, summary.getDataInfoId(), summary.size(), sum);
+    }
+    return buckets;
+  }
+
+  public static long[] bucketDigestsOfPublishers(Map<String, Map<String, Publisher>> publishers) {
+    final long[] buckets = new long[BUCKET_NUM];
+    for (Map.Entry<String, Map<String, Publisher>> e : publishers.entrySet()) {
+      long sum = 0;
+      for (Publisher p : e.getValue().values()) {
+        sum += publisherHash(p.getRegisterId(), p.registerVersion());
+      }
+      addDatum(buckets, e.getKey(), e.getValue().size(), sum);
+    }
+    return buckets;
+  }
+
+  public static List<Integer> diffBuckets(long[] target, long[] source) {
+    if (target.length != source.length) {
+      throw new IllegalArgumentException(
+          "bucket num not equals, " + target.length + "!=" + source.length);
+    }
+    List<Integer> diffs = Lists.newArrayList();
+    for (int i = 0; i < target.length; i++) {
+      if (target[i] != source[i]) {
+        diffs.add(i);
+      }
+    }
+    return diffs;
+  }
+
+  public static <V> Map<String, V> filterBuckets(Map<String, V> map, Collection<Integer> buckets) {
+    if (buckets == null) {
+      return map;
+    }
+    final Map<String, V> ret = Maps.newHashMapWithExpectedSize(map.size() / 2);
+    for (Map.Entry<String, V> e : map.entrySet()) {
+      if (buckets.contains(bucketOf(e.getKey()))) {
+        ret.put(e.getKey(), e.getValue());
+      }
+    }
+    return ret;
+  }
+
+  // the finalizer of murmur3
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb53a9ed6a2e9L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.slot;
+
+import java.io.Serializable;
+
+/** the load of a slot reported by the leader, used to weigh the slots when balancing */
+public final class SlotLoad implements Serializable {
+  public static final SlotLoad EMPTY = new SlotLoad(0, 0, 0);
+
+  private final long publisherCount;
+
+  // the changes per second, publish/unpublish/clientOff
+  private final double changeQps;
+
+  // the datumInfoIds fetched per second
+  private final double getDataQps;
+
+  public SlotLoad(long publisherCount, double changeQps, double getDataQps) {
+    this.publisherCount = publisherCount;
+    this.changeQps = changeQps;
+    this.getDataQps = getDataQps;
+  }
+
+  /**
+   * smooth the rates by the exponentially weighted moving average, the rates of one heartbeat
+   * window are noisy. the publisher count is a level not a rate, takes the latest
+   *
+   * @param prev the smoothed load before
+   * @param alpha the weight of the latest rates, in (0, 1]
+   * @return the smoothed load
+   */
+  public SlotLoad smooth(SlotLoad prev, double alpha) {
+    if (prev == null) {
+      return this;
+    }
+    return new SlotLoad(
+        publisherCount,
+        alpha * changeQps + (1 - alpha) * prev.changeQps,
+        alpha * getDataQps + (1 - alpha) * prev.getDataQps);
+  }
+
+  public long getPublisherCount() {
+    return publisherCount;
+  }
+
+  public double getChangeQps() {
+    return changeQps;
+  }
+
+  public double getGetDataQps() {
+    return getDataQps;
+  }
+
+  @Override
+  public String toString() {
+    return "SlotLoad{"
+        + "publisherCount="
+        + publisherCount
+        + ", changeQps="
+        + changeQps
+        + ", getDataQps="
+        + getDataQps
+        + '}';
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.slot;
+
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** the changed slots between two epochs of the slot table */
+public final class SlotTableDelta implements Serializable {
+  private final long fromEpoch;
+  private final long toEpoch;
+  private final List<Slot> updates;
+  private final Set<Integer> removes;
+
+  public SlotTableDelta(long fromEpoch, long toEpoch, List<Slot> updates, Set<Integer> removes) {
+    this.fromEpoch = fromEpoch;
+    this.toEpoch = toEpoch;
+    this.updates = Collections.unmodifiableList(Lists.newArrayList(updates));
+    this.removes = Collections.unmodifiableSet(Sets.newTreeSet(removes));
+  }
+
+  public static SlotTableDelta of(SlotTable from, SlotTable to) {
+    final Map<Integer, Slot> fromSlots = from.getSlotMap();
+    List<Slot> updates = Lists.newArrayList();
+    for (Slot slot : to.getSlots()) {
+      if (!slot.equals(fromSlots.remove(slot.getId()))) {
+        updates.add(slot);
+      }
+    }
+    return new SlotTableDelta(from.getEpoch(), to.getEpoch(), updates, fromSlots.keySet());
+  }
+
+  /**
+   * @param base the slot table of fromEpoch
+   * @return the slot table of toEpoch
+   */
+  public SlotTable apply(SlotTable base) {
+    if (base == null || base.getEpoch() != fromEpoch) {
+      throw new IllegalArgumentException(
+          StringFormatter.format(
+              "base epoch not match, expect={}, base={}",
+              fromEpoch,
+              base == null ? null : base.getEpoch()));
+    }
+    final Map<Integer, Slot> slots = base.getSlotMap();
+    for (Integer slotId : removes) {
+      slots.remove(slotId);
+    }
+    for (Slot slot : updates) {
+      slots.put(slot.getId(), slot);
+    }
+    return new SlotTable(toEpoch, slots.values());
+  }
+
+  public long getFromEpoch() {
+    return fromEpoch;
+  }
+
+  public long getToEpoch() {
+    return toEpoch;
+  }
+
+  public List<Slot> getUpdates() {
+    return updates;
+  }
+
+  public Set<Integer> getRemoves() {
+    return removes;
+  }
+
+  public int size() {
+    return updates.size() + removes.size();
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format(
+        "SlotTableDelta{{}->{}, updates={}, removes={}}",
+        fromEpoch,
+        toEpoch,
+        updates.size(),
+        removes.size());
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.store;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * the response of the GetMultiDataRequest, a dataInfoId is in the datums or the deltas. it's absent
+ * in both if it not exists in the data server or the response exceeds the max bytes, the absent
+ * ones are fetched one by one
+ */
+public final class MultiSubDatum implements Serializable {
+  private static final long serialVersionUID = 5094405281385938446L;
+
+  private final Map<String /*dataInfoId*/, SubDatum> datums;
+
+  private final Map<String /*dataInfoId*/, SubDatumDelta> deltas;
+
+  public MultiSubDatum(Map<String, SubDatum> datums, Map<String, SubDatumDelta> deltas) {
+    this.datums = datums == null ? Collections.emptyMap() : datums;
+    this.deltas = deltas == null ? Collections.emptyMap() : deltas;
+  }
+
+  public Map<String, SubDatum> getDatums() {
+    return datums;
+  }
+
+  public Map<String, SubDatumDelta> getDeltas() {
+    return deltas;
+  }
+
+  public int size() {
+    return datums.size() + deltas.size();
+  }
+
+  @Override
+  public String toString() {
+    return "MultiSubDatum{datums=" + datums.size() + ",deltas=" + deltas.size() + '}';
+  }
+}
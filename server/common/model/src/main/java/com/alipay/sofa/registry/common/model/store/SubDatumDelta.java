@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.store;
+
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.alipay.sofa.registry.util.StringUtils;
+import com.google.common.collect.Lists;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.util.Assert;
+
+/**
+ * the changes of the datum between two versions, the session applies it to the cached SubDatum of
+ * the fromVersion instead of fetching all the publishers
+ */
+public final class SubDatumDelta implements Serializable {
+  private static final long serialVersionUID = -2690414575424353421L;
+
+  private final String dataInfoId;
+
+  private final String dataCenter;
+
+  private final long fromVersion;
+
+  private final long version;
+
+  private final List<SubPublisher> puts;
+
+  private final List<String> removes;
+
+  private final List<Long> recentVersions;
+
+  public SubDatumDelta(
+      String dataInfoId,
+      String dataCenter,
+      long fromVersion,
+      long version,
+      List<SubPublisher> puts,
+      List<String> removes,
+      List<Long> recentVersions) {
+    this.dataInfoId = dataInfoId;
+    this.dataCenter = dataCenter;
+    this.fromVersion = fromVersion;
+    this.version = version;
+    this.puts = puts == null ? Collections.emptyList() : puts;
+    this.removes = removes == null ? Collections.emptyList() : removes;
+    this.recentVersions = recentVersions;
+  }
+
+  /**
+   * apply the delta to the base datum
+   *
+   * @param base the unzipped datum of the fromVersion
+   * @return the datum of the version
+   */
+  public SubDatum apply(SubDatum base) {
+    Assert.isTrue(
+        base.getVersion() == fromVersion,
+        StringFormatter.format("delta from {}, base is {}", fromVersion, base));
+    final List<SubPublisher> basePubs = base.mustGetPublishers();
+    Map<String, SubPublisher> pubs = new LinkedHashMap<>(basePubs.size() + puts.size());
+    for (SubPublisher pub : basePubs) {
+      pubs.put(pub.getRegisterId(), pub);
+    }
+    for (String registerId : removes) {
+      pubs.remove(registerId);
+    }
+    for (SubPublisher pub : puts) {
+      pubs.put(pub.getRegisterId(), pub);
+    }
+    return SubDatum.normalOf(
+        base.getDataInfoId(),
+        base.getDataCenter(),
+        version,
+        Lists.newArrayList(pubs.values()),
+        base.getDataId(),
+        base.getInstanceId(),
+        base.getGroup(),
+        recentVersions);
+  }
+
+  public String getDataInfoId() {
+    return dataInfoId;
+  }
+
+  public String getDataCenter() {
+    return dataCenter;
+  }
+
+  public long getFromVersion() {
+    return fromVersion;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public List<SubPublisher> getPuts() {
+    return puts;
+  }
+
+  public List<String> getRemoves() {
+    return removes;
+  }
+
+  public List<Long> getRecentVersions() {
+    return recentVersions;
+  }
+
+  /** the estimated bytes of the changes */
+  public int size() {
+    int s = StringUtils.sizeof(dataInfoId) + StringUtils.sizeof(dataCenter) + 40;
+    for (SubPublisher pub : puts) {
+      s += pub.size();
+    }
+    for (String remove : removes) {
+      s += StringUtils.sizeof(remove);
+    }
+    return s;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format(
+        "SubDatumDelta{{},{},ver={}->{},puts={},removes={}}",
+        dataInfoId,
+        dataCenter,
+        fromVersion,
+        version,
+        puts.size(),
+        removes.size());
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.dataserver;
+
+import com.google.common.collect.Lists;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InterestFilterTest {
+  @Test
+  public void test() {
+    List<String> dataInfoIds = Lists.newArrayList();
+    for (int i = 0; i < 10000; i++) {
+      dataInfoIds.add("testDataId-" + i + "#@#DEFAULT_INSTANCE_ID#@#DEFAULT_GROUP");
+    }
+    InterestFilter filter = InterestFilter.create(dataInfoIds, 10000, 0.01);
+    for (String dataInfoId : dataInfoIds) {
+      Assert.assertTrue(filter.mightContain(dataInfoId));
+    }
+    int falsePositives = 0;
+    for (int i = 0; i < 10000; i++) {
+      if (filter.mightContain("notExist-" + i)) {
+        falsePositives++;
+      }
+    }
+    Assert.assertTrue(String.valueOf(falsePositives), falsePositives < 300);
+
+    Assert.assertFalse(filter.mightContain("testAdd"));
+    filter.put("testAdd");
+    Assert.assertTrue(filter.mightContain("testAdd"));
+    Assert.assertTrue(filter.toString(), filter.toString().contains("bits"));
+
+    InterestFilter copy = filter.copyWith(Lists.newArrayList("testCopy"));
+    Assert.assertTrue(copy.mightContain("testCopy"));
+    Assert.assertTrue(copy.mightContain("testAdd"));
+    Assert.assertFalse(filter.mightContain("testCopy"));
+    Assert.assertEquals(filter.bitSize(), copy.bitSize());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFpp() {
+    InterestFilter.create(100, 1);
+  }
+}
@@ -203,6 +203,48 @@ public class DataSlotDiffSyncResultTest {
     }
   }
 
+  @Test
+  public void testDiffBucketDigest() {
+    Map<String, Integer> m = Maps.newHashMap();
+    m.put("a", 10);
+    m.put("b", 20);
+    m.put("c", 5);
+    Map<String, Map<String, Publisher>> publishers = randPublishers(m);
+    Map<String, DatumSummary> summaryMap = PublisherUtils.getDatumSummary(publishers);
+    long[] buckets = SlotDigestUtils.bucketDigests(summaryMap.values());
+    Assert.assertArrayEquals(buckets, SlotDigestUtils.bucketDigestsOfPublishers(publishers));
+
+    DataSlotDiffDigestResult result =
+        DataSlotDiffUtils.diffDigestResult(
+            DataSlotDiffDigestRequest.ofBuckets(1, 1, buckets), publishers);
+    Assert.assertTrue(result.isEmpty());
+    Assert.assertTrue(result.getDiffBuckets().isEmpty());
+
+    // the empty datum has no effect
+    publishers.put("d", Maps.newHashMap());
+    Assert.assertArrayEquals(buckets, SlotDigestUtils.bucketDigestsOfPublishers(publishers));
+
+    Publisher p = publishers.get("a").values().iterator().next();
+    p.setVersion(p.getVersion() + 1);
+    final int bucket = SlotDigestUtils.bucketOf("a");
+    result =
+        DataSlotDiffUtils.diffDigestResult(
+            DataSlotDiffDigestRequest.ofBuckets(1, 1, buckets), publishers);
+    Assert.assertEquals(result.getDiffBuckets(), Lists.newArrayList(bucket));
+
+    Map<String, DatumDigest> digestMap =
+        PublisherDigestUtil.digest(
+            SlotDigestUtils.filterBuckets(summaryMap, Sets.newHashSet(bucket)));
+    result =
+        DataSlotDiffUtils.diffDigestResult(
+            new DataSlotDiffDigestRequest(1, 1, digestMap, null, Sets.newHashSet(bucket)),
+            publishers);
+    Assert.assertNull(result.getDiffBuckets());
+    Assert.assertEquals(result.getUpdatedDataInfoIds(), Lists.newArrayList("a"));
+    Assert.assertTrue(result.getAddedDataInfoIds().isEmpty());
+    Assert.assertTrue(result.getRemovedDataInfoIds().isEmpty());
+  }
+
   private static void checkUpdatedSize(Map<String, Integer> m, DataSlotDiffPublisherResult result) {
     for (Map.Entry<String, Integer> e : m.entrySet()) {
       List<Publisher> publisherList = result.getUpdatedPublishers().get(e.getKey());
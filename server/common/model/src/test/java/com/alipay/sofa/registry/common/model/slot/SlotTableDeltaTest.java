@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.slot;
+
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SlotTableDeltaTest {
+
+  @Test
+  public void testApply() {
+    SlotTable from =
+        new SlotTable(
+            10,
+            Lists.newArrayList(
+                new Slot(0, "a", 1, Collections.singletonList("b")),
+                new Slot(1, "b", 1, Collections.singletonList("c")),
+                new Slot(2, "c", 1, Collections.singletonList("a"))));
+    SlotTable to =
+        new SlotTable(
+            20,
+            Lists.newArrayList(
+                new Slot(0, "a", 1, Collections.singletonList("b")),
+                new Slot(1, "c", 2, Collections.singletonList("b")),
+                new Slot(3, "c", 1, Collections.singletonList("a"))));
+    SlotTableDelta delta = SlotTableDelta.of(from, to);
+    Assert.assertEquals(10, delta.getFromEpoch());
+    Assert.assertEquals(20, delta.getToEpoch());
+    Assert.assertEquals(2, delta.getUpdates().size());
+    Assert.assertEquals(Collections.singleton(2), delta.getRemoves());
+    Assert.assertEquals(3, delta.size());
+    // the from table is not changed
+    Assert.assertEquals(3, from.getSlotIds().size());
+
+    SlotTable applied = delta.apply(from);
+    Assert.assertEquals(to.getEpoch(), applied.getEpoch());
+    Assert.assertEquals(to.getSlotMap(), applied.getSlotMap());
+
+    Assert.assertEquals(0, SlotTableDelta.of(to, to).size());
+    try {
+      delta.apply(to);
+      Assert.fail();
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      delta.apply(null);
+      Assert.fail();
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+}
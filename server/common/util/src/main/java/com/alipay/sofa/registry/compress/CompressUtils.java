@@ -21,10 +21,14 @@ import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.metrics.CounterFunc;
 import com.alipay.sofa.registry.util.StringFormatter;
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.google.common.collect.Lists;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.util.Assert;
@@ -34,8 +38,11 @@ public final class CompressUtils {
 
   private static final Logger LOG = LoggerFactory.getLogger("COMPRESS");
 
+  // the default level of zstd
+  private static final int ZSTD_DICT_LEVEL = 3;
+
   private static final Map<String, Compressor> compressorMap =
-      new HashMap<String, Compressor>() {
+      new ConcurrentHashMap<String, Compressor>() {
         {
           final Compressor gzipCompressor = new Compressor.GzipCompressor();
           final Compressor zstdCompressor = new Compressor.ZstdCompressor();
@@ -45,6 +52,48 @@ public final class CompressUtils {
         }
       };
 
+  /**
+   * register the zstd compressor with the trained dictionary, the encoding contains the dictId, the
+   * client which has the dictionary puts the encoding into acceptEncodes
+   *
+   * @param dict trained dictionary
+   * @return the registered compressor
+   */
+  public static Compressor.ZstdDictCompressor registerZstdDict(byte[] dict) {
+    Compressor.ZstdDictCompressor compressor =
+        new Compressor.ZstdDictCompressor(dict, ZSTD_DICT_LEVEL);
+    Compressor exist = compressorMap.putIfAbsent(compressor.getEncoding(), compressor);
+    if (exist != null) {
+      return (Compressor.ZstdDictCompressor) exist;
+    }
+    LOG.info("register zstd dict {}, size={}", compressor.getEncoding(), dict.length);
+    return compressor;
+  }
+
+  public static List<Compressor.ZstdDictCompressor> getZstdDictCompressors() {
+    List<Compressor.ZstdDictCompressor> list = Lists.newArrayList();
+    for (Compressor compressor : compressorMap.values()) {
+      if (compressor instanceof Compressor.ZstdDictCompressor) {
+        list.add((Compressor.ZstdDictCompressor) compressor);
+      }
+    }
+    return list;
+  }
+
+  public static byte[] trainZstdDict(Collection<byte[]> samples, int dictSize) {
+    Assert.notEmpty(samples, "samples is empty");
+    long sampleSize = 0;
+    for (byte[] sample : samples) {
+      sampleSize += sample.length;
+    }
+    Assert.isTrue(sampleSize <= Integer.MAX_VALUE, "samples too large");
+    ZstdDictTrainer trainer = new ZstdDictTrainer((int) sampleSize, dictSize);
+    for (byte[] sample : samples) {
+      trainer.addSample(sample);
+    }
+    return trainer.trainSamples();
+  }
+
   public static Compressor mustGet(String encode) {
     Compressor compressor = compressorMap.get(encode);
     Assert.notNull(compressor, StringFormatter.format("compress {} not found", encode));
@@ -85,4 +85,46 @@ public abstract class Compressor {
       return Zstd.decompress(data, decompressedSize);
     }
   }
+
+  public static class ZstdDictCompressor extends Compressor {
+    private final byte[] dict;
+    private final long dictId;
+    private final String encoding;
+    private final ZstdDictCompress dictCompress;
+    private final ZstdDictDecompress dictDecompress;
+
+    public ZstdDictCompressor(byte[] dict, int level) {
+      this.dictId = Zstd.getDictIdFromDict(dict);
+      if (dictId == 0) {
+        throw new IllegalArgumentException("invalid zstd dict, dictId is 0");
+      }
+      this.dict = dict;
+      this.encoding = CompressConstants.encodingZstdDictPrefix + dictId;
+      this.dictCompress = new ZstdDictCompress(dict, level);
+      this.dictDecompress = new ZstdDictDecompress(dict);
+    }
+
+    @Override
+    public String getEncoding() {
+      return encoding;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) throws Exception {
+      return Zstd.compress(data, dictCompress);
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int decompressedSize) throws Exception {
+      return Zstd.decompress(data, dictDecompress, decompressedSize);
+    }
+
+    public long getDictId() {
+      return dictId;
+    }
+
+    public byte[] getDict() {
+      return dict.clone();
+    }
+  }
 }
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.compress;
+
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * reservoir sampling of the payloads, the samples are used to train the zstd dictionary. sampling
+ * is off until started, and the retained samples are bounded by count and by total bytes
+ */
+public final class ZstdDictSampler {
+  private final int maxSamples;
+  private final int maxSampleSize;
+  private final long maxTotalBytes;
+  private final byte[][] samples;
+  private volatile boolean enabled;
+  private int size;
+  private long seen;
+  private long totalBytes;
+
+  public ZstdDictSampler(int maxSamples, int maxSampleSize, long maxTotalBytes) {
+    this.maxSamples = maxSamples;
+    this.maxSampleSize = maxSampleSize;
+    this.maxTotalBytes = maxTotalBytes;
+    this.samples = new byte[maxSamples][];
+  }
+
+  public void sample(byte[] data) {
+    if (!enabled || data.length == 0 || data.length > maxSampleSize) {
+      return;
+    }
+    synchronized (this) {
+      if (!enabled) {
+        return;
+      }
+      seen++;
+      if (size < maxSamples && totalBytes + data.length <= maxTotalBytes) {
+        samples[size++] = data;
+        totalBytes += data.length;
+        return;
+      }
+      long index = ThreadLocalRandom.current().nextLong(seen);
+      if (index < size) {
+        byte[] old = samples[(int) index];
+        long bytes = totalBytes - old.length + data.length;
+        if (bytes <= maxTotalBytes) {
+          samples[(int) index] = data;
+          totalBytes = bytes;
+        }
+      }
+    }
+  }
+
+  public void start() {
+    enabled = true;
+  }
+
+  /** stop sampling and drop the retained samples */
+  public synchronized void stop() {
+    enabled = false;
+    clear();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public synchronized List<byte[]> getSamples() {
+    List<byte[]> list = Lists.newArrayListWithCapacity(size);
+    for (int i = 0; i < size; i++) {
+      list.add(samples[i]);
+    }
+    return list;
+  }
+
+  public synchronized int size() {
+    return size;
+  }
+
+  public synchronized long totalBytes() {
+    return totalBytes;
+  }
+
+  public synchronized void clear() {
+    for (int i = 0; i < size; i++) {
+      samples[i] = null;
+    }
+    size = 0;
+    seen = 0;
+    totalBytes = 0;
+  }
+}
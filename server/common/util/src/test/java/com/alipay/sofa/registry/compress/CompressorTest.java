@@ -25,6 +25,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Random;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -119,6 +120,74 @@ public class CompressorTest {
     LOG.info("zstd decompress total: {}, per: {}", duration, duration / times);
   }
 
+  @Test
+  public void testSamplerBytes() {
+    ZstdDictSampler sampler = new ZstdDictSampler(100, 1024, 1024 * 4);
+    Random random = new Random(1);
+    sampler.start();
+    for (int i = 0; i < 1000; i++) {
+      sampler.sample(new byte[1 + random.nextInt(1024)]);
+      Assert.assertTrue(sampler.totalBytes() <= 1024 * 4);
+    }
+    Assert.assertTrue(sampler.size() > 0);
+    long bytes = 0;
+    for (byte[] sample : sampler.getSamples()) {
+      bytes += sample.length;
+    }
+    Assert.assertEquals(bytes, sampler.totalBytes());
+    sampler.sample(new byte[2048]);
+    Assert.assertEquals(bytes, sampler.totalBytes());
+
+    sampler.stop();
+    Assert.assertFalse(sampler.isEnabled());
+    Assert.assertEquals(0, sampler.size());
+    sampler.sample(new byte[16]);
+    Assert.assertEquals(0, sampler.size());
+  }
+
+  @Test
+  public void testZstdDict() throws Exception {
+    InputStream ins = ClassLoader.getSystemClassLoader().getResourceAsStream("push_example.json");
+    final byte[] src =
+        CharStreams.toString(new InputStreamReader(ins)).getBytes(StandardCharsets.UTF_8);
+    Random random = new Random(1);
+    ZstdDictSampler sampler = new ZstdDictSampler(500, src.length, Long.MAX_VALUE);
+    sampler.sample(src);
+    Assert.assertEquals(0, sampler.size());
+    sampler.start();
+    for (int i = 0; i < 2000; i++) {
+      int len = Math.min(src.length, 1024 + random.nextInt(1024));
+      int offset = random.nextInt(src.length - len + 1);
+      sampler.sample(Arrays.copyOfRange(src, offset, offset + len));
+    }
+    Assert.assertEquals(500, sampler.size());
+    byte[] dict = CompressUtils.trainZstdDict(sampler.getSamples(), 1024 * 16);
+    Compressor.ZstdDictCompressor c = CompressUtils.registerZstdDict(dict);
+    Assert.assertTrue(c.getEncoding().startsWith(CompressConstants.encodingZstdDictPrefix));
+    Assert.assertTrue(c == CompressUtils.registerZstdDict(dict));
+    Assert.assertTrue(CompressUtils.getZstdDictCompressors().contains(c));
+    Assert.assertTrue(
+        c == CompressUtils.find(new String[] {c.getEncoding(), CompressConstants.encodingZstd}));
+    Assert.assertTrue(
+        CompressUtils.find(
+                new String[] {c.getEncoding(), CompressConstants.encodingZstd},
+                Sets.newHashSet(c.getEncoding()))
+            instanceof Compressor.ZstdCompressor);
+
+    byte[] part = Arrays.copyOfRange(src, 0, Math.min(src.length, 4096));
+    byte[] zdata = c.compress(part);
+    Assert.assertArrayEquals(part, c.decompress(zdata, part.length));
+    byte[] plain = CompressUtils.mustGet(CompressConstants.encodingZstd).compress(part);
+    LOG.info("zstd-dict src: {} dst: {}, zstd dst: {}", part.length, zdata.length, plain.length);
+    Assert.assertTrue(zdata.length < plain.length);
+
+    sampler.clear();
+    Assert.assertEquals(0, sampler.size());
+    Assert.assertEquals(0, sampler.totalBytes());
+    TestUtils.assertException(
+        IllegalArgumentException.class, () -> CompressUtils.registerZstdDict(new byte[16]));
+  }
+
   @Test
   public void testGet() {
     TestUtils.assertException(
@@ -31,6 +31,7 @@ import com.alipay.sofa.registry.net.NetUtil;
 import com.alipay.sofa.registry.remoting.*;
 import com.alipay.sofa.registry.remoting.ChannelHandler.HandlerType;
 import com.alipay.sofa.registry.remoting.ChannelHandler.InvokeType;
+import com.alipay.sofa.registry.remoting.bolt.serializer.CompactSerializer;
 import java.net.InetSocketAddress;
 import java.util.List;
 import java.util.Map;
@@ -57,6 +58,7 @@ public class BoltClient implements Client {
 
   /** Instantiates a new Bolt client. */
   public BoltClient(int connNum) {
+    CompactSerializer.register();
     rpcClient = new RpcClient();
     configIO();
     rpcClient.init();
@@ -186,7 +188,8 @@ public class BoltClient implements Client {
   public Object sendSync(URL url, Object message, int timeoutMillis) {
     try {
       Url boltUrl = createBoltUrl(url);
-      return rpcClient.invokeSync(boltUrl, message, timeoutMillis);
+      return rpcClient.invokeSync(
+          boltUrl, message, BoltUtil.newInvokeContext(message), timeoutMillis);
     } catch (Throwable e) {
       throw BoltUtil.handleException("BoltClient", url, e, "sendSync");
     }
@@ -196,7 +199,11 @@ public class BoltClient implements Client {
   public Object sendSync(Channel channel, Object message, int timeoutMillis) {
     BoltUtil.checkChannelConnected(channel);
     try {
-      return rpcClient.invokeSync(((BoltChannel) channel).getConnection(), message, timeoutMillis);
+      return rpcClient.invokeSync(
+          ((BoltChannel) channel).getConnection(),
+          message,
+          BoltUtil.newInvokeContext(message),
+          timeoutMillis);
     } catch (Throwable e) {
       throw BoltUtil.handleException("BoltClient", channel, e, "sendSync");
     }
@@ -210,6 +217,7 @@ public class BoltClient implements Client {
       rpcClient.invokeWithCallback(
           connection,
           message,
+          BoltUtil.newInvokeContext(message),
           new InvokeCallbackHandler(new BoltChannel(connection), callbackHandler),
           timeoutMillis);
       return;
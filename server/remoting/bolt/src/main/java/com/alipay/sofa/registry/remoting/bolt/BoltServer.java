@@ -29,6 +29,7 @@ import com.alipay.sofa.registry.remoting.ChannelHandler;
 import com.alipay.sofa.registry.remoting.ChannelHandler.HandlerType;
 import com.alipay.sofa.registry.remoting.ChannelHandler.InvokeType;
 import com.alipay.sofa.registry.remoting.Server;
+import com.alipay.sofa.registry.remoting.bolt.serializer.CompactSerializer;
 import com.alipay.sofa.registry.util.CollectionUtils;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -66,6 +67,7 @@ public class BoltServer implements Server {
   public BoltServer(URL url, List<ChannelHandler> channelHandlers) {
     this.channelHandlers = channelHandlers;
     this.url = url;
+    CompactSerializer.register();
     this.boltServer = createRpcServer();
   }
 
@@ -274,7 +276,7 @@ public class BoltServer implements Server {
   }
 
   protected InvokeContext newInvokeContext(Object request) {
-    return null;
+    return BoltUtil.newInvokeContext(request);
   }
 
   public RpcServer getRpcServer() {
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt.serializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/** The input of the compact codec, the reverse of {@link CompactOutput}. */
+public final class CompactInput {
+  private final List<String> stringTable = new ArrayList<>(64);
+  private final byte[] buf;
+  private final int limit;
+  private int pos;
+
+  public CompactInput(byte[] buf, int offset, int limit) {
+    this.buf = buf;
+    this.pos = offset;
+    this.limit = limit;
+  }
+
+  private void require(int len) {
+    if (len < 0 || limit - pos < len) {
+      throw new IllegalArgumentException(
+          "compact input truncated, pos=" + pos + ", limit=" + limit + ", require=" + len);
+    }
+  }
+
+  public int readByte() {
+    require(1);
+    return buf[pos++];
+  }
+
+  public boolean readBoolean() {
+    return readByte() != 0;
+  }
+
+  public short readShort() {
+    require(2);
+    int v = ((buf[pos] & 0xFF) << 8) | (buf[pos + 1] & 0xFF);
+    pos += 2;
+    return (short) v;
+  }
+
+  public int readVarInt() {
+    int v = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      final int b = readByte();
+      v |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return v;
+      }
+    }
+    throw new IllegalArgumentException("malformed varint, pos=" + pos);
+  }
+
+  public long readVarLong() {
+    long v = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      final int b = readByte();
+      v |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return v;
+      }
+    }
+    throw new IllegalArgumentException("malformed varlong, pos=" + pos);
+  }
+
+  public long readLong() {
+    require(8);
+    long v = 0;
+    for (int i = 0; i < 8; i++) {
+      v = (v << 8) | (buf[pos++] & 0xFF);
+    }
+    return v;
+  }
+
+  /**
+   * read the size of a nullable collection
+   *
+   * @return the size, -1 means null
+   */
+  public int readSize() {
+    return readVarInt() - 1;
+  }
+
+  public String readString() {
+    final int tag = readVarInt();
+    if (tag == CompactOutput.STRING_NULL) {
+      return null;
+    }
+    if (tag == CompactOutput.STRING_NEW) {
+      final int len = readVarInt();
+      require(len);
+      String s = new String(buf, pos, len, StandardCharsets.UTF_8);
+      pos += len;
+      stringTable.add(s);
+      return s;
+    }
+    final int index = tag - CompactOutput.STRING_REF_BASE;
+    if (index < 0 || index >= stringTable.size()) {
+      throw new IllegalArgumentException("illegal string ref " + index + ", pos=" + pos);
+    }
+    return stringTable.get(index);
+  }
+
+  public int remaining() {
+    return limit - pos;
+  }
+
+  public int position() {
+    return pos;
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt.serializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The output of the compact codec. Integers are varint encoded and the repeated strings are written
+ * once, the later occurrences refer to the index in the string table.
+ */
+public final class CompactOutput {
+  static final int STRING_NULL = 0;
+  static final int STRING_NEW = 1;
+  static final int STRING_REF_BASE = 2;
+
+  private final Map<String, Integer> stringTable = new HashMap<>(64);
+  private byte[] buf;
+  private int count;
+
+  public CompactOutput(int initialSize) {
+    this.buf = new byte[Math.max(initialSize, 16)];
+  }
+
+  private void ensure(int more) {
+    final int need = count + more;
+    if (need > buf.length) {
+      buf = Arrays.copyOf(buf, Math.max(buf.length << 1, need));
+    }
+  }
+
+  public void writeByte(int b) {
+    ensure(1);
+    buf[count++] = (byte) b;
+  }
+
+  public void writeBoolean(boolean b) {
+    writeByte(b ? 1 : 0);
+  }
+
+  public void writeShort(short v) {
+    ensure(2);
+    buf[count++] = (byte) (v >>> 8);
+    buf[count++] = (byte) v;
+  }
+
+  public void writeVarInt(int v) {
+    ensure(5);
+    while ((v & ~0x7F) != 0) {
+      buf[count++] = (byte) ((v & 0x7F) | 0x80);
+      v >>>= 7;
+    }
+    buf[count++] = (byte) v;
+  }
+
+  public void writeVarLong(long v) {
+    ensure(10);
+    while ((v & ~0x7FL) != 0) {
+      buf[count++] = (byte) ((v & 0x7F) | 0x80);
+      v >>>= 7;
+    }
+    buf[count++] = (byte) v;
+  }
+
+  public void writeLong(long v) {
+    ensure(8);
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      buf[count++] = (byte) (v >>> shift);
+    }
+  }
+
+  /**
+   * write the size of a nullable collection, null is encoded as 0
+   *
+   * @param size the size, -1 means null
+   */
+  public void writeSize(int size) {
+    writeVarInt(size + 1);
+  }
+
+  public void writeBytes(byte[] bytes, int off, int len) {
+    ensure(len);
+    System.arraycopy(bytes, off, buf, count, len);
+    count += len;
+  }
+
+  public void writeString(String s) {
+    if (s == null) {
+      writeVarInt(STRING_NULL);
+      return;
+    }
+    Integer index = stringTable.get(s);
+    if (index != null) {
+      writeVarInt(STRING_REF_BASE + index);
+      return;
+    }
+    stringTable.put(s, stringTable.size());
+    writeVarInt(STRING_NEW);
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(bytes.length);
+    writeBytes(bytes, 0, bytes.length);
+  }
+
+  public int size() {
+    return count;
+  }
+
+  public byte[] toByteArray() {
+    return Arrays.copyOf(buf, count);
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt.serializer;
+
+/**
+ * The schema of a message encoded by {@link CompactSerializer}. The fields are written in a fixed
+ * order without names, so a schema could only append fields after a new format version.
+ */
+public interface CompactSchema<T> {
+
+  /**
+   * the id of the schema in the frame, must be unique and never reused
+   *
+   * @return id
+   */
+  byte id();
+
+  Class<T> messageClass();
+
+  void write(T message, CompactOutput out);
+
+  T read(CompactInput in);
+}
@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt.serializer;
+
+import com.alipay.sofa.registry.common.model.RegisterVersion;
+import com.alipay.sofa.registry.common.model.TraceTimes;
+import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
+import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
+import com.alipay.sofa.registry.common.model.sessionserver.DataSlotWatermarkRequest;
+import com.alipay.sofa.registry.common.model.sessionserver.SlotWatermark;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherRequest;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** The schemas of the internal messages between session and data, and between data and data. */
+public final class CompactSchemas {
+  private CompactSchemas() {}
+
+  public static final CompactSchema<DataChangeRequest> DATA_CHANGE_REQUEST =
+      new CompactSchema<DataChangeRequest>() {
+        @Override
+        public byte id() {
+          return 1;
+        }
+
+        @Override
+        public Class<DataChangeRequest> messageClass() {
+          return DataChangeRequest.class;
+        }
+
+        @Override
+        public void write(DataChangeRequest message, CompactOutput out) {
+          out.writeString(message.getDataCenter());
+          Map<String, DatumVersion> versions = message.getDataInfoIds();
+          out.writeVarInt(versions.size());
+          for (Map.Entry<String, DatumVersion> e : versions.entrySet()) {
+            out.writeString(e.getKey());
+            out.writeVarLong(e.getValue().getValue());
+          }
+          writeTraceTimes(message.getTimes(), out);
+        }
+
+        @Override
+        public DataChangeRequest read(CompactInput in) {
+          final String dataCenter = in.readString();
+          final int size = in.readVarInt();
+          Map<String, DatumVersion> versions = Maps.newHashMapWithExpectedSize(size);
+          for (int i = 0; i < size; i++) {
+            versions.put(in.readString(), DatumVersion.of(in.readVarLong()));
+          }
+          return new DataChangeRequest(dataCenter, versions, readTraceTimes(in));
+        }
+      };
+
+  public static final CompactSchema<DataSlotDiffDigestRequest> DATA_SLOT_DIFF_DIGEST_REQUEST =
+      new CompactSchema<DataSlotDiffDigestRequest>() {
+        @Override
+        public byte id() {
+          return 2;
+        }
+
+        @Override
+        public Class<DataSlotDiffDigestRequest> messageClass() {
+          return DataSlotDiffDigestRequest.class;
+        }
+
+        @Override
+        public void write(DataSlotDiffDigestRequest message, CompactOutput out) {
+          out.writeVarLong(message.getSlotTableEpoch());
+          out.writeVarInt(message.getSlotId());
+          Map<String, DatumDigest> digests = message.getDatumDigest();
+          out.writeVarInt(digests.size());
+          for (Map.Entry<String, DatumDigest> e : digests.entrySet()) {
+            out.writeString(e.getKey());
+            DatumDigest digest = e.getValue();
+            out.writeVarInt(digest.getPublisherNum());
+            out.writeLong(digest.getPublisherIdSign());
+            out.writeLong(digest.getPublisherVerSign());
+            out.writeLong(digest.getPublisherTimestampSign());
+            out.writeShort(digest.getMaxTimestamp());
+            out.writeShort(digest.getMinTimestamp());
+          }
+          long[] bucketDigests = message.getBucketDigests();
+          if (bucketDigests == null) {
+            out.writeSize(-1);
+          } else {
+            out.writeSize(bucketDigests.length);
+            for (long d : bucketDigests) {
+              out.writeLong(d);
+            }
+          }
+          writeIntegers(message.getBuckets(), out);
+        }
+
+        @Override
+        public DataSlotDiffDigestRequest read(CompactInput in) {
+          final long epoch = in.readVarLong();
+          final int slotId = in.readVarInt();
+          final int size = in.readVarInt();
+          Map<String, DatumDigest> digests = Maps.newHashMapWithExpectedSize(size);
+          for (int i = 0; i < size; i++) {
+            final String dataInfoId = in.readString();
+            final int num = in.readVarInt();
+            final long idSign = in.readLong();
+            final long verSign = in.readLong();
+            final long tsSign = in.readLong();
+            final short maxTs = in.readShort();
+            final short minTs = in.readShort();
+            digests.put(dataInfoId, new DatumDigest(num, idSign, verSign, tsSign, maxTs, minTs));
+          }
+          long[] bucketDigests = null;
+          final int bucketDigestSize = in.readSize();
+          if (bucketDigestSize >= 0) {
+            bucketDigests = new long[bucketDigestSize];
+            for (int i = 0; i < bucketDigestSize; i++) {
+              bucketDigests[i] = in.readLong();
+            }
+          }
+          return new DataSlotDiffDigestRequest(
+              epoch, slotId, digests, bucketDigests, readIntegers(in));
+        }
+      };
+
+  public static final CompactSchema<DataSlotDiffPublisherRequest> DATA_SLOT_DIFF_PUBLISHER_REQUEST =
+      new CompactSchema<DataSlotDiffPublisherRequest>() {
+        @Override
+        public byte id() {
+          return 3;
+        }
+
+        @Override
+        public Class<DataSlotDiffPublisherRequest> messageClass() {
+          return DataSlotDiffPublisherRequest.class;
+        }
+
+        @Override
+        public void write(DataSlotDiffPublisherRequest message, CompactOutput out) {
+          out.writeVarLong(message.getSlotTableEpoch());
+          out.writeVarInt(message.getSlotId());
+          List<DatumSummary> summaries = message.getDatumSummaries();
+          out.writeVarInt(summaries.size());
+          for (DatumSummary summary : summaries) {
+            out.writeString(summary.getDataInfoId());
+            Map<String, RegisterVersion> versions = summary.getPublisherVersions();
+            out.writeVarInt(versions.size());
+            for (Map.Entry<String, RegisterVersion> e : versions.entrySet()) {
+              out.writeString(e.getKey());
+              out.writeVarLong(e.getValue().getVersion());
+              out.writeVarLong(e.getValue().getRegisterTimestamp());
+            }
+          }
+        }
+
+        @Override
+        public DataSlotDiffPublisherRequest read(CompactInput in) {
+          final long epoch = in.readVarLong();
+          final int slotId = in.readVarInt();
+          final int size = in.readVarInt();
+          List<DatumSummary> summaries = Lists.newArrayListWithCapacity(size);
+          for (int i = 0; i < size; i++) {
+            final String dataInfoId = in.readString();
+            final int versionSize = in.readVarInt();
+            Map<String, RegisterVersion> versions = Maps.newHashMapWithExpectedSize(versionSize);
+            for (int j = 0; j < versionSize; j++) {
+              versions.put(in.readString(), RegisterVersion.of(in.readVarLong(), in.readVarLong()));
+            }
+            summaries.add(new DatumSummary(dataInfoId, versions));
+          }
+          return new DataSlotDiffPublisherRequest(epoch, slotId, summaries);
+        }
+      };
+
+  public static final CompactSchema<DataSlotWatermarkRequest> DATA_SLOT_WATERMARK_REQUEST =
+      new CompactSchema<DataSlotWatermarkRequest>() {
+        @Override
+        public byte id() {
+          return 4;
+        }
+
+        @Override
+        public Class<DataSlotWatermarkRequest> messageClass() {
+          return DataSlotWatermarkRequest.class;
+        }
+
+        @Override
+        public void write(DataSlotWatermarkRequest message, CompactOutput out) {
+          out.writeString(message.getDataCenter());
+          Map<Integer, SlotWatermark> watermarks = message.getWatermarks();
+          out.writeVarInt(watermarks.size());
+          for (Map.Entry<Integer, SlotWatermark> e : watermarks.entrySet()) {
+            SlotWatermark watermark = e.getValue();
+            out.writeVarInt(e.getKey());
+            out.writeVarLong(watermark.getLeaderEpoch());
+            out.writeLong(watermark.getChecksum());
+            out.writeBoolean(watermark.isGap());
+          }
+        }
+
+        @Override
+        public DataSlotWatermarkRequest read(CompactInput in) {
+          final String dataCenter = in.readString();
+          final int size = in.readVarInt();
+          Map<Integer, SlotWatermark> watermarks = Maps.newHashMapWithExpectedSize(size);
+          for (int i = 0; i < size; i++) {
+            final int slotId = in.readVarInt();
+            final long leaderEpoch = in.readVarLong();
+            final long checksum = in.readLong();
+            watermarks.put(slotId, new SlotWatermark(leaderEpoch, checksum, in.readBoolean()));
+          }
+          return new DataSlotWatermarkRequest(dataCenter, watermarks);
+        }
+      };
+
+  static List<CompactSchema> all() {
+    return Lists.newArrayList(
+        DATA_CHANGE_REQUEST,
+        DATA_SLOT_DIFF_DIGEST_REQUEST,
+        DATA_SLOT_DIFF_PUBLISHER_REQUEST,
+        DATA_SLOT_WATERMARK_REQUEST);
+  }
+
+  static void writeTraceTimes(TraceTimes times, CompactOutput out) {
+    out.writeBoolean(times != null);
+    if (times == null) {
+      return;
+    }
+    out.writeVarLong(times.getCreateTs());
+    out.writeVarInt(times.getDataChangeType());
+    out.writeVarLong(times.getFirstDataChange());
+    out.writeVarLong(times.getDatumNotifyCreate());
+    out.writeVarLong(times.getDatumNotifySend());
+    out.writeVarLong(times.getTriggerSession());
+  }
+
+  static TraceTimes readTraceTimes(CompactInput in) {
+    if (!in.readBoolean()) {
+      return null;
+    }
+    TraceTimes times = new TraceTimes();
+    times.setCreateTs(in.readVarLong());
+    times.setDataChangeType(in.readVarInt());
+    times.setFirstDataChange(in.readVarLong());
+    times.setDatumNotifyCreate(in.readVarLong());
+    times.setDatumNotifySend(in.readVarLong());
+    times.setTriggerSession(in.readVarLong());
+    return times;
+  }
+
+  static void writeIntegers(Collection<Integer> values, CompactOutput out) {
+    if (values == null) {
+      out.writeSize(-1);
+      return;
+    }
+    out.writeSize(values.size());
+    for (Integer v : values) {
+      out.writeVarInt(v);
+    }
+  }
+
+  static Set<Integer> readIntegers(CompactInput in) {
+    final int size = in.readSize();
+    if (size < 0) {
+      return null;
+    }
+    Set<Integer> values = Sets.newHashSetWithExpectedSize(size);
+    for (int i = 0; i < size; i++) {
+      values.add(in.readVarInt());
+    }
+    return values;
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt.serializer;
+
+import com.alipay.remoting.exception.CodecException;
+import com.alipay.remoting.exception.DeserializationException;
+import com.alipay.remoting.exception.SerializationException;
+import com.alipay.remoting.serialization.Serializer;
+import com.alipay.remoting.serialization.SerializerManager;
+import com.alipay.sofa.registry.util.SystemUtils;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The schema based binary serializer for the internal messages between session and data, and
+ * between data and data.
+ *
+ * <p>The frame is [formatVersion][schemaId][body]. The messages without schema (e.g. the responses
+ * which carry publishers) are passed to hessian as is, without frame and without copy, so the
+ * response of a compact request could always be encoded by this serializer. The format version is a
+ * reserved bytecode of hessian2, which never starts a hessian2 stream, so the frames and the
+ * hessian bytes could be told apart by the first byte.
+ *
+ * <p>The decoding is always registered when the bolt client/server is created, but the encoding is
+ * only used when {@link #ENABLE_KEY} is true. In a mixed-version cluster keep it false until all
+ * the nodes are upgraded, the old nodes could not decode the compact frame.
+ */
+public final class CompactSerializer implements Serializer {
+  public static final byte PROTOCOL_COMPACT = 12;
+
+  public static final String ENABLE_KEY = "registry.remoting.compact.enable";
+
+  static final byte FORMAT_VERSION = 0x40;
+
+  private static final CompactSerializer instance = new CompactSerializer();
+
+  private static final AtomicBoolean registered = new AtomicBoolean(false);
+
+  private static volatile boolean sendEnable =
+      Boolean.parseBoolean(SystemUtils.getSystem(ENABLE_KEY, "false"));
+
+  private final CompactSchema[] schemasById = new CompactSchema[Byte.MAX_VALUE + 1];
+
+  private final Map<Class, CompactSchema> schemasByClass = new ConcurrentHashMap<>();
+
+  private CompactSerializer() {
+    for (CompactSchema schema : CompactSchemas.all()) {
+      if (schema.id() <= 0 || schemasById[schema.id()] != null) {
+        throw new IllegalStateException("duplicate compact schema id " + schema.id());
+      }
+      schemasById[schema.id()] = schema;
+      schemasByClass.put(schema.messageClass(), schema);
+    }
+  }
+
+  public static CompactSerializer getInstance() {
+    return instance;
+  }
+
+  /** register the serializer to bolt and the message classes, idempotent */
+  public static void register() {
+    if (registered.compareAndSet(false, true)) {
+      SerializerManager.addSerializer(PROTOCOL_COMPACT, instance);
+      for (Class clazz : instance.schemasByClass.keySet()) {
+        CustomClassSerializerManager.registerSerializer(clazz, PROTOCOL_COMPACT);
+      }
+    }
+  }
+
+  public static boolean isSendEnable() {
+    return sendEnable;
+  }
+
+  @VisibleForTesting
+  public static void setSendEnable(boolean enable) {
+    sendEnable = enable;
+  }
+
+  @Override
+  public byte[] serialize(Object obj) throws CodecException {
+    if (obj == null) {
+      throw new SerializationException("Unsupported null message");
+    }
+    final CompactSchema schema = schemasByClass.get(obj.getClass());
+    if (schema == null) {
+      return hessian().serialize(obj);
+    }
+    try {
+      CompactOutput out = new CompactOutput(256);
+      out.writeByte(FORMAT_VERSION);
+      out.writeByte(schema.id());
+      schema.write(obj, out);
+      return out.toByteArray();
+    } catch (Throwable e) {
+      throw new SerializationException(
+          "compact serialize failed, class=" + obj.getClass().getName(), e);
+    }
+  }
+
+  @Override
+  public <T> T deserialize(byte[] data, String classOfT) throws CodecException {
+    if (data == null || data.length == 0) {
+      throw new DeserializationException("compact frame is empty, class=" + classOfT);
+    }
+    if (data[0] != FORMAT_VERSION) {
+      return hessian().deserialize(data, classOfT);
+    }
+    if (data.length < 2) {
+      throw new DeserializationException("compact frame is too short, class=" + classOfT);
+    }
+    final int schemaId = data[1];
+    final CompactSchema schema = schemaId > 0 ? schemasById[schemaId] : null;
+    if (schema == null) {
+      throw new DeserializationException(
+          "unknown compact schema " + schemaId + ", class=" + classOfT);
+    }
+    try {
+      CompactInput in = new CompactInput(data, 2, data.length);
+      Object obj = schema.read(in);
+      if (in.remaining() != 0) {
+        throw new IllegalArgumentException("remains " + in.remaining() + " bytes");
+      }
+      return (T) obj;
+    } catch (Throwable e) {
+      throw new DeserializationException(
+          "compact deserialize failed, schema=" + schemaId + ", class=" + classOfT, e);
+    }
+  }
+
+  private static Serializer hessian() {
+    return SerializerManager.getSerializer(SerializerManager.Hessian2);
+  }
+}
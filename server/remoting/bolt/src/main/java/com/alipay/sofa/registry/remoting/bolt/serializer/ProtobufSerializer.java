@@ -21,6 +21,7 @@ import com.alipay.remoting.exception.DeserializationException;
 import com.alipay.remoting.exception.SerializationException;
 import com.alipay.remoting.serialization.Serializer;
 import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.nio.charset.StandardCharsets;
@@ -36,10 +37,16 @@ public class ProtobufSerializer implements Serializer {
 
   public static final byte PROTOCOL_PROTOBUF = 11;
 
-  /** cache parse method */
+  /** cache the classes of the request/response class names */
+  private final ConcurrentHashMap<String, Class> classMap = new ConcurrentHashMap<>();
+
+  /** cache parser, the generated parser is called directly without reflection */
+  private final ConcurrentHashMap<Class, Parser> parserMap = new ConcurrentHashMap<>();
+
+  /** cache parse method, only for the message which could not find the parser */
   private final ConcurrentHashMap<Class, Method> parseMethodMap = new ConcurrentHashMap<>();
 
-  /** cache toByteArray method */
+  /** cache toByteArray method, only for the message of the other MessageLite classloader */
   private final ConcurrentHashMap<Class, Method> toByteArrayMethodMap = new ConcurrentHashMap<>();
 
   private static final ProtobufSerializer instance = new ProtobufSerializer();
@@ -54,64 +61,65 @@ public class ProtobufSerializer implements Serializer {
   public byte[] serialize(Object object) throws CodecException {
     if (object == null) {
       throw new SerializationException("Unsupported null message");
+    } else if (object instanceof MessageLite) {
+      return ((MessageLite) object).toByteArray();
     } else if (isProtoBufMessageLite(object)) {
-      Class clazz = object.getClass();
-      Method method = toByteArrayMethodMap.get(clazz);
-      if (method == null) {
-        try {
-          method = clazz.getMethod("toByteArray");
-          method.setAccessible(true);
-          toByteArrayMethodMap.put(clazz, method);
-        } catch (Exception e) {
-          throw new SerializationException(
-              "Cannot found method "
-                  + clazz.getName()
-                  + ".toByteArray(), please check the generated code");
-        }
-      }
+      return reflectToByteArray(object);
+    } else if (object instanceof String) {
+      return ((String) object).getBytes(StandardCharsets.UTF_8);
+    } else {
+      throw new SerializationException(
+          "Unsupported class:" + object.getClass().getName() + ", only support protobuf message");
+    }
+  }
+
+  private byte[] reflectToByteArray(Object object) throws SerializationException {
+    Class clazz = object.getClass();
+    Method method = toByteArrayMethodMap.get(clazz);
+    if (method == null) {
       try {
-        return (byte[]) method.invoke(object);
+        method = clazz.getMethod("toByteArray");
+        method.setAccessible(true);
+        toByteArrayMethodMap.put(clazz, method);
       } catch (Exception e) {
         throw new SerializationException(
             "Cannot found method "
                 + clazz.getName()
                 + ".toByteArray(), please check the generated code");
       }
-
-    } else if (object instanceof String) {
-      return ((String) object).getBytes(StandardCharsets.UTF_8);
-    } else {
+    }
+    try {
+      return (byte[]) method.invoke(object);
+    } catch (Exception e) {
       throw new SerializationException(
-          "Unsupported class:" + object.getClass().getName() + ", only support protobuf message");
+          "Cannot found method "
+              + clazz.getName()
+              + ".toByteArray(), please check the generated code");
     }
   }
 
   @Override
   public <T> T deserialize(byte[] data, String classOfT) throws CodecException {
-    try {
-      Class requestClass = Class.forName(classOfT);
-      return (T) decode(data, requestClass);
-    } catch (ClassNotFoundException e) {
-      throw new SerializationException("Cannot found class " + classOfT, e);
+    Class requestClass = classMap.get(classOfT);
+    if (requestClass == null) {
+      try {
+        requestClass = Class.forName(classOfT);
+      } catch (ClassNotFoundException e) {
+        throw new SerializationException("Cannot found class " + classOfT, e);
+      }
+      classMap.put(classOfT, requestClass);
     }
+    return (T) decode(data, requestClass);
   }
 
   public Object decode(byte[] bytes, Class clazz) throws DeserializationException {
     if (isProtoBufMessageLite(clazz)) {
+      final Parser parser = getParser(clazz);
       try {
-        Method method = parseMethodMap.get(clazz);
-        if (method == null) {
-          method = clazz.getMethod("parseFrom", byte[].class);
-          if (!Modifier.isStatic(method.getModifiers())) {
-            throw new CodecException(
-                "Cannot found method "
-                    + clazz.getName()
-                    + ".parseFrom(byte[]), please check the generated code");
-          }
-          method.setAccessible(true);
-          parseMethodMap.put(clazz, method);
+        if (parser != null) {
+          return parser.parseFrom(bytes);
         }
-        return method.invoke(null, bytes);
+        return getParseMethod(clazz).invoke(null, bytes);
       } catch (DeserializationException e) {
         throw e;
       } catch (Exception e) {
@@ -129,14 +137,63 @@ public class ProtobufSerializer implements Serializer {
     }
   }
 
+  /**
+   * lookup the parser by the generated static method parser() once
+   *
+   * @param clazz
+   * @return null if the class is not generated by protobuf-java 3.x or from another classloader
+   */
+  private Parser getParser(Class clazz) {
+    Parser parser = parserMap.get(clazz);
+    if (parser != null) {
+      return parser;
+    }
+    if (!MessageLite.class.isAssignableFrom(clazz) || parseMethodMap.containsKey(clazz)) {
+      return null;
+    }
+    try {
+      Method method = clazz.getMethod("parser");
+      if (Modifier.isStatic(method.getModifiers())) {
+        parser = (Parser) method.invoke(null);
+      }
+    } catch (Exception e) {
+      // fallback to parseFrom
+    }
+    if (parser != null) {
+      parserMap.put(clazz, parser);
+    }
+    return parser;
+  }
+
+  private Method getParseMethod(Class clazz) throws Exception {
+    Method method = parseMethodMap.get(clazz);
+    if (method == null) {
+      method = clazz.getMethod("parseFrom", byte[].class);
+      if (!Modifier.isStatic(method.getModifiers())) {
+        throw new CodecException(
+            "Cannot found method "
+                + clazz.getName()
+                + ".parseFrom(byte[]), please check the generated code");
+      }
+      method.setAccessible(true);
+      parseMethodMap.put(clazz, method);
+    }
+    return method;
+  }
+
   public static boolean isProtoBufMessageLite(Object object) {
+    if (object instanceof MessageLite) {
+      return true;
+    }
     Class clzz = object == null ? null : object.getClass();
     return isProtoBufMessageLite(clzz);
   }
 
   private static boolean isProtoBufMessageLite(Class clzz) {
     if (clzz != null) {
-      return isSpecificationInterface(clzz, MessageLite.class.getCanonicalName());
+      // the MessageLite may be loaded by another classloader, check the name
+      return MessageLite.class.isAssignableFrom(clzz)
+          || isSpecificationInterface(clzz, MessageLite.class.getCanonicalName());
     }
     return false;
   }
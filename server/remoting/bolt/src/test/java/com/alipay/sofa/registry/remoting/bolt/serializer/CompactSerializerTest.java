@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt.serializer;
+
+import com.alipay.remoting.InvokeContext;
+import com.alipay.remoting.exception.DeserializationException;
+import com.alipay.remoting.exception.SerializationException;
+import com.alipay.remoting.serialization.SerializerManager;
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.common.model.RegisterVersion;
+import com.alipay.sofa.registry.common.model.TraceTimes;
+import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
+import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
+import com.alipay.sofa.registry.common.model.sessionserver.DataSlotWatermarkRequest;
+import com.alipay.sofa.registry.common.model.sessionserver.SlotWatermark;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherRequest;
+import com.alipay.sofa.registry.remoting.bolt.BoltUtil;
+import com.alipay.sofa.registry.remoting.bolt.TestUtils;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompactSerializerTest {
+  private final CompactSerializer serializer = CompactSerializer.getInstance();
+
+  @Test
+  public void testDataChangeRequest() throws Exception {
+    Map<String, DatumVersion> versions = Maps.newHashMap();
+    for (int i = 0; i < 100; i++) {
+      versions.put("dataInfoId-" + i, DatumVersion.of(System.currentTimeMillis() + i));
+    }
+    TraceTimes times = new TraceTimes();
+    times.setDataChangeType(2);
+    times.setFirstDataChange(100);
+    times.setDatumNotifySend(System.currentTimeMillis());
+    DataChangeRequest request = new DataChangeRequest("testDc", versions, times);
+
+    byte[] bytes = serializer.serialize(request);
+    DataChangeRequest decoded = serializer.deserialize(bytes, DataChangeRequest.class.getName());
+    Assert.assertEquals(request.getDataCenter(), decoded.getDataCenter());
+    Assert.assertEquals(request.getDataInfoIds(), decoded.getDataInfoIds());
+    Assert.assertEquals(times.toString(), decoded.getTimes().toString());
+    Assert.assertEquals(times.getCreateTs(), decoded.getTimes().getCreateTs());
+    Assert.assertTrue(bytes.length < hessianSize(request));
+
+    request = new DataChangeRequest(null, Collections.emptyMap(), null);
+    decoded = serializer.deserialize(serializer.serialize(request), "");
+    Assert.assertNull(decoded.getDataCenter());
+    Assert.assertTrue(decoded.getDataInfoIds().isEmpty());
+    Assert.assertNull(decoded.getTimes());
+  }
+
+  @Test
+  public void testDiffDigestRequest() throws Exception {
+    Map<String, DatumDigest> digests = Maps.newHashMap();
+    Random random = new Random(1);
+    for (int i = 0; i < 100; i++) {
+      // the signs are hash values
+      digests.put(
+          "dataInfoId-" + i,
+          new DatumDigest(
+              i, random.nextLong(), random.nextLong(), random.nextLong(), (short) -i, (short) i));
+    }
+    DataSlotDiffDigestRequest request =
+        new DataSlotDiffDigestRequest(
+            System.currentTimeMillis(),
+            10,
+            digests,
+            new long[] {-1, 0, Long.MIN_VALUE},
+            Sets.newHashSet(1, 100, 1000));
+    byte[] bytes = serializer.serialize(request);
+    DataSlotDiffDigestRequest decoded =
+        serializer.deserialize(bytes, DataSlotDiffDigestRequest.class.getName());
+    Assert.assertEquals(request.getSlotTableEpoch(), decoded.getSlotTableEpoch());
+    Assert.assertEquals(request.getSlotId(), decoded.getSlotId());
+    Assert.assertEquals(request.getDatumDigest(), decoded.getDatumDigest());
+    Assert.assertArrayEquals(request.getBucketDigests(), decoded.getBucketDigests());
+    Assert.assertEquals(request.getBuckets(), decoded.getBuckets());
+    Assert.assertTrue(bytes.length < hessianSize(request));
+
+    request = DataSlotDiffDigestRequest.ofBuckets(1, 2, new long[0]);
+    decoded = serializer.deserialize(serializer.serialize(request), "");
+    Assert.assertTrue(decoded.isBucketDigest());
+    Assert.assertEquals(0, decoded.getBucketDigests().length);
+    Assert.assertTrue(decoded.getDatumDigest().isEmpty());
+    Assert.assertNull(decoded.getBuckets());
+  }
+
+  @Test
+  public void testDiffPublisherRequest() throws Exception {
+    List<DatumSummary> summaries = Lists.newArrayList();
+    for (int i = 0; i < 20; i++) {
+      Map<String, RegisterVersion> versions = Maps.newHashMap();
+      for (int j = 0; j < 10; j++) {
+        versions.put("registerId-" + j, RegisterVersion.of(j, System.currentTimeMillis()));
+      }
+      summaries.add(new DatumSummary("dataInfoId-" + i, versions));
+    }
+    DataSlotDiffPublisherRequest request = new DataSlotDiffPublisherRequest(100, 20, summaries);
+    byte[] bytes = serializer.serialize(request);
+    DataSlotDiffPublisherRequest decoded =
+        serializer.deserialize(bytes, DataSlotDiffPublisherRequest.class.getName());
+    Assert.assertEquals(request.getSlotTableEpoch(), decoded.getSlotTableEpoch());
+    Assert.assertEquals(request.getSlotId(), decoded.getSlotId());
+    Assert.assertEquals(summaries.size(), decoded.getDatumSummaries().size());
+    for (int i = 0; i < summaries.size(); i++) {
+      DatumSummary expect = summaries.get(i);
+      DatumSummary actual = decoded.getDatumSummaries().get(i);
+      Assert.assertEquals(expect.getDataInfoId(), actual.getDataInfoId());
+      Assert.assertEquals(expect.getPublisherVersions(), actual.getPublisherVersions());
+    }
+    Assert.assertTrue(bytes.length < hessianSize(request));
+  }
+
+  @Test
+  public void testSlotWatermarkRequest() throws Exception {
+    Map<Integer, SlotWatermark> watermarks = Maps.newHashMap();
+    for (int i = 0; i < 100; i++) {
+      watermarks.put(i, new SlotWatermark(System.currentTimeMillis(), -i * 31L, i % 2 == 0));
+    }
+    DataSlotWatermarkRequest request = new DataSlotWatermarkRequest("testDc", watermarks);
+    byte[] bytes = serializer.serialize(request);
+    DataSlotWatermarkRequest decoded =
+        serializer.deserialize(bytes, DataSlotWatermarkRequest.class.getName());
+    Assert.assertEquals(request.getDataCenter(), decoded.getDataCenter());
+    Assert.assertEquals(watermarks.size(), decoded.getWatermarks().size());
+    for (Map.Entry<Integer, SlotWatermark> e : watermarks.entrySet()) {
+      SlotWatermark actual = decoded.getWatermarks().get(e.getKey());
+      Assert.assertEquals(e.getValue().getLeaderEpoch(), actual.getLeaderEpoch());
+      Assert.assertEquals(e.getValue().getChecksum(), actual.getChecksum());
+      Assert.assertEquals(e.getValue().isGap(), actual.isGap());
+    }
+    Assert.assertTrue(bytes.length < hessianSize(request));
+  }
+
+  @Test
+  public void testHessianFallback() throws Exception {
+    GenericResponse<String> response = new GenericResponse<String>().fillSucceed("xx");
+    byte[] bytes = serializer.serialize(response);
+    // no frame for the message without schema
+    Assert.assertArrayEquals(
+        SerializerManager.getSerializer(SerializerManager.Hessian2).serialize(response), bytes);
+    GenericResponse<String> decoded =
+        serializer.deserialize(bytes, GenericResponse.class.getName());
+    Assert.assertTrue(decoded.isSuccess());
+    Assert.assertEquals("xx", decoded.getData());
+    // the hessian bytes never start with the format version
+    for (Object obj :
+        new Object[] {"x", "", 1, -1L, 1.0d, true, null, Collections.singletonList("x")}) {
+      bytes = SerializerManager.getSerializer(SerializerManager.Hessian2).serialize(obj);
+      Assert.assertNotEquals(CompactSerializer.FORMAT_VERSION, bytes[0]);
+      Assert.assertEquals(obj, serializer.deserialize(bytes, ""));
+    }
+  }
+
+  @Test
+  public void testException() throws Exception {
+    TestUtils.assertRunException(SerializationException.class, () -> serializer.serialize(null));
+    TestUtils.assertRunException(
+        DeserializationException.class, () -> serializer.deserialize(null, ""));
+    TestUtils.assertRunException(
+        DeserializationException.class, () -> serializer.deserialize(new byte[0], ""));
+    TestUtils.assertRunException(
+        DeserializationException.class,
+        () -> serializer.deserialize(new byte[] {CompactSerializer.FORMAT_VERSION}, ""));
+    TestUtils.assertRunException(
+        DeserializationException.class,
+        () -> serializer.deserialize(new byte[] {CompactSerializer.FORMAT_VERSION, 100}, ""));
+
+    byte[] bytes = serializer.serialize(new DataSlotDiffPublisherRequest(1, 2, null));
+    byte[] truncated = new byte[bytes.length - 1];
+    System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+    TestUtils.assertRunException(
+        DeserializationException.class, () -> serializer.deserialize(truncated, ""));
+    byte[] trailing = new byte[bytes.length + 1];
+    System.arraycopy(bytes, 0, trailing, 0, bytes.length);
+    TestUtils.assertRunException(
+        DeserializationException.class, () -> serializer.deserialize(trailing, ""));
+  }
+
+  @Test
+  public void testStringTable() {
+    CompactOutput out = new CompactOutput(0);
+    out.writeString("abc");
+    final int size = out.size();
+    out.writeString("abc");
+    Assert.assertEquals(size + 1, out.size());
+    out.writeString(null);
+    out.writeString("中文");
+    out.writeVarLong(-1L);
+    out.writeVarInt(Integer.MIN_VALUE);
+
+    CompactInput in = new CompactInput(out.toByteArray(), 0, out.size());
+    Assert.assertEquals("abc", in.readString());
+    Assert.assertEquals("abc", in.readString());
+    Assert.assertNull(in.readString());
+    Assert.assertEquals("中文", in.readString());
+    Assert.assertEquals(-1L, in.readVarLong());
+    Assert.assertEquals(Integer.MIN_VALUE, in.readVarInt());
+    Assert.assertEquals(0, in.remaining());
+  }
+
+  @Test
+  public void testInvokeContext() {
+    CompactSerializer.register();
+    Assert.assertSame(
+        serializer, SerializerManager.getSerializer(CompactSerializer.PROTOCOL_COMPACT));
+    DataChangeRequest request = new DataChangeRequest("dc", Collections.emptyMap(), null);
+    boolean enable = CompactSerializer.isSendEnable();
+    try {
+      CompactSerializer.setSendEnable(false);
+      Assert.assertNull(BoltUtil.newInvokeContext(request));
+      CompactSerializer.setSendEnable(true);
+      Assert.assertNull(BoltUtil.newInvokeContext(null));
+      Assert.assertNull(BoltUtil.newInvokeContext("xx"));
+      InvokeContext invokeContext = BoltUtil.newInvokeContext(request);
+      Assert.assertEquals(
+          CompactSerializer.PROTOCOL_COMPACT,
+          (byte) invokeContext.get(InvokeContext.BOLT_CUSTOM_SERIALIZER));
+    } finally {
+      CompactSerializer.setSendEnable(enable);
+    }
+  }
+
+  private static int hessianSize(Object obj) throws Exception {
+    return SerializerManager.getSerializer(SerializerManager.Hessian2).serialize(obj).length;
+  }
+}
@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.remoting.bolt.serializer;
 
 import com.alipay.remoting.exception.DeserializationException;
 import com.alipay.remoting.exception.SerializationException;
+import com.alipay.sofa.registry.common.model.client.pb.RegisterResponsePb;
 import com.alipay.sofa.registry.remoting.bolt.TestUtils;
 import org.junit.Assert;
 import org.junit.Test;
@@ -38,4 +39,32 @@ public class ProtobufSerializerTest {
     Assert.assertFalse(ProtobufSerializer.isProtoBufMessageLite(new Integer(10)));
     Assert.assertFalse(ProtobufSerializer.isProtoBufMessageLite("xx"));
   }
+
+  @Test
+  public void testCodec() throws Exception {
+    ProtobufSerializer serializer = ProtobufSerializer.getInstance();
+    RegisterResponsePb pb =
+        RegisterResponsePb.newBuilder()
+            .setRegistId("testRegisterId")
+            .setVersion(100)
+            .setMessage("testMessage")
+            .build();
+    byte[] bytes = serializer.serialize(pb);
+    Assert.assertArrayEquals(pb.toByteArray(), bytes);
+    for (int i = 0; i < 2; i++) {
+      // the second time hits the cache
+      RegisterResponsePb decoded =
+          serializer.deserialize(bytes, RegisterResponsePb.class.getName());
+      Assert.assertEquals(pb, decoded);
+      Assert.assertEquals(pb, serializer.decode(bytes, RegisterResponsePb.class));
+    }
+    Assert.assertTrue(ProtobufSerializer.isProtoBufMessageLite(pb));
+
+    bytes = serializer.serialize("xx");
+    Assert.assertEquals("xx", serializer.deserialize(bytes, String.class.getName()));
+
+    TestUtils.assertRunException(
+        DeserializationException.class,
+        () -> serializer.decode(new byte[] {1, 2, 3}, RegisterResponsePb.class));
+  }
 }
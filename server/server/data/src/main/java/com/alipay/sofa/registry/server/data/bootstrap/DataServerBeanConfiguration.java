@@ -21,9 +21,12 @@ import com.alipay.sofa.registry.remoting.bolt.exchange.BoltExchange;
 import com.alipay.sofa.registry.remoting.exchange.Exchange;
 import com.alipay.sofa.registry.remoting.jersey.exchange.JerseyExchange;
 import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.cache.DatumSnapshotRecorder;
 import com.alipay.sofa.registry.server.data.cache.DatumStorage;
 import com.alipay.sofa.registry.server.data.cache.LocalDatumStorage;
 import com.alipay.sofa.registry.server.data.change.DataChangeEventCenter;
+import com.alipay.sofa.registry.server.data.change.SessionInterestFilters;
+import com.alipay.sofa.registry.server.data.change.SessionSlotWatermarks;
 import com.alipay.sofa.registry.server.data.lease.SessionLeaseManager;
 import com.alipay.sofa.registry.server.data.providedata.CompressDatumService;
 import com.alipay.sofa.registry.server.data.providedata.FetchStopPushService;
@@ -144,6 +147,11 @@ public class DataServerBeanConfiguration {
     public DiskSlotTableRecorder diskSlotTableRecorder() {
       return new DiskSlotTableRecorder();
     }
+
+    @Bean
+    public DatumSnapshotRecorder datumSnapshotRecorder() {
+      return new DatumSnapshotRecorder();
+    }
   }
 
   @Configuration
@@ -187,8 +195,10 @@ public class DataServerBeanConfiguration {
     public Collection<AbstractServerHandler> serverHandlers() {
       Collection<AbstractServerHandler> list = new ArrayList<>();
       list.add(getDataHandler());
+      list.add(getMultiDataHandler());
       list.add(batchPutDataHandler());
       list.add(getDataVersionsHandler());
+      list.add(sessionInterestFilterHandler());
       return list;
     }
 
@@ -213,6 +223,11 @@ public class DataServerBeanConfiguration {
       return new GetDataHandler();
     }
 
+    @Bean
+    public AbstractServerHandler getMultiDataHandler() {
+      return new GetMultiDataHandler();
+    }
+
     @Bean
     public AbstractServerHandler slotFollowerDiffDataInfoIdRequestHandler() {
       return new SlotFollowerDiffDigestRequestHandler();
@@ -228,6 +243,11 @@ public class DataServerBeanConfiguration {
       return new GetDataVersionsHandler();
     }
 
+    @Bean
+    public AbstractServerHandler sessionInterestFilterHandler() {
+      return new SessionInterestFilterHandler();
+    }
+
     @Bean
     public AbstractServerHandler batchPutDataHandler() {
       return new BatchPutDataHandler();
@@ -251,6 +271,16 @@ public class DataServerBeanConfiguration {
     public DataChangeEventCenter dataChangeEventCenter() {
       return new DataChangeEventCenter();
     }
+
+    @Bean
+    public SessionInterestFilters sessionInterestFilters() {
+      return new SessionInterestFilters();
+    }
+
+    @Bean
+    public SessionSlotWatermarks sessionSlotWatermarks() {
+      return new SessionSlotWatermarks();
+    }
   }
 
   @Configuration
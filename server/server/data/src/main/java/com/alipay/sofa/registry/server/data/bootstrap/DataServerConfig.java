@@ -19,6 +19,7 @@ package com.alipay.sofa.registry.server.data.bootstrap;
 import com.alipay.sofa.registry.server.shared.config.ServerShareConfig;
 import com.alipay.sofa.registry.server.shared.env.ServerEnv;
 import com.alipay.sofa.registry.util.OsUtils;
+import java.io.File;
 import java.util.Collection;
 import org.apache.commons.lang.builder.ToStringBuilder;
 import org.apache.commons.lang.builder.ToStringStyle;
@@ -58,6 +59,8 @@ public class DataServerConfig implements ServerShareConfig {
 
   private int notifyRetryBackoffMillis = 500;
 
+  private int sessionInterestFilterExpireSecs = 300;
+
   private int notifyTempExecutorPoolSize = OsUtils.getCpuCount() * 3;
 
   private int notifyTempExecutorQueueSize = 4000;
@@ -100,6 +103,8 @@ public class DataServerConfig implements ServerShareConfig {
   // the publisher.digest if len(registerId/uuid+long+long), 50bytes
   private volatile int slotSyncPublisherDigestMaxNum = 4000;
 
+  private volatile boolean slotSyncBucketDigestEnable = false;
+
   private volatile int slotSyncPublisherMaxNum = 512;
 
   private int slotSyncRequestExecutorMinPoolSize = OsUtils.getCpuCount() * 3;
@@ -131,6 +136,23 @@ public class DataServerConfig implements ServerShareConfig {
 
   private boolean gracefulShutdown = false;
 
+  private boolean datumSnapshotEnable = false;
+
+  private String datumSnapshotDir =
+      System.getProperty("user.home") + File.separator + "registry" + File.separator + "datum";
+
+  private int datumSnapshotIntervalSecs = 60;
+
+  // the snapshot older than that is not restored
+  private int datumSnapshotMaxAgeSecs = 60 * 30;
+
+  private boolean slotWatermarkEnable = true;
+
+  private int slotWatermarkIntervalMillis = 3000;
+
+  // the max bytes of the datums in one GetMultiData response, the exceeded ones are left out
+  private int getMultiDataMaxBytes = 1024 * 1024 * 2;
+
   /**
    * constructor
    *
@@ -471,6 +493,24 @@ public class DataServerConfig implements ServerShareConfig {
     this.slotSyncPublisherDigestMaxNum = slotSyncPublisherDigestMaxNum;
   }
 
+  /**
+   * Getter method for property <tt>slotSyncBucketDigestEnable</tt>.
+   *
+   * @return property value of slotSyncBucketDigestEnable
+   */
+  public boolean isSlotSyncBucketDigestEnable() {
+    return slotSyncBucketDigestEnable;
+  }
+
+  /**
+   * Setter method for property <tt>slotSyncBucketDigestEnable</tt>.
+   *
+   * @param slotSyncBucketDigestEnable value to be assigned to property slotSyncBucketDigestEnable
+   */
+  public void setSlotSyncBucketDigestEnable(boolean slotSyncBucketDigestEnable) {
+    this.slotSyncBucketDigestEnable = slotSyncBucketDigestEnable;
+  }
+
   /**
    * Getter method for property <tt>slotSyncPublisherMaxNum</tt>.
    *
@@ -789,6 +829,14 @@ public class DataServerConfig implements ServerShareConfig {
     this.notifyRetryBackoffMillis = notifyRetryBackoffMillis;
   }
 
+  public int getSessionInterestFilterExpireSecs() {
+    return sessionInterestFilterExpireSecs;
+  }
+
+  public void setSessionInterestFilterExpireSecs(int sessionInterestFilterExpireSecs) {
+    this.sessionInterestFilterExpireSecs = sessionInterestFilterExpireSecs;
+  }
+
   public int getLowWaterMark() {
     return lowWaterMark;
   }
@@ -902,4 +950,60 @@ public class DataServerConfig implements ServerShareConfig {
   public void setGracefulShutdown(boolean gracefulShutdown) {
     this.gracefulShutdown = gracefulShutdown;
   }
+
+  public boolean isDatumSnapshotEnable() {
+    return datumSnapshotEnable;
+  }
+
+  public void setDatumSnapshotEnable(boolean datumSnapshotEnable) {
+    this.datumSnapshotEnable = datumSnapshotEnable;
+  }
+
+  public String getDatumSnapshotDir() {
+    return datumSnapshotDir;
+  }
+
+  public void setDatumSnapshotDir(String datumSnapshotDir) {
+    this.datumSnapshotDir = datumSnapshotDir;
+  }
+
+  public int getDatumSnapshotIntervalSecs() {
+    return datumSnapshotIntervalSecs;
+  }
+
+  public void setDatumSnapshotIntervalSecs(int datumSnapshotIntervalSecs) {
+    this.datumSnapshotIntervalSecs = datumSnapshotIntervalSecs;
+  }
+
+  public int getDatumSnapshotMaxAgeSecs() {
+    return datumSnapshotMaxAgeSecs;
+  }
+
+  public void setDatumSnapshotMaxAgeSecs(int datumSnapshotMaxAgeSecs) {
+    this.datumSnapshotMaxAgeSecs = datumSnapshotMaxAgeSecs;
+  }
+
+  public boolean isSlotWatermarkEnable() {
+    return slotWatermarkEnable;
+  }
+
+  public void setSlotWatermarkEnable(boolean slotWatermarkEnable) {
+    this.slotWatermarkEnable = slotWatermarkEnable;
+  }
+
+  public int getSlotWatermarkIntervalMillis() {
+    return slotWatermarkIntervalMillis;
+  }
+
+  public void setSlotWatermarkIntervalMillis(int slotWatermarkIntervalMillis) {
+    this.slotWatermarkIntervalMillis = slotWatermarkIntervalMillis;
+  }
+
+  public int getGetMultiDataMaxBytes() {
+    return getMultiDataMaxBytes;
+  }
+
+  public void setGetMultiDataMaxBytes(int getMultiDataMaxBytes) {
+    this.getMultiDataMaxBytes = getMultiDataMaxBytes;
+  }
 }
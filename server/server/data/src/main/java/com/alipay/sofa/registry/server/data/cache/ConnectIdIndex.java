@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.ConnectId;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * index the pub publishers by connectId, the index is maintained by the PublisherGroup under the
+ * write lock when the pubMap changes, the readers need to check the publisher in pubMap again
+ */
+final class ConnectIdIndex {
+  private final Map<ConnectId, Map<String /*registerId*/, String /*dataInfoId*/>> index =
+      Maps.newConcurrentMap();
+
+  void onReplace(
+      String dataInfoId, String registerId, PublisherEnvelope exist, PublisherEnvelope now) {
+    if (exist != null && exist.isPub()) {
+      if (now != null
+          && now.isPub()
+          && exist.publisher.connectId().equals(now.publisher.connectId())) {
+        return;
+      }
+      remove(exist.publisher.connectId(), registerId, dataInfoId);
+    }
+    if (now != null && now.isPub()) {
+      add(now.publisher.connectId(), registerId, dataInfoId);
+    }
+  }
+
+  private void add(ConnectId connectId, String registerId, String dataInfoId) {
+    index.compute(
+        connectId,
+        (k, v) -> {
+          if (v == null) {
+            v = Maps.newConcurrentMap();
+          }
+          v.put(registerId, dataInfoId);
+          return v;
+        });
+  }
+
+  private void remove(ConnectId connectId, String registerId, String dataInfoId) {
+    index.computeIfPresent(
+        connectId,
+        (k, v) -> {
+          v.remove(registerId, dataInfoId);
+          return v.isEmpty() ? null : v;
+        });
+  }
+
+  Map<String, String> get(ConnectId connectId) {
+    Map<String, String> registerIds = index.get(connectId);
+    return registerIds == null ? Collections.emptyMap() : registerIds;
+  }
+
+  int size() {
+    return index.size();
+  }
+}
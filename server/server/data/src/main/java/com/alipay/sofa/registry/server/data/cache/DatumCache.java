@@ -59,6 +59,14 @@ public class DatumCache {
     return version;
   }
 
+  public DatumDelta getDelta(String dataCenter, String dataInfoId, long sinceVersion) {
+    return localDatumStorage.getDelta(dataInfoId, sinceVersion);
+  }
+
+  public SubDatumSnapshot getSnapshot(String dataCenter, String dataInfoId) {
+    return localDatumStorage.getSnapshot(dataInfoId);
+  }
+
   public Map<String, DatumVersion> getVersions(
       String dataCenter, int slotId, Collection<String> targetDataInfoIds) {
     // local
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.util.StringFormatter;
+import java.util.List;
+import java.util.Map;
+
+/** the publisher changes of a datum between two versions, immutable */
+public final class DatumDelta {
+  private final String dataInfoId;
+
+  private final String dataCenter;
+
+  private final long fromVersion;
+
+  private final long version;
+
+  // registerId -> publisher, null value means the publisher is removed
+  private final Map<String, Publisher> changes;
+
+  private final List<Long> recentVersions;
+
+  DatumDelta(
+      String dataInfoId,
+      String dataCenter,
+      long fromVersion,
+      long version,
+      Map<String, Publisher> changes,
+      List<Long> recentVersions) {
+    this.dataInfoId = dataInfoId;
+    this.dataCenter = dataCenter;
+    this.fromVersion = fromVersion;
+    this.version = version;
+    this.changes = changes;
+    this.recentVersions = recentVersions;
+  }
+
+  public String getDataInfoId() {
+    return dataInfoId;
+  }
+
+  public String getDataCenter() {
+    return dataCenter;
+  }
+
+  public long getFromVersion() {
+    return fromVersion;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public Map<String, Publisher> getChanges() {
+    return changes;
+  }
+
+  public List<Long> getRecentVersions() {
+    return recentVersions;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format(
+        "DatumDelta{{},{},ver={}->{},changes={}}",
+        dataInfoId,
+        dataCenter,
+        fromVersion,
+        version,
+        changes.size());
+  }
+}
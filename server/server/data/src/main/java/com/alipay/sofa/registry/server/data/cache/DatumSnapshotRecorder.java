@@ -0,0 +1,314 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.remoting.exception.CodecException;
+import com.alipay.remoting.serialization.Serializer;
+import com.alipay.remoting.serialization.SerializerManager;
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.slot.SlotChangeListener;
+import com.alipay.sofa.registry.server.shared.slot.SlotTableRecorder;
+import com.alipay.sofa.registry.util.ConcurrentUtils;
+import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * record the publishers of the local slots to the disk periodically, only the slots changed since
+ * the last record are rewritten. after restart, the slot is restored from the record when it is
+ * assigned at the first time, then the slot sync only transfers the differences
+ *
+ * <p>file format of a slot: magic, format version, slot table epoch, slotId, timestamp, the datum
+ * num, [dataInfoId, hessian2 bytes of the publishers]..., crc32 of the above
+ */
+public final class DatumSnapshotRecorder implements SlotTableRecorder {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DatumSnapshotRecorder.class);
+
+  static final int MAGIC = 0x44534e50;
+  static final int FORMAT_VERSION = 1;
+
+  private final Serializer serializer = SerializerManager.getSerializer(SerializerManager.Hessian2);
+
+  @Autowired private DataServerConfig dataServerConfig;
+
+  @Autowired private DatumStorage localDatumStorage;
+
+  private final Set<Integer> ownedSlots = Sets.newConcurrentHashSet();
+
+  // the digests of the recorded slots, the slot is rewritten only if the digest changes
+  private final Map<Integer, long[]> recordedDigests = Maps.newConcurrentMap();
+
+  private volatile long slotTableEpoch = SlotTable.INIT.getEpoch();
+
+  private File dir;
+
+  @PostConstruct
+  public void init() {
+    if (initDir()) {
+      ConcurrentUtils.createDaemonThread("DatumSnapshotWriter", new Writer()).start();
+      LOGGER.info("datum snapshot enable, dir={}", dir);
+    }
+  }
+
+  boolean initDir() {
+    if (!dataServerConfig.isDatumSnapshotEnable()) {
+      LOGGER.info("datum snapshot disable");
+      return false;
+    }
+    final File file = new File(dataServerConfig.getDatumSnapshotDir());
+    if (!file.isDirectory() && !file.mkdirs()) {
+      LOGGER.error("failed to create datum snapshot dir {}, disable", file);
+      return false;
+    }
+    this.dir = file;
+    return true;
+  }
+
+  @Override
+  public void record(SlotTable slotTable) {
+    if (slotTable.getEpoch() > slotTableEpoch) {
+      this.slotTableEpoch = slotTable.getEpoch();
+    }
+  }
+
+  /**
+   * the listener must be registered after the listener of the storage, the publisher groups of the
+   * slot need to be created before restore
+   *
+   * @return null if disable
+   */
+  public SlotChangeListener getSlotChangeListener() {
+    return dir == null ? null : new SlotListener();
+  }
+
+  private final class SlotListener implements SlotChangeListener {
+
+    @Override
+    public void onSlotAdd(int slotId, Slot.Role role) {
+      // called on every slot table update, only restore at the first time
+      if (ownedSlots.add(slotId)) {
+        restore(slotId);
+      }
+    }
+
+    @Override
+    public void onSlotRemove(int slotId, Slot.Role role) {
+      ownedSlots.remove(slotId);
+      recordedDigests.remove(slotId);
+      File file = fileOf(slotId);
+      if (file.exists() && !file.delete()) {
+        LOGGER.warn("[remove]failed to delete {}", file);
+      }
+    }
+  }
+
+  private final class Writer extends WakeUpLoopRunnable {
+    @Override
+    public void runUnthrowable() {
+      recordSlots();
+    }
+
+    @Override
+    public int getWaitingMillis() {
+      return dataServerConfig.getDatumSnapshotIntervalSecs() * 1000;
+    }
+  }
+
+  @VisibleForTesting
+  synchronized int recordSlots() {
+    int count = 0;
+    for (int slotId : ownedSlots) {
+      final long[] digests = localDatumStorage.getBucketDigests(slotId, null);
+      if (Arrays.equals(digests, recordedDigests.get(slotId))) {
+        continue;
+      }
+      try {
+        final long startTimestamp = System.currentTimeMillis();
+        final int size = write(slotId);
+        recordedDigests.put(slotId, digests);
+        count++;
+        LOGGER.info(
+            "[record]slotId={}, epoch={}, size={}, span={}",
+            slotId,
+            slotTableEpoch,
+            size,
+            System.currentTimeMillis() - startTimestamp);
+      } catch (Throwable e) {
+        LOGGER.error("[record]failed to record slotId={}", slotId, e);
+      }
+    }
+    return count;
+  }
+
+  private int write(int slotId) throws IOException, CodecException {
+    final Map<String, Map<String, Publisher>> publishers = localDatumStorage.getPublishers(slotId);
+    final File tmp = new File(dir, fileName(slotId) + ".tmp");
+    try (BufferedOutputStream buffered = new BufferedOutputStream(new FileOutputStream(tmp))) {
+      final CheckedOutputStream checked = new CheckedOutputStream(buffered, new CRC32());
+      final DataOutputStream out = new DataOutputStream(checked);
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeLong(slotTableEpoch);
+      out.writeInt(slotId);
+      out.writeLong(System.currentTimeMillis());
+      out.writeInt(publishers.size());
+      for (Map.Entry<String, Map<String, Publisher>> e : publishers.entrySet()) {
+        final byte[] bytes = serializer.serialize(new ArrayList<>(e.getValue().values()));
+        out.writeUTF(e.getKey());
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+      out.flush();
+      // the checksum is not covered by itself
+      new DataOutputStream(buffered).writeLong(checked.getChecksum().getValue());
+    }
+    // replace the old record atomically, the reader never sees a partial file
+    Files.move(
+        tmp.toPath(),
+        fileOf(slotId).toPath(),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    return publishers.size();
+  }
+
+  @VisibleForTesting
+  boolean restore(int slotId) {
+    final File file = fileOf(slotId);
+    if (!file.exists()) {
+      return false;
+    }
+    try {
+      final SlotSnapshot snapshot = read(file);
+      final long age = System.currentTimeMillis() - snapshot.timestamp;
+      if (snapshot.slotId != slotId
+          || age > dataServerConfig.getDatumSnapshotMaxAgeSecs() * 1000L
+          || snapshot.slotTableEpoch > slotTableEpoch) {
+        LOGGER.info(
+            "[restore]skip slotId={}, record={}, age={}, epoch={}/{}",
+            slotId,
+            snapshot.slotId,
+            age,
+            snapshot.slotTableEpoch,
+            slotTableEpoch);
+        return false;
+      }
+      int count = 0;
+      for (Map.Entry<String, List<Publisher>> e : snapshot.publishers.entrySet()) {
+        List<Publisher> list = e.getValue();
+        Publisher.internPublisher(list);
+        localDatumStorage.put(e.getKey(), list);
+        count += list.size();
+      }
+      recordedDigests.put(slotId, localDatumStorage.getBucketDigests(slotId, null));
+      LOGGER.info(
+          "[restore]slotId={}, age={}, epoch={}, datum={}, publishers={}",
+          slotId,
+          age,
+          snapshot.slotTableEpoch,
+          snapshot.publishers.size(),
+          count);
+      return true;
+    } catch (Throwable e) {
+      LOGGER.error("[restore]failed to restore slotId={}, {}", slotId, file, e);
+      return false;
+    }
+  }
+
+  private SlotSnapshot read(File file) throws IOException, CodecException {
+    final byte[] content = Files.readAllBytes(file.toPath());
+    final int bodyLength = content.length - 8;
+    if (bodyLength < 0) {
+      throw new IOException("truncated file, length=" + content.length);
+    }
+    final CRC32 crc = new CRC32();
+    crc.update(content, 0, bodyLength);
+    if (crc.getValue() != ByteBuffer.wrap(content, bodyLength, 8).getLong()) {
+      throw new IOException("checksum mismatch");
+    }
+    final DataInputStream in =
+        new DataInputStream(new ByteArrayInputStream(content, 0, bodyLength));
+    final int magic = in.readInt();
+    final int version = in.readInt();
+    if (magic != MAGIC || version != FORMAT_VERSION) {
+      throw new IOException(String.format("unknown format, magic=%x, version=%d", magic, version));
+    }
+    final SlotSnapshot snapshot = new SlotSnapshot();
+    snapshot.slotTableEpoch = in.readLong();
+    snapshot.slotId = in.readInt();
+    snapshot.timestamp = in.readLong();
+    final int size = in.readInt();
+    snapshot.publishers = Maps.newHashMapWithExpectedSize(size);
+    for (int i = 0; i < size; i++) {
+      final String dataInfoId = in.readUTF();
+      final byte[] bytes = new byte[in.readInt()];
+      in.readFully(bytes);
+      List<Publisher> list = serializer.deserialize(bytes, ArrayList.class.getName());
+      snapshot.publishers.put(dataInfoId, list);
+    }
+    return snapshot;
+  }
+
+  private static final class SlotSnapshot {
+    long slotTableEpoch;
+    int slotId;
+    long timestamp;
+    Map<String, List<Publisher>> publishers;
+  }
+
+  private File fileOf(int slotId) {
+    return new File(dir, fileName(slotId));
+  }
+
+  private static String fileName(int slotId) {
+    return "slot-" + slotId + ".snapshot";
+  }
+
+  @VisibleForTesting
+  void setDataServerConfig(DataServerConfig dataServerConfig) {
+    this.dataServerConfig = dataServerConfig;
+  }
+
+  @VisibleForTesting
+  void setLocalDatumStorage(DatumStorage localDatumStorage) {
+    this.localDatumStorage = localDatumStorage;
+  }
+}
@@ -45,8 +45,31 @@ public interface DatumStorage {
 
   DatumVersion getVersion(String dataInfoId);
 
+  /**
+   * get the publisher changes since the version, served from the bounded delta log of the datum
+   *
+   * @param dataInfoId
+   * @param sinceVersion
+   * @return null if the datum not exists or the log could not cover the version
+   */
+  DatumDelta getDelta(String dataInfoId, long sinceVersion);
+
+  /**
+   * get the immutable SubDatum of the current version, built once per version
+   *
+   * @param dataInfoId
+   * @return null if the datum not exists
+   */
+  SubDatumSnapshot getSnapshot(String dataInfoId);
+
   Map<String, DatumVersion> getVersions(int slotId, Collection<String> targetDatInfoIds);
 
+  /**
+   * get the pub publishers of the connectId, lookup by the connectId index
+   *
+   * @param connectId
+   * @return registerId -> publisher
+   */
   Map<String, Publisher> getByConnectId(ConnectId connectId);
 
   Map<String, Map<String, Publisher>> getPublishers(int slot);
@@ -62,6 +85,8 @@ public interface DatumStorage {
 
   Map<String, Integer> getPubCount();
 
+  int getPubCount(int slotId);
+
   DatumVersion put(Publisher publisher);
 
   DatumVersion createEmptyDatumIfAbsent(String dataInfoId, String dataCenter);
@@ -82,6 +107,15 @@ public interface DatumStorage {
 
   Map<String, DatumSummary> getDatumSummary(int slotId);
 
+  /**
+   * get the bucket digests of the slot, maintained incrementally by the publisher changes
+   *
+   * @param slotId
+   * @param sessionIp null means the publishers of all sessions
+   * @return bucket digests, see SlotDigestUtils
+   */
+  long[] getBucketDigests(int slotId, String sessionIp);
+
   SlotChangeListener getSlotChangeListener();
 
   Set<ProcessId> getSessionProcessIds();
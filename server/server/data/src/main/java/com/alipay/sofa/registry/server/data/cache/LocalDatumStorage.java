@@ -23,14 +23,18 @@ import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotDigestUtils;
 import com.alipay.sofa.registry.common.model.slot.func.SlotFunction;
 import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.compress.CompressCachedExecutor;
+import com.alipay.sofa.registry.compress.CompressUtils;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
 import com.alipay.sofa.registry.server.data.slot.SlotChangeListener;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.alipay.sofa.registry.util.SystemUtils;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -47,6 +51,14 @@ public final class LocalDatumStorage implements DatumStorage {
 
   private final SlotFunction slotFunction = SlotFunctionRegistry.getFunc();
   private final Map<Integer, PublisherGroups> publisherGroupsMap = Maps.newConcurrentMap();
+  private static final String KEY_DATUM_SNAPSHOT_CACHE_CAPACITY = "registry.data.snapshot.capacity";
+
+  // the snapshots of the recent fetched datum versions, coalesce the concurrent builds
+  private static final CompressCachedExecutor<SubDatumSnapshot> SNAPSHOT_CACHE =
+      CompressUtils.newCachedExecutor(
+          "datum_snapshot",
+          60 * 1000,
+          SystemUtils.getSystemInteger(KEY_DATUM_SNAPSHOT_CACHE_CAPACITY, 1024 * 1024 * 128));
 
   @Autowired private DataServerConfig dataServerConfig;
 
@@ -79,6 +91,18 @@ public final class LocalDatumStorage implements DatumStorage {
     return groups == null ? null : groups.getVersion(dataInfoId);
   }
 
+  @Override
+  public DatumDelta getDelta(String dataInfoId, long sinceVersion) {
+    PublisherGroups groups = getPublisherGroups(dataInfoId);
+    return groups == null ? null : groups.getDelta(dataInfoId, sinceVersion);
+  }
+
+  @Override
+  public SubDatumSnapshot getSnapshot(String dataInfoId) {
+    PublisherGroups groups = getPublisherGroups(dataInfoId);
+    return groups == null ? null : groups.getSnapshot(dataInfoId, SNAPSHOT_CACHE);
+  }
+
   @Override
   public Map<String, DatumVersion> getVersions(int slotId, Collection<String> targetDataInfoIds) {
     PublisherGroups groups = getPublisherGroups(slotId);
@@ -106,8 +130,15 @@ public final class LocalDatumStorage implements DatumStorage {
     return map;
   }
 
+  @Override
+  public int getPubCount(int slotId) {
+    PublisherGroups groups = publisherGroupsMap.get(slotId);
+    return groups == null ? 0 : groups.pubCount();
+  }
+
   @Override
   public Map<String, Publisher> getByConnectId(ConnectId connectId) {
+    // lookup the connectId index of each slot, proportional to the publishers of the connectId
     Map<String, Publisher> m = Maps.newHashMapWithExpectedSize(64);
     publisherGroupsMap.values().forEach(g -> m.putAll(g.getByConnectId(connectId)));
     return m;
@@ -208,6 +239,14 @@ public final class LocalDatumStorage implements DatumStorage {
     return groups != null ? groups.getAllSummary() : Collections.emptyMap();
   }
 
+  @Override
+  public long[] getBucketDigests(int slotId, String sessionIp) {
+    final PublisherGroups groups = publisherGroupsMap.get(slotId);
+    return groups != null
+        ? groups.getBucketDigests(sessionIp)
+        : new long[SlotDigestUtils.BUCKET_NUM];
+  }
+
   @Override
   public SlotChangeListener getSlotChangeListener() {
     return new SlotListener();
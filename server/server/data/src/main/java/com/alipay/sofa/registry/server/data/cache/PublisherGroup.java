@@ -24,12 +24,17 @@ import com.alipay.sofa.registry.common.model.RegisterVersion;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.SlotDigestUtils;
 import com.alipay.sofa.registry.common.model.store.DataInfo;
 import com.alipay.sofa.registry.common.model.store.ProcessIdCache;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.WordCache;
+import com.alipay.sofa.registry.compress.CompressDatumKey;
+import com.alipay.sofa.registry.compress.CompressKey;
+import com.alipay.sofa.registry.concurrent.CachedExecutor;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.util.DatumVersionUtil;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.alipay.sofa.registry.util.StringFormatter;
@@ -37,7 +42,9 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -76,7 +83,32 @@ public final class PublisherGroup {
 
   private final ArrayDeque<Long> recentVersions = new ArrayDeque<>(RECENT_VERSIONS_CAP);
 
+  private final ConnectIdIndex connectIdIndex;
+
+  // the digest of the pub publishers, guarded by the lock
+  private final Map<String /*sessionIp*/, PublisherDigest> digests = Maps.newHashMap();
+
+  private static final int DELTA_LOG_CAP = RECENT_VERSIONS_CAP;
+
+  private static final int DELTA_LOG_MAX_CHANGES = 1024;
+
+  private static final DatumDelta[] EMPTY_DELTA_LOG = new DatumDelta[0];
+
+  // the plain snapshot has no encoding
+  private static final String SNAPSHOT_ENCODE = "";
+
+  // the changes after the current version, guarded by the lock, null means too many changes
+  private Map<String /*registerId*/, Publisher> pendingChanges = Maps.newHashMap();
+
+  // the deltas of the recent versions, copy on write under the lock and read without lock
+  private volatile DatumDelta[] deltaLog = EMPTY_DELTA_LOG;
+
   PublisherGroup(String dataInfoId, String dataCenter) {
+    this(dataInfoId, dataCenter, new ConnectIdIndex());
+  }
+
+  PublisherGroup(String dataInfoId, String dataCenter, ConnectIdIndex connectIdIndex) {
+    this.connectIdIndex = connectIdIndex;
     DataInfo dataInfo = DataInfo.valueOf(dataInfoId);
     this.dataInfoId = WordCache.getWordCache(dataInfoId);
     this.dataCenter = WordCache.getWordCache(dataCenter);
@@ -121,6 +153,26 @@ public final class PublisherGroup {
     return datum;
   }
 
+  /**
+   * get the snapshot of the current version, the concurrent builds of the same version are
+   * coalesced by the cache
+   *
+   * @param snapshotCache
+   * @return
+   */
+  SubDatumSnapshot getSnapshot(CachedExecutor<CompressKey, SubDatumSnapshot> snapshotCache) {
+    final long ver = this.version;
+    try {
+      // the version may be updated during the building, the newer snapshot is also acceptable
+      return snapshotCache.execute(
+          new CompressDatumKey(SNAPSHOT_ENCODE, dataInfoId, dataCenter, ver, 0),
+          () -> new SubDatumSnapshot(DatumUtils.of(toDatum())));
+    } catch (Exception e) {
+      throw new RuntimeException(
+          StringFormatter.format("build snapshot failed, {}, ver={}", dataInfoId, ver), e);
+    }
+  }
+
   List<Publisher> getPublishers() {
     List<Publisher> list = new ArrayList<>(pubMap.size());
     for (PublisherEnvelope envelope : pubMap.values()) {
@@ -152,6 +204,7 @@ public final class PublisherGroup {
         this.version = DatumVersionUtil.nextId();
       }
       appendRecentVersion(lastVersion);
+      appendDelta(lastVersion, this.version);
       return new DatumVersion(version);
     } finally {
       lock.writeLock().unlock();
@@ -165,12 +218,154 @@ public final class PublisherGroup {
     this.recentVersions.addLast(version);
   }
 
+  // need to hold the write lock
+  private void appendDelta(long fromVersion, long toVersion) {
+    final Map<String, Publisher> changes = this.pendingChanges;
+    this.pendingChanges = Maps.newHashMap();
+    if (changes == null) {
+      // too many changes, the log could not cover the versions before
+      this.deltaLog = EMPTY_DELTA_LOG;
+      return;
+    }
+    final DatumDelta[] log = this.deltaLog;
+    int start = log.length;
+    int changeNum = changes.size();
+    while (start > 0 && log.length - start + 1 < DELTA_LOG_CAP) {
+      final int num = log[start - 1].getChanges().size();
+      if (changeNum + num > DELTA_LOG_MAX_CHANGES) {
+        break;
+      }
+      changeNum += num;
+      start--;
+    }
+    DatumDelta[] newLog = Arrays.copyOfRange(log, start, log.length + 1);
+    newLog[newLog.length - 1] =
+        new DatumDelta(
+            dataInfoId,
+            dataCenter,
+            fromVersion,
+            toVersion,
+            Collections.unmodifiableMap(changes),
+            Collections.unmodifiableList(new ArrayList<>(recentVersions)));
+    this.deltaLog = newLog;
+  }
+
+  // need to hold the write lock
+  private void recordChange(String registerId, Publisher publisher) {
+    if (pendingChanges == null) {
+      return;
+    }
+    pendingChanges.put(registerId, publisher);
+    if (pendingChanges.size() > DELTA_LOG_MAX_CHANGES) {
+      pendingChanges = null;
+    }
+  }
+
+  /**
+   * merge the deltas since the version, lock free
+   *
+   * @param sinceVersion
+   * @return null if the log could not cover the version
+   */
+  DatumDelta getDelta(long sinceVersion) {
+    final DatumDelta[] log = this.deltaLog;
+    for (int i = 0; i < log.length; i++) {
+      if (log[i].getFromVersion() != sinceVersion) {
+        continue;
+      }
+      final DatumDelta last = log[log.length - 1];
+      if (i == log.length - 1) {
+        return last;
+      }
+      Map<String, Publisher> changes = Maps.newHashMap();
+      for (int j = i; j < log.length; j++) {
+        changes.putAll(log[j].getChanges());
+      }
+      return new DatumDelta(
+          dataInfoId,
+          dataCenter,
+          sinceVersion,
+          last.getVersion(),
+          changes,
+          last.getRecentVersions());
+    }
+    return null;
+  }
+
+  // need to hold the write lock
+  private void putEnvelope(String registerId, PublisherEnvelope exist, PublisherEnvelope now) {
+    pubMap.put(registerId, now);
+    onReplace(registerId, exist, now);
+  }
+
+  // need to hold the write lock, keep the connectIdIndex, digests and pendingChanges consistent
+  // with the pubMap
+  private void onReplace(String registerId, PublisherEnvelope exist, PublisherEnvelope now) {
+    connectIdIndex.onReplace(dataInfoId, registerId, exist, now);
+    final boolean nowPub = now != null && now.isPub();
+    if (nowPub || (exist != null && exist.isPub())) {
+      recordChange(registerId, nowPub ? now.publisher : null);
+    }
+    if (exist != null && exist.isPub()) {
+      final String sessionIp = exist.sessionProcessId.getHostAddress();
+      PublisherDigest digest = digests.get(sessionIp);
+      if (digest != null) {
+        digest.num--;
+        digest.hashSum -= SlotDigestUtils.publisherHash(registerId, exist.registerVersion);
+        if (digest.num == 0) {
+          digests.remove(sessionIp);
+        }
+      }
+    }
+    if (now != null && now.isPub()) {
+      PublisherDigest digest =
+          digests.computeIfAbsent(
+              now.sessionProcessId.getHostAddress(), k -> new PublisherDigest());
+      digest.num++;
+      digest.hashSum += SlotDigestUtils.publisherHash(registerId, now.registerVersion);
+    }
+  }
+
+  /**
+   * add the digest of the pub publishers to the bucket digests
+   *
+   * @param buckets bucket digests of the slot
+   * @param sessionIp null means all the publishers
+   */
+  void addBucketDigest(long[] buckets, String sessionIp) {
+    int num = 0;
+    long hashSum = 0;
+    lock.readLock().lock();
+    try {
+      if (sessionIp == null) {
+        for (PublisherDigest digest : digests.values()) {
+          num += digest.num;
+          hashSum += digest.hashSum;
+        }
+      } else {
+        PublisherDigest digest = digests.get(sessionIp);
+        if (digest != null) {
+          num = digest.num;
+          hashSum = digest.hashSum;
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    SlotDigestUtils.addDatum(buckets, dataInfoId, num, hashSum);
+  }
+
+  private static final class PublisherDigest {
+    int num;
+    long hashSum;
+  }
+
   private boolean tryAddPublisher(Publisher publisher) {
     PublisherEnvelope exist = pubMap.get(publisher.getRegisterId());
     final RegisterVersion registerVersion = publisher.registerVersion();
     if (exist == null) {
       PublisherEnvelope envelope = PublisherEnvelope.of(publisher);
-      pubMap.put(publisher.getRegisterId(), envelope);
+      putEnvelope(publisher.getRegisterId(), null, envelope);
       return envelope.isPub();
     }
 
@@ -195,7 +390,7 @@ public final class PublisherGroup {
       return false;
     }
     PublisherEnvelope envelope = PublisherEnvelope.of(publisher);
-    pubMap.put(publisher.getRegisterId(), envelope);
+    putEnvelope(publisher.getRegisterId(), exist, envelope);
 
     if (exist.publisher == null) {
       // publisher is null after client_off
@@ -261,6 +456,9 @@ public final class PublisherGroup {
           return null;
         }
         cleanContinues.onClean(size);
+        for (Map.Entry<String, PublisherEnvelope> e : pubMap.entrySet()) {
+          onReplace(e.getKey(), e.getValue(), null);
+        }
         pubMap.clear();
         return updateVersion();
       } finally {
@@ -284,6 +482,7 @@ public final class PublisherGroup {
           break;
         }
         if (pubMap.remove(clean.getKey(), clean.getValue())) {
+          onReplace(clean.getKey(), clean.getValue(), null);
           cleanContinues.onClean(1);
           modified = true;
         }
@@ -317,13 +516,15 @@ public final class PublisherGroup {
           // sync from leader
           if (sessionProcessId == null) {
             pubMap.remove(registerId);
+            onReplace(registerId, existing, null);
             modified = true;
             continue;
           }
           if (sessionProcessId.equals(existing.sessionProcessId)) {
             // syn from session, mark unpub with higher registerTimestamp
-            pubMap.put(
+            putEnvelope(
                 registerId,
+                existing,
                 PublisherEnvelope.unpubOf(removedVer.incrRegisterTimestamp(), sessionProcessId));
             modified = true;
           } else {
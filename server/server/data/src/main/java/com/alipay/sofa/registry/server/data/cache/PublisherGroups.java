@@ -22,10 +22,15 @@ import com.alipay.sofa.registry.common.model.RegisterVersion;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.SlotDigestUtils;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.compress.CompressKey;
+import com.alipay.sofa.registry.concurrent.CachedExecutor;
 import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Maps;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -40,6 +45,7 @@ import org.springframework.util.CollectionUtils;
 public final class PublisherGroups {
   private final Map<String, PublisherGroup> publisherGroupMap = Maps.newConcurrentMap();
   private final String dataCenter;
+  private final ConnectIdIndex connectIdIndex = new ConnectIdIndex();
 
   PublisherGroups(String dataCenter) {
     this.dataCenter = dataCenter;
@@ -55,6 +61,17 @@ public final class PublisherGroups {
     return group == null ? null : group.getVersion();
   }
 
+  DatumDelta getDelta(String dataInfoId, long sinceVersion) {
+    PublisherGroup group = publisherGroupMap.get(dataInfoId);
+    return group == null ? null : group.getDelta(sinceVersion);
+  }
+
+  SubDatumSnapshot getSnapshot(
+      String dataInfoId, CachedExecutor<CompressKey, SubDatumSnapshot> snapshotCache) {
+    PublisherGroup group = publisherGroupMap.get(dataInfoId);
+    return group == null ? null : group.getSnapshot(snapshotCache);
+  }
+
   Map<String, DatumVersion> getVersions(Collection<String> targetDataInfoIds) {
     if (CollectionUtils.isEmpty(targetDataInfoIds)) {
       final Map<String, DatumVersion> ret =
@@ -96,15 +113,37 @@ public final class PublisherGroups {
     return map;
   }
 
+  int pubCount() {
+    int count = 0;
+    for (PublisherGroup group : publisherGroupMap.values()) {
+      count += group.pubMap.size();
+    }
+    return count;
+  }
+
   Map<String, Publisher> getByConnectId(ConnectId connectId) {
-    Map<String, Publisher> map = Maps.newHashMapWithExpectedSize(64);
-    publisherGroupMap.values().forEach(v -> map.putAll(v.getByConnectId(connectId)));
+    final Map<String, String> registerIds = connectIdIndex.get(connectId);
+    if (registerIds.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    Map<String, Publisher> map = Maps.newHashMapWithExpectedSize(registerIds.size());
+    for (Map.Entry<String, String> e : registerIds.entrySet()) {
+      PublisherGroup group = publisherGroupMap.get(e.getValue());
+      if (group == null) {
+        continue;
+      }
+      // the index is updated after the pubMap, check again
+      PublisherEnvelope envelope = group.pubMap.get(e.getKey());
+      if (envelope != null && envelope.isConnectId(connectId)) {
+        map.put(e.getKey(), envelope.publisher);
+      }
+    }
     return map;
   }
 
   PublisherGroup createGroupIfAbsent(String dataInfoId) {
     return publisherGroupMap.computeIfAbsent(
-        dataInfoId, k -> new PublisherGroup(dataInfoId, dataCenter));
+        dataInfoId, k -> new PublisherGroup(dataInfoId, dataCenter, connectIdIndex));
   }
 
   Map<String, DatumVersion> clean(ProcessId sessionProcessId, CleanContinues cleanContinues) {
@@ -194,6 +233,14 @@ public final class PublisherGroups {
     return compacts;
   }
 
+  long[] getBucketDigests(String sessionIp) {
+    final long[] buckets = new long[SlotDigestUtils.BUCKET_NUM];
+    for (PublisherGroup group : publisherGroupMap.values()) {
+      group.addBucketDigest(buckets, sessionIp);
+    }
+    return buckets;
+  }
+
   int tombstoneNum() {
     int count = 0;
     for (PublisherGroup group : publisherGroupMap.values()) {
@@ -221,6 +268,11 @@ public final class PublisherGroups {
     return group.updateVersion();
   }
 
+  @VisibleForTesting
+  int connectIdIndexSize() {
+    return connectIdIndex.size();
+  }
+
   @Override
   public String toString() {
     return StringFormatter.format("PubGroups{{},size={}}", dataCenter, publisherGroupMap.size());
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.cache.Sizer;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.compress.Compressor;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
+
+/**
+ * the SubDatum of a datum version, immutable and shared by all the fetches of the version. the
+ * snapshot and the compressed publishers are kept in the weight bounded caches
+ */
+public final class SubDatumSnapshot implements Sizer {
+  private final SubDatum subDatum;
+
+  SubDatumSnapshot(SubDatum subDatum) {
+    this.subDatum = subDatum;
+  }
+
+  public long getVersion() {
+    return subDatum.getVersion();
+  }
+
+  public SubDatum getSubDatum() {
+    return subDatum;
+  }
+
+  /**
+   * @param compressor
+   * @return the SubDatum itself if the compressor is null
+   */
+  public SubDatum zip(Compressor compressor) {
+    // the compressed publishers are cached by the encoding and version
+    return DatumUtils.compressSubDatum(subDatum, compressor);
+  }
+
+  @Override
+  public int size() {
+    return subDatum.size();
+  }
+
+  @Override
+  public String toString() {
+    return "SubDatumSnapshot{" + subDatum.getDataInfoId() + ",ver=" + subDatum.getVersion() + '}';
+  }
+}
@@ -39,6 +39,9 @@ public final class ChangeMetrics {
   public static final Counter.Child SKIP_SAME_VALUE_COUNTER =
       CHANGE_COUNTER_.labels("skipSameValue");
 
+  // skip the session which is not interested in the changes
+  static final Counter.Child CHANGE_FILTER_COUNTER = CHANGE_COUNTER_.labels("filter");
+
   static final Counter.Child CHANGE_FAIL_COUNTER = CHANGE_COUNTER_.labels("fail");
   static final Counter.Child CHANGE_SUCCESS_COUNTER = CHANGE_COUNTER_.labels("success");
 
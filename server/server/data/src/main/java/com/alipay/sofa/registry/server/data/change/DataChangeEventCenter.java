@@ -63,6 +63,10 @@ public class DataChangeEventCenter {
 
   @Autowired private Exchange boltExchange;
 
+  @Autowired private SessionInterestFilters sessionInterestFilters;
+
+  @Autowired private SessionSlotWatermarks sessionSlotWatermarks;
+
   private final Map<String, DataChangeMerger> dataCenter2Changes = Maps.newConcurrentMap();
   private final ReadWriteLock lock = new ReentrantReadWriteLock();
   private final LinkedList<ChangeNotifierRetry> retryNotifiers = Lists.newLinkedList();
@@ -165,6 +169,9 @@ public class DataChangeEventCenter {
     final String dataCenter;
     final Map<String, DatumVersion> dataInfoIds;
     final TraceTimes times;
+    final String sessionIp;
+    // the checksums of the dataInfoIds group by slot, null if not track the watermark
+    final Map<Integer, Long> watermarkSums;
 
     volatile int retryCount;
 
@@ -172,12 +179,16 @@ public class DataChangeEventCenter {
         Channel channel,
         String dataCenter,
         Map<String, DatumVersion> dataInfoIds,
-        TraceTimes parentTimes) {
+        TraceTimes parentTimes,
+        String sessionIp,
+        Map<Integer, Long> watermarkSums) {
       this.dataCenter = dataCenter;
       this.channel = channel;
       this.dataInfoIds = dataInfoIds;
       this.times = parentTimes.copy();
       this.times.setDatumNotifyCreate(System.currentTimeMillis());
+      this.sessionIp = sessionIp;
+      this.watermarkSums = watermarkSums;
     }
 
     @Override
@@ -186,6 +197,7 @@ public class DataChangeEventCenter {
         if (!channel.isConnected()) {
           CHANGE_FAIL_COUNTER.inc();
           LOGGER.info("change notify failed, conn is closed, {}", channel);
+          onLost(this);
           return;
         }
         DataChangeRequest request = new DataChangeRequest(dataCenter, dataInfoIds, times);
@@ -193,6 +205,9 @@ public class DataChangeEventCenter {
         doNotify(request, channel);
         LOGGER.info("success to notify {}, {}", channel.getRemoteAddress(), this);
         CHANGE_SUCCESS_COUNTER.inc();
+        if (watermarkSums != null) {
+          sessionSlotWatermarks.onDelivered(sessionIp, watermarkSums);
+        }
       } catch (Throwable e) {
         CHANGE_FAIL_COUNTER.inc();
         LOGGER.error("failed to notify {}, {}", channel, this, e);
@@ -230,6 +245,13 @@ public class DataChangeEventCenter {
     }
     CHANGE_SKIP_COUNTER.inc();
     LOGGER.warn("skip retry of full, {}", notifier);
+    onLost(notifier);
+  }
+
+  private void onLost(ChangeNotifier notifier) {
+    if (notifier.watermarkSums != null) {
+      sessionSlotWatermarks.onLost(notifier.sessionIp, notifier.watermarkSums);
+    }
   }
 
   boolean commitRetry(ChangeNotifier retry) {
@@ -239,7 +261,7 @@ public class DataChangeEventCenter {
     synchronized (retryNotifiers) {
       if (retryNotifiers.size() >= maxSize) {
         // remove first
-        retryNotifiers.removeFirst();
+        onLost(retryNotifiers.removeFirst().notifier);
       }
       retryNotifiers.add(new ChangeNotifierRetry(retry, expireTimestamp));
     }
@@ -372,19 +394,38 @@ public class DataChangeEventCenter {
       for (Map.Entry<String, DatumVersion> entry : changes.entrySet()) {
         LOGGER.info("datum change notify: {},{}", entry.getKey(), entry.getValue());
       }
+      final boolean localDataCenter = dataServerConfig.isLocalDataCenter(dataCenter);
       for (Map.Entry<String, List<Channel>> entry : channelsMap.entrySet()) {
+        // only notify the changes which the session might be interested in
+        final Map<String, DatumVersion> interests =
+            sessionInterestFilters.filter(entry.getKey(), changes);
+        if (interests.isEmpty()) {
+          CHANGE_FILTER_COUNTER.inc();
+          continue;
+        }
         Channel channel = CollectionUtils.getRandom(entry.getValue());
+        // only the local versions are scanned by session
+        final Map<Integer, Long> watermarkSums =
+            localDataCenter ? sessionSlotWatermarks.onNotify(entry.getKey(), interests) : null;
+        final ChangeNotifier notifier =
+            new ChangeNotifier(
+                channel,
+                event.getDataCenter(),
+                interests,
+                event.getTraceTimes(),
+                entry.getKey(),
+                watermarkSums);
         try {
-          notifyExecutor.execute(
-              channel.getRemoteAddress(),
-              new ChangeNotifier(channel, event.getDataCenter(), changes, event.getTraceTimes()));
+          notifyExecutor.execute(channel.getRemoteAddress(), notifier);
           CHANGE_COMMIT_COUNTER.inc();
         } catch (FastRejectedExecutionException e) {
           CHANGE_SKIP_COUNTER.inc();
-          LOGGER.warn("commit notify full, {}, {}, {}", channel, changes.size(), e.getMessage());
+          LOGGER.warn("commit notify full, {}, {}, {}", channel, interests.size(), e.getMessage());
+          onLost(notifier);
         } catch (Throwable e) {
           CHANGE_SKIP_COUNTER.inc();
-          LOGGER.error("commit notify failed, {}, {}", channel, changes.size(), e);
+          LOGGER.error("commit notify failed, {}, {}", channel, interests.size(), e);
+          onLost(notifier);
         }
       }
     }
@@ -405,10 +446,12 @@ public class DataChangeEventCenter {
             retry.channel,
             retry.dataInfoIds.size(),
             e.getMessage());
+        onLost(retry);
       } catch (Throwable e) {
         CHANGE_SKIP_COUNTER.inc();
         LOGGER.error(
             "commit retry notify failed, {}, {}", retry.channel, retry.dataInfoIds.size(), e);
+        onLost(retry);
       }
     }
   }
@@ -482,10 +525,20 @@ public class DataChangeEventCenter {
     this.boltExchange = boltExchange;
   }
 
+  @VisibleForTesting
+  void setSessionInterestFilters(SessionInterestFilters sessionInterestFilters) {
+    this.sessionInterestFilters = sessionInterestFilters;
+  }
+
+  @VisibleForTesting
+  void setSessionSlotWatermarks(SessionSlotWatermarks sessionSlotWatermarks) {
+    this.sessionSlotWatermarks = sessionSlotWatermarks;
+  }
+
   @VisibleForTesting
   ChangeNotifier newChangeNotifier(
       Channel channel, String dataCenter, Map<String, DatumVersion> dataInfoIds) {
-    return new ChangeNotifier(channel, dataCenter, dataInfoIds, new TraceTimes());
+    return new ChangeNotifier(channel, dataCenter, dataInfoIds, new TraceTimes(), null, null);
   }
 
   @VisibleForTesting
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.change;
+
+import com.alipay.sofa.registry.common.model.ProcessId;
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.dataserver.InterestFilter;
+import com.alipay.sofa.registry.common.model.dataserver.SessionInterestFilterRequest;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * the interest filters published by sessions, key is the host address of session. if the session
+ * has not published the filter or the filter is expired, all the changes are notified to it
+ */
+public final class SessionInterestFilters {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SessionInterestFilters.class);
+
+  @Autowired DataServerConfig dataServerConfig;
+
+  private final Map<String, FilterEntry> filters = Maps.newConcurrentMap();
+
+  public boolean update(String sessionIp, SessionInterestFilterRequest request) {
+    final boolean[] updated = new boolean[1];
+    filters.compute(
+        sessionIp,
+        (k, exist) -> {
+          final long now = System.currentTimeMillis();
+          if (request.isFull()) {
+            if (exist != null
+                && exist.processId.equals(request.getSessionProcessId())
+                && exist.version > request.getVersion()) {
+              // out of order, the newer has arrived
+              return exist;
+            }
+            updated[0] = true;
+            return new FilterEntry(
+                request.getSessionProcessId(), request.getVersion(), request.getFilter(), now);
+          }
+          if (exist == null
+              || !exist.processId.equals(request.getSessionProcessId())
+              || exist.version != request.getVersion()) {
+            // the increments could not apply, fallback to notify all until next full filter
+            LOGGER.info(
+                "[SkipIncrement]{}, exist={}, {}",
+                sessionIp,
+                exist == null ? null : exist.version,
+                request);
+            return null;
+          }
+          // the filter is read by the notify threads, never modify it in place
+          updated[0] = true;
+          return new FilterEntry(
+              exist.processId, exist.version, exist.filter.copyWith(request.getIncrements()), now);
+        });
+    return updated[0];
+  }
+
+  public Map<String, DatumVersion> filter(String sessionIp, Map<String, DatumVersion> changes) {
+    if (filters.isEmpty()) {
+      return changes;
+    }
+    final FilterEntry entry = filters.get(sessionIp);
+    if (entry == null) {
+      return changes;
+    }
+    if (isExpired(entry)) {
+      filters.remove(sessionIp, entry);
+      LOGGER.info("[Expired]{}, ver={}, {}", sessionIp, entry.version, entry.processId);
+      return changes;
+    }
+    Map<String, DatumVersion> ret = Maps.newHashMapWithExpectedSize(changes.size());
+    for (Map.Entry<String, DatumVersion> e : changes.entrySet()) {
+      if (entry.filter.mightContain(e.getKey())) {
+        ret.put(e.getKey(), e.getValue());
+      }
+    }
+    return ret.size() == changes.size() ? changes : ret;
+  }
+
+  private boolean isExpired(FilterEntry entry) {
+    return System.currentTimeMillis() - entry.updateTimestamp
+        > dataServerConfig.getSessionInterestFilterExpireSecs() * 1000L;
+  }
+
+  @VisibleForTesting
+  Map<String, FilterEntry> getFilters() {
+    return filters;
+  }
+
+  @VisibleForTesting
+  void setDataServerConfig(DataServerConfig dataServerConfig) {
+    this.dataServerConfig = dataServerConfig;
+  }
+
+  static final class FilterEntry {
+    final ProcessId processId;
+    final long version;
+    final InterestFilter filter;
+    volatile long updateTimestamp;
+
+    FilterEntry(ProcessId processId, long version, InterestFilter filter, long updateTimestamp) {
+      this.processId = processId;
+      this.version = version;
+      this.filter = filter;
+      this.updateTimestamp = updateTimestamp;
+    }
+  }
+}
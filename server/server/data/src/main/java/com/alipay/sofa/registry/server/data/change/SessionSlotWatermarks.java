@@ -0,0 +1,292 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.change;
+
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.sessionserver.DataSlotWatermarkRequest;
+import com.alipay.sofa.registry.common.model.sessionserver.SlotWatermark;
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotConfig;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.remoting.CallbackHandler;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.remoting.Server;
+import com.alipay.sofa.registry.remoting.exchange.Exchange;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.slot.SlotManager;
+import com.alipay.sofa.registry.util.CollectionUtils;
+import com.alipay.sofa.registry.util.ConcurrentUtils;
+import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * the watermarks of the change notifications per session and per slot. the checksum only counts the
+ * delivered notifications, the lost one marks the slot as gap. the watermarks of the leader slots
+ * are sent to the sessions periodically, so the sessions only need to scan the versions of the
+ * slots which have gaps
+ */
+public final class SessionSlotWatermarks {
+  private static final Logger LOGGER = LoggerFactory.getLogger("SLOT-WATERMARK");
+
+  @Autowired DataServerConfig dataServerConfig;
+
+  @Autowired SlotManager slotManager;
+
+  @Autowired Exchange boltExchange;
+
+  private final Map<String /*sessionIp*/, Map<Integer, SlotState>> sessions =
+      Maps.newConcurrentMap();
+
+  private final WatermarkNotifier notifier = new WatermarkNotifier();
+
+  @PostConstruct
+  public void init() {
+    ConcurrentUtils.createDaemonThread("SlotWatermarkNotifier", notifier).start();
+  }
+
+  /**
+   * the changes are going to notify to the session
+   *
+   * @return the checksums group by slot, null if disable
+   */
+  public Map<Integer, Long> onNotify(String sessionIp, Map<String, DatumVersion> changes) {
+    if (!dataServerConfig.isSlotWatermarkEnable()) {
+      return null;
+    }
+    Map<Integer, Long> sums = Maps.newHashMapWithExpectedSize(8);
+    for (Map.Entry<String, DatumVersion> e : changes.entrySet()) {
+      final int slotId = slotManager.slotOf(e.getKey());
+      sums.merge(slotId, SlotWatermark.versionHash(e.getKey(), e.getValue().getValue()), Long::sum);
+    }
+    final Map<Integer, SlotState> slots =
+        sessions.computeIfAbsent(sessionIp, k -> Maps.newConcurrentMap());
+    for (Integer slotId : sums.keySet()) {
+      slots.computeIfAbsent(slotId, k -> new SlotState()).inflight();
+    }
+    return sums;
+  }
+
+  public void onDelivered(String sessionIp, Map<Integer, Long> sums) {
+    complete(sessionIp, sums, true);
+  }
+
+  public void onLost(String sessionIp, Map<Integer, Long> sums) {
+    complete(sessionIp, sums, false);
+  }
+
+  private void complete(String sessionIp, Map<Integer, Long> sums, boolean delivered) {
+    if (sums == null) {
+      return;
+    }
+    final Map<Integer, SlotState> slots = sessions.get(sessionIp);
+    if (slots == null) {
+      return;
+    }
+    for (Map.Entry<Integer, Long> e : sums.entrySet()) {
+      SlotState state = slots.get(e.getKey());
+      if (state != null) {
+        state.complete(e.getValue(), delivered);
+      }
+    }
+    if (!delivered) {
+      LOGGER.info("[Lost]{},slots={}", sessionIp, sums.keySet());
+    }
+  }
+
+  /**
+   * the watermarks are not delivered, restore the gaps carried by them, otherwise the gaps are lost
+   * and the next checksums still match
+   */
+  void onUnsent(String sessionIp, DataSlotWatermarkRequest request) {
+    final Map<Integer, SlotState> slots = sessions.get(sessionIp);
+    if (slots == null) {
+      return;
+    }
+    for (Map.Entry<Integer, SlotWatermark> e : request.getWatermarks().entrySet()) {
+      if (!e.getValue().isGap()) {
+        continue;
+      }
+      SlotState state = slots.get(e.getKey());
+      if (state != null) {
+        state.markGap();
+      }
+    }
+  }
+
+  /**
+   * @param leaderEpochs the leader slots and the epochs
+   * @return the slot which has inflight notifications is absent
+   */
+  DataSlotWatermarkRequest watermarks(String sessionIp, Map<Integer, Long> leaderEpochs) {
+    final Map<Integer, SlotState> slots = sessions.get(sessionIp);
+    Map<Integer, SlotWatermark> watermarks = Maps.newHashMapWithExpectedSize(leaderEpochs.size());
+    for (Map.Entry<Integer, Long> e : leaderEpochs.entrySet()) {
+      final SlotState state = slots == null ? null : slots.get(e.getKey());
+      final SlotWatermark watermark =
+          state == null ? new SlotWatermark(e.getValue(), 0, false) : state.watermark(e.getValue());
+      if (watermark != null) {
+        watermarks.put(e.getKey(), watermark);
+      }
+    }
+    return new DataSlotWatermarkRequest(dataServerConfig.getLocalDataCenter(), watermarks);
+  }
+
+  Map<Integer, Long> leaderEpochs() {
+    final long slotTableEpoch = slotManager.getSlotTableEpoch();
+    Map<Integer, Long> epochs = Maps.newHashMap();
+    for (int i = 0; i < SlotConfig.SLOT_NUM; i++) {
+      final Slot slot = slotManager.getSlot(i);
+      // only the migrated leader has the complete versions
+      if (slot != null
+          && slotManager.checkSlotAccess(i, slotTableEpoch, slot.getLeaderEpoch()).isAccept()) {
+        epochs.put(i, slot.getLeaderEpoch());
+      }
+    }
+    return epochs;
+  }
+
+  boolean notifyWatermarks() {
+    if (!dataServerConfig.isSlotWatermarkEnable()) {
+      sessions.clear();
+      return false;
+    }
+    final Server server = boltExchange.getServer(dataServerConfig.getNotifyPort());
+    if (server == null) {
+      return false;
+    }
+    final Map<String, List<Channel>> channels = server.selectAllAvailableChannelsForHostAddress();
+    sessions.keySet().retainAll(channels.keySet());
+    final Map<Integer, Long> leaderEpochs = leaderEpochs();
+    if (leaderEpochs.isEmpty()) {
+      return false;
+    }
+    for (Map.Entry<String, List<Channel>> e : channels.entrySet()) {
+      final DataSlotWatermarkRequest request = watermarks(e.getKey(), leaderEpochs);
+      final Channel channel = CollectionUtils.getRandom(e.getValue());
+      try {
+        server.sendCallback(
+            channel,
+            request,
+            new WatermarkCallback(e.getKey(), request),
+            dataServerConfig.getRpcTimeoutMillis());
+      } catch (Throwable t) {
+        onUnsent(e.getKey(), request);
+        LOGGER.error("failed to notify watermarks to {}, {}", channel, request, t);
+      }
+    }
+    return true;
+  }
+
+  private final class WatermarkCallback implements CallbackHandler {
+    final String sessionIp;
+    final DataSlotWatermarkRequest request;
+
+    WatermarkCallback(String sessionIp, DataSlotWatermarkRequest request) {
+      this.sessionIp = sessionIp;
+      this.request = request;
+    }
+
+    @Override
+    public void onCallback(Channel channel, Object message) {}
+
+    @Override
+    public void onException(Channel channel, Throwable exception) {
+      onUnsent(sessionIp, request);
+      LOGGER.error("failed to notify watermarks to {}", channel, exception);
+    }
+
+    @Override
+    public Executor getExecutor() {
+      // the callback is light, run it directly
+      return null;
+    }
+  }
+
+  private final class WatermarkNotifier extends WakeUpLoopRunnable {
+    @Override
+    public void runUnthrowable() {
+      notifyWatermarks();
+    }
+
+    @Override
+    public int getWaitingMillis() {
+      return dataServerConfig.getSlotWatermarkIntervalMillis();
+    }
+  }
+
+  static final class SlotState {
+    long checksum;
+    int inflight;
+    boolean gap;
+
+    synchronized void inflight() {
+      inflight++;
+    }
+
+    synchronized void complete(long sum, boolean delivered) {
+      inflight--;
+      if (delivered) {
+        checksum += sum;
+      } else {
+        gap = true;
+      }
+    }
+
+    synchronized SlotWatermark watermark(long leaderEpoch) {
+      if (inflight > 0) {
+        return null;
+      }
+      SlotWatermark watermark = new SlotWatermark(leaderEpoch, checksum, gap);
+      // the session would scan the versions of the slot after received the gap,
+      // the gap is restored by markGap if the watermark is not delivered
+      gap = false;
+      return watermark;
+    }
+
+    synchronized void markGap() {
+      gap = true;
+    }
+  }
+
+  @VisibleForTesting
+  void setDataServerConfig(DataServerConfig dataServerConfig) {
+    this.dataServerConfig = dataServerConfig;
+  }
+
+  @VisibleForTesting
+  void setSlotManager(SlotManager slotManager) {
+    this.slotManager = slotManager;
+  }
+
+  @VisibleForTesting
+  void setExchange(Exchange boltExchange) {
+    this.boltExchange = boltExchange;
+  }
+
+  @VisibleForTesting
+  SlotState getSlotState(String sessionIp, int slotId) {
+    Map<Integer, SlotState> slots = sessions.get(sessionIp);
+    return slots == null ? null : slots.get(slotId);
+  }
+}
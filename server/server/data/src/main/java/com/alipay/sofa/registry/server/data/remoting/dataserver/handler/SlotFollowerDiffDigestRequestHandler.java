@@ -18,10 +18,10 @@ package com.alipay.sofa.registry.server.data.remoting.dataserver.handler;
 
 import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.Node;
-import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestResult;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffUtils;
+import com.alipay.sofa.registry.common.model.slot.SlotDigestUtils;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
@@ -61,11 +61,17 @@ public class SlotFollowerDiffDigestRequestHandler
         LOGGER.warn("not leader of {}", slotId);
         return new GenericResponse().fillFailed("not leader of " + slotId);
       }
-      DataSlotDiffDigestResult result =
-          calcDiffResult(
-              slotId,
-              request.getDatumDigest(),
-              localDatumStorage.getPublishers(request.getSlotId()));
+      DataSlotDiffDigestResult result;
+      if (request.isBucketDigest()) {
+        // the bucket digests are maintained incrementally, not need to collect the publishers
+        result =
+            DataSlotDiffDigestResult.ofBuckets(
+                SlotDigestUtils.diffBuckets(
+                    request.getBucketDigests(), localDatumStorage.getBucketDigests(slotId, null)));
+        DataSlotDiffUtils.logDiffResult(result, slotId);
+      } else {
+        result = calcDiffResult(slotId, request, localDatumStorage.getPublishers(slotId));
+      }
       result.setSlotTableEpoch(slotManager.getSlotTableEpoch());
       return new GenericResponse().fillSucceed(result);
     } catch (Throwable e) {
@@ -78,10 +84,10 @@ public class SlotFollowerDiffDigestRequestHandler
 
   private DataSlotDiffDigestResult calcDiffResult(
       int targetSlot,
-      Map<String, DatumDigest> targetDigestMap,
+      DataSlotDiffDigestRequest request,
       Map<String, Map<String, Publisher>> existingPublishers) {
     DataSlotDiffDigestResult result =
-        DataSlotDiffUtils.diffDigestResult(targetDigestMap, existingPublishers);
+        DataSlotDiffUtils.diffDigestResult(request, existingPublishers);
     DataSlotDiffUtils.logDiffResult(result, targetSlot);
     return result;
   }
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
+
+import static com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.HandlerMetrics.GetData.*;
+
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
+import com.alipay.sofa.registry.compress.CompressUtils;
+import com.alipay.sofa.registry.compress.Compressor;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.cache.DatumDelta;
+import com.alipay.sofa.registry.server.data.cache.SubDatumSnapshot;
+import com.alipay.sofa.registry.server.data.providedata.CompressDatumService;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import javax.annotation.Resource;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/** the common of the handlers to get the datum of dataInfoIds */
+public abstract class AbstractGetDataHandler<T> extends AbstractDataHandler<T> {
+  private static final Logger LOGGER = DataLog.GET_LOGGER;
+
+  @Autowired protected DatumCache datumCache;
+
+  @Autowired private ThreadPoolExecutor getDataProcessorExecutor;
+
+  @Resource private CompressDatumService compressDatumService;
+
+  @Override
+  public Executor getExecutor() {
+    return getDataProcessorExecutor;
+  }
+
+  /**
+   * @param dataCenter
+   * @param dataInfoId
+   * @param sinceVersion the version of the datum cached by the session
+   * @return null if sinceVersion<=0 or the delta log could not cover the version
+   */
+  protected DatumDelta getDelta(String dataCenter, String dataInfoId, long sinceVersion) {
+    return sinceVersion > 0 ? datumCache.getDelta(dataCenter, dataInfoId, sinceVersion) : null;
+  }
+
+  protected SubDatumDelta responseDelta(DatumDelta delta) {
+    GET_DATUM_DELTA_COUNTER.inc();
+    LOGGER.info(
+        "getDelta,{},{},{},{}->{}",
+        delta.getDataInfoId(),
+        delta.getDataCenter(),
+        delta.getChanges().size(),
+        delta.getFromVersion(),
+        delta.getVersion());
+    return toSubDatumDelta(delta);
+  }
+
+  /**
+   * return SubDatum, it's serdeSize and memoryOverhead much smaller than Datum. the snapshot and
+   * the compressed forms are shared by the fetches of the same version
+   *
+   * @return null if the snapshot is null
+   */
+  protected SubDatum responseDatum(
+      String dataCenter, String dataInfoId, SubDatumSnapshot snapshot, String[] acceptEncodes) {
+    GET_DATUM_Y_COUNTER.inc();
+    if (snapshot == null) {
+      LOGGER.info("getNilD,{},{}", dataInfoId, dataCenter);
+      return null;
+    }
+    final SubDatum subDatum = snapshot.getSubDatum();
+    String encode = "";
+    Compressor compressor = compressDatumService.getCompressor(subDatum, acceptEncodes);
+    if (compressor != null) {
+      encode = compressor.getEncoding();
+    }
+    SubDatum zipDatum = snapshot.zip(compressor);
+    LOGGER.info(
+        "getD,{},{},{},{},encode={},dataBoxSize={},encodeSize={}",
+        dataInfoId,
+        dataCenter,
+        subDatum.mustGetPublishers().size(),
+        subDatum.getVersion(),
+        CompressUtils.normalizeEncode(encode),
+        zipDatum.getDataBoxBytes(),
+        zipDatum.size());
+    GET_PUBLISHER_COUNTER.inc(subDatum.mustGetPublishers().size());
+    return zipDatum;
+  }
+
+  static SubDatumDelta toSubDatumDelta(DatumDelta delta) {
+    List<SubPublisher> puts = Lists.newArrayListWithCapacity(delta.getChanges().size());
+    List<String> removes = Lists.newArrayList();
+    for (Map.Entry<String, Publisher> e : delta.getChanges().entrySet()) {
+      if (e.getValue() == null) {
+        removes.add(e.getKey());
+      } else {
+        puts.add(DatumUtils.of(e.getValue()));
+      }
+    }
+    return new SubDatumDelta(
+        delta.getDataInfoId(),
+        delta.getDataCenter(),
+        delta.getFromVersion(),
+        delta.getVersion(),
+        puts,
+        removes,
+        delta.getRecentVersions());
+  }
+
+  @VisibleForTesting
+  void setDatumCache(DatumCache datumCache) {
+    this.datumCache = datumCache;
+  }
+
+  @VisibleForTesting
+  void setCompressDatumService(CompressDatumService service) {
+    this.compressDatumService = service;
+  }
+}
@@ -70,6 +70,7 @@ public class BatchPutDataHandler extends AbstractDataHandler<BatchRequest> {
       // only reject the when moved
       return SlotAccessGenericResponse.failedResponse(slotAccess);
     }
+    slotManager.getSlotLoadCounter().recordChange(request.getSlotId(), request.getRequest().size());
     final String slotIdStr = String.valueOf(request.getSlotId());
     final Set<String> changeDataInfoIds = Sets.newHashSetWithExpectedSize(128);
     try {
@@ -18,24 +18,13 @@ package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
 
 import static com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.HandlerMetrics.GetData.*;
 
-import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.GetDataRequest;
 import com.alipay.sofa.registry.common.model.slot.SlotAccess;
 import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
-import com.alipay.sofa.registry.common.model.store.SubDatum;
-import com.alipay.sofa.registry.compress.CompressUtils;
-import com.alipay.sofa.registry.compress.Compressor;
-import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.remoting.Channel;
-import com.alipay.sofa.registry.server.data.cache.DatumCache;
-import com.alipay.sofa.registry.server.data.providedata.CompressDatumService;
-import com.alipay.sofa.registry.server.shared.util.DatumUtils;
+import com.alipay.sofa.registry.server.data.cache.DatumDelta;
+import com.alipay.sofa.registry.server.data.cache.SubDatumSnapshot;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
-import com.google.common.annotations.VisibleForTesting;
-import java.util.concurrent.Executor;
-import java.util.concurrent.ThreadPoolExecutor;
-import javax.annotation.Resource;
-import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * processor to get specific data
@@ -43,18 +32,7 @@ import org.springframework.beans.factory.annotation.Autowired;
  * @author qian.lqlq
  * @version $Id: GetDataProcessor.java, v 0.1 2017-12-01 15:48 qian.lqlq Exp $
  */
-public class GetDataHandler extends AbstractDataHandler<GetDataRequest> {
-  private static final Logger LOGGER = DataLog.GET_LOGGER;
-  @Autowired private DatumCache datumCache;
-
-  @Autowired private ThreadPoolExecutor getDataProcessorExecutor;
-
-  @Resource private CompressDatumService compressDatumService;
-
-  @Override
-  public Executor getExecutor() {
-    return getDataProcessorExecutor;
-  }
+public class GetDataHandler extends AbstractGetDataHandler<GetDataRequest> {
 
   @Override
   public void checkParam(GetDataRequest request) {
@@ -75,7 +53,11 @@ public class GetDataHandler extends AbstractDataHandler<GetDataRequest> {
       GET_DATUM_N_COUNTER.inc();
       return SlotAccessGenericResponse.failedResponse(slotAccessBefore);
     }
-    final Datum datum = datumCache.get(dataCenter, dataInfoId);
+    slotManager.getSlotLoadCounter().recordGet(slotAccessBefore.getSlotId(), 1);
+    // try the delta if the session has cached the datum, fallback to the full datum
+    final DatumDelta delta = getDelta(dataCenter, dataInfoId, request.getSinceVersion());
+    final SubDatumSnapshot snapshot =
+        delta == null ? datumCache.getSnapshot(dataCenter, dataInfoId) : null;
     // important. double check the slot access. avoid the case:
     // 1. the slot is leader, the first check pass
     // 2. slot moved and data cleaned
@@ -92,45 +74,16 @@ public class GetDataHandler extends AbstractDataHandler<GetDataRequest> {
       return SlotAccessGenericResponse.failedResponse(
           slotAccessAfter, "slotLeaderEpoch has change, prev=" + slotAccessBefore);
     }
-    // return SubDatum, it's serdeSize and memoryOverhead much smaller than Datum
-    SubDatum subDatum = datum != null ? DatumUtils.of(datum) : null;
-    String encode = "";
-    Compressor compressor =
-        compressDatumService.getCompressor(subDatum, request.getAcceptEncodes());
-    if (compressor != null) {
-      encode = compressor.getEncoding();
+    if (delta != null) {
+      return SlotAccessGenericResponse.successResponse(slotAccessAfter, responseDelta(delta));
     }
-    SubDatum zipDatum = DatumUtils.compressSubDatum(subDatum, compressor);
-    GET_DATUM_Y_COUNTER.inc();
-    if (subDatum != null) {
-      LOGGER.info(
-          "getD,{},{},{},{},encode={},dataBoxSize={},encodeSize={}",
-          dataInfoId,
-          dataCenter,
-          subDatum.mustGetPublishers().size(),
-          subDatum.getVersion(),
-          CompressUtils.normalizeEncode(encode),
-          zipDatum.getDataBoxBytes(),
-          zipDatum.size());
-      GET_PUBLISHER_COUNTER.inc(subDatum.mustGetPublishers().size());
-    } else {
-      LOGGER.info("getNilD,{},{}", dataInfoId, dataCenter);
-    }
-    return SlotAccessGenericResponse.successResponse(slotAccessAfter, zipDatum);
+    return SlotAccessGenericResponse.successResponse(
+        slotAccessAfter,
+        responseDatum(dataCenter, dataInfoId, snapshot, request.getAcceptEncodes()));
   }
 
   @Override
   public Class interest() {
     return GetDataRequest.class;
   }
-
-  @VisibleForTesting
-  void setDatumCache(DatumCache datumCache) {
-    this.datumCache = datumCache;
-  }
-
-  @VisibleForTesting
-  void setCompressDatumService(CompressDatumService service) {
-    this.compressDatumService = service;
-  }
 }
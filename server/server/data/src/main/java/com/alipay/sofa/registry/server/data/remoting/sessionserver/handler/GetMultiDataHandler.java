@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
+
+import static com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.HandlerMetrics.GetData.*;
+
+import com.alipay.sofa.registry.common.model.dataserver.GetMultiDataRequest;
+import com.alipay.sofa.registry.common.model.slot.SlotAccess;
+import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.data.cache.DatumDelta;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.List;
+import java.util.Map;
+
+/** processor to get the data of multi dataInfoIds in one slot, the slot access is checked once */
+public class GetMultiDataHandler extends AbstractGetDataHandler<GetMultiDataRequest> {
+  private static final Logger LOGGER = DataLog.GET_LOGGER;
+
+  @Override
+  public void checkParam(GetMultiDataRequest request) {
+    ParaCheckUtil.checkNonNegative(request.getSlotId(), "GetMultiDataRequest.slotId");
+    ParaCheckUtil.checkNotBlank(request.getDataCenter(), "GetMultiDataRequest.dataCenter");
+    ParaCheckUtil.checkNotEmpty(
+        request.getDataInfoIds().keySet(), "GetMultiDataRequest.dataInfoIds");
+    checkSessionProcessId(request.getSessionProcessId());
+  }
+
+  @Override
+  public Object doHandle(Channel channel, GetMultiDataRequest request) {
+    processSessionProcessId(channel, request.getSessionProcessId());
+    final int slotId = request.getSlotId();
+    final String dataCenter = request.getDataCenter();
+    GET_DATUM_MULTI_COUNTER.inc();
+    for (String dataInfoId : request.getDataInfoIds().keySet()) {
+      if (slotManager.slotOf(dataInfoId) != slotId) {
+        GET_DATUM_N_COUNTER.inc();
+        return SlotAccessGenericResponse.failedResponse(
+            StringFormatter.format("{} not belong to slot {}", dataInfoId, slotId));
+      }
+    }
+    final SlotAccess slotAccessBefore =
+        checkAccess(slotId, request.getSlotTableEpoch(), request.getSlotLeaderEpoch());
+    if (!slotAccessBefore.isAccept()) {
+      GET_DATUM_N_COUNTER.inc();
+      return SlotAccessGenericResponse.failedResponse(slotAccessBefore);
+    }
+    final int size = request.getDataInfoIds().size();
+    slotManager.getSlotLoadCounter().recordGet(slotId, size);
+    // the ones exceed the max bytes are left out, the session fetches them one by one.
+    // the deltas are collected first, they are smaller than the snapshots
+    final int maxBytes = dataServerConfig.getGetMultiDataMaxBytes();
+    int bytes = 0;
+    int truncated = 0;
+    Map<String, SubDatumDelta> subDeltas = Maps.newHashMapWithExpectedSize(size);
+    List<String> misses = Lists.newArrayListWithCapacity(size);
+    for (Map.Entry<String, Long> e : request.getDataInfoIds().entrySet()) {
+      if (bytes >= maxBytes) {
+        truncated++;
+        continue;
+      }
+      final DatumDelta delta = getDelta(dataCenter, e.getKey(), e.getValue());
+      if (delta == null) {
+        misses.add(e.getKey());
+        continue;
+      }
+      SubDatumDelta subDelta = responseDelta(delta);
+      subDeltas.put(e.getKey(), subDelta);
+      bytes += subDelta.size();
+    }
+    Map<String, SubDatum> subDatums = Maps.newHashMapWithExpectedSize(misses.size());
+    for (String dataInfoId : misses) {
+      if (bytes >= maxBytes) {
+        truncated++;
+        continue;
+      }
+      SubDatum subDatum =
+          responseDatum(
+              dataCenter,
+              dataInfoId,
+              datumCache.getSnapshot(dataCenter, dataInfoId),
+              request.getAcceptEncodes());
+      if (subDatum != null) {
+        subDatums.put(dataInfoId, subDatum);
+        bytes += subDatum.size();
+      }
+    }
+    // double check slot access, @see GetDataHandler
+    final SlotAccess slotAccessAfter =
+        checkAccess(slotId, request.getSlotTableEpoch(), request.getSlotLeaderEpoch());
+    if (slotAccessAfter.getSlotLeaderEpoch() != slotAccessBefore.getSlotLeaderEpoch()) {
+      GET_DATUM_N_COUNTER.inc();
+      return SlotAccessGenericResponse.failedResponse(
+          slotAccessAfter, "slotLeaderEpoch has change, prev=" + slotAccessBefore);
+    }
+    if (truncated != 0) {
+      LOGGER.info(
+          "getMulti truncated,{},slotId={},num={},truncated={},bytes={}",
+          dataCenter,
+          slotId,
+          size,
+          truncated,
+          bytes);
+    }
+    return SlotAccessGenericResponse.successResponse(
+        slotAccessAfter, new MultiSubDatum(subDatums, subDeltas));
+  }
+
+  @Override
+  public Class interest() {
+    return GetMultiDataRequest.class;
+  }
+}
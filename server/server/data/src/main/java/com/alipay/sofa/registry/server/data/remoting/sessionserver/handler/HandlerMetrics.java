@@ -33,6 +33,8 @@ public final class HandlerMetrics {
 
     static final Counter.Child GET_DATUM_Y_COUNTER = GET_DATUM_COUNTER.labels("Y");
     static final Counter.Child GET_DATUM_N_COUNTER = GET_DATUM_COUNTER.labels("N");
+    static final Counter.Child GET_DATUM_DELTA_COUNTER = GET_DATUM_COUNTER.labels("Delta");
+    static final Counter.Child GET_DATUM_MULTI_COUNTER = GET_DATUM_COUNTER.labels("Multi");
 
     static final Counter GET_PUBLISHER_COUNTER =
         Counter.build()
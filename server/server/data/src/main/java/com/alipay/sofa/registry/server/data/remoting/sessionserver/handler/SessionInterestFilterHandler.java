@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
+
+import com.alipay.sofa.registry.common.model.CommonResponse;
+import com.alipay.sofa.registry.common.model.dataserver.SessionInterestFilterRequest;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.data.change.SessionInterestFilters;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/** processor to receive the interest filter of session */
+public class SessionInterestFilterHandler
+    extends AbstractDataHandler<SessionInterestFilterRequest> {
+  private static final Logger LOGGER = DataLog.GET_LOGGER;
+
+  @Autowired private SessionInterestFilters sessionInterestFilters;
+
+  @Autowired private ThreadPoolExecutor getDataProcessorExecutor;
+
+  @Override
+  public Executor getExecutor() {
+    return getDataProcessorExecutor;
+  }
+
+  @Override
+  public void checkParam(SessionInterestFilterRequest request) {
+    checkSessionProcessId(request.getSessionProcessId());
+    ParaCheckUtil.checkNotNull(request.getIncrements(), "request.increments");
+  }
+
+  @Override
+  public Object doHandle(Channel channel, SessionInterestFilterRequest request) {
+    processSessionProcessId(channel, request.getSessionProcessId());
+    final String sessionIp = channel.getRemoteAddress().getAddress().getHostAddress();
+    final boolean updated = sessionInterestFilters.update(sessionIp, request);
+    LOGGER.info("interestFilter,{},{},updated={}", sessionIp, request, updated);
+    return updated
+        ? CommonResponse.buildSuccessResponse()
+        : CommonResponse.buildFailedResponse("version mismatch, need full filter");
+  }
+
+  @Override
+  public Class interest() {
+    return SessionInterestFilterRequest.class;
+  }
+
+  @VisibleForTesting
+  void setSessionInterestFilters(SessionInterestFilters sessionInterestFilters) {
+    this.sessionInterestFilters = sessionInterestFilters;
+  }
+}
@@ -29,6 +29,7 @@ import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestResult;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherResult;
+import com.alipay.sofa.registry.common.model.slot.SlotDigestUtils;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.WordCache;
 import com.alipay.sofa.registry.log.Logger;
@@ -194,7 +195,31 @@ public final class SlotDiffSyncer {
       int maxPublishers,
       SyncContinues continues,
       Map<String, DatumSummary> summaryMap) {
+    return sync(
+        slotId,
+        targetAddress,
+        exchanger,
+        slotTableEpoch,
+        summaryTargetIp,
+        maxPublishers,
+        continues,
+        summaryMap,
+        null);
+  }
+
+  boolean sync(
+      int slotId,
+      String targetAddress,
+      ClientSideExchanger exchanger,
+      long slotTableEpoch,
+      String summaryTargetIp,
+      int maxPublishers,
+      SyncContinues continues,
+      Map<String, DatumSummary> summaryMap,
+      Set<Integer> buckets) {
     final boolean syncSession = summaryTargetIp != null;
+    // buckets!=null, only diff the dataInfoIds in the different buckets
+    summaryMap = SlotDigestUtils.filterBuckets(summaryMap, buckets);
     if (syncSession) {
       SyncSession.observeSyncSessionId(slotId, summaryMap.size());
     } else {
@@ -202,7 +227,7 @@ public final class SlotDiffSyncer {
     }
     Map<String, DatumDigest> digestMap = PublisherDigestUtil.digest(summaryMap);
     DataSlotDiffDigestRequest request =
-        new DataSlotDiffDigestRequest(slotTableEpoch, slotId, digestMap);
+        new DataSlotDiffDigestRequest(slotTableEpoch, slotId, digestMap, null, buckets);
     Response exchangeResp = exchanger.requestRaw(targetAddress, request);
     GenericResponse<DataSlotDiffDigestResult> resp =
         (GenericResponse<DataSlotDiffDigestResult>) exchangeResp.getResult();
@@ -227,6 +252,56 @@ public final class SlotDiffSyncer {
         syncSession);
   }
 
+  /**
+   * compare the bucket digests of the slot before exchange the digest of every dataInfoId
+   *
+   * @return null if failed; result.diffBuckets is null if the target not support bucket digest
+   */
+  DataSlotDiffDigestResult syncBuckets(
+      int slotId,
+      String targetAddress,
+      ClientSideExchanger exchanger,
+      long slotTableEpoch,
+      String summaryTargetIp) {
+    final long[] bucketDigests = datumStorage.getBucketDigests(slotId, summaryTargetIp);
+    DataSlotDiffDigestRequest request =
+        DataSlotDiffDigestRequest.ofBuckets(slotTableEpoch, slotId, bucketDigests);
+    GenericResponse<DataSlotDiffDigestResult> resp =
+        (GenericResponse<DataSlotDiffDigestResult>)
+            exchanger.requestRaw(targetAddress, request).getResult();
+    if (resp == null || !resp.isSuccess()) {
+      LOGGER.error("DiffBucketFailed, slotId={} from {}, resp={}", slotId, targetAddress, resp);
+      return null;
+    }
+    DataSlotDiffDigestResult result = resp.getData();
+    final ProcessId sessionProcessId = result.getSessionProcessId();
+    if (sessionProcessId != null) {
+      sessionLeaseManager.renewSession(sessionProcessId);
+    }
+    DIFF_LOGGER.info(
+        "DiffBucket, slotId={} from {}, buckets={}",
+        slotId,
+        targetAddress,
+        result.getDiffBuckets());
+    return result;
+  }
+
+  /** @return null means sync all the buckets; empty means no bucket need to sync */
+  private Set<Integer> diffBuckets(
+      int slotId,
+      String targetAddress,
+      ClientSideExchanger exchanger,
+      long slotTableEpoch,
+      String summaryTargetIp) {
+    DataSlotDiffDigestResult result =
+        syncBuckets(slotId, targetAddress, exchanger, slotTableEpoch, summaryTargetIp);
+    if (result == null || result.getDiffBuckets() == null) {
+      // failed or not support, fallback to sync all
+      return null;
+    }
+    return Sets.newHashSet(result.getDiffBuckets());
+  }
+
   static Map<String, DatumSummary> getSummaryForSyncPublishers(
       DataSlotDiffDigestResult result, Map<String, DatumSummary> digestSummaryMap) {
     final Map<String, DatumSummary> newSummaryMap =
@@ -316,6 +391,13 @@ public final class SlotDiffSyncer {
       Map<String, DatumSummary> summary)
       throws RequestException {
     ParaCheckUtil.checkNotBlank(sessionIp, "sessionIp");
+    Set<Integer> buckets = null;
+    if (dataServerConfig.isSlotSyncBucketDigestEnable()) {
+      buckets = diffBuckets(slotId, sessionIp, exchanger, slotTableEpoch, sessionIp);
+      if (buckets != null && buckets.isEmpty()) {
+        return true;
+      }
+    }
 
     // summary == null means can not assembly summary before(eg:migrating);
     // can not change to CollectionUtils.isEmpty
@@ -333,7 +415,8 @@ public final class SlotDiffSyncer {
         sessionIp,
         dataServerConfig.getSlotSyncPublisherDigestMaxNum(),
         continues,
-        summary);
+        summary,
+        buckets);
   }
 
   public boolean syncSlotLeader(
@@ -344,6 +427,13 @@ public final class SlotDiffSyncer {
       SyncContinues continues)
       throws RequestException {
     ParaCheckUtil.checkNotBlank(slotLeaderIp, "slotLeaderIp");
+    Set<Integer> buckets = null;
+    if (dataServerConfig.isSlotSyncBucketDigestEnable()) {
+      buckets = diffBuckets(slotId, slotLeaderIp, exchanger, slotTableEpoch, null);
+      if (buckets != null && buckets.isEmpty()) {
+        return true;
+      }
+    }
     Map<String, DatumSummary> summary = datumStorage.getDatumSummary(slotId);
     return sync(
         slotId,
@@ -353,7 +443,8 @@ public final class SlotDiffSyncer {
         null,
         dataServerConfig.getSlotSyncPublisherDigestMaxNum(),
         continues,
-        summary);
+        summary,
+        buckets);
   }
 
   static Map<String, DatumSummary> pickSummaries(Map<String, DatumSummary> syncSummaries, int n) {
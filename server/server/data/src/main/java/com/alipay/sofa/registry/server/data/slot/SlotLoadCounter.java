@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.slot;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/** counts the changes and the gets of each slot, the rates are refreshed by the heartbeat */
+public final class SlotLoadCounter {
+  static final long MIN_WINDOW_MILLIS = 1000;
+
+  private final AtomicLongArray changes;
+  private final AtomicLongArray gets;
+
+  private final long[] lastChanges;
+  private final long[] lastGets;
+  private volatile double[] changeQps;
+  private volatile double[] getQps;
+  private long lastMillis;
+
+  public SlotLoadCounter(int slotNum) {
+    this.changes = new AtomicLongArray(slotNum);
+    this.gets = new AtomicLongArray(slotNum);
+    this.lastChanges = new long[slotNum];
+    this.lastGets = new long[slotNum];
+    this.changeQps = new double[slotNum];
+    this.getQps = new double[slotNum];
+    this.lastMillis = System.currentTimeMillis();
+  }
+
+  public void recordChange(int slotId, int count) {
+    changes.addAndGet(slotId, count);
+  }
+
+  public void recordGet(int slotId, int count) {
+    gets.addAndGet(slotId, count);
+  }
+
+  /**
+   * compute the rates since the last refresh, keep the last rates if the window is too small
+   *
+   * @param now current millis
+   * @return true if refreshed
+   */
+  public synchronized boolean refresh(long now) {
+    final long window = now - lastMillis;
+    if (window < MIN_WINDOW_MILLIS) {
+      return false;
+    }
+    final int slotNum = lastChanges.length;
+    double[] newChangeQps = new double[slotNum];
+    double[] newGetQps = new double[slotNum];
+    for (int i = 0; i < slotNum; i++) {
+      final long c = changes.get(i);
+      final long g = gets.get(i);
+      newChangeQps[i] = (c - lastChanges[i]) * 1000.0 / window;
+      newGetQps[i] = (g - lastGets[i]) * 1000.0 / window;
+      lastChanges[i] = c;
+      lastGets[i] = g;
+    }
+    this.changeQps = newChangeQps;
+    this.getQps = newGetQps;
+    this.lastMillis = now;
+    return true;
+  }
+
+  public double getChangeQps(int slotId) {
+    return changeQps[slotId];
+  }
+
+  public double getGetQps(int slotId) {
+    return getQps[slotId];
+  }
+}
@@ -50,4 +50,6 @@ public interface SlotManager {
   void triggerUpdateSlotTable(long epoch);
 
   Tuple<Long, List<BaseSlotStatus>> getSlotTableEpochAndStatuses();
+
+  SlotLoadCounter getSlotLoadCounter();
 }
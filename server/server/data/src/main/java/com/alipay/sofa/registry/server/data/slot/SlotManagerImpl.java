@@ -27,6 +27,7 @@ import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.DatumSnapshotRecorder;
 import com.alipay.sofa.registry.server.data.cache.DatumStorage;
 import com.alipay.sofa.registry.server.data.change.DataChangeEventCenter;
 import com.alipay.sofa.registry.server.data.change.DataChangeType;
@@ -87,6 +88,9 @@ public final class SlotManagerImpl implements SlotManager {
   @Autowired(required = false)
   private List<SlotTableRecorder> recorders;
 
+  @Autowired(required = false)
+  private DatumSnapshotRecorder datumSnapshotRecorder;
+
   private final List<SlotChangeListener> slotChangeListeners = new ArrayList<>();
 
   private KeyedThreadPoolExecutor migrateSessionExecutor;
@@ -102,6 +106,7 @@ public final class SlotManagerImpl implements SlotManager {
   private final AtomicReference<SlotTable> updatingSlotTable = new AtomicReference<SlotTable>();
   private final ReadWriteLock updateLock = new ReentrantReadWriteLock();
   private final SlotTableStates slotTableStates = new SlotTableStates();
+  private final SlotLoadCounter slotLoadCounter = new SlotLoadCounter(SlotConfig.SLOT_NUM);
 
   @PostConstruct
   public void init() {
@@ -115,6 +120,13 @@ public final class SlotManagerImpl implements SlotManager {
     if (l != null) {
       this.slotChangeListeners.add(l);
     }
+    // restore the snapshot after the storage creating the slot
+    if (datumSnapshotRecorder != null) {
+      l = datumSnapshotRecorder.getSlotChangeListener();
+      if (l != null) {
+        this.slotChangeListeners.add(l);
+      }
+    }
   }
 
   void initExecutors() {
@@ -211,6 +223,7 @@ public final class SlotManagerImpl implements SlotManager {
   public List<BaseSlotStatus> getSlotStatuses() {
     List<BaseSlotStatus> slotStatuses =
         Lists.newArrayListWithCapacity(slotTableStates.slotStates.size());
+    slotLoadCounter.refresh(System.currentTimeMillis());
     updateLock.readLock().lock();
     try {
       for (Map.Entry<Integer, SlotState> entry : slotTableStates.slotStates.entrySet()) {
@@ -225,6 +238,11 @@ public final class SlotManagerImpl implements SlotManager {
                   slotState.migrated
                       ? BaseSlotStatus.LeaderStatus.HEALTHY
                       : BaseSlotStatus.LeaderStatus.UNHEALTHY);
+          status.setSlotLoad(
+              new SlotLoad(
+                  localDatumStorage.getPubCount(slotId),
+                  slotLoadCounter.getChangeQps(slotId),
+                  slotLoadCounter.getGetQps(slotId)));
           slotStatuses.add(status);
         } else {
           final KeyedTask syncLeaderTask = slotState.syncLeaderTask;
@@ -592,8 +610,11 @@ public final class SlotManagerImpl implements SlotManager {
     }
 
     if (!CollectionUtils.isEmpty(doSyncSet)) {
+      // compare the bucket digests first, assembly the summary only if the buckets are different
       final Map<String, Map<String, DatumSummary>> datumSummary =
-          localDatumStorage.getDatumSummary(slotState.slotId, doSyncSet);
+          dataServerConfig.isSlotSyncBucketDigestEnable()
+              ? Collections.emptyMap()
+              : localDatumStorage.getDatumSummary(slotState.slotId, doSyncSet);
       for (String sessionIp : doSyncSet) {
         Map<String, DatumSummary> summary = datumSummary.get(sessionIp);
         syncSession(slotState, sessionIp, summary, syncSessionIntervalMs, slotTableEpoch);
@@ -927,6 +948,11 @@ public final class SlotManagerImpl implements SlotManager {
     }
   }
 
+  @Override
+  public SlotLoadCounter getSlotLoadCounter() {
+    return slotLoadCounter;
+  }
+
   @Override
   public long getSlotTableEpoch() {
     return slotTableStates.table.getEpoch();
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.server.data.TestBaseUtils;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.slot.SlotChangeListener;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DatumSnapshotRecorderTest {
+  private static final String testDc = "localDc";
+  private static final int slotId = 10;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testDisable() {
+    LocalDatumStorage storage = TestBaseUtils.newLocalStorage(testDc, false);
+    DatumSnapshotRecorder recorder = new DatumSnapshotRecorder();
+    recorder.setDataServerConfig(storage.getDataServerConfig());
+    recorder.setLocalDatumStorage(storage);
+    recorder.init();
+    Assert.assertNull(recorder.getSlotChangeListener());
+  }
+
+  @Test
+  public void testRecordAndRestore() throws Exception {
+    LocalDatumStorage storage = newStorage();
+    DatumSnapshotRecorder recorder = newRecorder(storage, 100);
+    SlotChangeListener listener = recorder.getSlotChangeListener();
+    listener.onSlotAdd(slotId, Slot.Role.Leader);
+
+    List<Publisher> publishers = TestBaseUtils.createTestPublishers(slotId, 10);
+    storage.put(publishers.get(0).getDataInfoId(), publishers);
+    Assert.assertEquals(1, recorder.recordSlots());
+    // not changed, skip
+    Assert.assertEquals(0, recorder.recordSlots());
+
+    LocalDatumStorage restored = newStorage();
+    DatumSnapshotRecorder restoreRecorder = newRecorder(restored, 100);
+    restoreRecorder.getSlotChangeListener().onSlotAdd(slotId, Slot.Role.Follower);
+    assertSame(storage, restored);
+    // restored slot not need to record again
+    Assert.assertEquals(0, restoreRecorder.recordSlots());
+
+    // restore only at the first time
+    LocalDatumStorage empty = newStorage();
+    DatumSnapshotRecorder emptyRecorder = newRecorder(empty, 100);
+    emptyRecorder.getSlotChangeListener().onSlotAdd(slotId, Slot.Role.Leader);
+    empty.getSlotChangeListener().onSlotRemove(slotId, Slot.Role.Leader);
+    empty.getSlotChangeListener().onSlotAdd(slotId, Slot.Role.Leader);
+    emptyRecorder.getSlotChangeListener().onSlotAdd(slotId, Slot.Role.Leader);
+    Assert.assertTrue(empty.getPublishers(slotId).isEmpty());
+
+    // remove the slot, delete the record
+    listener.onSlotRemove(slotId, Slot.Role.Leader);
+    Assert.assertFalse(newRecorder(newStorage(), 100).restore(slotId));
+  }
+
+  @Test
+  public void testRestoreSkip() throws Exception {
+    LocalDatumStorage storage = newStorage();
+    DatumSnapshotRecorder recorder = newRecorder(storage, 100);
+    recorder.getSlotChangeListener().onSlotAdd(slotId, Slot.Role.Leader);
+    List<Publisher> publishers = TestBaseUtils.createTestPublishers(slotId, 3);
+    storage.put(publishers.get(0).getDataInfoId(), publishers);
+    Assert.assertEquals(1, recorder.recordSlots());
+
+    // the slot table epoch is older than the record
+    Assert.assertFalse(newRecorder(newStorage(), 99).restore(slotId));
+
+    // too old
+    LocalDatumStorage restored = newStorage();
+    DatumSnapshotRecorder oldRecorder = newRecorder(restored, 100);
+    restored.getDataServerConfig().setDatumSnapshotMaxAgeSecs(-1);
+    Assert.assertFalse(oldRecorder.restore(slotId));
+    restored.getDataServerConfig().setDatumSnapshotMaxAgeSecs(60);
+    Assert.assertTrue(oldRecorder.restore(slotId));
+
+    // broken file
+    File file = new File(folder.getRoot(), "slot-" + slotId + ".snapshot");
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.seek(raf.length() / 2);
+      int b = raf.read();
+      raf.seek(raf.length() / 2);
+      raf.write(b + 1);
+    }
+    Assert.assertFalse(newRecorder(newStorage(), 100).restore(slotId));
+  }
+
+  private LocalDatumStorage newStorage() {
+    LocalDatumStorage storage = TestBaseUtils.newLocalStorage(testDc, false);
+    DataServerConfig config = storage.getDataServerConfig();
+    config.setDatumSnapshotEnable(true);
+    config.setDatumSnapshotDir(folder.getRoot().getAbsolutePath());
+    config.setDatumSnapshotIntervalSecs(3600);
+    storage.getSlotChangeListener().onSlotAdd(slotId, Slot.Role.Leader);
+    return storage;
+  }
+
+  private static DatumSnapshotRecorder newRecorder(LocalDatumStorage storage, long epoch) {
+    DatumSnapshotRecorder recorder = new DatumSnapshotRecorder();
+    recorder.setDataServerConfig(storage.getDataServerConfig());
+    recorder.setLocalDatumStorage(storage);
+    Assert.assertTrue(recorder.initDir());
+    recorder.record(new SlotTable(epoch, Collections.emptyList()));
+    return recorder;
+  }
+
+  private static void assertSame(LocalDatumStorage expect, LocalDatumStorage actual) {
+    Map<String, Map<String, Publisher>> expectPublishers = expect.getPublishers(slotId);
+    Map<String, Map<String, Publisher>> actualPublishers = actual.getPublishers(slotId);
+    Assert.assertEquals(expectPublishers.keySet(), actualPublishers.keySet());
+    for (Map.Entry<String, Map<String, Publisher>> e : expectPublishers.entrySet()) {
+      Map<String, Publisher> actualMap = actualPublishers.get(e.getKey());
+      Assert.assertEquals(e.getValue().keySet(), actualMap.keySet());
+      for (Publisher p : e.getValue().values()) {
+        Publisher a = actualMap.get(p.getRegisterId());
+        Assert.assertEquals(p.registerVersion(), a.registerVersion());
+        Assert.assertEquals(p.getSessionProcessId(), a.getSessionProcessId());
+        Assert.assertEquals(p.getDataList(), a.getDataList());
+      }
+    }
+    Assert.assertArrayEquals(
+        expect.getBucketDigests(slotId, null), actual.getBucketDigests(slotId, null));
+  }
+}
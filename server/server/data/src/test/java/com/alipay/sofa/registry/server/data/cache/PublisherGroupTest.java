@@ -24,9 +24,15 @@ import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.compress.CompressCachedExecutor;
+import com.alipay.sofa.registry.compress.CompressConstants;
+import com.alipay.sofa.registry.compress.CompressUtils;
+import com.alipay.sofa.registry.compress.Compressor;
 import com.alipay.sofa.registry.server.data.TestBaseUtils;
 import com.alipay.sofa.registry.server.shared.env.ServerEnv;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.util.DatumVersionUtil;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -343,6 +349,110 @@ public class PublisherGroupTest {
     Assert.assertEquals(conns.get(newer.getRegisterId()), newer);
   }
 
+  @Test
+  public void testDelta() {
+    final String dataId = "testDataInfoId";
+    Publisher p1 = TestBaseUtils.createTestPublisher(dataId);
+    Publisher p2 = TestBaseUtils.createTestPublisher(dataId);
+    PublisherGroup group = new PublisherGroup(p1.getDataInfoId(), "dc");
+    final long v0 = group.getVersion().getValue();
+    final long v1 = group.addPublisher(p1).getValue();
+    final long v2 = group.addPublisher(p2).getValue();
+
+    DatumDelta delta = group.getDelta(v0);
+    Assert.assertEquals(delta.getFromVersion(), v0);
+    Assert.assertEquals(delta.getVersion(), v2);
+    Assert.assertEquals(delta.getChanges().size(), 2);
+    Assert.assertTrue(delta.getChanges().get(p1.getRegisterId()) == p1);
+    Assert.assertTrue(delta.getChanges().get(p2.getRegisterId()) == p2);
+    Assert.assertEquals(delta.getRecentVersions(), group.toDatum().getRecentVersions());
+
+    delta = group.getDelta(v1);
+    Assert.assertEquals(delta.getChanges().size(), 1);
+    Assert.assertTrue(delta.getChanges().get(p2.getRegisterId()) == p2);
+    // not in the log
+    Assert.assertNull(group.getDelta(v2));
+    Assert.assertNull(group.getDelta(v0 - 1));
+
+    // remove p1
+    final long v3 =
+        group
+            .remove(null, Collections.singletonMap(p1.getRegisterId(), p1.registerVersion()))
+            .getValue();
+    delta = group.getDelta(v1);
+    Assert.assertEquals(delta.getVersion(), v3);
+    Assert.assertEquals(delta.getChanges().size(), 2);
+    Assert.assertTrue(delta.getChanges().containsKey(p1.getRegisterId()));
+    Assert.assertNull(delta.getChanges().get(p1.getRegisterId()));
+    Assert.assertTrue(delta.getChanges().get(p2.getRegisterId()) == p2);
+
+    // the log is bounded by the versions
+    long last = v3;
+    for (int i = 0; i < 20; i++) {
+      last = group.addPublisher(TestBaseUtils.createTestPublisher(dataId)).getValue();
+    }
+    Assert.assertNull(group.getDelta(v3));
+    Assert.assertEquals(group.getVersion().getValue(), last);
+
+    // too many changes in one version, the log could not cover the versions before
+    List<Publisher> puts = Lists.newArrayList();
+    for (int i = 0; i < 2000; i++) {
+      puts.add(TestBaseUtils.createTestPublisher(dataId));
+    }
+    final long v4 = group.put(puts).getValue();
+    Assert.assertNull(group.getDelta(last));
+    final long v5 = group.addPublisher(p1).getValue();
+    delta = group.getDelta(v4);
+    Assert.assertEquals(delta.getVersion(), v5);
+    Assert.assertEquals(delta.getChanges().size(), 1);
+  }
+
+  @Test
+  public void testSnapshot() {
+    final String dataId = "testDataInfoId";
+    Publisher p1 = TestBaseUtils.createTestPublisher(dataId);
+    PublisherGroup group = new PublisherGroup(p1.getDataInfoId(), "dc");
+    final CompressCachedExecutor<SubDatumSnapshot> cache =
+        new CompressCachedExecutor<>("test", 60000, 1024 * 1024);
+    SubDatumSnapshot s0 = group.getSnapshot(cache);
+    Assert.assertEquals(s0.getVersion(), group.getVersion().getValue());
+    Assert.assertEquals(s0.getSubDatum().mustGetPublishers().size(), 0);
+    Assert.assertTrue(s0 == group.getSnapshot(cache));
+
+    final long v1 = group.addPublisher(p1).getValue();
+    SubDatumSnapshot s1 = group.getSnapshot(cache);
+    Assert.assertTrue(s0 != s1);
+    Assert.assertEquals(s1.getVersion(), v1);
+    Assert.assertEquals(s1.getSubDatum().mustGetPublishers().size(), 1);
+    Assert.assertEquals(
+        s1.getSubDatum().mustGetPublishers().get(0).getRegisterId(), p1.getRegisterId());
+    Assert.assertTrue(s1 == group.getSnapshot(cache));
+
+    // the compressed publishers are built once per encoding
+    Assert.assertTrue(s1.zip(null) == s1.getSubDatum());
+    Compressor compressor = CompressUtils.mustGet(CompressConstants.encodingGzip);
+    SubDatum zip = s1.zip(compressor);
+    Assert.assertEquals(zip.getZipPublishers().getEncoding(), CompressConstants.encodingGzip);
+    Assert.assertEquals(zip.getVersion(), v1);
+    Assert.assertTrue(
+        zip.getZipPublishers().getCompressedData()
+            == s1.zip(compressor).getZipPublishers().getCompressedData());
+    Assert.assertEquals(
+        DatumUtils.decompressSubDatum(zip).mustGetPublishers().get(0).getRegisterId(),
+        p1.getRegisterId());
+
+    // the version updated without publisher changes
+    group.updateVersion();
+    Assert.assertTrue(s1 != group.getSnapshot(cache));
+    Assert.assertEquals(group.getSnapshot(cache).getVersion(), group.getVersion().getValue());
+
+    // the evicted snapshot is rebuilt
+    cache.clean();
+    SubDatumSnapshot s2 = group.getSnapshot(cache);
+    Assert.assertEquals(s2.getVersion(), group.getVersion().getValue());
+    Assert.assertEquals(s2.getSubDatum().mustGetPublishers().size(), 1);
+  }
+
   //    public static void main(String[] args) {
   //        Map<String, DatumVersion> m = Maps.newConcurrentMap();
   //        Set<String> set = new HashSet<>();
@@ -20,6 +20,7 @@ import com.alipay.sofa.registry.common.model.ProcessId;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.SlotDigestUtils;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.common.model.store.UnPublisher;
@@ -188,6 +189,101 @@ public class PublisherGroupsTest {
     Assert.assertTrue(processIds.contains(publisher2.getSessionProcessId()));
   }
 
+  @Test
+  public void testConnectIdIndex() {
+    PublisherGroups groups = new PublisherGroups(testDc);
+    Publisher publisher1 = TestBaseUtils.createTestPublisher(testDataId);
+    Publisher publisher2 = TestBaseUtils.createTestPublisher(testDataId + "-2");
+    groups.put(publisher1.getDataInfoId(), Lists.newArrayList(publisher1));
+    groups.put(publisher2.getDataInfoId(), Lists.newArrayList(publisher2));
+    Assert.assertEquals(groups.connectIdIndexSize(), 1);
+    Assert.assertEquals(groups.getByConnectId(publisher1.connectId()).size(), 2);
+
+    // reconnect with another connectId
+    Publisher newer = TestBaseUtils.cloneBase(publisher1);
+    newer.setVersion(newer.getVersion() + 1);
+    newer.setSourceAddress(URL.valueOf("192.168.1.1:1000"));
+    groups.put(newer.getDataInfoId(), Lists.newArrayList(newer));
+    Assert.assertEquals(groups.connectIdIndexSize(), 2);
+    Map<String, Publisher> publisherMap = groups.getByConnectId(publisher1.connectId());
+    Assert.assertEquals(publisherMap.size(), 1);
+    Assert.assertEquals(publisherMap.get(publisher2.getRegisterId()), publisher2);
+    publisherMap = groups.getByConnectId(newer.connectId());
+    Assert.assertEquals(publisherMap.size(), 1);
+    Assert.assertEquals(publisherMap.get(newer.getRegisterId()), newer);
+
+    // unpub from session
+    Assert.assertNotNull(
+        groups.remove(
+            newer.getDataInfoId(),
+            newer.getSessionProcessId(),
+            Collections.singletonMap(newer.getRegisterId(), newer.registerVersion())));
+    Assert.assertEquals(groups.getByConnectId(newer.connectId()).size(), 0);
+    Assert.assertEquals(groups.connectIdIndexSize(), 1);
+
+    // remove from leader
+    Assert.assertNotNull(
+        groups.remove(
+            publisher2.getDataInfoId(),
+            null,
+            Collections.singletonMap(publisher2.getRegisterId(), publisher2.registerVersion())));
+    Assert.assertEquals(groups.connectIdIndexSize(), 0);
+
+    groups.put(publisher2.getDataInfoId(), Lists.newArrayList(TestBaseUtils.cloneBase(publisher2)));
+    Assert.assertEquals(groups.getByConnectId(publisher2.connectId()).size(), 1);
+    groups.clean(publisher2.getSessionProcessId(), CleanContinues.ALWAYS);
+    Assert.assertEquals(groups.getByConnectId(publisher2.connectId()).size(), 0);
+    Assert.assertEquals(groups.connectIdIndexSize(), 0);
+
+    groups.put(publisher2.getDataInfoId(), Lists.newArrayList(TestBaseUtils.cloneBase(publisher2)));
+    Assert.assertEquals(groups.connectIdIndexSize(), 1);
+    groups.remove(publisher2.getDataInfoId(), null);
+    Assert.assertEquals(groups.connectIdIndexSize(), 0);
+  }
+
+  @Test
+  public void testBucketDigests() {
+    PublisherGroups groups = new PublisherGroups(testDc);
+    Publisher publisher1 = TestBaseUtils.createTestPublisher(testDataId);
+    Publisher publisher2 = TestBaseUtils.createTestPublisher(testDataId);
+    Publisher publisher3 = TestBaseUtils.createTestPublisher(testDataId + "-3");
+    publisher2.setSessionProcessId(new ProcessId("ip2", System.currentTimeMillis(), 100, 200));
+    groups.put(publisher1.getDataInfoId(), Lists.newArrayList(publisher1, publisher2));
+    groups.put(publisher3.getDataInfoId(), Lists.newArrayList(publisher3));
+    // empty datum has no effect
+    groups.createGroupIfAbsent(testDataInfoId + "-empty");
+    assertBucketDigests(groups, publisher1.getSessionProcessId().getHostAddress(), "ip2");
+
+    Publisher newer = TestBaseUtils.cloneBase(publisher1);
+    newer.setVersion(newer.getVersion() + 1);
+    groups.put(newer.getDataInfoId(), Lists.newArrayList(newer));
+    assertBucketDigests(groups, publisher1.getSessionProcessId().getHostAddress(), "ip2");
+
+    groups.remove(
+        publisher3.getDataInfoId(),
+        publisher3.getSessionProcessId(),
+        Collections.singletonMap(publisher3.getRegisterId(), publisher3.registerVersion()));
+    assertBucketDigests(groups, publisher1.getSessionProcessId().getHostAddress(), "ip2");
+
+    groups.clean(publisher2.getSessionProcessId(), CleanContinues.ALWAYS);
+    assertBucketDigests(groups, publisher1.getSessionProcessId().getHostAddress(), "ip2");
+    groups.remove(publisher1.getDataInfoId(), null);
+    Assert.assertArrayEquals(groups.getBucketDigests(null), new long[SlotDigestUtils.BUCKET_NUM]);
+  }
+
+  private static void assertBucketDigests(PublisherGroups groups, String... sessionIps) {
+    Assert.assertArrayEquals(
+        groups.getBucketDigests(null),
+        SlotDigestUtils.bucketDigests(groups.getAllSummary().values()));
+    Map<String, Map<String, DatumSummary>> summaries =
+        groups.getSummary(Sets.newHashSet(sessionIps));
+    for (String sessionIp : sessionIps) {
+      Assert.assertArrayEquals(
+          groups.getBucketDigests(sessionIp),
+          SlotDigestUtils.bucketDigests(summaries.get(sessionIp).values()));
+    }
+  }
+
   @Test
   public void testUnpub() {
     PublisherGroups groups = new PublisherGroups(testDc);
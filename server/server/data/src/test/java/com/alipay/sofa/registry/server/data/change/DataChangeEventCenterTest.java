@@ -20,6 +20,8 @@ import static com.alipay.sofa.registry.server.data.change.ChangeMetrics.*;
 
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.dataserver.InterestFilter;
+import com.alipay.sofa.registry.common.model.dataserver.SessionInterestFilterRequest;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.remoting.Server;
@@ -28,6 +30,8 @@ import com.alipay.sofa.registry.remoting.exchange.Exchange;
 import com.alipay.sofa.registry.server.data.TestBaseUtils;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
 import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.slot.SlotManager;
+import com.alipay.sofa.registry.server.shared.env.ServerEnv;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -44,6 +48,7 @@ public class DataChangeEventCenterTest {
   private DataChangeEventCenter center;
   private DataServerConfig dataServerConfig;
   private DatumCache datumCache;
+  private SessionSlotWatermarks watermarks;
 
   private void setCenter() {
     this.center = new DataChangeEventCenter();
@@ -51,6 +56,13 @@ public class DataChangeEventCenterTest {
     this.datumCache = TestBaseUtils.newLocalDatumCache(DC, true);
     center.setDataServerConfig(dataServerConfig);
     center.setDatumCache(datumCache);
+    SessionInterestFilters filters = new SessionInterestFilters();
+    filters.setDataServerConfig(dataServerConfig);
+    center.setSessionInterestFilters(filters);
+    this.watermarks = new SessionSlotWatermarks();
+    watermarks.setDataServerConfig(dataServerConfig);
+    watermarks.setSlotManager(Mockito.mock(SlotManager.class));
+    center.setSessionSlotWatermarks(watermarks);
   }
 
   @Test
@@ -101,6 +113,47 @@ public class DataChangeEventCenterTest {
     double pre = ChangeMetrics.CHANGE_SKIP_COUNTER.get();
     Assert.assertTrue(center.handleChanges(channelsMap));
     Assert.assertTrue(ChangeMetrics.CHANGE_SKIP_COUNTER.get() == (pre + 1));
+    // the rejected notification is lost
+    Assert.assertTrue(watermarks.getSlotState("localhost", 0).gap);
+  }
+
+  @Test
+  public void testHandleChangeFilter() {
+    setCenter();
+    SessionInterestFilters filters = new SessionInterestFilters();
+    filters.setDataServerConfig(dataServerConfig);
+    center.setSessionInterestFilters(filters);
+    center.setNotifyExecutor(TestBaseUtils.rejectExecutor());
+
+    Publisher pub = TestBaseUtils.createTestPublisher("testDataId");
+    datumCache.getLocalDatumStorage().put(pub);
+    TestBaseUtils.MockBlotChannel channel = TestBaseUtils.newChannel(9620, "localhost", 1000);
+    Map<String, List<Channel>> channelsMap = Maps.newHashMap();
+    channelsMap.put("localhost", Lists.newArrayList(channel));
+
+    // not interested
+    filters.update(
+        "localhost",
+        SessionInterestFilterRequest.full(
+            ServerEnv.PROCESS_ID,
+            1,
+            InterestFilter.create(Collections.singletonList("other"), 100, 0.01)));
+    center.onChange(Lists.newArrayList(pub.getDataInfoId()), DataChangeType.PUT, DC);
+    double filterPre = CHANGE_FILTER_COUNTER.get();
+    double skipPre = CHANGE_SKIP_COUNTER.get();
+    Assert.assertTrue(center.handleChanges(channelsMap));
+    Assert.assertTrue(CHANGE_FILTER_COUNTER.get() == (filterPre + 1));
+    Assert.assertTrue(CHANGE_SKIP_COUNTER.get() == skipPre);
+
+    // interested
+    filters.update(
+        "localhost",
+        SessionInterestFilterRequest.incremental(
+            ServerEnv.PROCESS_ID, 1, Lists.newArrayList(pub.getDataInfoId())));
+    center.onChange(Lists.newArrayList(pub.getDataInfoId()), DataChangeType.PUT, DC);
+    Assert.assertTrue(center.handleChanges(channelsMap));
+    Assert.assertTrue(CHANGE_FILTER_COUNTER.get() == (filterPre + 1));
+    Assert.assertTrue(CHANGE_SKIP_COUNTER.get() == (skipPre + 1));
   }
 
   @Test
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.change;
+
+import com.alipay.sofa.registry.common.model.ProcessId;
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.dataserver.InterestFilter;
+import com.alipay.sofa.registry.common.model.dataserver.SessionInterestFilterRequest;
+import com.alipay.sofa.registry.server.data.TestBaseUtils;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SessionInterestFiltersTest {
+  private static final String SESSION_IP = "192.168.1.1";
+
+  @Test
+  public void test() {
+    SessionInterestFilters filters = new SessionInterestFilters();
+    DataServerConfig config = TestBaseUtils.newDataConfig("testDc");
+    filters.setDataServerConfig(config);
+
+    Map<String, DatumVersion> changes = Maps.newHashMap();
+    changes.put("a", new DatumVersion(1));
+    changes.put("b", new DatumVersion(2));
+    // no filter, notify all
+    Assert.assertEquals(changes, filters.filter(SESSION_IP, changes));
+
+    ProcessId processId = new ProcessId("test", System.currentTimeMillis(), 1, 1);
+    InterestFilter filter = InterestFilter.create(Collections.singletonList("a"), 100, 0.01);
+    Assert.assertTrue(
+        filters.update(SESSION_IP, SessionInterestFilterRequest.full(processId, 2, filter)));
+    Assert.assertEquals(
+        Collections.singletonMap("a", new DatumVersion(1)), filters.filter(SESSION_IP, changes));
+    // other session
+    Assert.assertEquals(changes, filters.filter("192.168.1.2", changes));
+
+    // out of order
+    Assert.assertFalse(
+        filters.update(
+            SESSION_IP,
+            SessionInterestFilterRequest.full(
+                processId, 1, InterestFilter.create(Lists.newArrayList("a", "b"), 100, 0.01))));
+    Assert.assertEquals(1, filters.filter(SESSION_IP, changes).size());
+
+    // increments
+    Assert.assertTrue(
+        filters.update(
+            SESSION_IP,
+            SessionInterestFilterRequest.incremental(processId, 2, Lists.newArrayList("b"))));
+    Assert.assertEquals(changes, filters.filter(SESSION_IP, changes));
+    // copy on write, the published filter is not modified
+    Assert.assertFalse(filter.mightContain("b"));
+    Assert.assertNotSame(filter, filters.getFilters().get(SESSION_IP).filter);
+
+    // version mismatch, fallback to notify all
+    Assert.assertFalse(
+        filters.update(
+            SESSION_IP,
+            SessionInterestFilterRequest.incremental(processId, 3, Lists.newArrayList("c"))));
+    Assert.assertTrue(filters.getFilters().isEmpty());
+
+    // expire
+    filter = InterestFilter.create(Collections.singletonList("a"), 100, 0.01);
+    Assert.assertTrue(
+        filters.update(SESSION_IP, SessionInterestFilterRequest.full(processId, 3, filter)));
+    Assert.assertEquals(1, filters.filter(SESSION_IP, changes).size());
+    filters.getFilters().get(SESSION_IP).updateTimestamp = 0;
+    Assert.assertEquals(changes, filters.filter(SESSION_IP, changes));
+    Assert.assertTrue(filters.getFilters().isEmpty());
+  }
+}
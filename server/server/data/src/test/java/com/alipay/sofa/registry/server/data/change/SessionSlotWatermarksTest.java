@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.change;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.sessionserver.DataSlotWatermarkRequest;
+import com.alipay.sofa.registry.common.model.sessionserver.SlotWatermark;
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotAccess;
+import com.alipay.sofa.registry.remoting.CallbackHandler;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.remoting.Server;
+import com.alipay.sofa.registry.remoting.exchange.Exchange;
+import com.alipay.sofa.registry.server.data.TestBaseUtils;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.slot.SlotManager;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class SessionSlotWatermarksTest {
+  private static final String SESSION = "session";
+  private static final String DATA_ID = "testDataId";
+
+  private SessionSlotWatermarks watermarks;
+  private DataServerConfig config;
+  private SlotManager slotManager;
+
+  @Before
+  public void before() {
+    config = TestBaseUtils.newDataConfig("testDc");
+    slotManager = mock(SlotManager.class);
+    when(slotManager.slotOf(anyString())).thenReturn(1);
+    watermarks = new SessionSlotWatermarks();
+    watermarks.setDataServerConfig(config);
+    watermarks.setSlotManager(slotManager);
+  }
+
+  @Test
+  public void testDelivered() {
+    final Map<Integer, Long> epochs = Collections.singletonMap(1, 10L);
+    SlotWatermark watermark = watermarks.watermarks(SESSION, epochs).getWatermarks().get(1);
+    Assert.assertEquals(10, watermark.getLeaderEpoch());
+    Assert.assertEquals(0, watermark.getChecksum());
+
+    Map<Integer, Long> sums = watermarks.onNotify(SESSION, versions(100));
+    Assert.assertEquals(SlotWatermark.versionHash(DATA_ID, 100), sums.get(1).longValue());
+    // inflight
+    Assert.assertFalse(watermarks.watermarks(SESSION, epochs).getWatermarks().containsKey(1));
+
+    watermarks.onDelivered(SESSION, sums);
+    watermark = watermarks.watermarks(SESSION, epochs).getWatermarks().get(1);
+    Assert.assertEquals(SlotWatermark.versionHash(DATA_ID, 100), watermark.getChecksum());
+    Assert.assertFalse(watermark.isGap());
+
+    config.setSlotWatermarkEnable(false);
+    Assert.assertNull(watermarks.onNotify(SESSION, versions(200)));
+  }
+
+  @Test
+  public void testLost() {
+    final Map<Integer, Long> epochs = Collections.singletonMap(1, 10L);
+    watermarks.onDelivered(SESSION, watermarks.onNotify(SESSION, versions(100)));
+    watermarks.onLost(SESSION, watermarks.onNotify(SESSION, versions(200)));
+
+    DataSlotWatermarkRequest request = watermarks.watermarks(SESSION, epochs);
+    SlotWatermark watermark = request.getWatermarks().get(1);
+    Assert.assertTrue(watermark.isGap());
+    Assert.assertEquals(SlotWatermark.versionHash(DATA_ID, 100), watermark.getChecksum());
+    // the gap is reported once
+    watermark = watermarks.watermarks(SESSION, epochs).getWatermarks().get(1);
+    Assert.assertFalse(watermark.isGap());
+    // no npe
+    watermarks.onLost(SESSION, null);
+    watermarks.onLost("unknown", Collections.singletonMap(1, 1L));
+  }
+
+  @Test
+  public void testSendFailed() {
+    when(slotManager.getSlotTableEpoch()).thenReturn(100L);
+    when(slotManager.getSlot(1)).thenReturn(new Slot(1, "leader", 10, Collections.emptyList()));
+    when(slotManager.checkSlotAccess(anyInt(), anyLong(), anyLong()))
+        .thenReturn(new SlotAccess(1, 100, SlotAccess.Status.Accept, 10));
+    Server server = mock(Server.class);
+    Channel channel = mock(Channel.class);
+    when(server.selectAllAvailableChannelsForHostAddress())
+        .thenReturn(Collections.singletonMap(SESSION, Collections.singletonList(channel)));
+    Exchange exchange = mock(Exchange.class);
+    when(exchange.getServer(anyInt())).thenReturn(server);
+    watermarks.setExchange(exchange);
+
+    watermarks.onLost(SESSION, watermarks.onNotify(SESSION, versions(100)));
+    // the send is rejected
+    doThrow(new RuntimeException("mock rejected"))
+        .when(server)
+        .sendCallback(anyObject(), anyObject(), anyObject(), anyInt());
+    Assert.assertTrue(watermarks.notifyWatermarks());
+    Assert.assertTrue(watermarks.getSlotState(SESSION, 1).gap);
+
+    // the send fails in callback
+    ArgumentCaptor<CallbackHandler> callback = ArgumentCaptor.forClass(CallbackHandler.class);
+    doNothing().when(server).sendCallback(anyObject(), anyObject(), callback.capture(), anyInt());
+    Assert.assertTrue(watermarks.notifyWatermarks());
+    Assert.assertFalse(watermarks.getSlotState(SESSION, 1).gap);
+    callback.getValue().onException(channel, new RuntimeException("mock timeout"));
+    SlotWatermark watermark =
+        watermarks.watermarks(SESSION, Collections.singletonMap(1, 10L)).getWatermarks().get(1);
+    Assert.assertTrue(watermark.isGap());
+
+    // the delivered gap is not restored
+    Assert.assertTrue(watermarks.notifyWatermarks());
+    callback.getValue().onCallback(channel, null);
+    Assert.assertFalse(watermarks.getSlotState(SESSION, 1).gap);
+  }
+
+  @Test
+  public void testLeaderEpochs() {
+    when(slotManager.getSlotTableEpoch()).thenReturn(100L);
+    when(slotManager.getSlot(1)).thenReturn(new Slot(1, "leader", 10, Collections.emptyList()));
+    when(slotManager.getSlot(2)).thenReturn(new Slot(2, "leader", 20, Collections.emptyList()));
+    when(slotManager.checkSlotAccess(anyInt(), anyLong(), anyLong()))
+        .thenReturn(new SlotAccess(1, 100, SlotAccess.Status.Migrating, 10));
+    when(slotManager.checkSlotAccess(1, 100, 10))
+        .thenReturn(new SlotAccess(1, 100, SlotAccess.Status.Accept, 10));
+    Assert.assertEquals(Collections.singletonMap(1, 10L), watermarks.leaderEpochs());
+  }
+
+  private static Map<String, DatumVersion> versions(long version) {
+    return Collections.singletonMap(DATA_ID, new DatumVersion(version));
+  }
+}
@@ -27,12 +27,14 @@ import com.alipay.sofa.registry.common.model.PublishType;
 import com.alipay.sofa.registry.common.model.dataserver.BatchRequest;
 import com.alipay.sofa.registry.common.model.dataserver.ClientOffPublisher;
 import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.slot.SlotConfig;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.UnPublisher;
 import com.alipay.sofa.registry.remoting.ChannelHandler;
 import com.alipay.sofa.registry.server.data.TestBaseUtils;
 import com.alipay.sofa.registry.server.data.change.DataChangeEventCenter;
 import com.alipay.sofa.registry.server.data.lease.SessionLeaseManager;
+import com.alipay.sofa.registry.server.data.slot.SlotLoadCounter;
 import com.alipay.sofa.registry.server.data.slot.SlotManager;
 import com.alipay.sofa.registry.server.shared.env.ServerEnv;
 import com.google.common.collect.Lists;
@@ -74,6 +76,7 @@ public class BatchPutDataHandlerTest {
     Assert.assertFalse(failed.isSuccess());
     handler.sessionLeaseManager = new SessionLeaseManager();
     SlotManager slotManager = mock(SlotManager.class);
+    when(slotManager.getSlotLoadCounter()).thenReturn(new SlotLoadCounter(SlotConfig.SLOT_NUM));
     handler.slotManager = slotManager;
     handler.localDatumStorage = TestBaseUtils.newLocalStorage("testDc", true);
     handler.dataChangeEventCenter = new DataChangeEventCenter();
@@ -24,14 +24,17 @@ import static org.mockito.Mockito.when;
 import com.alipay.sofa.registry.common.model.Node;
 import com.alipay.sofa.registry.common.model.dataserver.GetDataRequest;
 import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.slot.SlotConfig;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
 import com.alipay.sofa.registry.remoting.ChannelHandler;
 import com.alipay.sofa.registry.server.data.TestBaseUtils;
 import com.alipay.sofa.registry.server.data.cache.DatumCache;
 import com.alipay.sofa.registry.server.data.change.DataChangeEventCenter;
 import com.alipay.sofa.registry.server.data.lease.SessionLeaseManager;
 import com.alipay.sofa.registry.server.data.providedata.CompressDatumService;
+import com.alipay.sofa.registry.server.data.slot.SlotLoadCounter;
 import com.alipay.sofa.registry.server.data.slot.SlotManager;
 import com.alipay.sofa.registry.server.shared.env.ServerEnv;
 import org.junit.Assert;
@@ -69,6 +72,7 @@ public class GetDataHandlerTest {
     Assert.assertFalse(failed.isSuccess());
     handler.sessionLeaseManager = new SessionLeaseManager();
     SlotManager slotManager = mock(SlotManager.class);
+    when(slotManager.getSlotLoadCounter()).thenReturn(new SlotLoadCounter(SlotConfig.SLOT_NUM));
     handler.slotManager = slotManager;
     DatumCache datumCache = TestBaseUtils.newLocalDatumCache("testDc", true);
     CompressDatumService compressDatumService = new CompressDatumService();
@@ -118,6 +122,31 @@ public class GetDataHandlerTest {
     Assert.assertEquals(
         subDatum.mustGetPublishers().get(0).getRegisterTimestamp(), pub.getRegisterTimestamp());
     Assert.assertEquals(subDatum.mustGetPublishers().get(0).getVersion(), pub.getVersion());
+    // the same version is served from the snapshot
+    resp = (SlotAccessGenericResponse) handler.doHandle(channel, request);
+    Assert.assertTrue(resp.getData() == subDatum);
+
+    // get delta since the cached version
+    Publisher pub2 = TestBaseUtils.createTestPublisher(pub.getDataId());
+    handler.localDatumStorage.put(pub2);
+    request.setSinceVersion(subDatum.getVersion());
+    resp = (SlotAccessGenericResponse) handler.doHandle(channel, request);
+    Assert.assertTrue(resp.isSuccess());
+    SubDatumDelta delta = (SubDatumDelta) resp.getData();
+    Assert.assertEquals(delta.getFromVersion(), subDatum.getVersion());
+    Assert.assertEquals(delta.getPuts().size(), 1);
+    Assert.assertEquals(delta.getPuts().get(0).getRegisterId(), pub2.getRegisterId());
+    Assert.assertEquals(delta.getRemoves().size(), 0);
+    SubDatum applied = delta.apply(subDatum);
+    Assert.assertEquals(applied.getVersion(), delta.getVersion());
+    Assert.assertEquals(applied.mustGetPublishers().size(), 2);
+
+    // the version not in the log, get the full datum
+    request.setSinceVersion(1);
+    resp = (SlotAccessGenericResponse) handler.doHandle(channel, request);
+    Assert.assertTrue(resp.isSuccess());
+    subDatum = (SubDatum) resp.getData();
+    Assert.assertEquals(subDatum.mustGetPublishers().size(), 2);
   }
 
   @Test
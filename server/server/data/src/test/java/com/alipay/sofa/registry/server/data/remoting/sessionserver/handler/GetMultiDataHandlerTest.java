@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.alipay.sofa.registry.common.model.dataserver.GetMultiDataRequest;
+import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.slot.SlotConfig;
+import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
+import com.alipay.sofa.registry.server.data.TestBaseUtils;
+import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.change.DataChangeEventCenter;
+import com.alipay.sofa.registry.server.data.lease.SessionLeaseManager;
+import com.alipay.sofa.registry.server.data.providedata.CompressDatumService;
+import com.alipay.sofa.registry.server.data.slot.SlotLoadCounter;
+import com.alipay.sofa.registry.server.data.slot.SlotManager;
+import com.alipay.sofa.registry.server.shared.env.ServerEnv;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GetMultiDataHandlerTest {
+
+  @Test
+  public void testCheckParam() {
+    GetMultiDataHandler handler = newHandler();
+    Assert.assertEquals(handler.interest(), GetMultiDataRequest.class);
+    TestBaseUtils.assertException(
+        IllegalArgumentException.class,
+        () -> {
+          handler.checkParam(request(null, Collections.singletonMap("xx", 0L)));
+        });
+
+    TestBaseUtils.assertException(
+        IllegalArgumentException.class,
+        () -> {
+          handler.checkParam(request("xx", Collections.emptyMap()));
+        });
+
+    handler.checkParam(request("xx", Collections.singletonMap("xx", 0L)));
+  }
+
+  private GetMultiDataHandler newHandler() {
+    GetMultiDataHandler handler = new GetMultiDataHandler();
+    handler.sessionLeaseManager = new SessionLeaseManager();
+    SlotManager slotManager = mock(SlotManager.class);
+    when(slotManager.getSlotLoadCounter()).thenReturn(new SlotLoadCounter(SlotConfig.SLOT_NUM));
+    when(slotManager.slotOf(anyString())).thenReturn(10);
+    handler.slotManager = slotManager;
+    DatumCache datumCache = TestBaseUtils.newLocalDatumCache("testDc", true);
+    handler.setDatumCache(datumCache);
+    handler.setCompressDatumService(new CompressDatumService());
+    handler.localDatumStorage = datumCache.getLocalDatumStorage();
+    handler.dataChangeEventCenter = new DataChangeEventCenter();
+    handler.dataServerConfig = TestBaseUtils.newDataConfig("testDc");
+    return handler;
+  }
+
+  @Test
+  public void testHandle() {
+    GetMultiDataHandler handler = newHandler();
+    TestBaseUtils.MockBlotChannel channel = TestBaseUtils.newChannel(9620, "localhost", 8888);
+
+    Publisher pub1 = TestBaseUtils.createTestPublishers(1, 1).get(0);
+    Publisher pub2 = TestBaseUtils.createTestPublishers(2, 1).get(0);
+    handler.localDatumStorage.put(pub1);
+    handler.localDatumStorage.put(pub2);
+    SubDatum base = handler.datumCache.getSnapshot("testDc", pub2.getDataInfoId()).getSubDatum();
+    Publisher pub3 = TestBaseUtils.createTestPublisher(pub2.getDataId());
+    handler.localDatumStorage.put(pub3);
+
+    Map<String, Long> ids = Maps.newHashMap();
+    ids.put(pub1.getDataInfoId(), 0L);
+    ids.put(pub2.getDataInfoId(), base.getVersion());
+    ids.put("testDataId", 0L);
+    GetMultiDataRequest request = request("testDc", ids);
+
+    // get leader change
+    when(handler.slotManager.checkSlotAccess(anyInt(), anyLong(), anyLong()))
+        .thenReturn(TestBaseUtils.accept(), TestBaseUtils.migrating(1, 10, 100));
+    SlotAccessGenericResponse resp = (SlotAccessGenericResponse) handler.doHandle(channel, request);
+    Assert.assertFalse(resp.isSuccess());
+    Assert.assertEquals(resp.getSlotAccess().getStatus(), TestBaseUtils.migrating().getStatus());
+    Assert.assertNull(resp.getData());
+
+    when(handler.slotManager.checkSlotAccess(anyInt(), anyLong(), anyLong()))
+        .thenReturn(TestBaseUtils.moved());
+    resp = (SlotAccessGenericResponse) handler.doHandle(channel, request);
+    Assert.assertFalse(resp.isSuccess());
+    Assert.assertEquals(resp.getSlotAccess().getStatus(), TestBaseUtils.moved().getStatus());
+
+    // get success
+    when(handler.slotManager.checkSlotAccess(anyInt(), anyLong(), anyLong()))
+        .thenReturn(TestBaseUtils.accept());
+    resp = (SlotAccessGenericResponse) handler.doHandle(channel, request);
+    Assert.assertTrue(resp.isSuccess());
+    MultiSubDatum multi = (MultiSubDatum) resp.getData();
+    Assert.assertEquals(multi.size(), 2);
+    // the nil datum is absent
+    Assert.assertFalse(multi.getDatums().containsKey("testDataId"));
+    Assert.assertFalse(multi.getDeltas().containsKey("testDataId"));
+
+    SubDatum subDatum = multi.getDatums().get(pub1.getDataInfoId());
+    Assert.assertEquals(subDatum.mustGetPublishers().size(), 1);
+    Assert.assertEquals(subDatum.mustGetPublishers().get(0).getRegisterId(), pub1.getRegisterId());
+
+    SubDatumDelta delta = multi.getDeltas().get(pub2.getDataInfoId());
+    Assert.assertEquals(delta.getFromVersion(), base.getVersion());
+    Assert.assertEquals(delta.getPuts().size(), 1);
+    Assert.assertEquals(delta.getPuts().get(0).getRegisterId(), pub3.getRegisterId());
+    Assert.assertEquals(delta.apply(base).mustGetPublishers().size(), 2);
+
+    // the ones exceed the max bytes are left out, at least one is returned
+    handler.dataServerConfig.setGetMultiDataMaxBytes(1);
+    DatumCache datumCache = handler.datumCache;
+    handler.setDatumCache(spy(datumCache));
+    resp = (SlotAccessGenericResponse) handler.doHandle(channel, request);
+    Assert.assertTrue(resp.isSuccess());
+    multi = (MultiSubDatum) resp.getData();
+    Assert.assertEquals(multi.size(), 1);
+    Assert.assertTrue(multi.getDeltas().containsKey(pub2.getDataInfoId()));
+    // the budget is spent, the snapshots are not fetched
+    verify(handler.datumCache, never()).getSnapshot(anyString(), anyString());
+    handler.setDatumCache(datumCache);
+    handler.dataServerConfig.setGetMultiDataMaxBytes(1024 * 1024);
+
+    // the dataInfoId not belong to the slot
+    when(handler.slotManager.slotOf(pub1.getDataInfoId())).thenReturn(11);
+    resp = (SlotAccessGenericResponse) handler.doHandle(channel, request);
+    Assert.assertFalse(resp.isSuccess());
+    Assert.assertNull(resp.getData());
+  }
+
+  private static GetMultiDataRequest request(String dataCenter, Map<String, Long> dataInfoIds) {
+    return new GetMultiDataRequest(ServerEnv.PROCESS_ID, dataCenter, 10, dataInfoIds);
+  }
+}
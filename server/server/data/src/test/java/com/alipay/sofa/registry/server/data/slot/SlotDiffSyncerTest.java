@@ -27,6 +27,7 @@ import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestResult;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherResult;
+import com.alipay.sofa.registry.common.model.slot.SlotDigestUtils;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.remoting.exchange.message.Response;
 import com.alipay.sofa.registry.server.data.TestBaseUtils;
@@ -40,6 +41,7 @@ import com.alipay.sofa.registry.server.shared.env.ServerEnv;
 import com.alipay.sofa.registry.server.shared.remoting.ClientSideExchanger;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -434,6 +436,50 @@ public class SlotDiffSyncerTest {
     Assert.assertEquals(datum4.getPubMap().get(p4.get(1).getRegisterId()), p4.get(1));
   }
 
+  @Test
+  public void testSyncLeaderBucket() {
+    MockSync mockSync = mockSync(10, "testDc");
+    SlotDiffSyncer syncer = mockSync.syncer;
+    syncer.getDataServerConfig().setSlotSyncBucketDigestEnable(true);
+    final String dataInfoId = mockSync.p1.get(0).getDataInfoId();
+    final int bucket = SlotDigestUtils.bucketOf(dataInfoId);
+    List<DataSlotDiffDigestRequest> requests = Lists.newArrayList();
+    List<Integer> diffBuckets = Lists.newArrayList();
+    DataNodeExchanger exchanger = mock(DataNodeExchanger.class);
+    when(exchanger.requestRaw(anyString(), Matchers.isA(DataSlotDiffDigestRequest.class)))
+        .thenAnswer(
+            invocation -> {
+              DataSlotDiffDigestRequest request =
+                  (DataSlotDiffDigestRequest) invocation.getArguments()[1];
+              requests.add(request);
+              GenericResponse resp =
+                  request.isBucketDigest()
+                      ? new GenericResponse()
+                          .fillSucceed(DataSlotDiffDigestResult.ofBuckets(diffBuckets))
+                      : emptyDigestResp();
+              return (Response) () -> resp;
+            });
+    // the buckets are the same
+    Assert.assertTrue(syncer.syncSlotLeader(10, ServerEnv.IP, exchanger, 10, TRUE));
+    Assert.assertEquals(requests.size(), 1);
+    Assert.assertArrayEquals(
+        requests.get(0).getBucketDigests(),
+        SlotDigestUtils.bucketDigests(syncer.getDatumStorage().getDatumSummary(10).values()));
+
+    // only diff the dataInfoIds in the different bucket
+    diffBuckets.add(bucket);
+    requests.clear();
+    Assert.assertTrue(syncer.syncSlotLeader(10, ServerEnv.IP, exchanger, 10, TRUE));
+    Assert.assertEquals(requests.size(), 2);
+    DataSlotDiffDigestRequest request = requests.get(1);
+    Assert.assertFalse(request.isBucketDigest());
+    Assert.assertEquals(request.getBuckets(), Sets.newHashSet(bucket));
+    Assert.assertTrue(request.getDatumDigest().containsKey(dataInfoId));
+    for (String d : request.getDatumDigest().keySet()) {
+      Assert.assertEquals(SlotDigestUtils.bucketOf(d), bucket);
+    }
+  }
+
   private static <T extends ClientSideExchanger> T mockExchange(
       Class<T> c, Object result1, Class reqClazz1, Object result2, Class reqClazz2) {
     T exchanger = mock(c);
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.slot;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SlotLoadCounterTest {
+
+  @Test
+  public void testRefresh() {
+    SlotLoadCounter counter = new SlotLoadCounter(4);
+    counter.recordChange(1, 10);
+    counter.recordGet(2, 20);
+    counter.recordGet(2, 20);
+    final long now = System.currentTimeMillis() + 2 * SlotLoadCounter.MIN_WINDOW_MILLIS;
+    Assert.assertTrue(counter.refresh(now));
+    Assert.assertTrue(counter.getChangeQps(1) > 0);
+    Assert.assertTrue(counter.getGetQps(2) > counter.getChangeQps(1));
+    Assert.assertEquals(0, counter.getGetQps(1), 0);
+    Assert.assertEquals(0, counter.getChangeQps(3), 0);
+
+    // the window is too small, keep the last rates
+    double getQps = counter.getGetQps(2);
+    counter.recordGet(2, 1000);
+    Assert.assertFalse(counter.refresh(now + 1));
+    Assert.assertEquals(getQps, counter.getGetQps(2), 0);
+
+    Assert.assertTrue(counter.refresh(now + SlotLoadCounter.MIN_WINDOW_MILLIS));
+    Assert.assertEquals(1000, counter.getGetQps(2), 0);
+    Assert.assertEquals(0, counter.getChangeQps(1), 0);
+  }
+}
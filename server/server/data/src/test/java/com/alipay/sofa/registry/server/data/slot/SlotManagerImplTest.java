@@ -211,6 +211,7 @@ public class SlotManagerImplTest {
 
     LeaderSlotStatus leaderStatus = (LeaderSlotStatus) list.get(0);
     Assert.assertEquals(leaderStatus.getLeaderStatus(), BaseSlotStatus.LeaderStatus.UNHEALTHY);
+    Assert.assertNotNull(leaderStatus.getSlotLoad());
 
     FollowerSlotStatus followerstatus = (FollowerSlotStatus) list.get(1);
     Assert.assertTrue(followerstatus.getLastSyncTaskStartTime() > 0);
@@ -74,4 +74,8 @@ public interface MetaServerConfig {
   int getAppRevisionMaxRemove();
 
   int getAppRevisionCountAlarmThreshold();
+
+  boolean isSlotLoadBalanceEnable();
+
+  int getSlotLoadMoveCooldownSecs();
 }
@@ -89,6 +89,12 @@ public class MetaServerConfigBean implements MetaServerConfig {
   private int dataNodeProtectionNum =
       SystemUtils.getSystemInteger("registry.data.protection.num", 0);
 
+  // balance the slots by the loads reported by the data-servers after the counts are balanced
+  private boolean slotLoadBalanceEnable = false;
+
+  // a slot is not moved by the load balance again within the cooldown
+  private int slotLoadMoveCooldownSecs = 600;
+
   /**
    * Gets get session server port.
    *
@@ -544,4 +550,22 @@ public class MetaServerConfigBean implements MetaServerConfig {
   public void setAppRevisionCountAlarmThreshold(int appRevisionCountAlarmThreshold) {
     this.appRevisionCountAlarmThreshold = appRevisionCountAlarmThreshold;
   }
+
+  @Override
+  public boolean isSlotLoadBalanceEnable() {
+    return slotLoadBalanceEnable;
+  }
+
+  public void setSlotLoadBalanceEnable(boolean slotLoadBalanceEnable) {
+    this.slotLoadBalanceEnable = slotLoadBalanceEnable;
+  }
+
+  @Override
+  public int getSlotLoadMoveCooldownSecs() {
+    return slotLoadMoveCooldownSecs;
+  }
+
+  public void setSlotLoadMoveCooldownSecs(int slotLoadMoveCooldownSecs) {
+    this.slotLoadMoveCooldownSecs = slotLoadMoveCooldownSecs;
+  }
 }
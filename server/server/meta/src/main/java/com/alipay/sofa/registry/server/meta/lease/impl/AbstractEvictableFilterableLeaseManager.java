@@ -20,9 +20,12 @@ import com.alipay.sofa.registry.common.model.Node;
 import com.alipay.sofa.registry.common.model.metaserver.Lease;
 import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
 import com.alipay.sofa.registry.server.meta.lease.LeaseFilter;
+import com.alipay.sofa.registry.util.DatumVersionUtil;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import java.util.List;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -34,6 +37,8 @@ public abstract class AbstractEvictableFilterableLeaseManager<T extends Node>
 
   @Autowired private List<LeaseFilter> leaseFilters;
 
+  private volatile VersionedList<Lease<T>> lastFiltered;
+
   @Override
   public VersionedList<Lease<T>> getLeaseMeta() {
     if (leaseFilters == null || leaseFilters.isEmpty()) {
@@ -44,7 +49,31 @@ public abstract class AbstractEvictableFilterableLeaseManager<T extends Node>
     for (LeaseFilter filter : leaseFilters) {
       leaseList = filterOut(leaseList, filter);
     }
-    return new VersionedList<>(rawVersionedList.getEpoch(), leaseList);
+    return versionFiltered(rawVersionedList.getEpoch(), leaseList);
+  }
+
+  // the filters change the leases without changing the epoch, but the heartbeat omits the nodes
+  // if the epoch not changed, so bump the epoch when the filtered nodes changed
+  private VersionedList<Lease<T>> versionFiltered(long rawEpoch, List<Lease<T>> leaseList) {
+    final VersionedList<Lease<T>> last = lastFiltered;
+    final Set<T> renewals = renewalsOf(leaseList);
+    if (last != null && last.getEpoch() >= rawEpoch) {
+      if (renewalsOf(last.getClusterMembers()).equals(renewals)) {
+        return new VersionedList<>(last.getEpoch(), leaseList);
+      }
+      rawEpoch = Math.max(DatumVersionUtil.nextId(), last.getEpoch() + 1);
+    }
+    VersionedList<Lease<T>> filtered = new VersionedList<>(rawEpoch, leaseList);
+    lastFiltered = filtered;
+    return filtered;
+  }
+
+  private Set<T> renewalsOf(List<Lease<T>> leases) {
+    Set<T> renewals = Sets.newHashSetWithExpectedSize(leases.size());
+    for (Lease<T> lease : leases) {
+      renewals.add(lease.getRenewal());
+    }
+    return renewals;
   }
 
   protected List<Lease<T>> filterOut(List<Lease<T>> inputs, LeaseFilter filter) {
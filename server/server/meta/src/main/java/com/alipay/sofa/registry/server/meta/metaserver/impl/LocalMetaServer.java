@@ -23,6 +23,7 @@ import com.alipay.sofa.registry.server.meta.lease.data.DataServerManager;
 import com.alipay.sofa.registry.server.meta.lease.session.SessionServerManager;
 import com.alipay.sofa.registry.server.meta.metaserver.CurrentDcMetaServer;
 import com.alipay.sofa.registry.server.meta.slot.SlotManager;
+import com.alipay.sofa.registry.util.DatumVersionUtil;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import java.util.List;
@@ -107,7 +108,10 @@ public class LocalMetaServer extends AbstractMetaServer implements CurrentDcMeta
     lock.writeLock().lock();
     try {
       logger.info("[renew]meta node [{}] renewed", metaNode);
-      metaServers.add(metaNode);
+      if (metaServers.add(metaNode)) {
+        // the heartbeat omits the meta nodes if the epoch not changed
+        currentEpoch.set(DatumVersionUtil.nextId());
+      }
     } finally {
       lock.writeLock().unlock();
     }
@@ -118,7 +122,9 @@ public class LocalMetaServer extends AbstractMetaServer implements CurrentDcMeta
     lock.writeLock().lock();
     try {
       logger.info("[cancel]meta node [{}] removed", renewal);
-      metaServers.remove(renewal);
+      if (metaServers.remove(renewal)) {
+        currentEpoch.set(DatumVersionUtil.nextId());
+      }
     } finally {
       lock.writeLock().unlock();
     }
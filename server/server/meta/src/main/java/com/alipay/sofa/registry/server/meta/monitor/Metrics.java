@@ -159,6 +159,24 @@ public class Metrics {
             .labelNames("from", "to", "slot")
             .register();
 
+    private static final Gauge LOAD_LEADER_BALANCE =
+        Gauge.build()
+            .namespace("meta")
+            .subsystem("slot_balancer")
+            .name("load_leader_balance")
+            .help("data to swap slot leader out by load")
+            .labelNames("from", "to", "slot")
+            .register();
+
+    private static final Gauge LOAD_FOLLOWER_BALANCE =
+        Gauge.build()
+            .namespace("meta")
+            .subsystem("slot_balancer")
+            .name("load_follower_balance")
+            .help("data to swap slot follower out by load")
+            .labelNames("from", "to", "slot")
+            .register();
+
     public static void onLeaderUpgrade(String from, String to, int slotId) {
       try {
         HIGH_LEADER_MIGRATE.labels(from, to, String.valueOf(slotId)).inc();
@@ -198,6 +216,22 @@ public class Metrics {
         LOGGER.error("[onLowLeaderReplace]", throwable);
       }
     }
+
+    public static void onLoadLeaderSwap(String from, String to, int slotId) {
+      try {
+        LOAD_LEADER_BALANCE.labels(from, to, String.valueOf(slotId)).inc();
+      } catch (Throwable throwable) {
+        LOGGER.error("[onLoadLeaderSwap]", throwable);
+      }
+    }
+
+    public static void onLoadFollowerSwap(String from, String to, int slotId) {
+      try {
+        LOAD_FOLLOWER_BALANCE.labels(from, to, String.valueOf(slotId)).inc();
+      } catch (Throwable throwable) {
+        LOGGER.error("[onLoadFollowerSwap]", throwable);
+      }
+    }
   }
 
   public static final class SlotAssign {
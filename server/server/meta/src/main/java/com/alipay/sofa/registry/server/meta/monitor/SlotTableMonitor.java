@@ -16,8 +16,10 @@
  */
 package com.alipay.sofa.registry.server.meta.monitor;
 
+import com.alipay.sofa.registry.common.model.slot.SlotLoad;
 import com.alipay.sofa.registry.observer.UnblockingObserver;
 import com.alipay.sofa.registry.server.meta.monitor.data.DataMessageListener;
+import java.util.Map;
 
 /**
  * @author chen.zhu
@@ -28,4 +30,6 @@ public interface SlotTableMonitor extends DataMessageListener, UnblockingObserve
   void recordSlotTable();
 
   boolean isStableTableStable();
+
+  Map<Integer, SlotLoad> getSlotLoads();
 }
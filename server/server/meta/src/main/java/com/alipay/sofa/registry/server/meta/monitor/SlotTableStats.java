@@ -18,9 +18,11 @@ package com.alipay.sofa.registry.server.meta.monitor;
 
 import com.alipay.sofa.registry.common.model.metaserver.nodes.DataNode;
 import com.alipay.sofa.registry.common.model.slot.BaseSlotStatus;
+import com.alipay.sofa.registry.common.model.slot.SlotLoad;
 import com.alipay.sofa.registry.common.model.slot.SlotTable;
 import com.alipay.sofa.registry.lifecycle.Initializable;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author chen.zhu
@@ -35,4 +37,11 @@ public interface SlotTableStats extends Initializable {
   void updateSlotTable(SlotTable slotTable);
 
   void checkSlotStatuses(DataNode node, List<BaseSlotStatus> slotStatuses);
+
+  /**
+   * the loads reported by the slot leaders
+   *
+   * @return slotId -> load
+   */
+  Map<Integer, SlotLoad> getSlotLoads();
 }
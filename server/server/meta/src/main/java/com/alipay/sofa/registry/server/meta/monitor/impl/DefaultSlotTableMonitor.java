@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.server.meta.monitor.impl;
 
 import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.HeartbeatRequest;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.DataNode;
+import com.alipay.sofa.registry.common.model.slot.SlotLoad;
 import com.alipay.sofa.registry.common.model.slot.SlotTable;
 import com.alipay.sofa.registry.exception.InitializeException;
 import com.alipay.sofa.registry.exception.StartException;
@@ -138,6 +139,11 @@ public class DefaultSlotTableMonitor extends AbstractLifecycle
     return slotTableStats.isSlotLeadersStable() && slotTableStats.isSlotFollowersStable();
   }
 
+  @Override
+  public Map<Integer, SlotLoad> getSlotLoads() {
+    return slotTableStats.getSlotLoads();
+  }
+
   @Override
   public void update(Observable source, Object message) {
     if (message instanceof SlotTable) {
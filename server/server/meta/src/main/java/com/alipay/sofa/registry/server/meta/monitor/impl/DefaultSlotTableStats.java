@@ -45,6 +45,14 @@ public class DefaultSlotTableStats extends AbstractLifecycle implements SlotTabl
 
   private final Map<Integer, SlotStats> slotStatses = Maps.newConcurrentMap();
 
+  // the weight of the latest reported rates when smoothing the slot loads
+  static final double SLOT_LOAD_ALPHA = 0.2;
+  // the smoothed load is not used until it has been reported by some heartbeats
+  static final int SLOT_LOAD_MIN_SAMPLES = 5;
+
+  // the load belongs to the data of the slot, keep it when the slot moves
+  private final Map<Integer, SmoothedLoad> slotLoads = Maps.newConcurrentMap();
+
   private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
   private final MetaServerConfig metaServerConfig;
@@ -171,7 +179,12 @@ public class DefaultSlotTableStats extends AbstractLifecycle implements SlotTabl
             Metrics.DataSlot.setDataReportNotStable(node.getIp(), slotId);
             continue;
           }
-          slotStats.updateLeaderState((LeaderSlotStatus) slotStatus);
+          final LeaderSlotStatus leaderSlotStatus = (LeaderSlotStatus) slotStatus;
+          slotStats.updateLeaderState(leaderSlotStatus);
+          if (leaderSlotStatus.getSlotLoad() != null) {
+            slotLoads.compute(
+                slotId, (k, prev) -> SmoothedLoad.next(prev, leaderSlotStatus.getSlotLoad()));
+          }
         } else {
           if (!slotStats.getSlot().getFollowers().contains(node.getIp())) {
             logger.error(
@@ -217,6 +230,36 @@ public class DefaultSlotTableStats extends AbstractLifecycle implements SlotTabl
     }
   }
 
+  @Override
+  public Map<Integer, SlotLoad> getSlotLoads() {
+    Map<Integer, SlotLoad> ret = Maps.newHashMapWithExpectedSize(slotLoads.size());
+    for (Map.Entry<Integer, SmoothedLoad> e : slotLoads.entrySet()) {
+      if (e.getValue().samples >= SLOT_LOAD_MIN_SAMPLES) {
+        ret.put(e.getKey(), e.getValue().load);
+      }
+    }
+    return Collections.unmodifiableMap(ret);
+  }
+
+  private static final class SmoothedLoad {
+    final SlotLoad load;
+    final int samples;
+
+    SmoothedLoad(SlotLoad load, int samples) {
+      this.load = load;
+      this.samples = samples;
+    }
+
+    static SmoothedLoad next(SmoothedLoad prev, SlotLoad load) {
+      if (prev == null) {
+        return new SmoothedLoad(load, 1);
+      }
+      return new SmoothedLoad(
+          load.smooth(prev.load, SLOT_LOAD_ALPHA),
+          Math.min(prev.samples + 1, SLOT_LOAD_MIN_SAMPLES));
+    }
+  }
+
   @VisibleForTesting
   public SlotStats getSlotStats(int slotId) {
     return slotStatses.get(slotId);
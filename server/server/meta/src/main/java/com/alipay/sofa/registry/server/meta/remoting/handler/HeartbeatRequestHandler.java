@@ -26,6 +26,7 @@ import com.alipay.sofa.registry.common.model.metaserver.nodes.MetaNode;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
 import com.alipay.sofa.registry.common.model.slot.SlotConfig;
 import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
 import com.alipay.sofa.registry.exception.SofaRegistryMetaLeaderException;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
@@ -90,14 +91,7 @@ public class HeartbeatRequestHandler extends BaseMetaServerHandler<HeartbeatRequ
       switch (renewNode.getNodeType()) {
         case SESSION:
         case DATA:
-          response =
-              new BaseHeartBeatResponse(
-                  true,
-                  metaServerInfo,
-                  slotTable,
-                  sessionMetaInfo,
-                  metaLeaderService.getLeader(),
-                  metaLeaderService.getLeaderEpoch());
+          response = createResponse(heartbeat, slotTable, metaServerInfo, sessionMetaInfo);
           break;
         case META:
           response =
@@ -133,6 +127,50 @@ public class HeartbeatRequestHandler extends BaseMetaServerHandler<HeartbeatRequ
     }
   }
 
+  /**
+   * omit the parts not changed since the epochs held by the node, and send the slot table delta if
+   * it is small enough
+   */
+  BaseHeartBeatResponse createResponse(
+      HeartbeatRequest<Node> heartbeat,
+      SlotTable slotTable,
+      VersionedList<MetaNode> metaServerInfo,
+      VersionedList<SessionNode> sessionMetaInfo) {
+    if (!heartbeat.isAcceptDelta()) {
+      return new BaseHeartBeatResponse(
+          true,
+          metaServerInfo,
+          slotTable,
+          sessionMetaInfo,
+          metaLeaderService.getLeader(),
+          metaLeaderService.getLeaderEpoch());
+    }
+    final SlotTable known = heartbeat.getSlotTable();
+    SlotTable respSlotTable = slotTable;
+    SlotTableDelta delta = null;
+    if (known != null) {
+      if (known.getEpoch() == slotTable.getEpoch()) {
+        respSlotTable = null;
+      } else if (known.getEpoch() < slotTable.getEpoch()) {
+        SlotTableDelta d = SlotTableDelta.of(known, slotTable);
+        if (d.size() <= slotTable.getSlotIds().size() / 2) {
+          respSlotTable = null;
+          delta = d;
+        }
+      }
+    }
+    return new BaseHeartBeatResponse(
+            true,
+            heartbeat.getMetaServerEpoch() == metaServerInfo.getEpoch() ? null : metaServerInfo,
+            respSlotTable,
+            heartbeat.getSessionServerEpoch() == sessionMetaInfo.getEpoch()
+                ? null
+                : sessionMetaInfo,
+            metaLeaderService.getLeader(),
+            metaLeaderService.getLeaderEpoch())
+        .setSlotTableDelta(delta);
+  }
+
   @SuppressWarnings("unchecked")
   private void onHeartbeat(HeartbeatRequest heartbeat, Channel channel) {
     new DefaultHeartbeatListener(nodeConfig.getLocalDataCenter(), channel).onHeartbeat(heartbeat);
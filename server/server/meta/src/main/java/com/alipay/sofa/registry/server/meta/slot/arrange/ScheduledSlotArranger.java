@@ -38,6 +38,9 @@ import com.alipay.sofa.registry.server.meta.slot.SlotBalancer;
 import com.alipay.sofa.registry.server.meta.slot.SlotManager;
 import com.alipay.sofa.registry.server.meta.slot.assigner.DefaultSlotAssigner;
 import com.alipay.sofa.registry.server.meta.slot.balance.DefaultSlotBalancer;
+import com.alipay.sofa.registry.server.meta.slot.balance.LoadAwareBalancePolicy;
+import com.alipay.sofa.registry.server.meta.slot.balance.LoadAwareSlotBalancer;
+import com.alipay.sofa.registry.server.meta.slot.balance.SlotMoveCooldown;
 import com.alipay.sofa.registry.server.meta.slot.util.builder.SlotTableBuilder;
 import com.alipay.sofa.registry.server.shared.comparator.NodeComparator;
 import com.alipay.sofa.registry.server.shared.slot.SlotTableUtils;
@@ -49,6 +52,7 @@ import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
 import com.google.common.annotations.VisibleForTesting;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import javax.annotation.PostConstruct;
@@ -80,6 +84,9 @@ public class ScheduledSlotArranger extends AbstractLifecycleObservable
 
   private volatile boolean slotTableProtectionMode = true;
 
+  // accessed under the lock
+  private SlotMoveCooldown slotMoveCooldown;
+
   @Autowired
   public ScheduledSlotArranger(
       DefaultDataServerManager dataServerManager,
@@ -189,7 +196,24 @@ public class ScheduledSlotArranger extends AbstractLifecycleObservable
 
   protected SlotBalancer createSlotBalancer(
       SlotTableBuilder slotTableBuilder, Collection<String> currentDataServers) {
-    return new DefaultSlotBalancer(slotTableBuilder, currentDataServers);
+    if (!metaServerConfig.isSlotLoadBalanceEnable()) {
+      return new DefaultSlotBalancer(slotTableBuilder, currentDataServers);
+    }
+    return new LoadAwareSlotBalancer(
+        slotTableBuilder,
+        currentDataServers,
+        slotTableMonitor.getSlotLoads(),
+        new LoadAwareBalancePolicy(),
+        getSlotMoveCooldown());
+  }
+
+  private SlotMoveCooldown getSlotMoveCooldown() {
+    final long cooldownMillis =
+        TimeUnit.SECONDS.toMillis(metaServerConfig.getSlotLoadMoveCooldownSecs());
+    if (slotMoveCooldown == null || slotMoveCooldown.getCooldownMillis() != cooldownMillis) {
+      slotMoveCooldown = new SlotMoveCooldown(cooldownMillis);
+    }
+    return slotMoveCooldown;
   }
 
   @Override
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.slot.balance;
+
+import com.alipay.sofa.registry.common.model.slot.SlotLoad;
+
+/**
+ * weighs the slots by the loads reported by the leaders. the leader serves the publishes and the
+ * gets, the follower holds the same publishers and syncs the changes from the leader
+ */
+public class LoadAwareBalancePolicy extends NaiveBalancePolicy {
+
+  public static final String PROP_LOAD_BALANCE_THRESHOLD = "registry.slot.load.balance.threshold";
+  public static final String PROP_WEIGHT_PUBLISHER = "registry.slot.load.weight.publisher";
+  public static final String PROP_WEIGHT_CHANGE = "registry.slot.load.weight.change";
+  public static final String PROP_WEIGHT_GET_DATA = "registry.slot.load.weight.getData";
+
+  private int loadBalanceThreshold = Integer.getInteger(PROP_LOAD_BALANCE_THRESHOLD, 20);
+
+  private double publisherWeight =
+      Double.parseDouble(System.getProperty(PROP_WEIGHT_PUBLISHER, "1"));
+
+  private double changeWeight = Double.parseDouble(System.getProperty(PROP_WEIGHT_CHANGE, "100"));
+
+  private double getDataWeight = Double.parseDouble(System.getProperty(PROP_WEIGHT_GET_DATA, "10"));
+
+  public double leaderWeight(SlotLoad load) {
+    return publisherWeight * load.getPublisherCount()
+        + changeWeight * load.getChangeQps()
+        + getDataWeight * load.getGetDataQps();
+  }
+
+  public double followerWeight(SlotLoad load) {
+    return publisherWeight * load.getPublisherCount() + changeWeight * load.getChangeQps();
+  }
+
+  /**
+   * Gets the high water mark of the load. the data-server whose load is beyond the high water mark
+   * needs to rebalance
+   *
+   * @param average the average load
+   * @return the high water mark load
+   */
+  public double getHighWaterMarkLoad(double average) {
+    return average * (100 + loadBalanceThreshold) / 100;
+  }
+
+  public void setLoadBalanceThreshold(int loadBalanceThreshold) {
+    this.loadBalanceThreshold = loadBalanceThreshold;
+  }
+
+  public void setPublisherWeight(double publisherWeight) {
+    this.publisherWeight = publisherWeight;
+  }
+
+  public void setChangeWeight(double changeWeight) {
+    this.changeWeight = changeWeight;
+  }
+
+  public void setGetDataWeight(double getDataWeight) {
+    this.getDataWeight = getDataWeight;
+  }
+}
@@ -0,0 +1,329 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.slot.balance;
+
+import static com.alipay.sofa.registry.server.meta.slot.balance.LeaderOnlyBalancer.TRIGGER_THESHOLD;
+
+import com.alipay.sofa.registry.common.model.slot.DataNodeSlot;
+import com.alipay.sofa.registry.common.model.slot.SlotLoad;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.meta.monitor.Metrics;
+import com.alipay.sofa.registry.server.meta.slot.util.builder.SlotTableBuilder;
+import com.alipay.sofa.registry.util.MathUtils;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * balance the slot counts first, then balance the weighted loads of the data-servers by swapping
+ * the roles of the slot replicas, the slot counts are kept in the water marks so the count balance
+ * would not move them back
+ */
+public class LoadAwareSlotBalancer extends DefaultSlotBalancer {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LoadAwareSlotBalancer.class);
+
+  private final LoadAwareBalancePolicy balancePolicy;
+
+  private final double[] leaderWeights;
+
+  private final double[] followerWeights;
+
+  private final boolean loadsReady;
+
+  private final SlotMoveCooldown moveCooldown;
+
+  private final long now = System.currentTimeMillis();
+
+  public LoadAwareSlotBalancer(
+      SlotTableBuilder slotTableBuilder,
+      Collection<String> currentDataServers,
+      Map<Integer, SlotLoad> slotLoads) {
+    this(slotTableBuilder, currentDataServers, slotLoads, new LoadAwareBalancePolicy());
+  }
+
+  public LoadAwareSlotBalancer(
+      SlotTableBuilder slotTableBuilder,
+      Collection<String> currentDataServers,
+      Map<Integer, SlotLoad> slotLoads,
+      LoadAwareBalancePolicy balancePolicy) {
+    this(slotTableBuilder, currentDataServers, slotLoads, balancePolicy, new SlotMoveCooldown(0));
+  }
+
+  public LoadAwareSlotBalancer(
+      SlotTableBuilder slotTableBuilder,
+      Collection<String> currentDataServers,
+      Map<Integer, SlotLoad> slotLoads,
+      LoadAwareBalancePolicy balancePolicy,
+      SlotMoveCooldown moveCooldown) {
+    super(slotTableBuilder, currentDataServers, balancePolicy);
+    this.balancePolicy = balancePolicy;
+    this.moveCooldown = moveCooldown;
+    this.leaderWeights = new double[slotNum];
+    this.followerWeights = new double[slotNum];
+    int reported = 0;
+    for (int slotId = 0; slotId < slotNum; slotId++) {
+      SlotLoad load = slotLoads.get(slotId);
+      if (load != null) {
+        reported++;
+      } else {
+        load = SlotLoad.EMPTY;
+      }
+      leaderWeights[slotId] = balancePolicy.leaderWeight(load);
+      followerWeights[slotId] = balancePolicy.followerWeight(load);
+    }
+    // the old data-servers not report the loads, or the leaders not report yet
+    this.loadsReady = reported == slotNum;
+  }
+
+  @Override
+  public SlotTable balance() {
+    SlotTable slotTable = super.balance();
+    if (slotTable != null) {
+      return slotTable;
+    }
+    if (slotReplicas < TRIGGER_THESHOLD) {
+      return null;
+    }
+    if (!loadsReady) {
+      LOGGER.debug("[balanceLoad] slot loads not ready, skip");
+      return null;
+    }
+    if (balanceLeaderLoads()) {
+      LOGGER.info("[balanceLeaderLoads] end");
+      slotTableBuilder.incrEpoch();
+      return slotTableBuilder.build();
+    }
+    if (balanceFollowerLoads()) {
+      LOGGER.info("[balanceFollowerLoads] end");
+      slotTableBuilder.incrEpoch();
+      return slotTableBuilder.build();
+    }
+    LOGGER.debug("[balanceLoad] do nothing");
+    return null;
+  }
+
+  /**
+   * swap the roles of a leader on the highest loaded data-server and its follower, the data has
+   * been on the follower, so it does not migrate any data
+   */
+  private boolean balanceLeaderLoads() {
+    final int maxMove = balancePolicy.getMaxMoveLeaderSlots();
+    final int leaderHigh =
+        balancePolicy.getHighWaterMarkSlotLeaderNums(
+            MathUtils.divideCeil(slotNum, currentDataServers.size()));
+    final int leaderLow =
+        balancePolicy.getLowWaterMarkSlotLeaderNums(
+            Math.floorDiv(slotNum, currentDataServers.size()));
+    final int followerNum = slotNum * (slotReplicas - 1);
+    final int followerHigh =
+        balancePolicy.getHighWaterMarkSlotFollowerNums(
+            MathUtils.divideCeil(followerNum, currentDataServers.size()));
+    final int followerLow =
+        balancePolicy.getLowWaterMarkSlotFollowerNums(
+            Math.floorDiv(followerNum, currentDataServers.size()));
+    int balanced = 0;
+    while (balanced < maxMove) {
+      final Map<String, Double> loads = computeLoads();
+      final String highDataServer = findHighLoadDataServer(loads);
+      if (highDataServer == null) {
+        break;
+      }
+      final double highLoad = loads.get(highDataServer);
+      final DataNodeSlot highSlots = slotTableBuilder.getDataNodeSlot(highDataServer);
+      if (highSlots.getLeaders().size() - 1 < leaderLow
+          || highSlots.getFollowers().size() + 1 > followerHigh) {
+        LOGGER.debug("[balanceLeaderLoads] {} could not downgrade any leader", highDataServer);
+        break;
+      }
+      int selectedSlot = -1;
+      String selectedFollower = null;
+      double selectedPeak = highLoad;
+      for (int slotId : highSlots.getLeaders()) {
+        final double delta = leaderWeights[slotId] - followerWeights[slotId];
+        if (delta <= 0 || moveCooldown.isCooling(slotId, now)) {
+          continue;
+        }
+        for (String follower : slotTableBuilder.getDataServersOwnsFollower(slotId)) {
+          final DataNodeSlot followerSlots = slotTableBuilder.getDataNodeSlotIfPresent(follower);
+          if (followerSlots == null || !currentDataServers.contains(follower)) {
+            continue;
+          }
+          if (followerSlots.getLeaders().size() + 1 > leaderHigh
+              || followerSlots.getFollowers().size() - 1 < followerLow) {
+            continue;
+          }
+          final double peak = Math.max(highLoad - delta, loads.get(follower) + delta);
+          if (peak < selectedPeak) {
+            selectedPeak = peak;
+            selectedSlot = slotId;
+            selectedFollower = follower;
+          }
+        }
+      }
+      if (selectedFollower == null) {
+        LOGGER.debug("[balanceLeaderLoads] {} could not find leader to swap", highDataServer);
+        break;
+      }
+      slotTableBuilder.replaceLeader(selectedSlot, selectedFollower);
+      slotTableBuilder.addFollower(selectedSlot, highDataServer);
+      moveCooldown.onMove(selectedSlot, now);
+      LOGGER.info(
+          "[balanceLeaderLoads] slotId={} leader swap from {} to {}, peak {} -> {}",
+          selectedSlot,
+          highDataServer,
+          selectedFollower,
+          highLoad,
+          selectedPeak);
+      Metrics.SlotBalance.onLoadLeaderSwap(highDataServer, selectedFollower, selectedSlot);
+      balanced++;
+    }
+    return balanced != 0;
+  }
+
+  /**
+   * swap a heavy follower on the highest loaded data-server with a light follower on another
+   * data-server, the follower counts are not changed. each swap migrates two followers
+   */
+  private boolean balanceFollowerLoads() {
+    final int maxMove = balancePolicy.getMaxMoveFollowerSlots();
+    int balanced = 0;
+    while (balanced + 2 <= maxMove) {
+      final Map<String, Double> loads = computeLoads();
+      final String highDataServer = findHighLoadDataServer(loads);
+      if (highDataServer == null) {
+        break;
+      }
+      final double highLoad = loads.get(highDataServer);
+      final DataNodeSlot highSlots = slotTableBuilder.getDataNodeSlot(highDataServer);
+      int selectedOut = -1;
+      int selectedIn = -1;
+      String selectedDataServer = null;
+      double selectedPeak = highLoad;
+      for (String dataServer : currentDataServers) {
+        if (dataServer.equals(highDataServer)) {
+          continue;
+        }
+        final DataNodeSlot slots = slotTableBuilder.getDataNodeSlot(dataServer);
+        final double load = loads.get(dataServer);
+        for (int out : highSlots.getFollowers()) {
+          if (slots.containsLeader(out)
+              || slots.containsFollower(out)
+              || moveCooldown.isCooling(out, now)) {
+            continue;
+          }
+          for (int in : slots.getFollowers()) {
+            if (highSlots.containsLeader(in)
+                || highSlots.containsFollower(in)
+                || moveCooldown.isCooling(in, now)) {
+              continue;
+            }
+            final double delta = followerWeights[out] - followerWeights[in];
+            if (delta <= 0) {
+              continue;
+            }
+            final double peak = Math.max(highLoad - delta, load + delta);
+            if (peak < selectedPeak) {
+              selectedPeak = peak;
+              selectedOut = out;
+              selectedIn = in;
+              selectedDataServer = dataServer;
+            }
+          }
+        }
+      }
+      if (selectedDataServer == null) {
+        LOGGER.debug("[balanceFollowerLoads] {} could not find follower to swap", highDataServer);
+        break;
+      }
+      slotTableBuilder.removeFollower(selectedOut, highDataServer);
+      slotTableBuilder.removeFollower(selectedIn, selectedDataServer);
+      slotTableBuilder.addFollower(selectedOut, selectedDataServer);
+      slotTableBuilder.addFollower(selectedIn, highDataServer);
+      moveCooldown.onMove(selectedOut, now);
+      moveCooldown.onMove(selectedIn, now);
+      LOGGER.info(
+          "[balanceFollowerLoads] follower swap slotId={} from {} to {}, slotId={} from {} to {}, peak {} -> {}",
+          selectedOut,
+          highDataServer,
+          selectedDataServer,
+          selectedIn,
+          selectedDataServer,
+          highDataServer,
+          highLoad,
+          selectedPeak);
+      Metrics.SlotBalance.onLoadFollowerSwap(highDataServer, selectedDataServer, selectedOut);
+      Metrics.SlotBalance.onLoadFollowerSwap(selectedDataServer, highDataServer, selectedIn);
+      balanced += 2;
+    }
+    return balanced != 0;
+  }
+
+  private String findHighLoadDataServer(Map<String, Double> loads) {
+    double total = 0;
+    String highDataServer = null;
+    double highLoad = -1;
+    for (Map.Entry<String, Double> e : loads.entrySet()) {
+      total += e.getValue();
+      if (e.getValue() > highLoad) {
+        highLoad = e.getValue();
+        highDataServer = e.getKey();
+      }
+    }
+    final double threshold = balancePolicy.getHighWaterMarkLoad(total / loads.size());
+    if (highLoad <= threshold) {
+      LOGGER.debug("[LoadHighWaterMark] threshold={}, highLoad={}", threshold, highLoad);
+      return null;
+    }
+    LOGGER.debug(
+        "[LoadHighWaterMark] threshold={}, dataServer={}, highLoad={}",
+        threshold,
+        highDataServer,
+        highLoad);
+    return highDataServer;
+  }
+
+  @VisibleForTesting
+  Map<String, Double> computeLoads() {
+    Map<String, Double> loads = Maps.newTreeMap();
+    for (String dataServer : currentDataServers) {
+      DataNodeSlot slots = slotTableBuilder.getDataNodeSlot(dataServer);
+      double load = 0;
+      for (int slotId : slots.getLeaders()) {
+        load += leaderWeights[slotId];
+      }
+      for (int slotId : slots.getFollowers()) {
+        load += followerWeights[slotId];
+      }
+      loads.put(dataServer, load);
+    }
+    return loads;
+  }
+
+  @VisibleForTesting
+  List<Double> sortedLoads() {
+    List<Double> loads = Lists.newArrayList(computeLoads().values());
+    Collections.sort(loads);
+    return loads;
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.slot.balance;
+
+import com.google.common.collect.Maps;
+import java.util.Map;
+
+/**
+ * the last moments the slots are moved by the load balance, a slot is not moved again within the
+ * cooldown so the balance would not flap on the changing loads
+ */
+public final class SlotMoveCooldown {
+  private final Map<Integer, Long> lastMoves = Maps.newConcurrentMap();
+
+  private final long cooldownMillis;
+
+  public SlotMoveCooldown(long cooldownMillis) {
+    this.cooldownMillis = cooldownMillis;
+  }
+
+  public boolean isCooling(int slotId, long now) {
+    final Long last = lastMoves.get(slotId);
+    return last != null && now - last < cooldownMillis;
+  }
+
+  public void onMove(int slotId, long now) {
+    lastMoves.put(slotId, now);
+  }
+
+  public long getCooldownMillis() {
+    return cooldownMillis;
+  }
+}
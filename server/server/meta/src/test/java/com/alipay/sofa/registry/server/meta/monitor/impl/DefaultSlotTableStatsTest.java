@@ -343,6 +343,41 @@ public class DefaultSlotTableStatsTest extends AbstractMetaServerTestBase {
     Assert.assertFalse(slotTableStats.isSlotLeadersStable());
   }
 
+  @Test
+  public void testSlotLoads() {
+    SlotTable slotTable = slotManager.getSlotTable();
+    for (int i = 0; i < DefaultSlotTableStats.SLOT_LOAD_MIN_SAMPLES; i++) {
+      // the rates alternate between 0 and 100
+      reportLoads(slotTable, new SlotLoad(i, i % 2 == 0 ? 100 : 0, i % 2 == 0 ? 100 : 0));
+      if (i < DefaultSlotTableStats.SLOT_LOAD_MIN_SAMPLES - 1) {
+        Assert.assertTrue(slotTableStats.getSlotLoads().isEmpty());
+      }
+    }
+    Map<Integer, SlotLoad> loads = slotTableStats.getSlotLoads();
+    Assert.assertEquals(loads.size(), slotTable.getSlotIds().size());
+    SlotLoad load = loads.get(slotTable.getSlotIds().iterator().next());
+    Assert.assertEquals(load.getPublisherCount(), DefaultSlotTableStats.SLOT_LOAD_MIN_SAMPLES - 1);
+    Assert.assertTrue(load.toString(), load.getChangeQps() > 10 && load.getChangeQps() < 90);
+    Assert.assertEquals(load.getChangeQps(), load.getGetDataQps(), 0.0001);
+  }
+
+  private void reportLoads(SlotTable slotTable, SlotLoad load) {
+    for (DataNode dataNode : dataNodes) {
+      List<BaseSlotStatus> slotStatuses = Lists.newArrayList();
+      DataNodeSlot dataNodeSlot = slotTable.transfer(dataNode.getIp(), false).get(0);
+      for (int slotId : dataNodeSlot.getLeaders()) {
+        slotStatuses.add(
+            new LeaderSlotStatus(
+                    slotId,
+                    slotTable.getSlot(slotId).getLeaderEpoch(),
+                    dataNode.getIp(),
+                    BaseSlotStatus.LeaderStatus.HEALTHY)
+                .setSlotLoad(load));
+      }
+      slotTableStats.checkSlotStatuses(dataNode, slotStatuses);
+    }
+  }
+
   @Test
   public void testIsFollowerStableNPE() {
     slotManager = new SimpleSlotManager();
@@ -20,9 +20,15 @@ import static org.mockito.Mockito.*;
 
 import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
+import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.BaseHeartBeatResponse;
 import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.HeartbeatRequest;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.DataNode;
+import com.alipay.sofa.registry.common.model.metaserver.nodes.MetaNode;
+import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
+import com.alipay.sofa.registry.common.model.slot.Slot;
 import com.alipay.sofa.registry.common.model.slot.SlotConfig;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
 import com.alipay.sofa.registry.server.meta.MetaLeaderService;
@@ -31,6 +37,8 @@ import com.alipay.sofa.registry.server.meta.lease.data.DataServerManager;
 import com.alipay.sofa.registry.server.meta.lease.session.SessionServerManager;
 import com.alipay.sofa.registry.server.meta.metaserver.impl.DefaultCurrentDcMetaServer;
 import com.alipay.sofa.registry.server.meta.slot.manager.DefaultSlotManager;
+import com.google.common.collect.Lists;
+import java.util.Collections;
 import java.util.concurrent.TimeoutException;
 import org.junit.Assert;
 import org.junit.Before;
@@ -136,6 +144,73 @@ public class HeartbeatRequestHandlerTest extends AbstractMetaServerTestBase {
     verify(channel, times(3)).close();
   }
 
+  @Test
+  public void testCreateResponse() {
+    SlotTable known =
+        new SlotTable(
+            10,
+            Lists.newArrayList(
+                new Slot(0, "a", 1, Collections.singletonList("b")),
+                new Slot(1, "b", 1, Collections.singletonList("a"))));
+    VersionedList<MetaNode> metaNodes =
+        new VersionedList<>(2, Lists.newArrayList(new MetaNode(randomURL(randomIp()), getDc())));
+    VersionedList<SessionNode> sessionNodes = new VersionedList<>(3, Collections.emptyList());
+    HeartbeatRequest<Node> heartbeat =
+        new HeartbeatRequest<>(
+            new DataNode(randomURL(randomIp()), getDc()),
+            known.getEpoch(),
+            getDc(),
+            System.currentTimeMillis(),
+            new SlotConfig.SlotBasicInfo(
+                SlotConfig.SLOT_NUM, SlotConfig.SLOT_REPLICAS, SlotConfig.FUNC));
+    heartbeat.setSlotTable(known);
+
+    // not accept delta, full response
+    BaseHeartBeatResponse response =
+        handler.createResponse(heartbeat, known, metaNodes, sessionNodes);
+    Assert.assertSame(known, response.getSlotTable());
+    Assert.assertSame(metaNodes, response.getVersionedMetaNodes());
+    Assert.assertSame(sessionNodes, response.getVersionedSessionNodes());
+
+    // nothing changed
+    heartbeat.setKnownEpochs(2, 3);
+    response = handler.createResponse(heartbeat, known, metaNodes, sessionNodes);
+    Assert.assertNull(response.getSlotTable());
+    Assert.assertNull(response.getSlotTableDelta());
+    Assert.assertNull(response.getVersionedMetaNodes());
+    Assert.assertNull(response.getVersionedSessionNodes());
+    response.fillUnchanged(known, metaNodes, sessionNodes);
+    Assert.assertSame(known, response.getSlotTable());
+
+    // one slot changed, send the delta
+    SlotTable slotTable =
+        new SlotTable(
+            20,
+            Lists.newArrayList(
+                new Slot(0, "a", 1, Collections.singletonList("b")),
+                new Slot(1, "a", 2, Collections.singletonList("b"))));
+    heartbeat.setKnownEpochs(1, 3);
+    response = handler.createResponse(heartbeat, slotTable, metaNodes, sessionNodes);
+    Assert.assertNull(response.getSlotTable());
+    Assert.assertEquals(1, response.getSlotTableDelta().size());
+    Assert.assertSame(metaNodes, response.getVersionedMetaNodes());
+    Assert.assertNull(response.getVersionedSessionNodes());
+    response.fillUnchanged(known, null, sessionNodes);
+    Assert.assertEquals(slotTable.getEpoch(), response.getSlotTable().getEpoch());
+    Assert.assertEquals(slotTable.getSlotMap(), response.getSlotTable().getSlotMap());
+
+    // all slots changed, send the full slot table
+    slotTable =
+        new SlotTable(
+            20,
+            Lists.newArrayList(
+                new Slot(0, "b", 2, Collections.singletonList("a")),
+                new Slot(1, "a", 2, Collections.singletonList("b"))));
+    response = handler.createResponse(heartbeat, slotTable, metaNodes, sessionNodes);
+    Assert.assertSame(slotTable, response.getSlotTable());
+    Assert.assertNull(response.getSlotTableDelta());
+  }
+
   @Test
   public void testInterest() {
     Assert.assertEquals(HeartbeatRequest.class, handler.interest());
@@ -19,12 +19,19 @@ package com.alipay.sofa.registry.server.meta.slot.arrange;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
 import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
 import com.alipay.sofa.registry.server.meta.lease.data.DefaultDataServerManager;
 import com.alipay.sofa.registry.server.meta.monitor.SlotTableMonitor;
 import com.alipay.sofa.registry.server.meta.resource.SlotTableResource;
 import com.alipay.sofa.registry.server.meta.slot.SlotManager;
+import com.alipay.sofa.registry.server.meta.slot.balance.DefaultSlotBalancer;
+import com.alipay.sofa.registry.server.meta.slot.balance.LoadAwareSlotBalancer;
+import com.alipay.sofa.registry.server.meta.slot.balance.SlotBalanceSimulator;
 import com.alipay.sofa.registry.server.meta.slot.status.SlotTableStatusService;
+import com.alipay.sofa.registry.server.meta.slot.util.builder.SlotTableBuilder;
+import com.google.common.collect.Lists;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -120,4 +127,22 @@ public class ScheduledSlotArrangerTest extends AbstractMetaServerTestBase {
     slotTableResource.startSlotTableReconcile();
     Assert.assertEquals("running", slotTableResource.getReconcileStatus().getMessage());
   }
+
+  @Test
+  public void testCreateSlotBalancer() {
+    List<String> dataServers = Lists.newArrayList("10.0.0.1", "10.0.0.2", "10.0.0.3");
+    SlotTable slotTable = SlotBalanceSimulator.roundRobinSlotTable(dataServers, 16, 2);
+    SlotTableBuilder slotTableBuilder = new SlotTableBuilder(slotTable, 16, 2);
+    slotTableBuilder.init(dataServers);
+    // the load balance is off by default
+    Assert.assertEquals(
+        DefaultSlotBalancer.class,
+        slotArranger.createSlotBalancer(slotTableBuilder, dataServers).getClass());
+
+    when(metaServerConfig.isSlotLoadBalanceEnable()).thenReturn(true);
+    when(metaServerConfig.getSlotLoadMoveCooldownSecs()).thenReturn(60);
+    Assert.assertEquals(
+        LoadAwareSlotBalancer.class,
+        slotArranger.createSlotBalancer(slotTableBuilder, dataServers).getClass());
+  }
 }
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.slot.balance;
+
+import com.alipay.sofa.registry.common.model.metaserver.nodes.DataNode;
+import com.alipay.sofa.registry.common.model.slot.DataNodeSlot;
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotLoad;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
+import com.alipay.sofa.registry.server.meta.slot.util.builder.SlotTableBuilder;
+import com.alipay.sofa.registry.server.shared.util.NodeUtils;
+import com.alipay.sofa.registry.util.MathUtils;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LoadAwareSlotBalancerTest extends AbstractMetaServerTestBase {
+
+  private static final int SLOT_NUM = 256;
+
+  @Test
+  public void testNoLoads() {
+    List<DataNode> dataNodes = randomDataNodes(4);
+    List<String> dataServers = NodeUtils.transferNodeToIpList(dataNodes);
+    SlotTable slotTable = SlotBalanceSimulator.roundRobinSlotTable(dataServers, SLOT_NUM, 2);
+    SlotTableBuilder slotTableBuilder = new SlotTableBuilder(slotTable, SLOT_NUM, 2);
+    slotTableBuilder.init(dataServers);
+    LoadAwareSlotBalancer balancer =
+        new LoadAwareSlotBalancer(slotTableBuilder, dataServers, Collections.emptyMap());
+    Assert.assertNull(balancer.balance());
+  }
+
+  @Test
+  public void testUniformLoads() {
+    List<DataNode> dataNodes = randomDataNodes(4);
+    List<String> dataServers = NodeUtils.transferNodeToIpList(dataNodes);
+    SlotTable slotTable = SlotBalanceSimulator.roundRobinSlotTable(dataServers, SLOT_NUM, 2);
+    Map<Integer, SlotLoad> loads = Maps.newHashMap();
+    for (int i = 0; i < SLOT_NUM; i++) {
+      loads.put(i, new SlotLoad(100, 1, 10));
+    }
+    SlotTableBuilder slotTableBuilder = new SlotTableBuilder(slotTable, SLOT_NUM, 2);
+    slotTableBuilder.init(dataServers);
+    Assert.assertNull(new LoadAwareSlotBalancer(slotTableBuilder, dataServers, loads).balance());
+  }
+
+  @Test
+  public void testSkewedLoads() {
+    for (int replicas = 2; replicas <= 3; replicas++) {
+      List<DataNode> dataNodes = randomDataNodes(6);
+      List<String> dataServers = NodeUtils.transferNodeToIpList(dataNodes);
+      SlotTable slotTable =
+          SlotBalanceSimulator.roundRobinSlotTable(dataServers, SLOT_NUM, replicas);
+      LoadAwareBalancePolicy policy = new LoadAwareBalancePolicy();
+      SlotBalanceSimulator simulator =
+          new SlotBalanceSimulator(
+              slotTable,
+              dataServers,
+              SLOT_NUM,
+              replicas,
+              SlotBalanceSimulator.skewedLoads(SLOT_NUM, 7),
+              policy);
+      int rounds = simulator.run(200);
+      Assert.assertTrue(rounds > 0);
+      List<Double> ratios = simulator.getPeakRatios();
+      Assert.assertTrue(ratios.toString(), ratios.get(ratios.size() - 1) < ratios.get(0));
+
+      SlotTable balanced = simulator.getSlotTable();
+      assertSlotTableNoDupLeaderFollower(balanced);
+      Assert.assertTrue(balanced.getEpoch() > slotTable.getEpoch());
+      assertCountsInWaterMarks(balanced, dataServers, replicas, policy);
+    }
+  }
+
+  @Test
+  public void testMoveCooldown() {
+    List<DataNode> dataNodes = randomDataNodes(6);
+    List<String> dataServers = NodeUtils.transferNodeToIpList(dataNodes);
+    SlotTable slotTable = SlotBalanceSimulator.roundRobinSlotTable(dataServers, SLOT_NUM, 2);
+    Map<Integer, SlotLoad> loads = SlotBalanceSimulator.skewedLoads(SLOT_NUM, 7);
+    SlotMoveCooldown cooldown = new SlotMoveCooldown(TimeUnit.HOURS.toMillis(1));
+    Set<Integer> moved = Sets.newHashSet();
+    for (int round = 0; round < 100; round++) {
+      SlotTableBuilder slotTableBuilder = new SlotTableBuilder(slotTable, SLOT_NUM, 2);
+      slotTableBuilder.init(dataServers);
+      SlotTable next =
+          new LoadAwareSlotBalancer(
+                  slotTableBuilder, dataServers, loads, new LoadAwareBalancePolicy(), cooldown)
+              .balance();
+      if (next == null) {
+        break;
+      }
+      for (int slotId = 0; slotId < SLOT_NUM; slotId++) {
+        Slot before = slotTable.getSlot(slotId);
+        Slot after = next.getSlot(slotId);
+        if (!before.getLeader().equals(after.getLeader())
+            || !before.getFollowers().equals(after.getFollowers())) {
+          // a slot is moved at most once within the cooldown
+          Assert.assertTrue(String.valueOf(slotId), moved.add(slotId));
+        }
+      }
+      slotTable = next;
+    }
+    Assert.assertFalse(moved.isEmpty());
+    for (int slotId : moved) {
+      Assert.assertTrue(cooldown.isCooling(slotId, System.currentTimeMillis()));
+    }
+    Assert.assertFalse(cooldown.isCooling(moved.iterator().next(), System.currentTimeMillis() * 2));
+  }
+
+  private void assertCountsInWaterMarks(
+      SlotTable slotTable, List<String> dataServers, int replicas, BalancePolicy policy) {
+    int n = dataServers.size();
+    int leaderHigh = policy.getHighWaterMarkSlotLeaderNums(MathUtils.divideCeil(SLOT_NUM, n));
+    int leaderLow = policy.getLowWaterMarkSlotLeaderNums(Math.floorDiv(SLOT_NUM, n));
+    int followerNum = SLOT_NUM * (replicas - 1);
+    int followerHigh =
+        policy.getHighWaterMarkSlotFollowerNums(MathUtils.divideCeil(followerNum, n));
+    int followerLow = policy.getLowWaterMarkSlotFollowerNums(Math.floorDiv(followerNum, n));
+    for (DataNodeSlot dataNodeSlot : slotTable.transfer(null, false)) {
+      Assert.assertTrue(dataNodeSlot.toString(), dataNodeSlot.getLeaders().size() <= leaderHigh);
+      Assert.assertTrue(dataNodeSlot.toString(), dataNodeSlot.getLeaders().size() >= leaderLow);
+      Assert.assertTrue(
+          dataNodeSlot.toString(), dataNodeSlot.getFollowers().size() <= followerHigh);
+      Assert.assertTrue(dataNodeSlot.toString(), dataNodeSlot.getFollowers().size() >= followerLow);
+    }
+  }
+}
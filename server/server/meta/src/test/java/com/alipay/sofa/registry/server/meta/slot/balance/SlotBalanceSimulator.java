@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.slot.balance;
+
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotLoad;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.server.meta.slot.util.builder.SlotTableBuilder;
+import com.alipay.sofa.registry.util.DatumVersionUtil;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/** replay the balance rounds of the arranger offline, with generated slot table and skewed loads */
+public final class SlotBalanceSimulator {
+
+  private final List<String> dataServers;
+  private final int slotNum;
+  private final int slotReplicas;
+  private final Map<Integer, SlotLoad> slotLoads;
+  private final LoadAwareBalancePolicy balancePolicy;
+
+  private SlotTable slotTable;
+  private final List<Double> peakRatios = Lists.newArrayList();
+
+  public SlotBalanceSimulator(
+      SlotTable slotTable,
+      List<String> dataServers,
+      int slotNum,
+      int slotReplicas,
+      Map<Integer, SlotLoad> slotLoads,
+      LoadAwareBalancePolicy balancePolicy) {
+    this.slotTable = slotTable;
+    this.dataServers = dataServers;
+    this.slotNum = slotNum;
+    this.slotReplicas = slotReplicas;
+    this.slotLoads = slotLoads;
+    this.balancePolicy = balancePolicy;
+  }
+
+  /**
+   * run the balance rounds until nothing to balance or reach the max rounds
+   *
+   * @return the rounds which changed the slot table
+   */
+  public int run(int maxRounds) {
+    peakRatios.add(peakRatio(newBalancer()));
+    int rounds = 0;
+    while (rounds < maxRounds) {
+      LoadAwareSlotBalancer balancer = newBalancer();
+      SlotTable next = balancer.balance();
+      if (next == null) {
+        break;
+      }
+      slotTable = next;
+      peakRatios.add(peakRatio(balancer));
+      rounds++;
+    }
+    return rounds;
+  }
+
+  private LoadAwareSlotBalancer newBalancer() {
+    SlotTableBuilder slotTableBuilder = new SlotTableBuilder(slotTable, slotNum, slotReplicas);
+    slotTableBuilder.init(dataServers);
+    return new LoadAwareSlotBalancer(slotTableBuilder, dataServers, slotLoads, balancePolicy);
+  }
+
+  private static double peakRatio(LoadAwareSlotBalancer balancer) {
+    List<Double> loads = balancer.sortedLoads();
+    double total = 0;
+    for (double load : loads) {
+      total += load;
+    }
+    return loads.get(loads.size() - 1) / (total / loads.size());
+  }
+
+  public SlotTable getSlotTable() {
+    return slotTable;
+  }
+
+  /** the max/avg load of data-servers, the first one is before balance */
+  public List<Double> getPeakRatios() {
+    return peakRatios;
+  }
+
+  /** leaders and followers are round robin, the counts are balanced and no dup replicas */
+  public static SlotTable roundRobinSlotTable(
+      List<String> dataServers, int slotNum, int slotReplicas) {
+    List<Slot> slots = Lists.newArrayListWithCapacity(slotNum);
+    for (int slotId = 0; slotId < slotNum; slotId++) {
+      List<String> followers = Lists.newArrayList();
+      for (int i = 1; i < slotReplicas; i++) {
+        followers.add(dataServers.get((slotId + i) % dataServers.size()));
+      }
+      slots.add(
+          new Slot(
+              slotId,
+              dataServers.get(slotId % dataServers.size()),
+              DatumVersionUtil.nextId(),
+              followers));
+    }
+    return new SlotTable(DatumVersionUtil.nextId(), slots);
+  }
+
+  /** a few hot slots carry most of the publishers and the traffic */
+  public static Map<Integer, SlotLoad> skewedLoads(int slotNum, long seed) {
+    Random random = new Random(seed);
+    Map<Integer, SlotLoad> loads = Maps.newHashMap();
+    for (int slotId = 0; slotId < slotNum; slotId++) {
+      boolean hot = random.nextInt(10) == 0;
+      int factor = hot ? 20 : 1;
+      loads.put(
+          slotId,
+          new SlotLoad(
+              factor * (100 + random.nextInt(100)),
+              factor * random.nextDouble(),
+              factor * 10 * random.nextDouble()));
+    }
+    return loads;
+  }
+
+  public static void main(String[] args) {
+    int dataServerNum = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+    int slotNum = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+    int slotReplicas = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+    int maxRounds = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+    List<String> dataServers = Lists.newArrayList();
+    for (int i = 0; i < dataServerNum; i++) {
+      dataServers.add("10.0.0." + (i + 1));
+    }
+    SlotBalanceSimulator simulator =
+        new SlotBalanceSimulator(
+            roundRobinSlotTable(dataServers, slotNum, slotReplicas),
+            dataServers,
+            slotNum,
+            slotReplicas,
+            skewedLoads(slotNum, System.currentTimeMillis()),
+            new LoadAwareBalancePolicy());
+    int rounds = simulator.run(maxRounds);
+    List<Double> ratios = simulator.getPeakRatios();
+    for (int i = 0; i < ratios.size(); i++) {
+      System.out.printf("round=%d, max/avg=%.3f%n", i, ratios.get(i));
+    }
+    System.out.printf("balanced rounds=%d%n", rounds);
+  }
+}
@@ -89,12 +89,30 @@ public interface SessionServerConfig extends ServerShareConfig {
 
   int getDataChangeMaxDebouncingMillis();
 
+  int getDataChangeFetchBatchSize();
+
   int getPushTaskExecutorPoolSize();
 
   int getPushTaskExecutorQueueSize();
 
   int getPushTaskBufferBucketSize();
 
+  boolean isPushTaskBufferTimingWheelEnable();
+
+  boolean isPushDataCacheEnable();
+
+  boolean isFetchDatumDeltaEnable();
+
+  boolean isInterestFilterSyncEnable();
+
+  int getInterestFilterFullSyncIntervalSecs();
+
+  boolean isDataSlotWatermarkEnable();
+
+  int getDataSlotWatermarkExpireMillis();
+
+  int getScanSubscriberFullIntervalSecs();
+
   int getPushTaskRetryTimes();
 
   int getPushDataTaskRetryFirstDelayMillis();
@@ -127,6 +145,8 @@ public interface SessionServerConfig extends ServerShareConfig {
 
   int getDataNodeMaxBatchSize();
 
+  int getDataNodeMaxInflightPerServer();
+
   double getAccessLimitRate();
 
   int getDataClientConnNum();
@@ -82,6 +82,9 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
   private int dataChangeDebouncingMillis = 1000;
   private int dataChangeMaxDebouncingMillis = 3000;
+  // the max num of the expired changes fetched by one batch, <=1 means fetch one by one.
+  // enable it after all the data servers support the GetMultiDataRequest
+  private int dataChangeFetchBatchSize = 1;
 
   private int slotSyncMaxBufferSize = 5000;
 
@@ -131,6 +134,9 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
   private int dataNodeMaxBatchSize = 100;
 
+  // the max num of the sending batches to one data server, a slot has one sending batch at most
+  private int dataNodeMaxInflightPerServer = 32;
+
   private int scanSubscriberIntervalMillis = 1000 * 5;
 
   private double accessLimitRate = 30000.0;
@@ -192,6 +198,24 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
   private int pushTaskBufferBucketSize = 4;
 
+  private boolean pushTaskBufferTimingWheelEnable = false;
+
+  private boolean pushDataCacheEnable = true;
+
+  private boolean fetchDatumDeltaEnable = true;
+
+  private boolean interestFilterSyncEnable = false;
+
+  private int interestFilterFullSyncIntervalSecs = 60;
+
+  private boolean dataSlotWatermarkEnable = true;
+
+  // the slot without the matched watermark from the leader in the period is scanned
+  private int dataSlotWatermarkExpireMillis = 1000 * 10;
+
+  // scan all the slots in the interval even if the watermarks are matched
+  private int scanSubscriberFullIntervalSecs = 60 * 5;
+
   private int pushCircuitBreakerThreshold = 10;
 
   private int pushCircuitBreakerSleepMillis = 60 * 1000;
@@ -577,6 +601,15 @@ public class SessionServerConfigBean implements SessionServerConfig {
     this.dataChangeMaxDebouncingMillis = dataChangeMaxDebouncingMillis;
   }
 
+  @Override
+  public int getDataChangeFetchBatchSize() {
+    return dataChangeFetchBatchSize;
+  }
+
+  public void setDataChangeFetchBatchSize(int dataChangeFetchBatchSize) {
+    this.dataChangeFetchBatchSize = dataChangeFetchBatchSize;
+  }
+
   /**
    * Getter method for property <tt>pushTaskExecutorMaxPoolSize</tt>.
    *
@@ -933,6 +966,15 @@ public class SessionServerConfigBean implements SessionServerConfig {
     this.dataNodeMaxBatchSize = dataNodeMaxBatchSize;
   }
 
+  @Override
+  public int getDataNodeMaxInflightPerServer() {
+    return dataNodeMaxInflightPerServer;
+  }
+
+  public void setDataNodeMaxInflightPerServer(int dataNodeMaxInflightPerServer) {
+    this.dataNodeMaxInflightPerServer = dataNodeMaxInflightPerServer;
+  }
+
   @Override
   public int getCacheCountIntervalSecs() {
     return cacheCountIntervalSecs;
@@ -1191,6 +1233,78 @@ public class SessionServerConfigBean implements SessionServerConfig {
     this.pushTaskBufferBucketSize = pushTaskBufferBucketSize;
   }
 
+  @Override
+  public boolean isPushTaskBufferTimingWheelEnable() {
+    return pushTaskBufferTimingWheelEnable;
+  }
+
+  public void setPushTaskBufferTimingWheelEnable(boolean pushTaskBufferTimingWheelEnable) {
+    this.pushTaskBufferTimingWheelEnable = pushTaskBufferTimingWheelEnable;
+  }
+
+  @Override
+  public boolean isPushDataCacheEnable() {
+    return pushDataCacheEnable;
+  }
+
+  public void setPushDataCacheEnable(boolean pushDataCacheEnable) {
+    this.pushDataCacheEnable = pushDataCacheEnable;
+  }
+
+  @Override
+  public boolean isFetchDatumDeltaEnable() {
+    return fetchDatumDeltaEnable;
+  }
+
+  public void setFetchDatumDeltaEnable(boolean fetchDatumDeltaEnable) {
+    this.fetchDatumDeltaEnable = fetchDatumDeltaEnable;
+  }
+
+  @Override
+  public boolean isInterestFilterSyncEnable() {
+    return interestFilterSyncEnable;
+  }
+
+  public void setInterestFilterSyncEnable(boolean interestFilterSyncEnable) {
+    this.interestFilterSyncEnable = interestFilterSyncEnable;
+  }
+
+  @Override
+  public int getInterestFilterFullSyncIntervalSecs() {
+    return interestFilterFullSyncIntervalSecs;
+  }
+
+  public void setInterestFilterFullSyncIntervalSecs(int interestFilterFullSyncIntervalSecs) {
+    this.interestFilterFullSyncIntervalSecs = interestFilterFullSyncIntervalSecs;
+  }
+
+  @Override
+  public boolean isDataSlotWatermarkEnable() {
+    return dataSlotWatermarkEnable;
+  }
+
+  public void setDataSlotWatermarkEnable(boolean dataSlotWatermarkEnable) {
+    this.dataSlotWatermarkEnable = dataSlotWatermarkEnable;
+  }
+
+  @Override
+  public int getDataSlotWatermarkExpireMillis() {
+    return dataSlotWatermarkExpireMillis;
+  }
+
+  public void setDataSlotWatermarkExpireMillis(int dataSlotWatermarkExpireMillis) {
+    this.dataSlotWatermarkExpireMillis = dataSlotWatermarkExpireMillis;
+  }
+
+  @Override
+  public int getScanSubscriberFullIntervalSecs() {
+    return scanSubscriberFullIntervalSecs;
+  }
+
+  public void setScanSubscriberFullIntervalSecs(int scanSubscriberFullIntervalSecs) {
+    this.scanSubscriberFullIntervalSecs = scanSubscriberFullIntervalSecs;
+  }
+
   /**
    * Getter method for property <tt>pushCircuitBreakerThreshold</tt>.
    *
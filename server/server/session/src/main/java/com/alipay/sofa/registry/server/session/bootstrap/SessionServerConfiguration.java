@@ -43,8 +43,10 @@ import com.alipay.sofa.registry.server.session.metadata.AppRevisionHeartbeatRegi
 import com.alipay.sofa.registry.server.session.node.service.*;
 import com.alipay.sofa.registry.server.session.providedata.*;
 import com.alipay.sofa.registry.server.session.push.*;
+import com.alipay.sofa.registry.server.session.registry.InterestFilterSyncer;
 import com.alipay.sofa.registry.server.session.registry.Registry;
 import com.alipay.sofa.registry.server.session.registry.SessionRegistry;
+import com.alipay.sofa.registry.server.session.registry.SlotWatermarkTracker;
 import com.alipay.sofa.registry.server.session.remoting.ClientNodeExchanger;
 import com.alipay.sofa.registry.server.session.remoting.DataNodeExchanger;
 import com.alipay.sofa.registry.server.session.remoting.DataNodeNotifyExchanger;
@@ -185,6 +187,7 @@ public class SessionServerConfiguration {
       list.add(publisherHandler());
       list.add(subscriberHandler());
       list.add(watcherHandler());
+      list.add(batchRegisterHandler());
       list.add(clientNodeConnectionHandler());
       list.add(syncConfigHandler());
       list.add(publisherPbHandler());
@@ -239,6 +242,11 @@ public class SessionServerConfiguration {
       return new WatcherHandler();
     }
 
+    @Bean
+    public AbstractServerHandler batchRegisterHandler() {
+      return new BatchRegisterHandler();
+    }
+
     @Bean
     public AbstractServerHandler clientNodeConnectionHandler() {
       return new ClientNodeConnectionHandler();
@@ -335,6 +343,7 @@ public class SessionServerConfiguration {
       Collection<AbstractClientHandler> list = new ArrayList<>();
       list.add(dataChangeRequestHandler());
       list.add(dataPushRequestHandler());
+      list.add(dataSlotWatermarkRequestHandler());
       return list;
     }
 
@@ -357,6 +366,11 @@ public class SessionServerConfiguration {
       return new DataPushRequestHandler();
     }
 
+    @Bean
+    public AbstractClientHandler dataSlotWatermarkRequestHandler() {
+      return new DataSlotWatermarkRequestHandler();
+    }
+
     @Bean
     public AbstractClientHandler notifyProvideDataChangeHandler() {
       return new NotifyProvideDataChangeHandler();
@@ -466,6 +480,16 @@ public class SessionServerConfiguration {
       return new SessionInterests();
     }
 
+    @Bean
+    public InterestFilterSyncer interestFilterSyncer() {
+      return new InterestFilterSyncer();
+    }
+
+    @Bean
+    public SlotWatermarkTracker slotWatermarkTracker() {
+      return new SlotWatermarkTracker();
+    }
+
     @Bean
     @ConditionalOnMissingBean
     public Watchers sessionWatchers() {
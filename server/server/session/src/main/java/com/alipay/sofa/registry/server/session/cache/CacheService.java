@@ -38,4 +38,12 @@ public interface CacheService {
    * @param key
    */
   void invalidate(Key key);
+
+  /**
+   * replace the value of the key
+   *
+   * @param key
+   * @param value
+   */
+  void put(Key key, Value value);
 }
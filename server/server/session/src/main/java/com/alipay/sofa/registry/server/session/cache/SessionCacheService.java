@@ -103,6 +103,11 @@ public class SessionCacheService implements CacheService {
     readWriteCacheMap.invalidate(key);
   }
 
+  @Override
+  public void put(Key key, Value value) {
+    readWriteCacheMap.put(key, value);
+  }
+
   /**
    * Setter method for property <tt>cacheGenerators</tt>.
    *
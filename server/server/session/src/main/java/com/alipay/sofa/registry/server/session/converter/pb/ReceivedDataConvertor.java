@@ -36,6 +36,18 @@ public final class ReceivedDataConvertor {
           60 * 1000,
           SystemUtils.getSystemInteger(KEY_COMPRESS_PUSH_CACHE_CAPACITY, 1024 * 1024 * 384));
 
+  private static final String KEY_COMPRESS_PUSH_SAMPLE_NUM = "registry.compress.push.sample.num";
+  private static final String KEY_COMPRESS_PUSH_SAMPLE_MAX_SIZE =
+      "registry.compress.push.sample.maxSize";
+  private static final String KEY_COMPRESS_PUSH_SAMPLE_MAX_BYTES =
+      "registry.compress.push.sample.maxBytes";
+  // samples of the push body to train the zstd dictionary, off until started by console
+  public static final ZstdDictSampler pushSampler =
+      new ZstdDictSampler(
+          SystemUtils.getSystemInteger(KEY_COMPRESS_PUSH_SAMPLE_NUM, 2000),
+          SystemUtils.getSystemInteger(KEY_COMPRESS_PUSH_SAMPLE_MAX_SIZE, 1024 * 128),
+          SystemUtils.getSystemInteger(KEY_COMPRESS_PUSH_SAMPLE_MAX_BYTES, 1024 * 1024 * 16));
+
   private ReceivedDataConvertor() {}
 
   public static ReceivedData convert2Java(ReceivedDataPb receivedDataPb) {
@@ -86,6 +98,7 @@ public final class ReceivedDataConvertor {
                 ReceivedDataBodyPb bodyPb =
                     ReceivedDataBodyPb.newBuilder().putAllData(dataBoxesPbMap).build();
                 byte[] bodyData = bodyPb.toByteArray();
+                pushSampler.sample(bodyData);
                 byte[] compressed = compressor.compress(bodyData);
                 return new CompressedItem(compressed, bodyData.length, compressor.getEncoding());
               });
@@ -107,6 +120,19 @@ public final class ReceivedDataConvertor {
     if (receivedDataJava == null) {
       return null;
     }
+    return convert2Pb(
+        receivedDataJava, DataBoxConvertor.convert2PbMaps(receivedDataJava.getData()));
+  }
+
+  /**
+   * convert with the data boxes which are already converted, the pb messages are immutable and
+   * could be shared between the pushes of the same datum version
+   */
+  public static ReceivedDataPb convert2Pb(
+      ReceivedData receivedDataJava, Map<String, DataBoxesPb> dataBoxesPbMap) {
+    if (receivedDataJava == null) {
+      return null;
+    }
     try {
       ReceivedDataPb.Builder builder = ReceivedDataPb.newBuilder();
       builder
@@ -118,8 +144,6 @@ public final class ReceivedDataConvertor {
           .setSegment(receivedDataJava.getSegment())
           .setVersion(receivedDataJava.getVersion())
           .addAllSubscriberRegistIds(receivedDataJava.getSubscriberRegistIds());
-      Map<String, DataBoxesPb> dataBoxesPbMap =
-          DataBoxConvertor.convert2PbMaps(receivedDataJava.getData());
       builder.putAllData(dataBoxesPbMap);
       return builder.build();
     } catch (Throwable e) {
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.filter;
+
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.net.InetAddresses;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * the immutable matcher compiled from the ip patterns, the exact ips are matched by hash, and the
+ * cidr patterns, e.g. 10.0.0.0/8, are matched by a binary trie of the address bits
+ */
+public final class IPMatcher {
+  private static final Logger LOGGER = LoggerFactory.getLogger(IPMatcher.class);
+
+  public static final IPMatcher EMPTY = new IPMatcher(Collections.emptySet(), null, null);
+
+  private final Set<String> ips;
+  private final Node v4;
+  private final Node v6;
+
+  private IPMatcher(Set<String> ips, Node v4, Node v6) {
+    this.ips = ips;
+    this.v4 = v4;
+    this.v6 = v6;
+  }
+
+  /**
+   * the pattern contains '/' is a cidr, otherwise it is an exact ip, the invalid cidr is skipped
+   *
+   * @param patterns
+   * @return
+   */
+  public static IPMatcher compile(Collection<String> patterns) {
+    if (patterns == null || patterns.isEmpty()) {
+      return EMPTY;
+    }
+    ImmutableSet.Builder<String> ips = ImmutableSet.builder();
+    Node v4 = null;
+    Node v6 = null;
+    for (String pattern : patterns) {
+      if (StringUtils.isBlank(pattern)) {
+        continue;
+      }
+      pattern = pattern.trim();
+      final int slash = pattern.indexOf('/');
+      if (slash < 0) {
+        ips.add(pattern);
+        continue;
+      }
+      final byte[] address;
+      final int prefixLength;
+      try {
+        address = InetAddresses.forString(pattern.substring(0, slash)).getAddress();
+        prefixLength = Integer.parseInt(pattern.substring(slash + 1));
+      } catch (IllegalArgumentException e) {
+        LOGGER.error("skip invalid cidr: {}", pattern, e);
+        continue;
+      }
+      if (prefixLength < 0 || prefixLength > address.length * 8) {
+        LOGGER.error("skip invalid cidr: {}", pattern);
+        continue;
+      }
+      if (address.length == 4) {
+        v4 = insert(v4 == null ? new Node() : v4, address, prefixLength);
+      } else {
+        v6 = insert(v6 == null ? new Node() : v6, address, prefixLength);
+      }
+    }
+    return new IPMatcher(ips.build(), v4, v6);
+  }
+
+  public boolean match(String ip) {
+    if (ip == null) {
+      return false;
+    }
+    if (ips.contains(ip)) {
+      return true;
+    }
+    if (v4 == null && v6 == null) {
+      return false;
+    }
+    final InetAddress address;
+    try {
+      address = InetAddresses.forString(ip);
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    final Node root = address instanceof Inet4Address ? v4 : v6;
+    return root != null && root.match(address.getAddress());
+  }
+
+  public boolean isEmpty() {
+    return ips.isEmpty() && v4 == null && v6 == null;
+  }
+
+  public boolean hasCidr() {
+    return v4 != null || v6 != null;
+  }
+
+  /**
+   * Getter method for property <tt>ips</tt>.
+   *
+   * @return property value of ips
+   */
+  public Set<String> getIps() {
+    return ips;
+  }
+
+  @Override
+  public String toString() {
+    return "IPMatcher{ips=" + ips + ", v4=" + (v4 != null) + ", v6=" + (v6 != null) + '}';
+  }
+
+  private static Node insert(Node root, byte[] address, int prefixLength) {
+    Node node = root;
+    for (int i = 0; i < prefixLength && !node.terminal; i++) {
+      node = node.child(bit(address, i), true);
+    }
+    node.terminal = true;
+    return root;
+  }
+
+  private static int bit(byte[] address, int index) {
+    return (address[index >>> 3] >>> (7 - (index & 7))) & 1;
+  }
+
+  private static final class Node {
+    Node zero;
+    Node one;
+    boolean terminal;
+
+    Node child(int bit, boolean create) {
+      Node child = bit == 0 ? zero : one;
+      if (child == null && create) {
+        child = new Node();
+        if (bit == 0) {
+          zero = child;
+        } else {
+          one = child;
+        }
+      }
+      return child;
+    }
+
+    boolean match(byte[] address) {
+      Node node = this;
+      final int bits = address.length * 8;
+      for (int i = 0; node != null; i++) {
+        if (node.terminal) {
+          return true;
+        }
+        if (i == bits) {
+          return false;
+        }
+        node = node.child(bit(address, i), false);
+      }
+      return false;
+    }
+  }
+}
@@ -20,6 +20,8 @@ import com.alipay.sofa.registry.common.model.appmeta.InterfaceMapping;
 import com.alipay.sofa.registry.common.model.store.AppRevision;
 import com.alipay.sofa.registry.store.api.repository.AppRevisionRepository;
 import com.alipay.sofa.registry.store.api.repository.InterfaceAppsRepository;
+import java.util.Collection;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 
 public class AppRevisionCacheRegistry {
@@ -44,4 +46,8 @@ public class AppRevisionCacheRegistry {
   public AppRevision getRevision(String revision) {
     return appRevisionRepository.queryRevision(revision);
   }
+
+  public Map<String, AppRevision> getRevisions(Collection<String> revisions) {
+    return appRevisionRepository.queryRevisions(revisions);
+  }
 }
@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.server.session.node.service;
 
 import com.alipay.sofa.registry.common.model.ClientOffPublishers;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.dataserver.SessionInterestFilterRequest;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.remoting.exchange.ExchangeCallback;
@@ -64,4 +65,33 @@ public interface DataNodeService {
    * @return
    */
   SubDatum fetch(String dataInfoId, String dataCenterId);
+
+  /**
+   * fetch the changes since the base datum and apply them to the base, the data server responds the
+   * full datum if its delta log could not cover the version of the base
+   *
+   * @param dataInfoId
+   * @param dataCenterId
+   * @param base the cached datum
+   * @return
+   */
+  SubDatum fetch(String dataInfoId, String dataCenterId, SubDatum base);
+
+  /**
+   * fetch the datums of multi dataInfoIds, one request per slot
+   *
+   * @param dataCenterId
+   * @param bases dataInfoId -> the cached datum, the null value means not cached
+   * @return the absent dataInfoId means the datum not exists or the request of the slot failed
+   */
+  Map<String, SubDatum> fetchMulti(String dataCenterId, Map<String, SubDatum> bases);
+
+  /**
+   * publish the interest filter of the session to the data server
+   *
+   * @param dataNodeIp
+   * @param request
+   * @return true if the data server accepts the filter
+   */
+  boolean syncInterestFilter(String dataNodeIp, SessionInterestFilterRequest request);
 }
@@ -16,13 +16,17 @@
  */
 package com.alipay.sofa.registry.server.session.node.service;
 
+import com.alipay.remoting.exception.DeserializationException;
+import com.alipay.remoting.rpc.exception.InvokeServerException;
 import com.alipay.sofa.registry.common.model.ClientOffPublishers;
 import com.alipay.sofa.registry.common.model.CommonResponse;
 import com.alipay.sofa.registry.common.model.dataserver.*;
 import com.alipay.sofa.registry.common.model.slot.Slot;
 import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.common.model.store.UnPublisher;
 import com.alipay.sofa.registry.compress.CompressConstants;
@@ -51,9 +55,13 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import java.util.*;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.PostConstruct;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -66,15 +74,21 @@ public class DataNodeServiceImpl implements DataNodeService {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(DataNodeServiceImpl.class);
 
-  @Autowired private NodeExchanger dataNodeExchanger;
+  @Autowired NodeExchanger dataNodeExchanger;
 
-  @Autowired private SlotTableCache slotTableCache;
+  @Autowired SlotTableCache slotTableCache;
 
-  @Autowired private SessionServerConfig sessionServerConfig;
+  @Autowired SessionServerConfig sessionServerConfig;
 
   private Worker[] workers;
+  // dataServer -> the num of the sending batches
+  private final Map<String, AtomicInteger> inflights = new ConcurrentHashMap<>();
   private BlockingQueues<Req> blockingQueues;
 
+  // dataServer -> the timestamp to retry the GetMultiData which is not supported by the server
+  final Map<String, Long> multiFetchUnsupported = new ConcurrentHashMap<>();
+  static final long MULTI_FETCH_RETRY_MILLIS = 1000 * 60 * 5;
+
   final RejectedDiscardHandler discardHandler = new RejectedDiscardHandler();
   private final ThreadPoolExecutor callbackExecutor =
       MetricsableThreadPoolExecutor.newExecutor(
@@ -204,6 +218,11 @@ public class DataNodeServiceImpl implements DataNodeService {
 
   @Override
   public SubDatum fetch(String dataInfoId, String dataCenter) {
+    return fetch(dataInfoId, dataCenter, null);
+  }
+
+  @Override
+  public SubDatum fetch(String dataInfoId, String dataCenter, SubDatum base) {
     String dataNodeIp = null;
     int slotId = -1;
     try {
@@ -215,35 +234,22 @@ public class DataNodeServiceImpl implements DataNodeService {
       getDataRequest.setAcceptEncodes(CompressConstants.defaultCompressEncodes);
       getDataRequest.setSlotTableEpoch(slotTableCache.getEpoch());
       getDataRequest.setSlotLeaderEpoch(slot.getLeaderEpoch());
-      Request<GetDataRequest> getDataRequestStringRequest =
-          new Request<GetDataRequest>() {
-
-            @Override
-            public GetDataRequest getRequestBody() {
-              return getDataRequest;
-            }
-
-            @Override
-            public URL getRequestUrl() {
-              return getUrl(slot);
-            }
-
-            @Override
-            public Integer getTimeout() {
-              return sessionServerConfig.getDataNodeExchangeForFetchDatumTimeoutMillis();
-            }
-          };
-
-      Response response = dataNodeExchanger.request(getDataRequestStringRequest);
+      if (base != null) {
+        getDataRequest.setSinceVersion(base.getVersion());
+      }
+      Response response = dataNodeExchanger.request(newFetchRequest(getDataRequest, slot));
       Object result = response.getResult();
-      SlotAccessGenericResponse<SubDatum> genericResponse =
-          (SlotAccessGenericResponse<SubDatum>) result;
+      SlotAccessGenericResponse<Object> genericResponse =
+          (SlotAccessGenericResponse<Object>) result;
       if (genericResponse.isSuccess()) {
-        final SubDatum datum = genericResponse.getData();
-        if (datum == null) {
+        final Object data = genericResponse.getData();
+        if (data == null) {
           return null;
         }
-        return SubDatum.intern(datum);
+        if (data instanceof SubDatumDelta) {
+          return applyDelta((SubDatumDelta) data, base);
+        }
+        return SubDatum.intern((SubDatum) data);
       } else {
         throw new RuntimeException(
             StringFormatter.format(
@@ -262,17 +268,145 @@ public class DataNodeServiceImpl implements DataNodeService {
     }
   }
 
-  private CommonResponse sendRequest(Request request) throws RequestException {
-    Response response = dataNodeExchanger.request(request);
-    Object result = response.getResult();
-    SlotAccessGenericResponse resp = (SlotAccessGenericResponse) result;
-    if (!resp.isSuccess()) {
+  @Override
+  public Map<String, SubDatum> fetchMulti(String dataCenter, Map<String, SubDatum> bases) {
+    Map<Integer, Map<String, SubDatum>> slotBases = Maps.newHashMap();
+    for (Map.Entry<String, SubDatum> e : bases.entrySet()) {
+      slotBases
+          .computeIfAbsent(slotTableCache.slotOf(e.getKey()), k -> Maps.newHashMap())
+          .put(e.getKey(), e.getValue());
+    }
+    Map<String, SubDatum> ret = Maps.newHashMapWithExpectedSize(bases.size());
+    for (Map.Entry<Integer, Map<String, SubDatum>> e : slotBases.entrySet()) {
+      try {
+        ret.putAll(fetchMulti(dataCenter, e.getKey(), e.getValue()));
+      } catch (Throwable t) {
+        // the failed dataInfoIds are absent in the result, the caller fetch them one by one
+        LOGGER.error(
+            "GetMultiData fail {}, slotId={}, num={}",
+            dataCenter,
+            e.getKey(),
+            e.getValue().size(),
+            t);
+      }
+    }
+    return ret;
+  }
+
+  private Map<String, SubDatum> fetchMulti(
+      String dataCenter, int slotId, Map<String, SubDatum> bases) {
+    final Slot slot = getSlot(slotId);
+    final Long retryTimestamp = multiFetchUnsupported.get(slot.getLeader());
+    if (retryTimestamp != null) {
+      if (System.currentTimeMillis() < retryTimestamp) {
+        // the caller fetch them one by one
+        return Collections.emptyMap();
+      }
+      multiFetchUnsupported.remove(slot.getLeader(), retryTimestamp);
+    }
+    Map<String, Long> dataInfoIds = Maps.newHashMapWithExpectedSize(bases.size());
+    for (Map.Entry<String, SubDatum> e : bases.entrySet()) {
+      dataInfoIds.put(e.getKey(), e.getValue() == null ? 0L : e.getValue().getVersion());
+    }
+    GetMultiDataRequest request =
+        new GetMultiDataRequest(ServerEnv.PROCESS_ID, dataCenter, slotId, dataInfoIds);
+    request.setAcceptEncodes(CompressConstants.defaultCompressEncodes);
+    request.setSlotTableEpoch(slotTableCache.getEpoch());
+    request.setSlotLeaderEpoch(slot.getLeaderEpoch());
+    Response response;
+    try {
+      response = dataNodeExchanger.request(newFetchRequest(request, slot));
+    } catch (RequestException e) {
+      if (isUnsupported(e)) {
+        // the data server in the old version has no processor of the GetMultiData
+        multiFetchUnsupported.put(
+            slot.getLeader(), System.currentTimeMillis() + MULTI_FETCH_RETRY_MILLIS);
+        LOGGER.warn("GetMultiData not supported by {}, fetch one by one", slot.getLeader());
+        return Collections.emptyMap();
+      }
+      throw e;
+    }
+    SlotAccessGenericResponse<MultiSubDatum> genericResponse =
+        (SlotAccessGenericResponse<MultiSubDatum>) response.getResult();
+    if (!genericResponse.isSuccess()) {
       throw new RuntimeException(
-          String.format(
-              "response failed, target: %s, request: %s, message: %s",
-              request.getRequestUrl(), request.getRequestBody(), resp.getMessage()));
+          StringFormatter.format(
+              "GetMultiData got fail response {}, {}, slotId={} msg:{}",
+              slot.getLeader(),
+              dataCenter,
+              slotId,
+              genericResponse.getMessage()));
+    }
+    final MultiSubDatum multi = genericResponse.getData();
+    Map<String, SubDatum> ret = Maps.newHashMapWithExpectedSize(multi.size());
+    for (Map.Entry<String, SubDatum> e : multi.getDatums().entrySet()) {
+      ret.put(e.getKey(), SubDatum.intern(e.getValue()));
+    }
+    for (Map.Entry<String, SubDatumDelta> e : multi.getDeltas().entrySet()) {
+      ret.put(e.getKey(), applyDelta(e.getValue(), bases.get(e.getKey())));
+    }
+    LOGGER.info(
+        "fetchMulti,{},{},{},num={},datums={},deltas={}",
+        slot.getLeader(),
+        dataCenter,
+        slotId,
+        bases.size(),
+        multi.getDatums().size(),
+        multi.getDeltas().size());
+    return ret;
+  }
+
+  static boolean isUnsupported(Throwable e) {
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (t instanceof InvokeServerException || t instanceof DeserializationException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private SubDatum applyDelta(SubDatumDelta delta, SubDatum base) {
+    LOGGER.info("fetchDelta,{},{},{}", delta.getDataInfoId(), delta.getDataCenter(), delta);
+    return SubDatum.intern(delta.apply(DatumUtils.decompressSubDatum(base)));
+  }
+
+  private <T> Request<T> newFetchRequest(T body, Slot slot) {
+    return new Request<T>() {
+
+      @Override
+      public T getRequestBody() {
+        return body;
+      }
+
+      @Override
+      public URL getRequestUrl() {
+        return getUrl(slot);
+      }
+
+      @Override
+      public Integer getTimeout() {
+        return sessionServerConfig.getDataNodeExchangeForFetchDatumTimeoutMillis();
+      }
+    };
+  }
+
+  @Override
+  public boolean syncInterestFilter(String dataNodeIp, SessionInterestFilterRequest request) {
+    try {
+      Response response =
+          dataNodeExchanger.request(
+              new SimpleRequest<>(
+                  request, new URL(dataNodeIp, sessionServerConfig.getDataServerPort())));
+      CommonResponse resp = (CommonResponse) response.getResult();
+      if (!resp.isSuccess()) {
+        LOGGER.warn("sync interest filter failed, {}, {}, {}", dataNodeIp, request, resp);
+        return false;
+      }
+      return true;
+    } catch (Throwable e) {
+      LOGGER.error("failed to sync interest filter, {}, {}", dataNodeIp, request, e);
+      return false;
     }
-    return resp;
   }
 
   private Slot getSlot(String dataInfoId) {
@@ -315,7 +449,7 @@ public class DataNodeServiceImpl implements DataNodeService {
     return ret;
   }
 
-  private static final class Req {
+  static final class Req {
     final int slotId;
     final Object req;
 
@@ -347,9 +481,44 @@ public class DataNodeServiceImpl implements DataNodeService {
     }
   }
 
-  private final class Worker implements Runnable {
+  /** the requests of one slot, sent by order, at most one batch of the slot is sending */
+  private static final class SlotRequests {
+    final int slotId;
+    final LinkedList<Object> pendings = Lists.newLinkedList();
+    // the failed batch, it is sent before the pendings after backoff
+    RetryBatch retry;
+    Inflight inflight;
+
+    SlotRequests(int slotId) {
+      this.slotId = slotId;
+    }
+
+    boolean isEmpty() {
+      return pendings.isEmpty() && retry == null && inflight == null;
+    }
+  }
+
+  private static final class Inflight {
+    final SlotRequests slot;
+    final RetryBatch batch;
+    final String dataServer;
+    final AtomicBoolean finished = new AtomicBoolean(false);
+    volatile boolean success;
+
+    Inflight(SlotRequests slot, RetryBatch batch, String dataServer) {
+      this.slot = slot;
+      this.batch = batch;
+      this.dataServer = dataServer;
+    }
+  }
+
+  final class Worker implements Runnable {
     final BlockingQueue<Req> queue;
-    final LinkedList<RetryBatch> retryBatches = Lists.newLinkedList();
+    // slotId -> requests, only accessed by the worker thread
+    final Map<Integer, SlotRequests> slots = Maps.newLinkedHashMap();
+    // the batches got response, handled by the worker thread
+    final Queue<Inflight> finishedBatches = new ConcurrentLinkedQueue<>();
+    int pendingSize;
 
     Worker(BlockingQueue<Req> queue) {
       this.queue = queue;
@@ -359,103 +528,172 @@ public class DataNodeServiceImpl implements DataNodeService {
     public void run() {
       for (; ; ) {
         try {
-          final Req firstReq = queue.poll(200, TimeUnit.MILLISECONDS);
-          if (firstReq != null) {
-            // TODO config max
-            Map<Integer, LinkedList<Object>> reqs =
-                drainReq(queue, sessionServerConfig.getDataNodeMaxBatchSize());
-            // send by order, firstReq.slotId is the first one
-            LinkedList<Object> firstBatch = reqs.remove(firstReq.slotId);
-            if (firstBatch == null) {
-              firstBatch = Lists.newLinkedList();
-            }
-            firstBatch.addFirst(firstReq.req);
-            request(firstReq.slotId, firstBatch);
-            for (Map.Entry<Integer, LinkedList<Object>> batch : reqs.entrySet()) {
-              request(batch.getKey(), batch.getValue());
-            }
-          }
-          // check the retry
-          if (!retryBatches.isEmpty()) {
-            final Iterator<RetryBatch> it = retryBatches.iterator();
-            List<RetryBatch> retries = Lists.newArrayList();
-            while (it.hasNext()) {
-              RetryBatch batch = it.next();
-              it.remove();
-              if (!DataNodeServiceImpl.this.request(batch.batch)) {
-                retries.add(batch);
-              }
-            }
-            for (RetryBatch retry : retries) {
-              retry(retry);
-            }
-          }
+          // poll quickly if there are batches waiting for sending or response
+          runOnce(slots.isEmpty() ? 200 : 10);
         } catch (Throwable e) {
           LOGGER.safeError("failed to request batch", e);
         }
       }
     }
 
-    private boolean retry(RetryBatch retry) {
-      retry.retryCount++;
-      if (retry.retryCount <= sessionServerConfig.getDataNodeRetryTimes()) {
-        if (retryBatches.size() >= sessionServerConfig.getDataNodeRetryQueueSize()) {
-          // remove the oldest
-          retryBatches.removeFirst();
+    void runOnce(long pollMillis) throws InterruptedException {
+      final Req firstReq = queue.poll(pollMillis, TimeUnit.MILLISECONDS);
+      if (firstReq != null) {
+        final int max = sessionServerConfig.getDataNodeMaxBatchSize();
+        List<Req> reqs = new ArrayList<>(max + 1);
+        reqs.add(firstReq);
+        queue.drainTo(reqs, max);
+        for (Req req : reqs) {
+          addPending(req);
         }
-        retry.expireTimestamp =
-            System.currentTimeMillis() + sessionServerConfig.getDataNodeRetryBackoffMillis();
-        retryBatches.add(retry);
-        return true;
       }
-      return false;
+      handleFinished();
+      final long now = System.currentTimeMillis();
+      for (SlotRequests slot : slots.values()) {
+        send(slot, now);
+      }
     }
 
-    private boolean request(int slotId, List<Object> reqs) {
-      final BatchRequest batch = new BatchRequest(ServerEnv.PROCESS_ID, slotId, reqs);
-      if (!DataNodeServiceImpl.this.request(batch)) {
-        retry(new RetryBatch(batch));
-        return false;
+    private void addPending(Req req) {
+      final SlotRequests slot = slots.computeIfAbsent(req.slotId, SlotRequests::new);
+      if (pendingSize >= sessionServerConfig.getDataNodeExecutorQueueSize()
+          && !slot.pendings.isEmpty()) {
+        // the data server of the slot is lagging, discard the oldest one of the slot
+        final Object discard = slot.pendings.removeFirst();
+        pendingSize--;
+        LOGGER.error("[PendingOverflow]slotId={}, discard {}", slot.slotId, discard);
       }
-      return true;
+      slot.pendings.add(req.req);
+      pendingSize++;
     }
-  }
 
-  private boolean request(BatchRequest batch) {
-    try {
-      final Slot slot = getSlot(batch.getSlotId());
+    private void handleFinished() {
+      Inflight inflight;
+      while ((inflight = finishedBatches.poll()) != null) {
+        final SlotRequests slot = inflight.slot;
+        slot.inflight = null;
+        if (!inflight.success) {
+          retry(slot, inflight.batch);
+        }
+        if (slot.isEmpty()) {
+          slots.remove(slot.slotId);
+        }
+      }
+    }
+
+    private void send(SlotRequests slot, long now) {
+      if (slot.inflight != null) {
+        return;
+      }
+      if (slot.retry == null ? slot.pendings.isEmpty() : slot.retry.expireTimestamp > now) {
+        return;
+      }
+      final Slot s = slotTableCache.getSlot(slot.slotId);
+      final String dataServer = s == null ? null : s.getLeader();
+      if (StringUtils.isNotBlank(dataServer) && !tryAcquireInflight(dataServer)) {
+        // the data server is busy, only the slots of it wait
+        return;
+      }
+      RetryBatch batch = slot.retry;
+      slot.retry = null;
+      if (batch == null) {
+        batch =
+            new RetryBatch(new BatchRequest(ServerEnv.PROCESS_ID, slot.slotId, pollPendings(slot)));
+      }
+      if (StringUtils.isBlank(dataServer)) {
+        LOGGER.error("failed to request batch, slot has no leader, {}", batch);
+        retry(slot, batch);
+        return;
+      }
+      final Inflight inflight = new Inflight(slot, batch, dataServer);
+      slot.inflight = inflight;
+      try {
+        requestAsync(s, inflight);
+      } catch (Throwable e) {
+        LOGGER.error("failed to request batch, {}", batch, e);
+        onFinished(inflight, false);
+      }
+    }
+
+    private List<Object> pollPendings(SlotRequests slot) {
+      final int num = Math.min(slot.pendings.size(), sessionServerConfig.getDataNodeMaxBatchSize());
+      List<Object> reqs = new ArrayList<>(num);
+      for (int i = 0; i < num; i++) {
+        reqs.add(slot.pendings.removeFirst());
+      }
+      pendingSize -= num;
+      return reqs;
+    }
+
+    private void retry(SlotRequests slot, RetryBatch retry) {
+      retry.retryCount++;
+      if (retry.retryCount <= sessionServerConfig.getDataNodeRetryTimes()) {
+        retry.expireTimestamp =
+            System.currentTimeMillis() + sessionServerConfig.getDataNodeRetryBackoffMillis();
+        slot.retry = retry;
+        return;
+      }
+      LOGGER.error("[RetryOverflow]slotId={}, discard {}", slot.slotId, retry);
+    }
+
+    private void requestAsync(Slot slot, Inflight inflight) {
+      final BatchRequest batch = inflight.batch.batch;
       batch.setSlotTableEpoch(slotTableCache.getEpoch());
       batch.setSlotLeaderEpoch(slot.getLeaderEpoch());
-      sendRequest(
-          new Request() {
+      final CallbackHandler handler =
+          new CallbackHandler() {
             @Override
-            public Object getRequestBody() {
-              return batch;
+            public void onCallback(Channel channel, Object message) {
+              SlotAccessGenericResponse resp = (SlotAccessGenericResponse) message;
+              if (!resp.isSuccess()) {
+                LOGGER.error(
+                    "response failed, target: {}, request: {}, message: {}",
+                    inflight.dataServer,
+                    batch,
+                    resp.getMessage());
+              }
+              onFinished(inflight, resp.isSuccess());
             }
 
             @Override
-            public URL getRequestUrl() {
-              return getUrl(slot);
+            public void onException(Channel channel, Throwable exception) {
+              LOGGER.error("failed to request batch, {}", batch, exception);
+              onFinished(inflight, false);
             }
-          });
-      return true;
-    } catch (Throwable e) {
-      LOGGER.error("failed to request batch, {}", batch, e);
-      return false;
+
+            @Override
+            public Executor getExecutor() {
+              // the callback is light, run it directly and never be discarded
+              return null;
+            }
+          };
+      dataNodeExchanger.request(new SimpleRequest<>(batch, getUrl(slot), handler));
     }
-  }
 
-  private Map<Integer, LinkedList<Object>> drainReq(BlockingQueue<Req> queue, int max) {
-    List<Req> reqs = new ArrayList<>(max);
-    queue.drainTo(reqs, max);
-    if (reqs.isEmpty()) {
-      return Collections.emptyMap();
+    void onFinished(Inflight inflight, boolean success) {
+      if (inflight.finished.compareAndSet(false, true)) {
+        inflight.success = success;
+        releaseInflight(inflight.dataServer);
+        finishedBatches.add(inflight);
+      }
     }
-    Map<Integer, LinkedList<Object>> ret = Maps.newLinkedHashMap();
-    for (Req req : reqs) {
-      LinkedList<Object> objects = ret.computeIfAbsent(req.slotId, k -> Lists.newLinkedList());
-      objects.add(req.req);
+  }
+
+  private boolean tryAcquireInflight(String dataServer) {
+    final AtomicInteger count = inflights.computeIfAbsent(dataServer, k -> new AtomicInteger());
+    final int max = sessionServerConfig.getDataNodeMaxInflightPerServer();
+    for (; ; ) {
+      final int current = count.get();
+      if (current >= max) {
+        return false;
+      }
+      if (count.compareAndSet(current, current + 1)) {
+        return true;
+      }
     }
-    return ret;
+  }
+
+  private void releaseInflight(String dataServer) {
+    inflights.get(dataServer).decrementAndGet();
   }
 }
@@ -94,6 +94,17 @@ public class CompressPushService
     return CompressUtils.find(acceptEncodes, compressPushSwitch.getForbidEncodes());
   }
 
+  public Compressor getCompressor(int dataBoxesMapSize, String[] acceptEncodes, String clientIp) {
+    CompressPushSwitch compressPushSwitch = getCompressSwitch();
+    if (!compressEnabled(compressPushSwitch, clientIp)) {
+      return null;
+    }
+    if (dataBoxesMapSize < compressPushSwitch.getCompressMinSize()) {
+      return null;
+    }
+    return CompressUtils.find(acceptEncodes, compressPushSwitch.getForbidEncodes());
+  }
+
   private static boolean compressEnabled(CompressPushSwitch compressPushSwitch, String clientIp) {
     if (compressPushSwitch.isEnabled()) {
       return true;
@@ -109,7 +120,7 @@ public class CompressPushService
     return false;
   }
 
-  private static int dataBoxesMapSize(Map<String, List<DataBox>> dataBoxesMap) {
+  public static int dataBoxesMapSize(Map<String, List<DataBox>> dataBoxesMap) {
     int size = 0;
     for (Map.Entry<String, List<DataBox>> boxesEntry : dataBoxesMap.entrySet()) {
       size += boxesEntry.getKey().length();
@@ -21,8 +21,10 @@ import com.alipay.sofa.registry.common.model.constants.ValueConstants;
 import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.connections.ConnectionsService;
+import com.alipay.sofa.registry.server.session.filter.IPMatcher;
 import com.alipay.sofa.registry.server.session.filter.blacklist.BlacklistConfig;
 import com.alipay.sofa.registry.server.session.filter.blacklist.BlacklistConstants;
 import com.alipay.sofa.registry.server.session.filter.blacklist.MatchType;
@@ -35,7 +37,9 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -108,31 +112,25 @@ public class FetchBlackListService extends AbstractFetchSystemPropertyService<Bl
     }
   }
 
-  private void clientOffBlackIp(Map<String, Map<String, Set<String>>> blacklistConfigMap) {
-    if (blacklistConfigMap != null) {
-      Set<String> ipSet = new HashSet();
-
-      for (Map.Entry<String, Map<String, Set<String>>> configEntry :
-          blacklistConfigMap.entrySet()) {
-        if (BlacklistConstants.FORBIDDEN_PUB.equals(configEntry.getKey())
-            || BlacklistConstants.FORBIDDEN_SUB_BY_PREFIX.equals(configEntry.getKey())) {
-          Map<String, Set<String>> typeMap = configEntry.getValue();
-          if (typeMap != null) {
-            for (Map.Entry<String, Set<String>> typeEntry : typeMap.entrySet()) {
-              if (BlacklistConstants.IP_FULL.equals(typeEntry.getKey())) {
-                if (typeEntry.getValue() != null) {
-                  ipSet.addAll(typeEntry.getValue());
-                }
-              }
-            }
-          }
+  private void clientOffBlackIp(BlacklistStorage blacklistStorage) {
+    Set<String> ipSet = new HashSet();
+    boolean hasCidr = false;
+    for (IPMatcher matcher : blacklistStorage.matchers.values()) {
+      ipSet.addAll(matcher.getIps());
+      hasCidr |= matcher.hasCidr();
+    }
+    if (hasCidr) {
+      for (Channel channel : connectionsService.getAllChannel()) {
+        String ip = channel.getRemoteAddress().getAddress().getHostAddress();
+        if (blacklistStorage.match(ip)) {
+          ipSet.add(ip);
         }
       }
-
-      List<ConnectId> conIds = connectionsService.getIpConnects(ipSet);
-      // blacklist remove pub, sub, watch
-      sessionRegistry.blacklist(conIds);
     }
+
+    List<ConnectId> conIds = connectionsService.getIpConnects(ipSet);
+    // blacklist remove pub, sub, watch
+    sessionRegistry.blacklist(conIds);
   }
 
   @Override
@@ -155,11 +153,13 @@ public class FetchBlackListService extends AbstractFetchSystemPropertyService<Bl
     // {"FORBIDDEN_PUB":{"IP_FULL":["1.1.1.1"]},"FORBIDDEN_SUB_BY_PREFIX":{"IP_FULL":["1.1.1.1"]}}
     Map<String, Map<String, Set<String>>> blacklistConfigMap =
         convertBlacklistConfig(data, blacklistConfigs);
-    clientOffBlackIp(blacklistConfigMap);
 
     // after cancel success
     try {
       BlacklistStorage update = new BlacklistStorage(provideData.getVersion(), blacklistConfigs);
+      if (blacklistConfigMap != null) {
+        clientOffBlackIp(update);
+      }
       if (compareAndSet(expect, update)) {
         return true;
       }
@@ -172,22 +172,80 @@ public class FetchBlackListService extends AbstractFetchSystemPropertyService<Bl
 
   protected static class BlacklistStorage extends SystemDataStorage {
     final List<BlacklistConfig> blacklistConfigList;
+    // compiled once per version, the register path only looks up the blacklist type
+    final Map<String, IPMatcher> matchers;
 
     public BlacklistStorage(long version, List<BlacklistConfig> blacklistConfigList) {
       super(version);
-      this.blacklistConfigList = blacklistConfigList;
+      // the matchers are compiled from the list, freeze it to keep them consistent
+      this.blacklistConfigList =
+          Collections.unmodifiableList(Lists.newArrayList(blacklistConfigList));
+      this.matchers = compile(this.blacklistConfigList);
+    }
+
+    boolean match(String ip) {
+      for (IPMatcher matcher : matchers.values()) {
+        if (matcher.match(ip)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private static Map<String, IPMatcher> compile(List<BlacklistConfig> blacklistConfigList) {
+      Map<String, List<String>> patterns = Maps.newHashMap();
+      for (BlacklistConfig blacklistConfig : blacklistConfigList) {
+        if (!BlacklistConstants.FORBIDDEN_PUB.equals(blacklistConfig.getType())
+            && !BlacklistConstants.FORBIDDEN_SUB_BY_PREFIX.equals(blacklistConfig.getType())) {
+          continue;
+        }
+        List<MatchType> matchTypeList = blacklistConfig.getMatchTypes();
+        if (matchTypeList == null) {
+          continue;
+        }
+        for (MatchType matchType : matchTypeList) {
+          if (matchType == null || matchType.getPatternSet() == null) {
+            continue;
+          }
+          if (BlacklistConstants.IP_FULL.equals(matchType.getType())
+              || BlacklistConstants.IP_CIDR.equals(matchType.getType())) {
+            patterns
+                .computeIfAbsent(blacklistConfig.getType(), k -> Lists.newArrayList())
+                .addAll(matchType.getPatternSet());
+          }
+        }
+      }
+      Map<String, IPMatcher> matchers = Maps.newHashMapWithExpectedSize(patterns.size());
+      patterns.forEach((type, list) -> matchers.put(type, IPMatcher.compile(list)));
+      return matchers;
     }
   }
 
   /**
    * Getter method for property <tt>blacklistConfigList</tt>.
    *
-   * @return property value of blacklistConfigList
+   * @return property value of blacklistConfigList, unmodifiable
    */
   public List<BlacklistConfig> getBlacklistConfigList() {
     return storage.get().blacklistConfigList;
   }
 
+  /**
+   * the compiled matcher of the blacklist type
+   *
+   * @param type FORBIDDEN_PUB or FORBIDDEN_SUB_BY_PREFIX
+   * @return IPMatcher.EMPTY if no patterns of the type
+   */
+  public IPMatcher getMatcher(String type) {
+    IPMatcher matcher = storage.get().matchers.get(type);
+    return matcher == null ? IPMatcher.EMPTY : matcher;
+  }
+
+  @VisibleForTesting
+  void setBlacklistConfigList(long version, List<BlacklistConfig> blacklistConfigList) {
+    storage.set(new BlacklistStorage(version, blacklistConfigList));
+  }
+
   /**
    * Setter method for property <tt>sessionRegistry</tt>.
    *
@@ -22,6 +22,7 @@ import com.alipay.sofa.registry.common.model.sessionserver.GrayOpenPushSwitchReq
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.server.session.filter.IPMatcher;
 import com.alipay.sofa.registry.server.session.providedata.FetchGrayPushSwitchService.GrayPushSwitchStorage;
 import com.alipay.sofa.registry.server.shared.providedata.AbstractFetchSystemPropertyService;
 import com.alipay.sofa.registry.server.shared.providedata.SystemDataStorage;
@@ -83,10 +84,12 @@ public class FetchGrayPushSwitchService
 
   protected static class GrayPushSwitchStorage extends SystemDataStorage {
     final Set<String> openIps;
+    final IPMatcher openIpMatcher;
 
     public GrayPushSwitchStorage(long version, Collection<String> openIps) {
       super(version);
       this.openIps = openIps == null ? Collections.emptySet() : Sets.newHashSet(openIps);
+      this.openIpMatcher = IPMatcher.compile(this.openIps);
     }
   }
 
@@ -94,6 +97,16 @@ public class FetchGrayPushSwitchService
     return storage.get().openIps;
   }
 
+  /**
+   * the open ips support the exact ip and the cidr
+   *
+   * @param ip
+   * @return
+   */
+  public boolean isOpenIp(String ip) {
+    return storage.get().openIpMatcher.match(ip);
+  }
+
   protected boolean canPush() {
     return CollectionUtils.isNotEmpty(storage.get().openIps);
   }
@@ -16,16 +16,25 @@
  */
 package com.alipay.sofa.registry.server.session.push;
 
+import static com.alipay.sofa.registry.server.session.push.PushMetrics.Fetch.*;
+
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.StringFormatter;
 import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import io.prometheus.client.Counter;
+import java.util.Comparator;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -43,9 +52,11 @@ public class ChangeProcessor {
       workers[i] =
           new Worker(
               sessionServerConfig.getDataChangeDebouncingMillis(),
-              sessionServerConfig.getDataChangeMaxDebouncingMillis());
+              sessionServerConfig.getDataChangeMaxDebouncingMillis(),
+              sessionServerConfig.getDataChangeFetchBatchSize());
       ConcurrentUtils.createDaemonThread("ChangeExecutor-" + i, workers[i]).start();
     }
+    CHANGE_QUEUE_GAUGE.func(this::pendingSize);
   }
 
   boolean fireChange(String dataInfoId, ChangeHandler handler, TriggerPushContext changeCtx) {
@@ -54,16 +65,39 @@ public class ChangeProcessor {
     return worker.commitChange(key, handler, changeCtx);
   }
 
+  long pendingSize() {
+    long size = 0;
+    for (Worker worker : workers) {
+      size += worker.size();
+    }
+    return size;
+  }
+
   interface ChangeHandler {
     boolean onChange(String dataInfoId, TriggerPushContext changeCtx);
+
+    /**
+     * prefetch the datums of the changes expired together before calling the onChange one by one
+     *
+     * @param dataCenter
+     * @param expectVersions dataInfoId -> the expect datum version
+     */
+    default void prefetch(String dataCenter, Map<String, Long> expectVersions) {}
   }
 
   static final class ChangeTask {
+    private static final AtomicLong SEQ = new AtomicLong();
+
+    static final Comparator<ChangeTask> EXPIRE_COMPARATOR =
+        Comparator.<ChangeTask>comparingLong(t -> t.expireTimestamp).thenComparingLong(t -> t.seq);
+
     final TriggerPushContext changeCtx;
     final ChangeKey key;
     final ChangeHandler changeHandler;
     final long expireTimestamp;
     long expireDeadlineTimestamp;
+    // order the tasks with same expire
+    final long seq = SEQ.incrementAndGet();
 
     ChangeTask(
         ChangeKey key,
@@ -92,80 +126,141 @@ public class ChangeProcessor {
   }
 
   static final class Worker extends WakeUpLoopRunnable {
-    // task sorted by expire probably
-    final LinkedHashMap<ChangeKey, ChangeTask> tasks = Maps.newLinkedHashMap();
+    // the pending task of the key, the compute of the ConcurrentHashMap only locks the bin of the
+    // key, so the producers of different keys and the consumer do not contend on one monitor
+    final ConcurrentHashMap<ChangeKey, ChangeTask> tasks = new ConcurrentHashMap<>();
+    // the pending tasks sorted by expire, only contains the tasks in the map
+    final ConcurrentSkipListSet<ChangeTask> expireQueue =
+        new ConcurrentSkipListSet<>(ChangeTask.EXPIRE_COMPARATOR);
     final int changeDebouncingMillis;
     final int changeDebouncingMaxMillis;
+    final int fetchBatchSize;
 
     Worker(int changeDebouncingMillis, int changeDebouncingMaxMillis) {
+      this(changeDebouncingMillis, changeDebouncingMaxMillis, 1);
+    }
+
+    Worker(int changeDebouncingMillis, int changeDebouncingMaxMillis, int fetchBatchSize) {
       this.changeDebouncingMillis = changeDebouncingMillis;
       this.changeDebouncingMaxMillis = changeDebouncingMaxMillis;
+      this.fetchBatchSize = Math.max(fetchBatchSize, 1);
     }
 
     ChangeTask get(ChangeKey key) {
-      synchronized (tasks) {
-        return tasks.get(key);
-      }
+      return tasks.get(key);
+    }
+
+    int size() {
+      return tasks.size();
     }
 
     boolean commitChange(ChangeKey key, ChangeHandler handler, TriggerPushContext changeCtx) {
       final long now = System.currentTimeMillis();
       final ChangeTask task = new ChangeTask(key, changeCtx, handler, now + changeDebouncingMillis);
-
-      synchronized (tasks) {
-        final ChangeTask exist = tasks.get(key);
-        if (exist == null) {
-          task.expireDeadlineTimestamp = now + changeDebouncingMaxMillis;
-          tasks.put(key, task);
-          return true;
-        }
-        if (task.changeCtx.getExpectDatumVersion() <= exist.changeCtx.getExpectDatumVersion()) {
-          return false;
-        }
-        // compare with exist
-        if (task.expireTimestamp <= exist.expireDeadlineTimestamp) {
-          // not reach deadline, requeue to wait
-          task.expireDeadlineTimestamp = exist.expireDeadlineTimestamp;
-          // merge change, merge tracetimes
-          task.changeCtx.addTraceTime(exist.changeCtx.getFirstTimes());
-          // tasks is linkedMap, must remove the exist first, then enqueue in the tail
-          tasks.remove(key);
-          tasks.put(key, task);
-        } else {
-          // reach deadline, could not requeue, use exist.expire as newTask.expire
-          exist.changeCtx.setExpectDatumVersion(task.changeCtx.getExpectDatumVersion());
-        }
-        return true;
-      }
+      final Counter.Child[] result = new Counter.Child[1];
+      tasks.compute(
+          key,
+          (k, exist) -> {
+            if (exist == null) {
+              task.expireDeadlineTimestamp = now + changeDebouncingMaxMillis;
+              expireQueue.add(task);
+              result[0] = CHANGE_NEW_COUNTER;
+              return task;
+            }
+            if (task.changeCtx.getExpectDatumVersion() <= exist.changeCtx.getExpectDatumVersion()) {
+              result[0] = CHANGE_SKIP_COUNTER;
+              return exist;
+            }
+            // compare with exist
+            if (task.expireTimestamp <= exist.expireDeadlineTimestamp) {
+              // not reach deadline, requeue to wait
+              task.expireDeadlineTimestamp = exist.expireDeadlineTimestamp;
+              // merge change, merge tracetimes
+              task.changeCtx.addTraceTime(exist.changeCtx.getFirstTimes());
+              expireQueue.remove(exist);
+              expireQueue.add(task);
+              result[0] = CHANGE_DEBOUNCE_COUNTER;
+              return task;
+            }
+            // reach deadline, could not requeue, use exist.expire as newTask.expire
+            exist.changeCtx.setExpectDatumVersion(task.changeCtx.getExpectDatumVersion());
+            result[0] = CHANGE_DEADLINE_COUNTER;
+            return exist;
+          });
+      result[0].inc();
+      return result[0] != CHANGE_SKIP_COUNTER;
     }
 
     ChangeTask getExpire() {
       final long now = System.currentTimeMillis();
-      synchronized (tasks) {
-        if (tasks.isEmpty()) {
+      for (; ; ) {
+        // the weakly consistent iterator, first() throws if the set is emptied concurrently
+        final Iterator<ChangeTask> it = expireQueue.iterator();
+        if (!it.hasNext()) {
           return null;
         }
-        Iterator<ChangeTask> it = tasks.values().iterator();
         final ChangeTask first = it.next();
-        if (first.expireTimestamp <= now) {
-          it.remove();
+        if (first.expireTimestamp > now) {
+          return null;
+        }
+        // the task maybe replaced by the producer concurrently, only returns the current one
+        final boolean current = tasks.remove(first.key, first);
+        expireQueue.remove(first);
+        if (current) {
           return first;
         }
-        return null;
+      }
+    }
+
+    List<ChangeTask> getExpires(int max) {
+      List<ChangeTask> expires = Lists.newArrayList();
+      while (expires.size() < max) {
+        final ChangeTask task = getExpire();
+        if (task == null) {
+          break;
+        }
+        expires.add(task);
+      }
+      return expires;
+    }
+
+    void prefetch(List<ChangeTask> expires) {
+      if (expires.size() <= 1) {
+        return;
+      }
+      Map<ChangeHandler, Map<String, Map<String, Long>>> groups = Maps.newHashMap();
+      for (ChangeTask task : expires) {
+        groups
+            .computeIfAbsent(task.changeHandler, k -> Maps.newHashMap())
+            .computeIfAbsent(task.key.dataCenter, k -> Maps.newHashMap())
+            .put(task.key.dataInfoId, task.changeCtx.getExpectDatumVersion());
+      }
+      for (Map.Entry<ChangeHandler, Map<String, Map<String, Long>>> group : groups.entrySet()) {
+        for (Map.Entry<String, Map<String, Long>> dc : group.getValue().entrySet()) {
+          try {
+            group.getKey().prefetch(dc.getKey(), dc.getValue());
+          } catch (Throwable e) {
+            LOGGER.error("failed to prefetch, {}, num={}", dc.getKey(), dc.getValue().size(), e);
+          }
+        }
       }
     }
 
     @Override
     public void runUnthrowable() {
       for (; ; ) {
-        final ChangeTask task = getExpire();
-        if (task == null) {
+        final List<ChangeTask> expires = getExpires(fetchBatchSize);
+        if (expires.isEmpty()) {
           break;
         }
-        try {
-          task.doChange();
-        } catch (Throwable e) {
-          LOGGER.error("failed to doChange, {}", task);
+        // coalesce the fetches of the expired changes, the onChange hits the prefetched cache
+        prefetch(expires);
+        for (ChangeTask task : expires) {
+          try {
+            task.doChange();
+          } catch (Throwable e) {
+            LOGGER.error("failed to doChange, {}", task);
+          }
         }
       }
     }
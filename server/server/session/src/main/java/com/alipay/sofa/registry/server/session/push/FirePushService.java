@@ -31,12 +31,14 @@ import com.alipay.sofa.registry.server.session.cache.DatumKey;
 import com.alipay.sofa.registry.server.session.cache.Key;
 import com.alipay.sofa.registry.server.session.cache.Value;
 import com.alipay.sofa.registry.server.session.circuit.breaker.CircuitBreakerService;
+import com.alipay.sofa.registry.server.session.node.service.DataNodeService;
 import com.alipay.sofa.registry.server.session.store.Interests;
 import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.task.FastRejectedExecutionException;
 import com.alipay.sofa.registry.task.KeyedThreadPoolExecutor;
 import com.alipay.sofa.registry.util.DatumVersionUtil;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import java.net.InetSocketAddress;
 import java.util.Collection;
 import java.util.Collections;
@@ -54,6 +56,8 @@ public class FirePushService {
 
   @Autowired CacheService sessionCacheService;
 
+  @Autowired DataNodeService dataNodeService;
+
   @Autowired Interests sessionInterests;
 
   @Autowired CircuitBreakerService circuitBreakerService;
@@ -100,6 +104,7 @@ public class FirePushService {
 
   public boolean fireOnPushEmpty(Subscriber subscriber, String dataCenter, long version) {
     long pushVersion = subscriber.markPushEmpty(dataCenter, version);
+    sessionInterests.onPushedVersionChanged(subscriber.getDataInfoId());
 
     SubDatum emptyDatum = DatumUtils.newEmptySubDatum(subscriber, dataCenter, pushVersion);
     final long now = System.currentTimeMillis();
@@ -223,8 +228,12 @@ public class FirePushService {
     return true;
   }
 
+  private static Key datumKey(String dataCenter, String dataInfoId) {
+    return new Key(DatumKey.class.getName(), new DatumKey(dataInfoId, dataCenter));
+  }
+
   SubDatum getDatum(String dataCenter, String dataInfoId, long expectVersion) {
-    Key key = new Key(DatumKey.class.getName(), new DatumKey(dataInfoId, dataCenter));
+    Key key = datumKey(dataCenter, dataInfoId);
     Value value = sessionCacheService.getValueIfPresent(key);
     if (value != null) {
       SubDatum datum = (SubDatum) value.getPayload();
@@ -235,12 +244,58 @@ public class FirePushService {
       }
     }
     CACHE_MISS_COUNTER.inc();
+    if (value != null
+        && value.getPayload() != null
+        && sessionServerConfig.isFetchDatumDeltaEnable()) {
+      // the cache is too old, only fetch the changes since the cached version
+      SubDatum datum = fetchDelta(dataCenter, dataInfoId, (SubDatum) value.getPayload());
+      if (datum != null && datum.getVersion() >= expectVersion) {
+        sessionCacheService.put(key, new Value(datum));
+        return datum;
+      }
+    }
     // the cache is too old
     sessionCacheService.invalidate(key);
     value = sessionCacheService.getValue(key);
     return value == null ? null : (SubDatum) value.getPayload();
   }
 
+  /**
+   * fetch the datums which the cache is older than the expect version by batch, and put them into
+   * the cache, so the getDatum of them hit the cache
+   */
+  void prefetchDatums(String dataCenter, Map<String, Long> expectVersions) {
+    final boolean delta = sessionServerConfig.isFetchDatumDeltaEnable();
+    Map<String, SubDatum> bases = Maps.newHashMapWithExpectedSize(expectVersions.size());
+    for (Map.Entry<String, Long> e : expectVersions.entrySet()) {
+      final Value value = sessionCacheService.getValueIfPresent(datumKey(dataCenter, e.getKey()));
+      final SubDatum cached = value == null ? null : (SubDatum) value.getPayload();
+      if (cached != null && cached.getVersion() >= e.getValue()) {
+        continue;
+      }
+      bases.put(e.getKey(), delta ? cached : null);
+    }
+    if (bases.size() <= 1) {
+      // no need to batch
+      return;
+    }
+    Map<String, SubDatum> datums = dataNodeService.fetchMulti(dataCenter, bases);
+    for (Map.Entry<String, SubDatum> e : datums.entrySet()) {
+      sessionCacheService.put(datumKey(dataCenter, e.getKey()), new Value(e.getValue()));
+    }
+    CACHE_PREFETCH_COUNTER.inc(datums.size());
+  }
+
+  private SubDatum fetchDelta(String dataCenter, String dataInfoId, SubDatum base) {
+    try {
+      return dataNodeService.fetch(dataInfoId, dataCenter, base);
+    } catch (Throwable e) {
+      LOGGER.error(
+          "failed to fetch delta, {}, {}, ver={}", dataInfoId, dataCenter, base.getVersion(), e);
+      return null;
+    }
+  }
+
   private List<Subscriber> subscribersPushCheck(
       String dataCenter, Long version, Collection<Subscriber> subscribers) {
     List<Subscriber> subscribersSend = Lists.newArrayList();
@@ -274,6 +329,11 @@ public class FirePushService {
         return false;
       }
     }
+
+    @Override
+    public void prefetch(String dataCenter, Map<String, Long> expectVersions) {
+      prefetchDatums(dataCenter, expectVersions);
+    }
   }
 
   final class RegHandler implements RegProcessor.RegHandler {
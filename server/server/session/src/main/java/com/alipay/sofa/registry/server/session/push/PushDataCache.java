@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.push;
+
+import com.alipay.sofa.registry.cache.Sizer;
+import com.alipay.sofa.registry.common.model.client.pb.DataBoxesPb;
+import com.alipay.sofa.registry.common.model.store.PushData;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.concurrent.CachedExecutor;
+import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+import com.alipay.sofa.registry.server.session.converter.ReceivedDataConverter;
+import com.alipay.sofa.registry.server.session.converter.pb.DataBoxConvertor;
+import com.alipay.sofa.registry.server.session.providedata.CompressPushService;
+import com.alipay.sofa.registry.util.StringUtils;
+import com.alipay.sofa.registry.util.SystemUtils;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * cache the subscriber independent part of the push data, keyed by the datum version and the
+ * attributes which decide the content (scope and client cell). all the pushes of the same datum
+ * version share the converted data boxes, only the subscriber registIds differ between them
+ */
+public final class PushDataCache {
+  private static final String KEY_PUSH_DATA_CACHE_CAPACITY = "registry.push.data.cache.capacity";
+
+  private final CachedExecutor<Key, Entry> executor;
+
+  public PushDataCache() {
+    this(60 * 1000, SystemUtils.getSystemInteger(KEY_PUSH_DATA_CACHE_CAPACITY, 1024 * 1024 * 256));
+  }
+
+  PushDataCache(long silentMs, long maxWeight) {
+    this.executor =
+        new CachedExecutor<>(silentMs, maxWeight, (Key k, Entry v) -> k.size() + v.size(), true);
+  }
+
+  public Entry get(
+      SubDatum unzipDatum, ScopeEnum scope, String clientCell, Predicate<String> zonePredicate)
+      throws Exception {
+    Key key =
+        new Key(
+            unzipDatum.getDataInfoId(),
+            unzipDatum.getDataCenter(),
+            unzipDatum.getVersion(),
+            scope,
+            clientCell);
+    return executor.execute(
+        key,
+        () -> {
+          PushData<ReceivedData> template =
+              ReceivedDataConverter.getReceivedDataMulti(
+                  unzipDatum, scope, Collections.emptyList(), clientCell, zonePredicate);
+          template.getPayload().setVersion(unzipDatum.getVersion());
+          return new Entry(template.getPayload(), template.getDataCount());
+        });
+  }
+
+  @VisibleForTesting
+  long getHitCount() {
+    return executor.getHitCount();
+  }
+
+  @VisibleForTesting
+  long getMissingCount() {
+    return executor.getMissingCount();
+  }
+
+  public static final class Entry implements Sizer {
+    private final ReceivedData template;
+    private final int dataCount;
+    private final int dataSize;
+    private volatile Map<String, DataBoxesPb> pbData;
+
+    Entry(ReceivedData template, int dataCount) {
+      this.template = template;
+      this.dataCount = dataCount;
+      this.dataSize = CompressPushService.dataBoxesMapSize(template.getData());
+    }
+
+    /**
+     * the data map is shared with the template and other pushes, must not be modified
+     *
+     * @param subscriberRegistIds the registIds of the pushing subscribers
+     * @return the received data
+     */
+    public ReceivedData newReceivedData(List<String> subscriberRegistIds) {
+      ReceivedData receivedData =
+          new ReceivedData(
+              template.getDataId(),
+              template.getGroup(),
+              template.getInstanceId(),
+              template.getSegment(),
+              subscriberRegistIds,
+              template.getData(),
+              template.getVersion());
+      receivedData.setScope(template.getScope());
+      receivedData.setLocalZone(template.getLocalZone());
+      return receivedData;
+    }
+
+    public Map<String, DataBoxesPb> getPbData() {
+      Map<String, DataBoxesPb> data = pbData;
+      if (data == null) {
+        // converting twice in race is harmless, the result is the same
+        data = DataBoxConvertor.convert2PbMaps(template.getData());
+        pbData = data;
+      }
+      return data;
+    }
+
+    public int getDataCount() {
+      return dataCount;
+    }
+
+    /** @return the chars of zones and data boxes, used to decide whether to compress */
+    public int getDataSize() {
+      return dataSize;
+    }
+
+    @Override
+    public int size() {
+      // the java boxes and the lazy pb boxes
+      return dataSize * 4 + 128;
+    }
+  }
+
+  static final class Key {
+    final String dataInfoId;
+    final String dataCenter;
+    final long version;
+    final ScopeEnum scope;
+    final String clientCell;
+
+    Key(String dataInfoId, String dataCenter, long version, ScopeEnum scope, String clientCell) {
+      this.dataInfoId = dataInfoId;
+      this.dataCenter = dataCenter;
+      this.version = version;
+      this.scope = scope;
+      this.clientCell = clientCell;
+    }
+
+    int size() {
+      return StringUtils.sizeof(dataInfoId)
+          + StringUtils.sizeof(dataCenter)
+          + StringUtils.sizeof(clientCell)
+          + 24;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      Key key = (Key) o;
+      return version == key.version
+          && Objects.equals(dataInfoId, key.dataInfoId)
+          && Objects.equals(dataCenter, key.dataCenter)
+          && scope == key.scope
+          && Objects.equals(clientCell, key.clientCell);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(dataInfoId, dataCenter, version, scope, clientCell);
+    }
+  }
+}
@@ -39,6 +39,8 @@ public class PushDataGenerator {
 
   @Resource protected CompressPushService compressPushService;
 
+  final PushDataCache pushDataCache = new PushDataCache();
+
   public PushData createPushData(SubDatum unzipDatum, Map<String, Subscriber> subscriberMap) {
     unzipDatum.mustUnzipped();
     if (subscriberMap.size() > 1) {
@@ -55,6 +57,10 @@ public class PushDataGenerator {
     Predicate<String> zonePredicate =
         ZonePredicate.zonePredicate(dataId, clientCell, subscriber.getScope(), sessionServerConfig);
 
+    if (sessionServerConfig.isPushDataCacheEnable()) {
+      return createPushDataByCache(
+          unzipDatum, subscriberMap, subscriber, clientCell, zonePredicate);
+    }
     PushData<ReceivedData> pushData =
         ReceivedDataConverter.getReceivedDataMulti(
             unzipDatum,
@@ -76,16 +82,49 @@ public class PushDataGenerator {
       ReceivedDataPb receivedDataPb = ReceivedDataConvertor.convert2Pb(pushData.getPayload());
       return new PushData<>(receivedDataPb, pushData.getDataCount());
     } else {
+      return compressedPushData(pushData.getPayload(), pushData.getDataCount(), compressor);
+    }
+  }
+
+  private PushData createPushDataByCache(
+      SubDatum unzipDatum,
+      Map<String, Subscriber> subscriberMap,
+      Subscriber subscriber,
+      String clientCell,
+      Predicate<String> zonePredicate) {
+    final PushDataCache.Entry entry;
+    try {
+      entry = pushDataCache.get(unzipDatum, subscriber.getScope(), clientCell, zonePredicate);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+    ReceivedData receivedData = entry.newReceivedData(Lists.newArrayList(subscriberMap.keySet()));
+    final Byte serializerIndex = subscriber.getSourceAddress().getSerializerIndex();
+    if (serializerIndex == null || URL.PROTOBUF != serializerIndex) {
+      return new PushData<>(receivedData, entry.getDataCount());
+    }
+    Compressor compressor =
+        compressPushService.getCompressor(
+            entry.getDataSize(),
+            subscriber.getAcceptEncodes(),
+            subscriber.getSourceAddress().getIpAddress());
+    if (compressor == null) {
       ReceivedDataPb receivedDataPb =
-          ReceivedDataConvertor.convert2CompressedPb(pushData.getPayload(), compressor);
-      return new PushData<>(
-          receivedDataPb,
-          pushData.getDataCount(),
-          compressor.getEncoding(),
-          receivedDataPb.getBody().size());
+          ReceivedDataConvertor.convert2Pb(receivedData, entry.getPbData());
+      return new PushData<>(receivedDataPb, entry.getDataCount());
+    } else {
+      return compressedPushData(receivedData, entry.getDataCount(), compressor);
     }
   }
 
+  private static PushData compressedPushData(
+      ReceivedData receivedData, int dataCount, Compressor compressor) {
+    ReceivedDataPb receivedDataPb =
+        ReceivedDataConvertor.convert2CompressedPb(receivedData, compressor);
+    return new PushData<>(
+        receivedDataPb, dataCount, compressor.getEncoding(), receivedDataPb.getBody().size());
+  }
+
   public PushData createPushData(Watcher watcher, ReceivedConfigData data) {
     URL url = watcher.getSourceAddress();
     Object o = data;
@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.server.session.push;
 
+import com.alipay.sofa.registry.metrics.GaugeFunc;
 import io.prometheus.client.Counter;
 import io.prometheus.client.Histogram;
 
@@ -67,6 +68,30 @@ public final class PushMetrics {
             .help("temp task")
             .register();
 
+    static final GaugeFunc CHANGE_QUEUE_GAUGE =
+        GaugeFunc.build()
+            .namespace("session")
+            .subsystem("fetch")
+            .name("change_queue_size")
+            .help("pending change task")
+            .register();
+
+    private static final Counter CHANGE_COMMIT_COUNTER =
+        Counter.build()
+            .namespace("session")
+            .subsystem("fetch")
+            .name("change_commit_total")
+            .help("change commit")
+            .labelNames("type")
+            .register();
+
+    static final Counter.Child CHANGE_NEW_COUNTER = CHANGE_COMMIT_COUNTER.labels("new");
+    // merged into the pending task and debounce again
+    static final Counter.Child CHANGE_DEBOUNCE_COUNTER = CHANGE_COMMIT_COUNTER.labels("debounce");
+    // merged into the pending task which reaches the max debounce
+    static final Counter.Child CHANGE_DEADLINE_COUNTER = CHANGE_COMMIT_COUNTER.labels("deadline");
+    static final Counter.Child CHANGE_SKIP_COUNTER = CHANGE_COMMIT_COUNTER.labels("skip");
+
     private static final Counter CACHE_COUNTER =
         Counter.build()
             .namespace("session")
@@ -78,6 +103,8 @@ public final class PushMetrics {
 
     static final Counter.Child CACHE_HIT_COUNTER = CACHE_COUNTER.labels("Y");
     static final Counter.Child CACHE_MISS_COUNTER = CACHE_COUNTER.labels("N");
+    // fetched by the batch of the expired changes
+    static final Counter.Child CACHE_PREFETCH_COUNTER = CACHE_COUNTER.labels("prefetch");
   }
 
   static final class Push {
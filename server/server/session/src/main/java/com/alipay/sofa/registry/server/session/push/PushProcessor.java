@@ -31,6 +31,7 @@ import com.alipay.sofa.registry.remoting.ChannelOverflowException;
 import com.alipay.sofa.registry.remoting.exchange.RequestChannelClosedException;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.node.service.ClientNodeService;
+import com.alipay.sofa.registry.server.session.store.Interests;
 import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.task.KeyedThreadPoolExecutor;
 import com.alipay.sofa.registry.task.MetricsableThreadPoolExecutor;
@@ -66,6 +67,8 @@ public class PushProcessor {
 
   @Autowired protected ClientNodeService clientNodeService;
 
+  @Autowired protected Interests sessionInterests;
+
   final Cleaner cleaner = new Cleaner();
 
   final RejectedDiscardHandler discardHandler = new RejectedDiscardHandler();
@@ -86,7 +89,10 @@ public class PushProcessor {
 
   void intTaskBuffer() {
     if (this.taskBuffer == null) {
-      this.taskBuffer = new PushTaskBuffer(sessionServerConfig.getPushTaskBufferBucketSize());
+      this.taskBuffer =
+          new PushTaskBuffer(
+              sessionServerConfig.getPushTaskBufferBucketSize(),
+              sessionServerConfig.isPushTaskBufferTimingWheelEnable());
     }
   }
 
@@ -241,6 +247,7 @@ public class PushProcessor {
       subscriber.checkAndUpdateCtx(
           task.datum.getDataCenter(), task.datum.getVersion(), task.getPushDataCount());
     }
+    sessionInterests.onPushedVersionChanged(task.datum.getDataInfoId());
     PUSH_EMPTY_SKIP_COUNTER.inc();
     LOGGER.info(
         "[pushEmptySkip]{},{},{}", task.taskID, task.pushingTaskKey, task.datum.getVersion());
@@ -468,6 +475,7 @@ public class PushProcessor {
               pushTask.pushingTaskKey);
         }
       }
+      sessionInterests.onPushedVersionChanged(pushTask.datum.getDataInfoId());
       this.pushTask.trace.finishPush(
           PushTrace.PushStatus.OK,
           pushTask.taskID,
@@ -40,8 +40,7 @@ public class PushSwitchService {
   }
 
   public boolean canIpPush(String ip) {
-    return !fetchStopPushService.isStopPushSwitch()
-        || fetchGrayPushSwitchService.getOpenIps().contains(ip);
+    return !fetchStopPushService.isStopPushSwitch() || fetchGrayPushSwitchService.isOpenIp(ip);
   }
 
   /**
@@ -30,6 +30,7 @@ import com.google.common.collect.Sets;
 import java.net.InetSocketAddress;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public final class PushTaskBuffer {
   private static final Logger LOGGER = LoggerFactory.getLogger(PushTaskBuffer.class);
@@ -37,12 +38,26 @@ public final class PushTaskBuffer {
   private static final int MAX_BUFFERED_SIZE =
       SystemUtils.getSystemInteger(KEY_MAX_BUFFERED_SIZE, 10000);
 
+  private static final String KEY_WHEEL_TICK_MILLIS = "registry.session.push_task.wheel_tick";
+  private static final String KEY_WHEEL_SIZE = "registry.session.push_task.wheel_size";
+  private static final int WHEEL_TICK_MILLIS =
+      SystemUtils.getSystemInteger(KEY_WHEEL_TICK_MILLIS, 50);
+  private static final int WHEEL_SIZE = SystemUtils.getSystemInteger(KEY_WHEEL_SIZE, 512);
+
   final BufferWorker[] workers;
 
   PushTaskBuffer(int workerSize) {
+    this(workerSize, false);
+  }
+
+  PushTaskBuffer(int workerSize, boolean timingWheel) {
     this.workers = new BufferWorker[workerSize];
     for (int i = 0; i < workerSize; i++) {
-      BufferWorker worker = new BufferWorker();
+      BufferWorker worker =
+          new BufferWorker(
+              timingWheel
+                  ? new ExpireWheel(WHEEL_SIZE, WHEEL_TICK_MILLIS, System.currentTimeMillis())
+                  : null);
       this.workers[i] = worker;
       ConcurrentUtils.createDaemonThread("PushTaskBuffer-" + i, worker).start();
     }
@@ -56,6 +71,7 @@ public final class PushTaskBuffer {
     }
     if (worker.bufferMap.putIfAbsent(key, pushTask) == null) {
       // fast path
+      worker.schedule(key, pushTask);
       wakeup(worker, pushTask);
       BUFFER_NEW_COUNTER.inc();
       return true;
@@ -66,6 +82,7 @@ public final class PushTaskBuffer {
       if (prev == null) {
         if (worker.bufferMap.putIfAbsent(key, pushTask) == null) {
           // prev has remove at this time
+          worker.schedule(key, pushTask);
           wakeup(worker, pushTask);
           BUFFER_NEW_COUNTER.inc();
           return true;
@@ -76,6 +93,10 @@ public final class PushTaskBuffer {
           // update the expireTimestamp as prev's, avoid the push block by the continues fire
           pushTask.expireTimestamp = prev.expireTimestamp;
           if (worker.bufferMap.replace(key, prev, pushTask)) {
+            // the expireTimestamp is not changed, the key has been scheduled by prev
+            if (pushTask.trace.pushCause.pushType.noDelay) {
+              worker.schedule(key, pushTask);
+            }
             wakeup(worker, pushTask);
             BUFFER_REPLACE_COUNTER.inc();
             return true;
@@ -109,6 +130,12 @@ public final class PushTaskBuffer {
 
   final class BufferWorker extends WakeUpLoopRunnable {
     final Map<BufferTaskKey, PushTask> bufferMap = new ConcurrentHashMap<>(4096);
+    // null means scan the whole bufferMap to find the expired tasks
+    final ExpireWheel wheel;
+
+    BufferWorker(ExpireWheel wheel) {
+      this.wheel = wheel;
+    }
 
     @Override
     public void runUnthrowable() {
@@ -117,13 +144,22 @@ public final class PushTaskBuffer {
 
     @Override
     public int getWaitingMillis() {
-      return 200;
+      return wheel == null ? 200 : wheel.tickMillis;
+    }
+
+    void schedule(BufferTaskKey key, PushTask task) {
+      if (wheel != null) {
+        wheel.schedule(key, task.expireTimestamp, task.trace.pushCause.pushType.noDelay);
+      }
     }
 
     private List<PushTask> transferAndMerge() {
       if (bufferMap.isEmpty()) {
         return Collections.emptyList();
       }
+      if (wheel != null) {
+        return wheel.advance(bufferMap, System.currentTimeMillis());
+      }
       List<PushTask> pending = Lists.newArrayListWithCapacity(1024);
       final long now = System.currentTimeMillis();
       for (Map.Entry<BufferTaskKey, PushTask> e : bufferMap.entrySet()) {
@@ -139,6 +175,101 @@ public final class PushTaskBuffer {
     }
   }
 
+  /**
+   * hashed timing wheel indexed by PushTask.expireTimestamp, the buffered task is still deduped by
+   * the bufferMap, the wheel only holds the keys. a key maybe scheduled more than once, the
+   * redundant one is skipped when the task has been transferred
+   */
+  static final class ExpireWheel {
+    final int tickMillis;
+    final Queue<BufferTaskKey>[] buckets;
+    final Queue<BufferTaskKey> immediate = new ConcurrentLinkedQueue<>();
+    // the last tick has been transferred, only updated by the worker
+    volatile long cursor;
+
+    @SuppressWarnings("unchecked")
+    ExpireWheel(int size, int tickMillis, long now) {
+      this.tickMillis = tickMillis;
+      this.buckets = new Queue[size];
+      for (int i = 0; i < size; i++) {
+        buckets[i] = new ConcurrentLinkedQueue<>();
+      }
+      this.cursor = now / tickMillis - 1;
+    }
+
+    void schedule(BufferTaskKey key, long expireTimestamp, boolean noDelay) {
+      final long tick = expireTimestamp / tickMillis;
+      if (noDelay || tick <= cursor) {
+        immediate.offer(key);
+        return;
+      }
+      bucketOf(tick).offer(key);
+      // the worker maybe pass the tick before offer, avoid waiting for the next round
+      if (tick <= cursor) {
+        immediate.offer(key);
+      }
+    }
+
+    List<PushTask> advance(Map<BufferTaskKey, PushTask> bufferMap, long now) {
+      final long nowTick = now / tickMillis;
+      List<PushTask> pending = Lists.newArrayListWithCapacity(128);
+      List<BufferTaskKey> deferred = Lists.newArrayListWithCapacity(128);
+      // the wheel is out of date more than one round, every bucket need to transfer once
+      final long from = Math.max(cursor + 1, nowTick - buckets.length + 1);
+      for (long tick = from; tick <= nowTick; tick++) {
+        // update cursor before drain, the concurrent schedule could see it
+        cursor = tick;
+        transfer(bucketOf(tick), bufferMap, now, pending, deferred);
+      }
+      transfer(immediate, bufferMap, now, pending, deferred);
+      for (BufferTaskKey key : deferred) {
+        final PushTask task = bufferMap.get(key);
+        if (task != null) {
+          bucketOf(Math.max(task.expireTimestamp / tickMillis, cursor + 1)).offer(key);
+        }
+      }
+      return pending;
+    }
+
+    private void transfer(
+        Queue<BufferTaskKey> bucket,
+        Map<BufferTaskKey, PushTask> bufferMap,
+        long now,
+        List<PushTask> pending,
+        List<BufferTaskKey> deferred) {
+      BufferTaskKey key;
+      while ((key = bucket.poll()) != null) {
+        final PushTask task = bufferMap.get(key);
+        if (task == null) {
+          // has been transferred
+          continue;
+        }
+        // no delay or expire, push immediately
+        if (task.trace.pushCause.pushType.noDelay || task.expireTimestamp <= now) {
+          // the task maybe update
+          if (bufferMap.remove(key, task)) {
+            pending.add(task);
+            continue;
+          }
+        }
+        // not expire in this round or updated, check it again later
+        deferred.add(key);
+      }
+    }
+
+    private Queue<BufferTaskKey> bucketOf(long tick) {
+      return buckets[(int) (tick % buckets.length)];
+    }
+
+    int scheduledSize() {
+      int size = immediate.size();
+      for (Queue<BufferTaskKey> bucket : buckets) {
+        size += bucket.size();
+      }
+      return size;
+    }
+  }
+
   int watchBuffer(BufferWorker worker) {
     int bufferedSize = worker.bufferMap.size();
     if (bufferedSize >= MAX_BUFFERED_SIZE) {
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.registry;
+
+import com.alipay.sofa.registry.common.model.dataserver.InterestFilter;
+import com.alipay.sofa.registry.common.model.dataserver.SessionInterestFilterRequest;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.server.session.node.service.DataNodeService;
+import com.alipay.sofa.registry.server.session.store.Interests;
+import com.alipay.sofa.registry.server.shared.env.ServerEnv;
+import com.alipay.sofa.registry.server.shared.meta.MetaServerService;
+import com.alipay.sofa.registry.util.ConcurrentUtils;
+import com.alipay.sofa.registry.util.LoopRunnable;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * publish the dataInfoIds subscribed in this session to all the data servers, so the data servers
+ * could skip the change notifications which this session is not interested in. the filter is
+ * rebuilt periodically to drop the unsubscribed dataInfoIds, the new subscribed dataInfoIds are
+ * published as increments between the rebuilding
+ */
+public class InterestFilterSyncer {
+  private static final Logger LOGGER = LoggerFactory.getLogger(InterestFilterSyncer.class);
+
+  static final double FPP = 0.01;
+
+  @Autowired SessionServerConfig sessionServerConfig;
+
+  @Autowired Interests sessionInterests;
+
+  @Autowired DataNodeService dataNodeService;
+
+  @Autowired MetaServerService metaServerService;
+
+  private final Set<String> increments = Sets.newConcurrentHashSet();
+
+  // only accessed by the syncer thread
+  final Map<String /*dataServerIp*/, Long /*version*/> syncedVersions = Maps.newHashMap();
+  long version;
+  InterestFilter filter;
+  long lastFullTimestamp;
+
+  @PostConstruct
+  public void init() {
+    ConcurrentUtils.createDaemonThread("InterestFilterSyncer", new Syncer()).start();
+  }
+
+  public void onInterest(String dataInfoId) {
+    if (sessionServerConfig.isInterestFilterSyncEnable()) {
+      increments.add(dataInfoId);
+    }
+  }
+
+  private final class Syncer extends LoopRunnable {
+    @Override
+    public void runUnthrowable() {
+      sync();
+    }
+
+    @Override
+    public void waitingUnthrowable() {
+      ConcurrentUtils.sleepUninterruptibly(1, TimeUnit.SECONDS);
+    }
+  }
+
+  void sync() {
+    if (!sessionServerConfig.isInterestFilterSyncEnable()) {
+      if (filter != null) {
+        // the data server will fallback to notify all after the filter expired
+        filter = null;
+        syncedVersions.clear();
+        increments.clear();
+      }
+      return;
+    }
+    final Set<String> dataServers = metaServerService.getDataServerList();
+    syncedVersions.keySet().retainAll(dataServers);
+    // drain before select the dataInfoIds, the new one is in the store or in the increments
+    final List<String> adds = drainIncrements();
+    final long now = System.currentTimeMillis();
+    if (filter == null
+        || now - lastFullTimestamp
+            >= sessionServerConfig.getInterestFilterFullSyncIntervalSecs() * 1000L) {
+      final Collection<String> dataInfoIds = sessionInterests.getDataInfoIds();
+      // reserve the capacity for the increments
+      filter =
+          InterestFilter.create(
+              dataInfoIds, dataInfoIds.size() + dataInfoIds.size() / 4 + 1024, FPP);
+      version++;
+      lastFullTimestamp = now;
+      syncedVersions.clear();
+      LOGGER.info("[rebuild]ver={}, dataInfoIds={}, {}", version, dataInfoIds.size(), filter);
+    } else {
+      for (String dataInfoId : adds) {
+        filter.put(dataInfoId);
+      }
+    }
+    for (String dataServer : dataServers) {
+      final Long syncedVersion = syncedVersions.get(dataServer);
+      final SessionInterestFilterRequest request;
+      if (syncedVersion != null && syncedVersion == version) {
+        if (adds.isEmpty()) {
+          continue;
+        }
+        request = SessionInterestFilterRequest.incremental(ServerEnv.PROCESS_ID, version, adds);
+      } else {
+        request = SessionInterestFilterRequest.full(ServerEnv.PROCESS_ID, version, filter);
+      }
+      if (dataNodeService.syncInterestFilter(dataServer, request)) {
+        syncedVersions.put(dataServer, version);
+      } else {
+        // resend the full filter next time
+        syncedVersions.remove(dataServer);
+      }
+    }
+  }
+
+  private List<String> drainIncrements() {
+    if (increments.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<String> ret = Lists.newArrayListWithCapacity(increments.size());
+    for (String dataInfoId : increments) {
+      if (increments.remove(dataInfoId)) {
+        ret.add(dataInfoId);
+      }
+    }
+    return ret;
+  }
+
+  @VisibleForTesting
+  int incrementSize() {
+    return increments.size();
+  }
+}
@@ -104,6 +104,10 @@ public class SessionRegistry implements Registry {
 
   @Autowired protected ConfigProvideDataWatcher configProvideDataWatcher;
 
+  @Autowired protected InterestFilterSyncer interestFilterSyncer;
+
+  @Autowired protected SlotWatermarkTracker slotWatermarkTracker;
+
   private final VersionWatchDog versionWatchDog = new VersionWatchDog();
 
   @PostConstruct
@@ -142,6 +146,8 @@ public class SessionRegistry implements Registry {
                     if (!sessionInterests.add(subscriber)) {
                       break;
                     }
+                    interestFilterSyncer.onInterest(subscriber.getDataInfoId());
+                    slotWatermarkTracker.onInterest(subscriber.getDataInfoId());
 
                     sessionRegistryStrategy.afterSubscriberRegister(subscriber);
                     break;
@@ -348,6 +354,7 @@ public class SessionRegistry implements Registry {
     boolean prevStopPushSwitch;
     long scanRound;
     long lastScanTimestamp;
+    long lastFullScanTimestamp;
 
     @Override
     public void runUnthrowable() {
@@ -362,8 +369,16 @@ public class SessionRegistry implements Registry {
           final long now = System.currentTimeMillis();
           // abs avoid the clock attack
           if (Math.abs(now - lastScanTimestamp) >= intervalMillis || prevStopPushSwitch) {
+            // scan all the slots periodically even if the watermarks are matched
+            final boolean full =
+                Math.abs(now - lastFullScanTimestamp)
+                        >= sessionServerConfig.getScanSubscriberFullIntervalSecs() * 1000L
+                    || prevStopPushSwitch;
+            if (full) {
+              lastFullScanTimestamp = now;
+            }
             try {
-              scanSubscribers(scanRound++);
+              scanSubscribers(scanRound++, full);
             } finally {
               lastScanTimestamp = System.currentTimeMillis();
             }
@@ -381,28 +396,33 @@ public class SessionRegistry implements Registry {
     }
   }
 
-  private Tuple<Map<String, DatumVersion>, List<Subscriber>> selectSubscribers(
+  private Tuple<Map<Integer, Map<String, DatumVersion>>, List<Subscriber>> selectSubscribers(
       long round, String dataCenter) {
     final long start = System.currentTimeMillis();
-    Tuple<Map<String, DatumVersion>, List<Subscriber>> tuple =
+    Tuple<Map<Integer, Map<String, DatumVersion>>, List<Subscriber>> tuple =
         sessionInterests.selectSubscribers(dataCenter);
+    int interestSize = 0;
+    for (Map<String, DatumVersion> versions : tuple.o1.values()) {
+      interestSize += versions.size();
+    }
     SCAN_VER_LOGGER.info(
-        "[select]round={}, interestSize={}, pushEmptySize={}, span={}",
+        "[select]round={}, slotSize={}, interestSize={}, pushEmptySize={}, span={}",
         round,
         tuple.o1.size(),
+        interestSize,
         tuple.o2.size(),
         System.currentTimeMillis() - start);
     return tuple;
   }
 
-  private void scanSubscribers(long round) {
+  private void scanSubscribers(long round, boolean full) {
     final String dataCenter = sessionServerConfig.getSessionServerDataCenter();
-    final Tuple<Map<String, DatumVersion>, List<Subscriber>> tuple =
+    final Tuple<Map<Integer, Map<String, DatumVersion>>, List<Subscriber>> tuple =
         selectSubscribers(round, dataCenter);
-    final Map<String, DatumVersion> interestVersions = tuple.o1;
+    final Map<Integer, Map<String, DatumVersion>> interestVersions = tuple.o1;
     final List<Subscriber> toPushEmptySubscribers = tuple.o2;
     try {
-      scanVersions(round, dataCenter, interestVersions);
+      scanVersions(round, dataCenter, interestVersions, full);
     } catch (Throwable e) {
       SCAN_VER_LOGGER.error("failed to scan version", e);
     }
@@ -410,20 +430,34 @@ public class SessionRegistry implements Registry {
   }
 
   private void scanVersions(
-      long round, String dataCenter, Map<String, DatumVersion> interestVersions) {
-    Map<Integer, Map<String, DatumVersion>> interestVersionsGroup = groupBySlot(interestVersions);
-
+      long round,
+      String dataCenter,
+      Map<Integer, Map<String, DatumVersion>> interestVersionsGroup,
+      boolean full) {
     Map<Integer, FetchVersionResult> resultMap =
-        Maps.newHashMapWithExpectedSize(interestVersions.size());
+        Maps.newHashMapWithExpectedSize(interestVersionsGroup.size());
+    final long now = System.currentTimeMillis();
+    int stableCount = 0;
     for (Map.Entry<Integer, Map<String, DatumVersion>> group : interestVersionsGroup.entrySet()) {
       final Integer slotId = group.getKey();
+      // the watermark of the leader matched, no changes are missed
+      if (!full
+          && slotWatermarkTracker.isStable(
+              slotId, slotTableCache.getLeader(slotId), now, group.getValue())) {
+        stableCount++;
+        continue;
+      }
+      slotWatermarkTracker.onScan(slotId);
       try {
         final FetchVersionResult result =
             fetchDataVersionAsync(dataCenter, slotId, group.getValue(), round);
         if (result != null) {
           resultMap.put(slotId, result);
+        } else {
+          slotWatermarkTracker.markDirty(slotId);
         }
       } catch (Throwable e) {
+        slotWatermarkTracker.markDirty(slotId);
         SCAN_VER_LOGGER.error(
             "round={}, failed to fetch versions slotId={}, size={}",
             round,
@@ -432,6 +466,12 @@ public class SessionRegistry implements Registry {
             e);
       }
     }
+    SCAN_VER_LOGGER.info(
+        "[scan]round={}, full={}, slotSize={}, stableSize={}",
+        round,
+        full,
+        interestVersionsGroup.size(),
+        stableCount);
     final int timeoutMillis = sessionServerConfig.getDataNodeExchangeTimeoutMillis();
     final long waitDeadline = System.currentTimeMillis() + timeoutMillis + 2000;
     // wait async finish
@@ -463,13 +503,16 @@ public class SessionRegistry implements Registry {
       }
       it.remove();
       count++;
-      // success
-      if (result.callback.versions != null) {
+      if (result.callback.versions == null) {
+        // failed, scan it in next round
+        slotWatermarkTracker.markDirty(e.getKey());
+      } else {
         final long now = System.currentTimeMillis();
         for (Map.Entry<String, DatumVersion> version : result.callback.versions.entrySet()) {
           final String dataInfoId = version.getKey();
           final long verVal = version.getValue().getValue();
           if (sessionInterests.checkInterestVersion(dataCenter, dataInfoId, verVal).interested) {
+            slotWatermarkTracker.onNotify(dataCenter, dataInfoId, verVal);
             TriggerPushContext ctx = new TriggerPushContext(dataCenter, verVal, result.leader, now);
             firePushService.fireOnChange(dataInfoId, ctx);
             SCAN_VER_LOGGER.info(
@@ -504,22 +547,6 @@ public class SessionRegistry implements Registry {
     }
   }
 
-  private Map<Integer, Map<String, DatumVersion>> groupBySlot(
-      Map<String, DatumVersion> interestVersions) {
-    if (CollectionUtils.isEmpty(interestVersions)) {
-      return Collections.emptyMap();
-    }
-    TreeMap<Integer, Map<String, DatumVersion>> ret = Maps.newTreeMap();
-    for (Map.Entry<String, DatumVersion> interestVersion : interestVersions.entrySet()) {
-      final String dataInfoId = interestVersion.getKey();
-      Map<String, DatumVersion> map =
-          ret.computeIfAbsent(
-              slotTableCache.slotOf(dataInfoId), k -> Maps.newHashMapWithExpectedSize(256));
-      map.put(dataInfoId, interestVersion.getValue());
-    }
-    return ret;
-  }
-
   private static final class FetchVersionResult {
     final String leader;
     final int slotId;
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.registry;
+
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.sessionserver.DataSlotWatermarkRequest;
+import com.alipay.sofa.registry.common.model.sessionserver.SlotWatermark;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.server.session.slot.SlotTableCache;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import java.util.Iterator;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * track the checksums of the changes received from the slot leaders and compare them with the
+ * watermarks sent by the leaders. the slot is stable if the last watermark matched recently, the
+ * version scan of the stable slot could be skipped. after a gap or a leader change, the slot is
+ * marked as dirty and scanned in the next round. the notified versions are also tracked until the
+ * subscribers are pushed, the failed fetch or push keeps the slot in the scan
+ */
+public class SlotWatermarkTracker {
+  private static final Logger LOGGER = LoggerFactory.getLogger("SCAN-VER");
+
+  @Autowired SessionServerConfig sessionServerConfig;
+
+  @Autowired SlotTableCache slotTableCache;
+
+  private final Map<Integer, SlotState> slots = Maps.newConcurrentMap();
+
+  public void onChange(String dataNode, String dataCenter, Map<String, DatumVersion> versions) {
+    if (!isEnable(dataCenter)) {
+      return;
+    }
+    for (Map.Entry<String, DatumVersion> e : versions.entrySet()) {
+      final String dataInfoId = e.getKey();
+      final int slotId = slotTableCache.slotOf(dataInfoId);
+      if (!dataNode.equals(slotTableCache.getLeader(slotId))) {
+        continue;
+      }
+      slots
+          .computeIfAbsent(slotId, k -> new SlotState())
+          .receive(dataNode, SlotWatermark.versionHash(dataInfoId, e.getValue().getValue()));
+    }
+  }
+
+  public int onWatermark(String dataNode, DataSlotWatermarkRequest request) {
+    if (!isEnable(request.getDataCenter())) {
+      return 0;
+    }
+    final long now = System.currentTimeMillis();
+    int mismatch = 0;
+    for (Map.Entry<Integer, SlotWatermark> e : request.getWatermarks().entrySet()) {
+      final int slotId = e.getKey();
+      if (!dataNode.equals(slotTableCache.getLeader(slotId))) {
+        continue;
+      }
+      final SlotState state = slots.computeIfAbsent(slotId, k -> new SlotState());
+      final SlotWatermark watermark = e.getValue();
+      if (!state.check(dataNode, watermark, now)) {
+        mismatch++;
+        LOGGER.info("[WatermarkMismatch]{},{},{}", slotId, dataNode, watermark);
+      }
+    }
+    return mismatch;
+  }
+
+  /** the change of the dataInfoId is going to be pushed to the subscribers */
+  public void onNotify(String dataCenter, String dataInfoId, long version) {
+    if (!isEnable(dataCenter)) {
+      return;
+    }
+    slots
+        .computeIfAbsent(slotTableCache.slotOf(dataInfoId), k -> new SlotState())
+        .notify(dataInfoId, version);
+  }
+
+  /** the subscribed dataInfoId may be filtered by data before the interest filter synced */
+  public void onInterest(String dataInfoId) {
+    if (sessionServerConfig.isInterestFilterSyncEnable()) {
+      markDirty(slotTableCache.slotOf(dataInfoId));
+    }
+  }
+
+  public void markDirty(int slotId) {
+    final SlotState state = slots.get(slotId);
+    if (state != null) {
+      state.dirty = true;
+    }
+  }
+
+  /**
+   * @param slotId
+   * @param leader
+   * @param now
+   * @param interestVersions the pushed versions of the subscribers in the slot
+   * @return true if no changes are missed and the notified versions are pushed
+   */
+  public boolean isStable(
+      int slotId, String leader, long now, Map<String, DatumVersion> interestVersions) {
+    if (!sessionServerConfig.isDataSlotWatermarkEnable()) {
+      return false;
+    }
+    final SlotState state = slots.get(slotId);
+    if (state == null
+        || !state.isStable(leader, now, sessionServerConfig.getDataSlotWatermarkExpireMillis())) {
+      return false;
+    }
+    for (DatumVersion version : interestVersions.values()) {
+      // the subscriber not pushed yet, e.g. the fetch of the register failed
+      if (version.getValue() == 0) {
+        return false;
+      }
+    }
+    return state.isPushed(interestVersions);
+  }
+
+  /** the versions of the slot is going to be scanned */
+  public void onScan(int slotId) {
+    final SlotState state = slots.get(slotId);
+    if (state != null) {
+      state.dirty = false;
+    }
+  }
+
+  private boolean isEnable(String dataCenter) {
+    return sessionServerConfig.isDataSlotWatermarkEnable()
+        && sessionServerConfig.getSessionServerDataCenter().equals(dataCenter);
+  }
+
+  static final class SlotState {
+    String leader;
+    long leaderEpoch;
+    long checksum;
+    long verifiedTimestamp;
+    volatile boolean dirty;
+    // dataInfoId -> the max version notified but not pushed yet
+    final Map<String, Long> notified = Maps.newHashMap();
+
+    synchronized void receive(String dataNode, long hash) {
+      // the changes from the previous leader are dropped, the state is reset by the watermark
+      if (dataNode.equals(leader)) {
+        checksum += hash;
+      }
+    }
+
+    synchronized boolean check(String dataNode, SlotWatermark watermark, long now) {
+      if (watermark.isGap()
+          || !dataNode.equals(leader)
+          || leaderEpoch != watermark.getLeaderEpoch()
+          || checksum != watermark.getChecksum()) {
+        // rebase on the watermark, the next scan covers the changes before it
+        leader = dataNode;
+        leaderEpoch = watermark.getLeaderEpoch();
+        checksum = watermark.getChecksum();
+        dirty = true;
+        return false;
+      }
+      verifiedTimestamp = now;
+      return true;
+    }
+
+    synchronized void notify(String dataInfoId, long version) {
+      notified.merge(dataInfoId, version, Math::max);
+    }
+
+    synchronized boolean isPushed(Map<String, DatumVersion> interestVersions) {
+      final Iterator<Map.Entry<String, Long>> it = notified.entrySet().iterator();
+      while (it.hasNext()) {
+        final Map.Entry<String, Long> e = it.next();
+        final DatumVersion pushed = interestVersions.get(e.getKey());
+        // no subscribers or pushed
+        if (pushed == null || pushed.getValue() >= e.getValue()) {
+          it.remove();
+        } else {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    synchronized boolean isStable(String dataNode, long now, int expireMillis) {
+      return !dirty && dataNode.equals(leader) && Math.abs(now - verifiedTimestamp) <= expireMillis;
+    }
+  }
+
+  @VisibleForTesting
+  SlotState getSlotState(int slotId) {
+    return slots.get(slotId);
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.remoting.handler;
+
+import com.alipay.sofa.registry.core.model.BaseRegister;
+import com.alipay.sofa.registry.core.model.BatchRegisterRequest;
+import com.alipay.sofa.registry.core.model.BatchRegisterResponse;
+import com.alipay.sofa.registry.core.model.ConfiguratorRegister;
+import com.alipay.sofa.registry.core.model.PublisherRegister;
+import com.alipay.sofa.registry.core.model.RegisterResponse;
+import com.alipay.sofa.registry.core.model.SubscriberRegister;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.server.session.strategy.PublisherHandlerStrategy;
+import com.alipay.sofa.registry.server.session.strategy.SubscriberHandlerStrategy;
+import com.alipay.sofa.registry.server.session.strategy.WatcherHandlerStrategy;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/** handle the registers which the client sends in one round trip, responses keep request order */
+public class BatchRegisterHandler extends AbstractClientDataRequestHandler<BatchRegisterRequest> {
+  private static final Logger LOGGER = LoggerFactory.getLogger(BatchRegisterHandler.class);
+
+  @Autowired PublisherHandlerStrategy publisherHandlerStrategy;
+
+  @Autowired SubscriberHandlerStrategy subscriberHandlerStrategy;
+
+  @Autowired WatcherHandlerStrategy watcherHandlerStrategy;
+
+  @Autowired SessionServerConfig sessionServerConfig;
+
+  @Override
+  public void checkParam(BatchRegisterRequest request) {
+    ParaCheckUtil.checkNotNull(request.getRequests(), "request.requests");
+  }
+
+  @Override
+  public Object doHandle(Channel channel, BatchRegisterRequest request) {
+    List<RegisterResponse> responses = new ArrayList<>(request.getRequests().size());
+    List<Integer> subscriberIndexes = new ArrayList<>();
+    for (BaseRegister register : request.getRequests()) {
+      RegisterResponse response = new RegisterResponse();
+      if (register instanceof PublisherRegister) {
+        publisherHandlerStrategy.handlePublisherRegister(
+            channel, (PublisherRegister) register, response);
+      } else if (register instanceof SubscriberRegister) {
+        // handled by the sub executor later as SubscriberHandler does
+        subscriberIndexes.add(responses.size());
+      } else if (register instanceof ConfiguratorRegister) {
+        watcherHandlerStrategy.handleConfiguratorRegister(
+            channel, (ConfiguratorRegister) register, response);
+      } else {
+        response.setSuccess(false);
+        response.setMessage("unsupported register type: " + register);
+      }
+      responses.add(response);
+    }
+    if (!subscriberIndexes.isEmpty()) {
+      List<SubscriberRegister> subscribers = new ArrayList<>(subscriberIndexes.size());
+      for (int index : subscriberIndexes) {
+        subscribers.add((SubscriberRegister) request.getRequests().get(index));
+      }
+      List<RegisterResponse> subscriberResponses = handleSubscribers(channel, subscribers);
+      for (int i = 0; i < subscriberIndexes.size(); i++) {
+        responses.set(subscriberIndexes.get(i), subscriberResponses.get(i));
+      }
+    }
+    return new BatchRegisterResponse(responses);
+  }
+
+  private List<RegisterResponse> handleSubscribers(
+      Channel channel, List<SubscriberRegister> subscribers) {
+    FutureTask<List<RegisterResponse>> task =
+        new FutureTask<>(
+            () -> {
+              List<RegisterResponse> responses = new ArrayList<>(subscribers.size());
+              for (SubscriberRegister subscriber : subscribers) {
+                RegisterResponse response = new RegisterResponse();
+                subscriberHandlerStrategy.handleSubscriberRegister(channel, subscriber, response);
+                responses.add(response);
+              }
+              return responses;
+            });
+    try {
+      // the rejected task is dropped by the sub executor, so wait with the client timeout
+      executorManager.getAccessSubExecutor().execute(task);
+      return task.get(
+          sessionServerConfig.getClientNodeExchangeTimeoutMillis(), TimeUnit.MILLISECONDS);
+    } catch (Throwable e) {
+      task.cancel(false);
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      LOGGER.error("failed to handle batch subscribers, size={}", subscribers.size(), e);
+      List<RegisterResponse> responses = new ArrayList<>(subscribers.size());
+      for (int i = 0; i < subscribers.size(); i++) {
+        RegisterResponse response = new RegisterResponse();
+        response.setSuccess(false);
+        response.setMessage("handle subscriber failed: " + e);
+        responses.add(response);
+      }
+      return responses;
+    }
+  }
+
+  @Override
+  public Class interest() {
+    return BatchRegisterRequest.class;
+  }
+}
@@ -28,6 +28,7 @@ import com.alipay.sofa.registry.server.session.cache.CacheService;
 import com.alipay.sofa.registry.server.session.push.FirePushService;
 import com.alipay.sofa.registry.server.session.push.PushSwitchService;
 import com.alipay.sofa.registry.server.session.push.TriggerPushContext;
+import com.alipay.sofa.registry.server.session.registry.SlotWatermarkTracker;
 import com.alipay.sofa.registry.server.session.store.Interests;
 import com.alipay.sofa.registry.server.shared.remoting.AbstractClientHandler;
 import com.alipay.sofa.registry.server.shared.remoting.RemotingHelper;
@@ -57,6 +58,8 @@ public class DataChangeRequestHandler extends AbstractClientHandler<DataChangeRe
 
   @Autowired CacheService sessionCacheService;
 
+  @Autowired SlotWatermarkTracker slotWatermarkTracker;
+
   @Override
   protected NodeType getConnectNodeType() {
     return NodeType.DATA;
@@ -76,10 +79,12 @@ public class DataChangeRequestHandler extends AbstractClientHandler<DataChangeRe
   @Override
   public Object doHandle(Channel channel, DataChangeRequest dataChangeRequest) {
     if (!pushSwitchService.canPush()) {
+      // the watermarks mismatch while stop push, the full scan after resume covers them
       return null;
     }
     final String dataNode = RemotingHelper.getRemoteHostAddress(channel);
     final String dataCenter = dataChangeRequest.getDataCenter();
+    slotWatermarkTracker.onChange(dataNode, dataCenter, dataChangeRequest.getDataInfoIds());
     final long changeTimestamp = System.currentTimeMillis();
     for (Map.Entry<String, DatumVersion> e : dataChangeRequest.getDataInfoIds().entrySet()) {
       final String dataInfoId = e.getKey();
@@ -93,6 +98,7 @@ public class DataChangeRequestHandler extends AbstractClientHandler<DataChangeRe
         }
         continue;
       }
+      slotWatermarkTracker.onNotify(dataCenter, dataInfoId, version.getValue());
       final TriggerPushContext changeCtx =
           new TriggerPushContext(
               dataCenter,
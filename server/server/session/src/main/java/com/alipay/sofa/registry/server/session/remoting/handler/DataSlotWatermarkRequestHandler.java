@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.remoting.handler;
+
+import com.alipay.sofa.registry.common.model.Node.NodeType;
+import com.alipay.sofa.registry.common.model.sessionserver.DataSlotWatermarkRequest;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.session.bootstrap.ExecutorManager;
+import com.alipay.sofa.registry.server.session.registry.SlotWatermarkTracker;
+import com.alipay.sofa.registry.server.shared.remoting.AbstractClientHandler;
+import com.alipay.sofa.registry.server.shared.remoting.RemotingHelper;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/** handle the watermarks of the slots sent by the data leader */
+public class DataSlotWatermarkRequestHandler
+    extends AbstractClientHandler<DataSlotWatermarkRequest> {
+
+  @Autowired ExecutorManager executorManager;
+
+  @Autowired SlotWatermarkTracker slotWatermarkTracker;
+
+  @Override
+  protected NodeType getConnectNodeType() {
+    return NodeType.DATA;
+  }
+
+  @Override
+  public Executor getExecutor() {
+    return executorManager.getDataChangeRequestExecutor();
+  }
+
+  @Override
+  public void checkParam(DataSlotWatermarkRequest request) {
+    ParaCheckUtil.checkNotBlank(request.getDataCenter(), "request.dataCenter");
+    ParaCheckUtil.checkNotNull(request.getWatermarks(), "request.watermarks");
+  }
+
+  @Override
+  public Object doHandle(Channel channel, DataSlotWatermarkRequest request) {
+    slotWatermarkTracker.onWatermark(RemotingHelper.getRemoteHostAddress(channel), request);
+    return null;
+  }
+
+  @Override
+  public Class interest() {
+    return DataSlotWatermarkRequest.class;
+  }
+}
@@ -16,23 +16,132 @@
  */
 package com.alipay.sofa.registry.server.session.resource;
 
+import com.alipay.sofa.registry.common.model.CommonResponse;
+import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.metaserver.CompressPushSwitch;
+import com.alipay.sofa.registry.compress.CompressUtils;
+import com.alipay.sofa.registry.compress.Compressor;
+import com.alipay.sofa.registry.compress.ZstdDictSampler;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.session.converter.pb.ReceivedDataConvertor;
 import com.alipay.sofa.registry.server.session.providedata.CompressPushService;
+import com.google.common.collect.Maps;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
 import javax.annotation.Resource;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
+import org.apache.commons.lang.StringUtils;
 
 /*
 temp set current session push compress switch
 */
 @Path("compress")
 public class CompressResource {
+  private static final Logger LOGGER = LoggerFactory.getLogger(CompressResource.class);
+
   @Resource CompressPushService compressPushService;
 
+  ZstdDictSampler pushSampler = ReceivedDataConvertor.pushSampler;
+
   @GET
   @Path("push/state")
   @Produces(MediaType.APPLICATION_JSON)
   public CompressPushSwitch getCurrentSwitch() {
     return compressPushService.getCompressSwitch();
   }
+
+  /** encoding -> dictionary(base64) of the registered zstd dictionaries */
+  @GET
+  @Path("dict/query")
+  @Produces(MediaType.APPLICATION_JSON)
+  public Map<String, String> queryDicts() {
+    Map<String, String> ret = Maps.newHashMap();
+    for (Compressor.ZstdDictCompressor compressor : CompressUtils.getZstdDictCompressors()) {
+      ret.put(compressor.getEncoding(), Base64.getEncoder().encodeToString(compressor.getDict()));
+    }
+    return ret;
+  }
+
+  /** start sampling the push payloads for dict/train */
+  @POST
+  @Path("dict/sample/start")
+  @Produces(MediaType.APPLICATION_JSON)
+  public CommonResponse startSample() {
+    pushSampler.start();
+    LOGGER.info("start sampling push payloads");
+    return CommonResponse.buildSuccessResponse();
+  }
+
+  /** stop sampling and drop the sampled push payloads */
+  @POST
+  @Path("dict/sample/stop")
+  @Produces(MediaType.APPLICATION_JSON)
+  public CommonResponse stopSample() {
+    pushSampler.stop();
+    LOGGER.info("stop sampling push payloads");
+    return CommonResponse.buildSuccessResponse();
+  }
+
+  @GET
+  @Path("dict/sample/state")
+  @Produces(MediaType.APPLICATION_JSON)
+  public Map<String, Object> sampleState() {
+    Map<String, Object> ret = Maps.newHashMap();
+    ret.put("enabled", pushSampler.isEnabled());
+    ret.put("samples", pushSampler.size());
+    ret.put("bytes", pushSampler.totalBytes());
+    return ret;
+  }
+
+  /**
+   * train the zstd dictionary with the sampled push payloads and register it, the dictionary could
+   * be registered to other sessions by dict/add. the sampling is stopped and the samples are
+   * dropped after training
+   */
+  @POST
+  @Path("dict/train")
+  @Produces(MediaType.APPLICATION_JSON)
+  public GenericResponse<String> trainDict(@FormParam("dictSize") int dictSize) {
+    if (dictSize <= 0) {
+      return new GenericResponse<String>().fillFailed("dictSize must be positive");
+    }
+    final List<byte[]> samples = pushSampler.getSamples();
+    if (samples.isEmpty()) {
+      return new GenericResponse<String>().fillFailed("no samples");
+    }
+    pushSampler.stop();
+    try {
+      byte[] dict = CompressUtils.trainZstdDict(samples, dictSize);
+      Compressor.ZstdDictCompressor compressor = CompressUtils.registerZstdDict(dict);
+      LOGGER.info(
+          "train zstd dict {}, samples={}, size={}",
+          compressor.getEncoding(),
+          samples.size(),
+          dict.length);
+      return new GenericResponse<String>().fillSucceed(compressor.getEncoding());
+    } catch (Throwable e) {
+      LOGGER.error("failed to train zstd dict, samples={}", samples.size(), e);
+      return new GenericResponse<String>().fillFailed(e.getMessage());
+    }
+  }
+
+  @POST
+  @Path("dict/add")
+  @Produces(MediaType.APPLICATION_JSON)
+  public GenericResponse<String> addDict(@FormParam("dict") String dict) {
+    if (StringUtils.isBlank(dict)) {
+      return new GenericResponse<String>().fillFailed("dict is blank");
+    }
+    try {
+      Compressor.ZstdDictCompressor compressor =
+          CompressUtils.registerZstdDict(Base64.getDecoder().decode(dict));
+      return new GenericResponse<String>().fillSucceed(compressor.getEncoding());
+    } catch (Throwable e) {
+      LOGGER.error("failed to add zstd dict", e);
+      return new GenericResponse<String>().fillFailed(e.getMessage());
+    }
+  }
 }
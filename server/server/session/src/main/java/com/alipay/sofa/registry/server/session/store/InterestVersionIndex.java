@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.store;
+
+import com.alipay.sofa.registry.common.model.Tuple;
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
+import com.alipay.sofa.registry.common.model.store.Subscriber;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * the interest versions of one dataCenter, grouped by slot. the index is maintained incrementally:
+ * the dataInfoIds whose subscribers changed are marked dirty, and only the dirty ones are
+ * recalculated when selecting
+ */
+final class InterestVersionIndex {
+  private final String dataCenter;
+  private final boolean isLocalDataCenter;
+  private final Store<Subscriber> store;
+
+  private final Set<String> dirtyDataInfoIds = ConcurrentHashMap.newKeySet();
+
+  // slotId -> {dataInfoId -> max pushed version}, the value is unmodifiable and copy on write,
+  // the unchanged slots could be shared between selects
+  private final TreeMap<Integer, Map<String, DatumVersion>> slotVersions = Maps.newTreeMap();
+
+  // dataInfoId -> the subscribers marked push empty
+  private final Map<String, List<Subscriber>> markedPushEmptySubscribers = Maps.newHashMap();
+
+  private boolean initialized;
+
+  InterestVersionIndex(String dataCenter, boolean isLocalDataCenter, Store<Subscriber> store) {
+    this.dataCenter = dataCenter;
+    this.isLocalDataCenter = isLocalDataCenter;
+    this.store = store;
+  }
+
+  void markDirty(String dataInfoId) {
+    dirtyDataInfoIds.add(dataInfoId);
+  }
+
+  synchronized Tuple<Map<Integer, Map<String, DatumVersion>>, List<Subscriber>> select() {
+    if (!initialized) {
+      // the index is visible to markDirty before the first select, nothing would be missed
+      dirtyDataInfoIds.addAll(store.getDataInfoIds());
+      initialized = true;
+    }
+    // slotId -> {dataInfoId -> version}, null version means remove
+    final Map<Integer, Map<String, DatumVersion>> updates = Maps.newHashMap();
+    final Iterator<String> it = dirtyDataInfoIds.iterator();
+    while (it.hasNext()) {
+      final String dataInfoId = it.next();
+      // remove before reading the subscribers, the concurrent modifications would mark it again
+      it.remove();
+      final DatumVersion version = refresh(dataInfoId);
+      updates
+          .computeIfAbsent(
+              SlotFunctionRegistry.getFunc().slotOf(dataInfoId), k -> Maps.newHashMap())
+          .put(dataInfoId, version);
+    }
+    for (Map.Entry<Integer, Map<String, DatumVersion>> e : updates.entrySet()) {
+      applySlotUpdates(e.getKey(), e.getValue());
+    }
+
+    final List<Subscriber> toPushEmptySubscribers = Lists.newArrayListWithCapacity(256);
+    for (List<Subscriber> subs : markedPushEmptySubscribers.values()) {
+      for (Subscriber sub : subs) {
+        if (sub.needPushEmpty(dataCenter)) {
+          toPushEmptySubscribers.add(sub);
+        }
+      }
+    }
+    return Tuple.of(
+        Collections.unmodifiableMap(Maps.newTreeMap(slotVersions)), toPushEmptySubscribers);
+  }
+
+  private DatumVersion refresh(String dataInfoId) {
+    final Map<String, Subscriber> subs = store.get(dataInfoId);
+    if (CollectionUtils.isEmpty(subs)) {
+      markedPushEmptySubscribers.remove(dataInfoId);
+      return null;
+    }
+    long maxVersion = 0;
+    List<Subscriber> markedPushEmpty = null;
+    for (Subscriber sub : subs.values()) {
+      // not global sub and not local dataCenter, not interest the other dataCenter's pub
+      if (sub.getScope() != ScopeEnum.global && !isLocalDataCenter) {
+        continue;
+      }
+      if (sub.isMarkedPushEmpty(dataCenter)) {
+        if (markedPushEmpty == null) {
+          markedPushEmpty = Lists.newArrayListWithCapacity(1);
+        }
+        markedPushEmpty.add(sub);
+        continue;
+      }
+      final long pushVersion = sub.getPushedVersion(dataCenter);
+      if (maxVersion < pushVersion) {
+        maxVersion = pushVersion;
+      }
+    }
+    if (markedPushEmpty == null) {
+      markedPushEmptySubscribers.remove(dataInfoId);
+    } else {
+      markedPushEmptySubscribers.put(dataInfoId, markedPushEmpty);
+    }
+    return DatumVersion.of(maxVersion);
+  }
+
+  private void applySlotUpdates(int slotId, Map<String, DatumVersion> updates) {
+    final Map<String, DatumVersion> prev = slotVersions.get(slotId);
+    Map<String, DatumVersion> next = null;
+    for (Map.Entry<String, DatumVersion> e : updates.entrySet()) {
+      final DatumVersion exist = prev == null ? null : prev.get(e.getKey());
+      final DatumVersion update = e.getValue();
+      if (exist == null ? update == null : exist.equals(update)) {
+        continue;
+      }
+      if (next == null) {
+        next =
+            prev == null ? Maps.newHashMapWithExpectedSize(updates.size()) : Maps.newHashMap(prev);
+      }
+      if (update == null) {
+        next.remove(e.getKey());
+      } else {
+        next.put(e.getKey(), update);
+      }
+    }
+    if (next == null) {
+      // nothing changed, keep the prev
+      return;
+    }
+    if (next.isEmpty()) {
+      slotVersions.remove(slotId);
+    } else {
+      slotVersions.put(slotId, Collections.unmodifiableMap(next));
+    }
+  }
+}
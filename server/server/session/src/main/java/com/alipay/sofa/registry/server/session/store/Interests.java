@@ -43,7 +43,22 @@ public interface Interests extends DataManager<Subscriber, String, String> {
 
   Collection<Subscriber> getInterests(String datumDataInfoId);
 
-  Tuple<Map<String, DatumVersion>, List<Subscriber>> selectSubscribers(String dataCenter);
+  /**
+   * select the max pushed versions of the interest dataInfoIds grouped by slot, and the subscribers
+   * need to push empty
+   *
+   * @param dataCenter
+   * @return slotId -> {dataInfoId -> version}, the subscribers to push empty
+   */
+  Tuple<Map<Integer, Map<String, DatumVersion>>, List<Subscriber>> selectSubscribers(
+      String dataCenter);
+
+  /**
+   * the pushed version or the push empty mark of the subscribers has changed
+   *
+   * @param dataInfoId
+   */
+  void onPushedVersionChanged(String dataInfoId);
 
   Map<String, List<String>> filterIPs(String group, int limit);
 
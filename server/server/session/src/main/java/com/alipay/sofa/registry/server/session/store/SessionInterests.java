@@ -16,18 +16,18 @@
  */
 package com.alipay.sofa.registry.server.session.store;
 
+import com.alipay.sofa.registry.common.model.ConnectId;
 import com.alipay.sofa.registry.common.model.Tuple;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.store.Subscriber;
-import com.alipay.sofa.registry.core.model.ScopeEnum;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.util.CollectionUtils;
@@ -46,6 +46,9 @@ public class SessionInterests extends AbstractDataManager<Subscriber> implements
 
   private final Store<Subscriber> store = new SimpleStore<>(1024 * 16, 256);
 
+  // dataCenter -> interest versions, refreshed by the changed dataInfoIds instead of a full scan
+  private final Map<String, InterestVersionIndex> versionIndexes = new ConcurrentHashMap<>();
+
   @Override
   public boolean add(Subscriber subscriber) {
     ParaCheckUtil.checkNotNull(subscriber.getScope(), "subscriber.scope");
@@ -53,6 +56,9 @@ public class SessionInterests extends AbstractDataManager<Subscriber> implements
 
     Subscriber.internSubscriber(subscriber);
     Tuple<Subscriber, Boolean> ret = addData(subscriber);
+    if (ret.o2) {
+      markVersionDirty(subscriber.getDataInfoId());
+    }
     return ret.o2;
   }
 
@@ -77,39 +83,45 @@ public class SessionInterests extends AbstractDataManager<Subscriber> implements
   }
 
   @Override
-  public Tuple<Map<String, DatumVersion>, List<Subscriber>> selectSubscribers(String dataCenter) {
-    final String localDataCenter = sessionServerConfig.getSessionServerDataCenter();
-    final boolean isLocalDataCenter = localDataCenter.equals(dataCenter);
-    Store<Subscriber> store = getStore();
-    final Map<String, DatumVersion> versions =
-        Maps.newHashMapWithExpectedSize(store.getDataInfoIds().size());
-    final List<Subscriber> toPushEmptySubscribers = Lists.newArrayListWithCapacity(256);
-
-    store.forEach(
-        (String dataInfoId, Map<String, Subscriber> subs) -> {
-          if (CollectionUtils.isEmpty(subs)) {
-            return;
-          }
-          long maxVersion = 0;
-          for (Subscriber sub : subs.values()) {
-            // not global sub and not local dataCenter, not interest the other dataCenter's pub
-            if (sub.getScope() != ScopeEnum.global && !isLocalDataCenter) {
-              continue;
-            }
-            if (sub.isMarkedPushEmpty(dataCenter)) {
-              if (sub.needPushEmpty(dataCenter)) {
-                toPushEmptySubscribers.add(sub);
-              }
-              continue;
-            }
-            final long pushVersion = sub.getPushedVersion(dataCenter);
-            if (maxVersion < pushVersion) {
-              maxVersion = pushVersion;
-            }
-          }
-          versions.put(dataInfoId, new DatumVersion(maxVersion));
-        });
-    return Tuple.of(versions, toPushEmptySubscribers);
+  public Tuple<Map<Integer, Map<String, DatumVersion>>, List<Subscriber>> selectSubscribers(
+      String dataCenter) {
+    InterestVersionIndex index = versionIndexes.get(dataCenter);
+    if (index == null) {
+      final String localDataCenter = sessionServerConfig.getSessionServerDataCenter();
+      index =
+          versionIndexes.computeIfAbsent(
+              dataCenter, k -> new InterestVersionIndex(k, localDataCenter.equals(k), getStore()));
+    }
+    return index.select();
+  }
+
+  @Override
+  public void onPushedVersionChanged(String dataInfoId) {
+    markVersionDirty(dataInfoId);
+  }
+
+  @Override
+  public Subscriber deleteById(String registerId, String dataInfoId) {
+    Subscriber deleted = super.deleteById(registerId, dataInfoId);
+    if (deleted != null) {
+      markVersionDirty(dataInfoId);
+    }
+    return deleted;
+  }
+
+  @Override
+  public Map<String, Subscriber> deleteByConnectId(ConnectId connectId) {
+    Map<String, Subscriber> deleted = super.deleteByConnectId(connectId);
+    for (Subscriber subscriber : deleted.values()) {
+      markVersionDirty(subscriber.getDataInfoId());
+    }
+    return deleted;
+  }
+
+  private void markVersionDirty(String dataInfoId) {
+    for (InterestVersionIndex index : versionIndexes.values()) {
+      index.markDirty(dataInfoId);
+    }
   }
 
   @Override
@@ -32,7 +32,9 @@ import com.alipay.sofa.registry.server.session.metadata.AppRevisionHeartbeatRegi
 import com.alipay.sofa.registry.server.session.strategy.AppRevisionHandlerStrategy;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.alipay.sofa.registry.util.StringFormatter;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 
 public class DefaultAppRevisionHandlerStrategy implements AppRevisionHandlerStrategy {
@@ -106,14 +108,16 @@ public class DefaultAppRevisionHandlerStrategy implements AppRevisionHandlerStra
     int statusCode = ValueConstants.METADATA_STATUS_PROCESS_SUCCESS;
     String queryRevision = null;
     try {
+      // the missing revisions are loaded in batch
+      Map<String, AppRevision> appRevisions = Collections.emptyMap();
+      try {
+        appRevisions = appRevisionCacheService.getRevisions(revisions);
+      } catch (Throwable e) {
+        LOG.error("query revisions {} error", revisions, e);
+      }
       for (String revision : revisions) {
         queryRevision = revision;
-        AppRevision appRevision = null;
-        try {
-          appRevision = appRevisionCacheService.getRevision(revision);
-        } catch (Throwable e) {
-          LOG.error("query revision {} error", queryRevision, e);
-        }
+        AppRevision appRevision = appRevisions.get(revision);
         if (appRevision == null) {
           statusCode = ValueConstants.METADATA_STATUS_DATA_NOT_FOUND;
           String msg = StringFormatter.format("query revision not found, {}", revision);
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.filter;
+
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IPMatcherTest {
+
+  @Test
+  public void testExact() {
+    IPMatcher matcher = IPMatcher.compile(Lists.newArrayList("192.168.1.1", " ", null, "abc"));
+    Assert.assertTrue(matcher.match("192.168.1.1"));
+    Assert.assertTrue(matcher.match("abc"));
+    Assert.assertFalse(matcher.match("192.168.1.2"));
+    Assert.assertFalse(matcher.match(null));
+    Assert.assertFalse(matcher.hasCidr());
+    Assert.assertFalse(matcher.isEmpty());
+
+    Assert.assertSame(IPMatcher.EMPTY, IPMatcher.compile(Collections.emptyList()));
+    Assert.assertSame(IPMatcher.EMPTY, IPMatcher.compile(null));
+    Assert.assertTrue(IPMatcher.EMPTY.isEmpty());
+    Assert.assertFalse(IPMatcher.EMPTY.match("192.168.1.1"));
+  }
+
+  @Test
+  public void testCidr() {
+    IPMatcher matcher =
+        IPMatcher.compile(
+            Lists.newArrayList("10.0.0.0/8", "10.1.0.0/16", "192.168.1.128/25", "1.2.3.4/32"));
+    Assert.assertTrue(matcher.hasCidr());
+    Assert.assertTrue(matcher.match("10.255.0.1"));
+    Assert.assertTrue(matcher.match("10.1.2.3"));
+    Assert.assertTrue(matcher.match("192.168.1.128"));
+    Assert.assertTrue(matcher.match("192.168.1.255"));
+    Assert.assertFalse(matcher.match("192.168.1.127"));
+    Assert.assertTrue(matcher.match("1.2.3.4"));
+    Assert.assertFalse(matcher.match("1.2.3.5"));
+    Assert.assertFalse(matcher.match("11.0.0.1"));
+    Assert.assertFalse(matcher.match("::1"));
+    Assert.assertFalse(matcher.match("not-an-ip"));
+
+    // the shorter prefix covers the longer one
+    matcher = IPMatcher.compile(Lists.newArrayList("10.1.0.0/16", "10.0.0.0/8"));
+    Assert.assertTrue(matcher.match("10.2.0.1"));
+
+    matcher = IPMatcher.compile(Lists.newArrayList("0.0.0.0/0"));
+    Assert.assertTrue(matcher.match("8.8.8.8"));
+    Assert.assertFalse(matcher.match("::1"));
+  }
+
+  @Test
+  public void testIpv6() {
+    IPMatcher matcher = IPMatcher.compile(Lists.newArrayList("fe80::/10", "2001:db8::1/128"));
+    Assert.assertTrue(matcher.match("fe80::1"));
+    Assert.assertTrue(matcher.match("febf::1"));
+    Assert.assertFalse(matcher.match("fec0::1"));
+    Assert.assertTrue(matcher.match("2001:db8::1"));
+    Assert.assertTrue(matcher.match("2001:0db8:0:0:0:0:0:1"));
+    Assert.assertFalse(matcher.match("2001:db8::2"));
+    Assert.assertFalse(matcher.match("10.0.0.1"));
+  }
+
+  @Test
+  public void testInvalid() {
+    IPMatcher matcher =
+        IPMatcher.compile(Lists.newArrayList("10.0.0.0/33", "10.0.0.0/-1", "abc/8", "10.0.0.0/x"));
+    Assert.assertFalse(matcher.hasCidr());
+    Assert.assertTrue(matcher.isEmpty());
+    Assert.assertFalse(matcher.match("10.0.0.1"));
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.node.service;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.alipay.remoting.exception.DeserializationException;
+import com.alipay.remoting.rpc.exception.InvokeServerException;
+import com.alipay.sofa.registry.common.model.dataserver.BatchRequest;
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotAccess;
+import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.remoting.exchange.NodeExchanger;
+import com.alipay.sofa.registry.remoting.exchange.RequestException;
+import com.alipay.sofa.registry.remoting.exchange.message.Request;
+import com.alipay.sofa.registry.remoting.exchange.message.Response;
+import com.alipay.sofa.registry.server.session.TestUtils;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import com.alipay.sofa.registry.server.session.slot.SlotTableCache;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DataNodeServiceImplTest {
+
+  @Test
+  public void testFetchMultiUnsupported() throws Exception {
+    DataNodeServiceImpl impl = new DataNodeServiceImpl();
+    impl.sessionServerConfig = TestUtils.newSessionConfig("testDc");
+    impl.slotTableCache = mock(SlotTableCache.class);
+    when(impl.slotTableCache.slotOf(anyString())).thenReturn(1);
+    when(impl.slotTableCache.getSlot(anyInt()))
+        .thenReturn(new Slot(1, "192.168.1.1", 1, Collections.emptyList()));
+    impl.dataNodeExchanger = mock(NodeExchanger.class);
+    when(impl.dataNodeExchanger.request(anyObject()))
+        .thenThrow(
+            new RequestException(
+                "test", new RuntimeException(new InvokeServerException("no processor"))));
+    Map<String, SubDatum> bases = Maps.newHashMap();
+    bases.put("testDataId1", null);
+    bases.put("testDataId2", null);
+    Assert.assertTrue(impl.fetchMulti("testDc", bases).isEmpty());
+    Assert.assertTrue(impl.multiFetchUnsupported.containsKey("192.168.1.1"));
+    // not retry until the retry timestamp
+    Assert.assertTrue(impl.fetchMulti("testDc", bases).isEmpty());
+    verify(impl.dataNodeExchanger, times(1)).request(anyObject());
+
+    impl.multiFetchUnsupported.put("192.168.1.1", System.currentTimeMillis() - 1);
+    Assert.assertTrue(impl.fetchMulti("testDc", bases).isEmpty());
+    verify(impl.dataNodeExchanger, times(2)).request(anyObject());
+
+    Assert.assertFalse(DataNodeServiceImpl.isUnsupported(new RequestException("test")));
+    Assert.assertTrue(
+        DataNodeServiceImpl.isUnsupported(
+            new RequestException("test", new DeserializationException("test"))));
+  }
+
+  @Test
+  public void testWorkerPipeline() throws Exception {
+    DataNodeServiceImpl impl = new DataNodeServiceImpl();
+    SessionServerConfigBean config = TestUtils.newSessionConfig("testDc");
+    config.setDataNodeMaxInflightPerServer(1);
+    config.setDataNodeRetryBackoffMillis(0);
+    config.setDataNodeRetryTimes(1);
+    impl.sessionServerConfig = config;
+    impl.slotTableCache = mock(SlotTableCache.class);
+    when(impl.slotTableCache.getEpoch()).thenReturn(10L);
+    when(impl.slotTableCache.getSlot(anyInt()))
+        .thenAnswer(
+            invocation -> {
+              int slotId = (Integer) invocation.getArguments()[0];
+              // slot 1, 2 -> 192.168.1.1, slot 3 -> 192.168.1.2, slot 4 -> 192.168.1.3
+              String leader =
+                  slotId <= 2 ? "192.168.1.1" : (slotId == 3 ? "192.168.1.2" : "192.168.1.3");
+              return new Slot(slotId, leader, 1, Collections.emptyList());
+            });
+    List<Request> requests = Lists.newArrayList();
+    impl.dataNodeExchanger = mock(NodeExchanger.class);
+    when(impl.dataNodeExchanger.request(anyObject()))
+        .thenAnswer(
+            invocation -> {
+              Request req = (Request) invocation.getArguments()[0];
+              if (req.getRequestUrl().getIpAddress().equals("192.168.1.3")) {
+                throw new RequestException("test");
+              }
+              requests.add(req);
+              return (Response) () -> Response.ResultStatus.SUCCESSFUL;
+            });
+
+    LinkedBlockingQueue<DataNodeServiceImpl.Req> queue = new LinkedBlockingQueue<>();
+    DataNodeServiceImpl.Worker worker = impl.new Worker(queue);
+    Publisher p1 = TestUtils.createTestPublisher("testDataId1");
+    Publisher p2 = TestUtils.createTestPublisher("testDataId2");
+    Publisher p3 = TestUtils.createTestPublisher("testDataId3");
+    Publisher p4 = TestUtils.createTestPublisher("testDataId4");
+    queue.add(new DataNodeServiceImpl.Req(1, p1));
+    queue.add(new DataNodeServiceImpl.Req(2, p2));
+    queue.add(new DataNodeServiceImpl.Req(3, p3));
+    queue.add(new DataNodeServiceImpl.Req(1, p4));
+    worker.runOnce(1);
+    // slot 2 waits for 192.168.1.1, slot 3 is not blocked by 192.168.1.1
+    Assert.assertEquals(requests.size(), 2);
+    BatchRequest batch1 = (BatchRequest) requests.get(0).getRequestBody();
+    Assert.assertEquals(batch1.getSlotId(), 1);
+    Assert.assertEquals(batch1.getRequest(), Lists.newArrayList(p1, p4));
+    Assert.assertEquals(batch1.getSlotTableEpoch(), 10);
+    BatchRequest batch3 = (BatchRequest) requests.get(1).getRequestBody();
+    Assert.assertEquals(batch3.getSlotId(), 3);
+    Assert.assertEquals(worker.pendingSize, 1);
+
+    // slot 1 finish, slot 2 could send
+    requests.get(0).getCallBackHandler().onCallback(null, success(1));
+    worker.runOnce(1);
+    Assert.assertEquals(requests.size(), 3);
+    Assert.assertEquals(((BatchRequest) requests.get(2).getRequestBody()).getSlotId(), 2);
+    Assert.assertEquals(worker.slots.size(), 2);
+    Assert.assertEquals(worker.pendingSize, 0);
+
+    // slot 3 failed, retry the same batch
+    requests.get(1).getCallBackHandler().onException(null, new Exception("test"));
+    worker.runOnce(1);
+    Assert.assertEquals(requests.size(), 4);
+    Assert.assertSame(requests.get(3).getRequestBody(), batch3);
+
+    // slot 3 failed again, discard it
+    requests
+        .get(3)
+        .getCallBackHandler()
+        .onCallback(null, SlotAccessGenericResponse.failedResponse("test"));
+    requests.get(2).getCallBackHandler().onCallback(null, success(2));
+    worker.runOnce(1);
+    Assert.assertEquals(requests.size(), 4);
+    Assert.assertEquals(worker.slots.size(), 0);
+
+    // request throws exception, the inflight is released and retried
+    queue.add(new DataNodeServiceImpl.Req(4, p1));
+    worker.runOnce(1);
+    Assert.assertEquals(worker.slots.size(), 1);
+    worker.runOnce(1);
+    Assert.assertEquals(worker.slots.size(), 1);
+    worker.runOnce(1);
+    Assert.assertEquals(worker.slots.size(), 0);
+    Assert.assertEquals(requests.size(), 4);
+  }
+
+  private static SlotAccessGenericResponse success(int slotId) {
+    return SlotAccessGenericResponse.successResponse(
+        new SlotAccess(slotId, 10, SlotAccess.Status.Accept, 1), null);
+  }
+}
@@ -14,9 +14,12 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package com.alipay.sofa.registry.server.session.filter.blacklist;
+package com.alipay.sofa.registry.server.session.providedata;
 
-import com.alipay.sofa.registry.server.session.providedata.FetchBlackListService;
+import com.alipay.sofa.registry.server.session.filter.blacklist.BlacklistConfig;
+import com.alipay.sofa.registry.server.session.filter.blacklist.BlacklistConstants;
+import com.alipay.sofa.registry.server.session.filter.blacklist.DefaultIPMatchStrategy;
+import com.alipay.sofa.registry.server.session.filter.blacklist.MatchType;
 import java.util.Collections;
 import java.util.List;
 import org.assertj.core.util.Lists;
@@ -30,23 +33,27 @@ public class DefaultIPMatchStrategyTest {
     DefaultIPMatchStrategy strategy = new DefaultIPMatchStrategy();
     FetchBlackListService mgr = new FetchBlackListService();
     strategy.setFetchBlackListService(mgr);
-    mgr.getBlacklistConfigList()
-        .add(getIpConfig(BlacklistConstants.FORBIDDEN_PUB + "1", Collections.emptyList()));
+    long version = 0;
+    List<BlacklistConfig> configs = Lists.newArrayList();
+    configs.add(getIpConfig(BlacklistConstants.FORBIDDEN_PUB + "1", Collections.emptyList()));
 
+    mgr.setBlacklistConfigList(++version, configs);
     Assert.assertFalse(strategy.match("192.168.1.1", () -> BlacklistConstants.FORBIDDEN_PUB));
 
-    mgr.getBlacklistConfigList()
-        .add(getIpConfig(BlacklistConstants.FORBIDDEN_PUB, Collections.emptyList()));
+    configs.add(getIpConfig(BlacklistConstants.FORBIDDEN_PUB, Collections.emptyList()));
+    mgr.setBlacklistConfigList(++version, configs);
     Assert.assertFalse(strategy.match("192.168.1.1", () -> BlacklistConstants.FORBIDDEN_PUB));
 
     List<MatchType> types = Lists.newArrayList();
     MatchType m = new MatchType();
     m.setType(BlacklistConstants.IP_FULL);
     types.add(m);
-    mgr.getBlacklistConfigList().add(getIpConfig(BlacklistConstants.FORBIDDEN_PUB, types));
+    configs.add(getIpConfig(BlacklistConstants.FORBIDDEN_PUB, types));
+    mgr.setBlacklistConfigList(++version, configs);
     Assert.assertFalse(strategy.match("192.168.1.1", () -> BlacklistConstants.FORBIDDEN_PUB));
 
     m.setPatternSet(Sets.newSet("192.168.1.2"));
+    mgr.setBlacklistConfigList(++version, configs);
     Assert.assertFalse(strategy.match("192.168.1.1", () -> BlacklistConstants.FORBIDDEN_PUB));
 
     m.setPatternSet(Sets.newSet("192.168.1.2", "192.168.1.1"));
@@ -55,7 +62,32 @@ public class DefaultIPMatchStrategyTest {
         mgr.getBlacklistConfigList().toString(),
         mgr.getBlacklistConfigList().toString().contains("192.168.1.1"));
 
+    // the patterns are compiled when the blacklist is set
+    Assert.assertFalse(strategy.match("192.168.1.1", () -> BlacklistConstants.FORBIDDEN_PUB));
+    mgr.setBlacklistConfigList(++version, configs);
     Assert.assertTrue(strategy.match("192.168.1.1", () -> BlacklistConstants.FORBIDDEN_PUB));
+    Assert.assertFalse(
+        strategy.match("192.168.1.1", () -> BlacklistConstants.FORBIDDEN_SUB_BY_PREFIX));
+
+    MatchType cidr = new MatchType();
+    cidr.setType(BlacklistConstants.IP_CIDR);
+    cidr.setPatternSet(Sets.newSet("10.1.0.0/16", "fe80::/10", "bad/99"));
+    configs.add(getIpConfig(BlacklistConstants.FORBIDDEN_SUB_BY_PREFIX, Lists.newArrayList(cidr)));
+    // the getter is a frozen view, the matchers only change by set
+    try {
+      mgr.getBlacklistConfigList().add(configs.get(configs.size() - 1));
+      Assert.fail();
+    } catch (UnsupportedOperationException e) {
+      // expect
+    }
+    Assert.assertFalse(
+        strategy.match("10.1.2.3", () -> BlacklistConstants.FORBIDDEN_SUB_BY_PREFIX));
+    mgr.setBlacklistConfigList(++version, configs);
+    Assert.assertTrue(strategy.match("10.1.2.3", () -> BlacklistConstants.FORBIDDEN_SUB_BY_PREFIX));
+    Assert.assertTrue(strategy.match("fe80::1", () -> BlacklistConstants.FORBIDDEN_SUB_BY_PREFIX));
+    Assert.assertFalse(
+        strategy.match("10.2.2.3", () -> BlacklistConstants.FORBIDDEN_SUB_BY_PREFIX));
+    Assert.assertFalse(strategy.match("10.1.2.3", () -> BlacklistConstants.FORBIDDEN_PUB));
   }
 
   private BlacklistConfig getIpConfig(String type, List<MatchType> matchTypes) {
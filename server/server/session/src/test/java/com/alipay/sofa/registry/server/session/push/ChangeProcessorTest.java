@@ -20,8 +20,12 @@ import static org.mockito.Mockito.*;
 
 import com.alipay.sofa.registry.server.session.TestUtils;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import com.google.common.collect.Maps;
+import java.util.Arrays;
+import java.util.Map;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class ChangeProcessorTest {
 
@@ -79,10 +83,93 @@ public class ChangeProcessorTest {
     ChangeProcessor.ChangeTask overwriteTask = worker.get(key);
     Assert.assertTrue(replaceTask == overwriteTask);
     Assert.assertEquals(overwriteTask.changeCtx.getExpectDatumVersion(), 1200);
+    Assert.assertEquals(worker.size(), 1);
+    Assert.assertEquals(worker.expireQueue.size(), 1);
     worker.runUnthrowable();
+    Assert.assertEquals(worker.size(), 0);
+    Assert.assertTrue(worker.expireQueue.isEmpty());
     verify(handler, times(1)).onChange(anyString(), anyObject());
   }
 
+  @Test
+  public void testWorkerConcurrentCommit() throws Exception {
+    ChangeProcessor.Worker worker = new ChangeProcessor.Worker(10, 50);
+    final int keyNum = 100;
+    final int versionNum = 200;
+    Map<String, Long> changed = Maps.newConcurrentMap();
+    ChangeProcessor.ChangeHandler handler =
+        (dataInfoId, changeCtx) -> {
+          changed.merge(dataInfoId, changeCtx.getExpectDatumVersion(), Math::max);
+          return true;
+        };
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] =
+          new Thread(
+              () -> {
+                for (int v = 1; v <= versionNum; v++) {
+                  for (int k = 0; k < keyNum; k++) {
+                    worker.commitChange(
+                        new ChangeProcessor.ChangeKey(dataCenter, dataInfoId + k),
+                        handler,
+                        new TriggerPushContext(dataCenter, v, null, System.currentTimeMillis()));
+                  }
+                }
+              });
+      threads[t].start();
+    }
+    while (Arrays.stream(threads).anyMatch(Thread::isAlive)) {
+      worker.runUnthrowable();
+    }
+    Thread.sleep(100);
+    worker.runUnthrowable();
+    Assert.assertEquals(worker.size(), 0);
+    Assert.assertTrue(worker.expireQueue.isEmpty());
+    Assert.assertEquals(changed.size(), keyNum);
+    for (Long v : changed.values()) {
+      Assert.assertEquals(v.longValue(), versionNum);
+    }
+  }
+
+  @Test
+  public void testWorkerPrefetch() throws Exception {
+    ChangeProcessor.Worker worker = new ChangeProcessor.Worker(10, 50, 2);
+    Assert.assertEquals(worker.fetchBatchSize, 2);
+    ChangeProcessor.ChangeHandler handler = mock(ChangeProcessor.ChangeHandler.class);
+    for (int i = 0; i < 3; i++) {
+      worker.commitChange(
+          new ChangeProcessor.ChangeKey(dataCenter, dataInfoId + i),
+          handler,
+          new TriggerPushContext(dataCenter, 100 + i, null, System.currentTimeMillis()));
+    }
+    Thread.sleep(20);
+    worker.runUnthrowable();
+    Assert.assertEquals(worker.size(), 0);
+    verify(handler, times(3)).onChange(anyString(), anyObject());
+    // the first batch contains 2 changes, the second one has no need to prefetch
+    ArgumentCaptor<Map> captor = ArgumentCaptor.forClass(Map.class);
+    verify(handler, times(1)).prefetch(eq(dataCenter), captor.capture());
+    Map<String, Long> versions = captor.getValue();
+    Assert.assertEquals(versions.size(), 2);
+    for (Map.Entry<String, Long> e : versions.entrySet()) {
+      Assert.assertEquals(
+          e.getValue().longValue(),
+          100 + Integer.parseInt(e.getKey().substring(dataInfoId.length())));
+    }
+
+    // prefetch failed, the changes still be handled
+    doThrow(new RuntimeException()).when(handler).prefetch(anyString(), anyMap());
+    for (int i = 0; i < 2; i++) {
+      worker.commitChange(
+          new ChangeProcessor.ChangeKey(dataCenter, dataInfoId + i),
+          handler,
+          new TriggerPushContext(dataCenter, 200 + i, null, System.currentTimeMillis()));
+    }
+    Thread.sleep(20);
+    worker.runUnthrowable();
+    verify(handler, times(5)).onChange(anyString(), anyObject());
+  }
+
   @Test
   public void testInit() throws Exception {
     ChangeProcessor processor = new ChangeProcessor();
@@ -109,6 +196,7 @@ public class ChangeProcessorTest {
     processor.fireChange(dataInfoId, handler, ctx);
     Thread.sleep(configBean.getDataChangeDebouncingMillis() + 1000);
     verify(handler, times(1)).onChange(anyString(), anyObject());
+    Assert.assertEquals(processor.pendingSize(), 0);
   }
 
   @Test
@@ -28,14 +28,19 @@ import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean
 import com.alipay.sofa.registry.server.session.cache.CacheService;
 import com.alipay.sofa.registry.server.session.cache.Value;
 import com.alipay.sofa.registry.server.session.circuit.breaker.CircuitBreakerService;
+import com.alipay.sofa.registry.server.session.node.service.DataNodeService;
 import com.alipay.sofa.registry.server.session.providedata.FetchGrayPushSwitchService;
 import com.alipay.sofa.registry.server.session.providedata.FetchStopPushService;
 import com.alipay.sofa.registry.server.session.store.Interests;
 import com.alipay.sofa.registry.task.FastRejectedExecutionException;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import java.util.Collections;
+import java.util.Map;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 public class FirePushServiceTest {
@@ -129,6 +134,7 @@ public class FirePushServiceTest {
     svc.sessionInterests = Mockito.mock(Interests.class);
     svc.pushProcessor = Mockito.mock(PushProcessor.class);
     svc.sessionCacheService = Mockito.mock(CacheService.class);
+    svc.dataNodeService = Mockito.mock(DataNodeService.class);
     svc.pushSwitchService = Mockito.mock(PushSwitchService.class);
     svc.circuitBreakerService = Mockito.mock(CircuitBreakerService.class);
     return svc;
@@ -168,6 +174,67 @@ public class FirePushServiceTest {
     Assert.assertFalse(svc.doExecuteOnChange("testDataId", ctx));
   }
 
+  @Test
+  public void testGetDatumDelta() {
+    FirePushService svc = mockFirePushService();
+    SubDatum old = TestUtils.newSubDatum("testDataId", 80, Collections.emptyList());
+    SubDatum latest = TestUtils.newSubDatum("testDataId", 200, Collections.emptyList());
+    when(svc.sessionCacheService.getValueIfPresent(Mockito.anyObject()))
+        .thenReturn(new Value((Sizer) old));
+    when(svc.dataNodeService.fetch("testDataId", "testDc", old)).thenReturn(latest);
+    Assert.assertTrue(svc.getDatum("testDc", "testDataId", 100) == latest);
+    Mockito.verify(svc.sessionCacheService, Mockito.times(1))
+        .put(Mockito.anyObject(), Mockito.anyObject());
+    Mockito.verify(svc.sessionCacheService, Mockito.times(0)).getValue(Mockito.anyObject());
+
+    // the delta is still older than expect, fallback to load the full datum
+    when(svc.sessionCacheService.getValue(Mockito.anyObject())).thenReturn(new Value(latest));
+    Assert.assertTrue(svc.getDatum("testDc", "testDataId", 300) == latest);
+    Mockito.verify(svc.sessionCacheService, Mockito.times(1)).getValue(Mockito.anyObject());
+
+    // disable the delta
+    ((SessionServerConfigBean) svc.sessionServerConfig).setFetchDatumDeltaEnable(false);
+    Assert.assertTrue(svc.getDatum("testDc", "testDataId", 100) == latest);
+    Mockito.verify(svc.dataNodeService, Mockito.times(2))
+        .fetch(Mockito.anyString(), Mockito.anyString(), Mockito.anyObject());
+  }
+
+  @Test
+  public void testPrefetchDatums() {
+    FirePushService svc = mockFirePushService();
+    SubDatum old = TestUtils.newSubDatum("testDataId", 80, Collections.emptyList());
+    SubDatum latest = TestUtils.newSubDatum("testDataId1", 200, Collections.emptyList());
+    when(svc.sessionCacheService.getValueIfPresent(Mockito.anyObject()))
+        .thenReturn(new Value((Sizer) old));
+    when(svc.dataNodeService.fetchMulti(Mockito.anyString(), Mockito.anyMap()))
+        .thenReturn(Collections.singletonMap("testDataId1", latest));
+    // only one need to fetch
+    Map<String, Long> expects = Maps.newHashMap();
+    expects.put("testDataId1", 100L);
+    expects.put("testDataId2", 50L);
+    svc.changeHandler.prefetch("testDc", expects);
+    Mockito.verify(svc.dataNodeService, Mockito.times(0))
+        .fetchMulti(Mockito.anyString(), Mockito.anyMap());
+
+    expects.put("testDataId3", 100L);
+    svc.changeHandler.prefetch("testDc", expects);
+    ArgumentCaptor<Map> captor = ArgumentCaptor.forClass(Map.class);
+    Mockito.verify(svc.dataNodeService, Mockito.times(1))
+        .fetchMulti(Mockito.eq("testDc"), captor.capture());
+    Map<String, SubDatum> bases = captor.getValue();
+    Assert.assertEquals(bases.keySet(), Sets.newHashSet("testDataId1", "testDataId3"));
+    Assert.assertTrue(bases.get("testDataId1") == old);
+    Mockito.verify(svc.sessionCacheService, Mockito.times(1))
+        .put(Mockito.anyObject(), Mockito.anyObject());
+
+    // disable the delta, fetch the full datums
+    ((SessionServerConfigBean) svc.sessionServerConfig).setFetchDatumDeltaEnable(false);
+    svc.changeHandler.prefetch("testDc", expects);
+    Mockito.verify(svc.dataNodeService, Mockito.times(2))
+        .fetchMulti(Mockito.eq("testDc"), captor.capture());
+    Assert.assertNull(captor.getValue().get("testDataId1"));
+  }
+
   @Test
   public void testChangeHandler() {
     final long now = System.currentTimeMillis();
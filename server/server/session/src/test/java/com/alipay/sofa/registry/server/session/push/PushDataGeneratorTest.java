@@ -28,12 +28,15 @@ import com.alipay.sofa.registry.core.model.ReceivedConfigData;
 import com.alipay.sofa.registry.core.model.ReceivedData;
 import com.alipay.sofa.registry.core.model.ScopeEnum;
 import com.alipay.sofa.registry.server.session.TestUtils;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
 import com.alipay.sofa.registry.server.session.converter.ReceivedDataConverter;
+import com.alipay.sofa.registry.server.session.converter.pb.ReceivedDataConvertor;
 import com.alipay.sofa.registry.server.session.providedata.CompressPushService;
 import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.util.DatumVersionUtil;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import org.assertj.core.util.Sets;
@@ -154,4 +157,52 @@ public class PushDataGeneratorTest {
     Assert.assertNotEquals(0, pushData.getPayload().getBody().size());
     Assert.assertNotEquals(0, pushData.getPayload().getOriginBodySize());
   }
+
+  @Test
+  public void testCache() {
+    PushDataGenerator generator = new PushDataGenerator();
+    generator.sessionServerConfig = TestUtils.newSessionConfig("testDc", zone);
+    generator.compressPushService = new CompressPushService();
+    Subscriber sub1 = TestUtils.newZoneSubscriber(zone);
+    Subscriber sub2 = TestUtils.newZoneSubscriber(zone);
+    Subscriber sub3 = TestUtils.newZonePbSubscriber(zone);
+    SubPublisher pub = TestUtils.newSubPublisher(10, 20, "TESTZONE");
+    SubPublisher pub2 = TestUtils.newSubPublisher(10, 20, "TESTZONE");
+    SubDatum subDatum = TestUtils.newSubDatum("testDataId", 200, Lists.newArrayList(pub, pub2));
+
+    PushData<ReceivedData> pushData1 =
+        generator.createPushData(subDatum, Collections.singletonMap(sub1.getRegisterId(), sub1));
+    PushData<ReceivedData> pushData2 =
+        generator.createPushData(subDatum, Collections.singletonMap(sub2.getRegisterId(), sub2));
+    Assert.assertEquals(1, generator.pushDataCache.getMissingCount());
+    Assert.assertEquals(1, generator.pushDataCache.getHitCount());
+    Assert.assertEquals(2, pushData2.getDataCount());
+    Assert.assertTrue(pushData1.getPayload().getData() == pushData2.getPayload().getData());
+    Assert.assertEquals(
+        Lists.newArrayList(sub1.getRegisterId()), pushData1.getPayload().getSubscriberRegistIds());
+    Assert.assertEquals(
+        Lists.newArrayList(sub2.getRegisterId()), pushData2.getPayload().getSubscriberRegistIds());
+    Assert.assertEquals(subDatum.getVersion(), pushData2.getPayload().getVersion().longValue());
+
+    PushData<ReceivedDataPb> pushData3 =
+        generator.createPushData(subDatum, Collections.singletonMap(sub3.getRegisterId(), sub3));
+    Assert.assertEquals(2, generator.pushDataCache.getHitCount());
+    Assert.assertEquals(
+        pushData3.getPayload().getDataMap(),
+        ReceivedDataConvertor.convert2Pb(pushData1.getPayload()).getDataMap());
+    Assert.assertEquals(sub3.getRegisterId(), pushData3.getPayload().getSubscriberRegistIds(0));
+
+    // new version miss the cache
+    SubDatum subDatum2 = TestUtils.newSubDatum("testDataId", 201, Lists.newArrayList(pub));
+    PushData<ReceivedData> pushData4 =
+        generator.createPushData(subDatum2, Collections.singletonMap(sub1.getRegisterId(), sub1));
+    Assert.assertEquals(2, generator.pushDataCache.getMissingCount());
+    Assert.assertEquals(1, pushData4.getDataCount());
+
+    // cache disabled
+    ((SessionServerConfigBean) generator.sessionServerConfig).setPushDataCacheEnable(false);
+    generator.createPushData(subDatum2, Collections.singletonMap(sub1.getRegisterId(), sub1));
+    Assert.assertEquals(2, generator.pushDataCache.getMissingCount());
+    Assert.assertEquals(2, generator.pushDataCache.getHitCount());
+  }
 }
@@ -38,6 +38,10 @@ public class PushSwitchServiceTest {
     Assert.assertFalse(service.canIpPush("127.0.0.2"));
     Assert.assertTrue(service.canIpPush("127.0.0.1"));
 
+    service.fetchGrayPushSwitchService.setOpenIps(init, Arrays.asList("127.0.0.0/30"));
+    Assert.assertTrue(service.canIpPush("127.0.0.2"));
+    Assert.assertFalse(service.canIpPush("127.0.0.4"));
+
     service.fetchStopPushService.setStopPushSwitch(init, false);
     Assert.assertTrue(service.canIpPush("127.0.0.2"));
     Assert.assertTrue(service.canIpPush("127.0.0.1"));
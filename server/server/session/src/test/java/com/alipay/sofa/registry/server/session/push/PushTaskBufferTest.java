@@ -23,6 +23,7 @@ import com.alipay.sofa.registry.net.NetUtil;
 import com.alipay.sofa.registry.server.session.TestUtils;
 import java.net.InetSocketAddress;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import org.junit.Assert;
 import org.junit.Test;
@@ -60,6 +61,81 @@ public class PushTaskBufferTest {
     Assert.assertEquals(task1.expireTimestamp, 1);
   }
 
+  @Test
+  public void testTimingWheel() {
+    PushTaskBuffer buffer = new PushTaskBuffer(1, true);
+    // avoid the worker thread transfer the tasks
+    buffer.suspend();
+    PushTaskBuffer.BufferWorker worker = buffer.workers[0];
+    Assert.assertNotNull(worker.wheel);
+
+    String dataId = "testDataId";
+    Subscriber subscriber = TestUtils.newZoneSubscriber(dataId, "region");
+    SubDatum datum = TestUtils.newSubDatum(subscriber.getDataId(), 100, Collections.emptyList());
+    final long now = System.currentTimeMillis();
+    MockTask task =
+        new MockTask(
+            new PushCause(null, PushType.Sub, now),
+            NetUtil.getLocalSocketAddress(),
+            Collections.singletonMap(subscriber.getRegisterId(), subscriber),
+            datum);
+    task.expireTimestamp = now + 10000;
+    Assert.assertTrue(buffer.buffer(task));
+    Assert.assertEquals(1, worker.wheel.scheduledSize());
+
+    // replace, keep the prev expireTimestamp and not schedule again
+    datum = TestUtils.newSubDatum(subscriber.getDataId(), 101, Collections.emptyList());
+    MockTask task1 =
+        new MockTask(
+            new PushCause(null, PushType.Sub, now),
+            NetUtil.getLocalSocketAddress(),
+            Collections.singletonMap(subscriber.getRegisterId(), subscriber),
+            datum);
+    task1.expireTimestamp = now + 20000;
+    Assert.assertTrue(buffer.buffer(task1));
+    Assert.assertEquals(task1.expireTimestamp, now + 10000);
+    Assert.assertEquals(1, worker.wheel.scheduledSize());
+
+    // not expire
+    Assert.assertEquals(0, worker.wheel.advance(worker.bufferMap, now + 5000).size());
+    Assert.assertEquals(1, worker.bufferMap.size());
+    Assert.assertEquals(1, worker.wheel.scheduledSize());
+
+    // expire, transfer the replaced one
+    List<PushTask> pending = worker.wheel.advance(worker.bufferMap, now + 10000);
+    Assert.assertEquals(1, pending.size());
+    Assert.assertTrue(pending.get(0) == task1);
+    Assert.assertEquals(0, worker.bufferMap.size());
+    Assert.assertEquals(0, worker.wheel.scheduledSize());
+
+    // no delay, transfer immediately
+    Subscriber subscriber2 = TestUtils.newZoneSubscriber(dataId, "region");
+    MockTask task2 =
+        new MockTask(
+            new PushCause(null, PushType.Empty, now),
+            NetUtil.getLocalSocketAddress(),
+            Collections.singletonMap(subscriber2.getRegisterId(), subscriber2),
+            datum);
+    task2.expireTimestamp = Long.MAX_VALUE;
+    Assert.assertTrue(buffer.buffer(task2));
+    pending = worker.wheel.advance(worker.bufferMap, now + 10000);
+    Assert.assertEquals(1, pending.size());
+    Assert.assertTrue(pending.get(0) == task2);
+
+    // expire before the cursor
+    MockTask task3 =
+        new MockTask(
+            new PushCause(null, PushType.Sub, now),
+            NetUtil.getLocalSocketAddress(),
+            Collections.singletonMap(subscriber2.getRegisterId(), subscriber2),
+            datum);
+    task3.expireTimestamp = 1;
+    Assert.assertTrue(buffer.buffer(task3));
+    buffer.watchBuffer(worker);
+    Assert.assertEquals(0, worker.bufferMap.size());
+    buffer.resume();
+  }
+
   private static final class MockTask extends PushTask {
 
     MockTask(
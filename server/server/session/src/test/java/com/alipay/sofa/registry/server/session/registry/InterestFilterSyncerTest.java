@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.registry;
+
+import com.alipay.sofa.registry.common.model.dataserver.SessionInterestFilterRequest;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import com.alipay.sofa.registry.server.session.node.service.DataNodeService;
+import com.alipay.sofa.registry.server.session.store.Interests;
+import com.alipay.sofa.registry.server.shared.meta.MetaServerService;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+public class InterestFilterSyncerTest {
+  @Test
+  public void test() {
+    InterestFilterSyncer syncer = new InterestFilterSyncer();
+    SessionServerConfigBean config = new SessionServerConfigBean(null);
+    syncer.sessionServerConfig = config;
+    syncer.sessionInterests = Mockito.mock(Interests.class);
+    syncer.dataNodeService = Mockito.mock(DataNodeService.class);
+    syncer.metaServerService = Mockito.mock(MetaServerService.class);
+    Mockito.when(syncer.sessionInterests.getDataInfoIds()).thenReturn(Lists.newArrayList("a"));
+    Mockito.when(syncer.metaServerService.getDataServerList())
+        .thenReturn(Sets.newHashSet("data1", "data2"));
+    Mockito.when(
+            syncer.dataNodeService.syncInterestFilter(Mockito.anyString(), Mockito.anyObject()))
+        .thenReturn(true);
+
+    // disable
+    syncer.onInterest("b");
+    Assert.assertEquals(0, syncer.incrementSize());
+    syncer.sync();
+    Mockito.verify(syncer.dataNodeService, Mockito.times(0))
+        .syncInterestFilter(Mockito.anyString(), Mockito.anyObject());
+
+    config.setInterestFilterSyncEnable(true);
+    syncer.sync();
+    ArgumentCaptor<SessionInterestFilterRequest> captor =
+        ArgumentCaptor.forClass(SessionInterestFilterRequest.class);
+    Mockito.verify(syncer.dataNodeService, Mockito.times(2))
+        .syncInterestFilter(Mockito.anyString(), captor.capture());
+    for (SessionInterestFilterRequest request : captor.getAllValues()) {
+      Assert.assertTrue(request.isFull());
+      Assert.assertEquals(1, request.getVersion());
+      Assert.assertTrue(request.getFilter().mightContain("a"));
+    }
+    Assert.assertEquals(2, syncer.syncedVersions.size());
+
+    // nothing changed
+    syncer.sync();
+    Mockito.verify(syncer.dataNodeService, Mockito.times(2))
+        .syncInterestFilter(Mockito.anyString(), Mockito.anyObject());
+
+    // increments, data2 failed
+    Mockito.when(
+            syncer.dataNodeService.syncInterestFilter(Mockito.eq("data2"), Mockito.anyObject()))
+        .thenReturn(false);
+    syncer.onInterest("b");
+    Assert.assertEquals(1, syncer.incrementSize());
+    syncer.sync();
+    Assert.assertEquals(0, syncer.incrementSize());
+    captor = ArgumentCaptor.forClass(SessionInterestFilterRequest.class);
+    Mockito.verify(syncer.dataNodeService, Mockito.times(4))
+        .syncInterestFilter(Mockito.anyString(), captor.capture());
+    List<SessionInterestFilterRequest> requests = captor.getAllValues();
+    SessionInterestFilterRequest increment = requests.get(requests.size() - 1);
+    Assert.assertFalse(increment.isFull());
+    Assert.assertEquals(Lists.newArrayList("b"), increment.getIncrements());
+    Assert.assertTrue(syncer.filter.mightContain("b"));
+    Assert.assertEquals(1, syncer.syncedVersions.size());
+
+    // data2 resend the full filter
+    Mockito.when(
+            syncer.dataNodeService.syncInterestFilter(Mockito.eq("data2"), Mockito.anyObject()))
+        .thenReturn(true);
+    syncer.sync();
+    captor = ArgumentCaptor.forClass(SessionInterestFilterRequest.class);
+    Mockito.verify(syncer.dataNodeService, Mockito.times(3))
+        .syncInterestFilter(Mockito.eq("data2"), captor.capture());
+    Assert.assertTrue(captor.getValue().isFull());
+    Assert.assertTrue(captor.getValue().getFilter().mightContain("b"));
+
+    // rebuild
+    config.setInterestFilterFullSyncIntervalSecs(0);
+    syncer.sync();
+    Assert.assertEquals(2, syncer.version);
+    Assert.assertFalse(syncer.filter.mightContain("b"));
+
+    config.setInterestFilterSyncEnable(false);
+    syncer.sync();
+    Assert.assertNull(syncer.filter);
+    Assert.assertEquals(0, syncer.syncedVersions.size());
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.registry;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.sessionserver.DataSlotWatermarkRequest;
+import com.alipay.sofa.registry.common.model.sessionserver.SlotWatermark;
+import com.alipay.sofa.registry.server.session.TestUtils;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import com.alipay.sofa.registry.server.session.slot.SlotTableCache;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SlotWatermarkTrackerTest {
+  private static final String DC = "testDc";
+  private static final String LEADER = "leader";
+  private static final String DATA_ID = "testDataId";
+  private static final Map<String, DatumVersion> NONE = Collections.emptyMap();
+
+  private SlotWatermarkTracker tracker;
+  private SessionServerConfigBean config;
+
+  @Before
+  public void before() {
+    config = TestUtils.newSessionConfig(DC);
+    tracker = new SlotWatermarkTracker();
+    tracker.sessionServerConfig = config;
+    tracker.slotTableCache = mock(SlotTableCache.class);
+    when(tracker.slotTableCache.slotOf(anyString())).thenReturn(1);
+    when(tracker.slotTableCache.getLeader(1)).thenReturn(LEADER);
+  }
+
+  @Test
+  public void testMatch() {
+    final long now = System.currentTimeMillis();
+    Assert.assertFalse(tracker.isStable(1, LEADER, now, NONE));
+    // first watermark rebase the slot
+    Assert.assertEquals(1, tracker.onWatermark(LEADER, request(10, 0, false)));
+    Assert.assertTrue(tracker.getSlotState(1).dirty);
+    tracker.onScan(1);
+    Assert.assertFalse(tracker.isStable(1, LEADER, now, NONE));
+
+    tracker.onChange(LEADER, DC, versions(100));
+    // not the leader
+    tracker.onChange("other", DC, versions(200));
+    // other dataCenter
+    tracker.onChange(LEADER, "otherDc", versions(300));
+    Assert.assertEquals(
+        0,
+        tracker.onWatermark(LEADER, request(10, SlotWatermark.versionHash(DATA_ID, 100), false)));
+    Assert.assertTrue(tracker.isStable(1, LEADER, System.currentTimeMillis(), NONE));
+    Assert.assertFalse(tracker.isStable(1, "other", System.currentTimeMillis(), NONE));
+    // expired
+    Assert.assertFalse(
+        tracker.isStable(
+            1,
+            LEADER,
+            System.currentTimeMillis() + config.getDataSlotWatermarkExpireMillis() + 1,
+            NONE));
+
+    config.setDataSlotWatermarkEnable(false);
+    Assert.assertFalse(tracker.isStable(1, LEADER, System.currentTimeMillis(), NONE));
+  }
+
+  @Test
+  public void testMismatch() {
+    tracker.onWatermark(LEADER, request(10, 0, false));
+    tracker.onScan(1);
+    tracker.onWatermark(LEADER, request(10, 0, false));
+    Assert.assertTrue(tracker.isStable(1, LEADER, System.currentTimeMillis(), NONE));
+
+    // lost a change
+    Assert.assertEquals(1, tracker.onWatermark(LEADER, request(10, 5, false)));
+    Assert.assertFalse(tracker.isStable(1, LEADER, System.currentTimeMillis(), NONE));
+    tracker.onScan(1);
+    // rebased on the watermark
+    Assert.assertEquals(0, tracker.onWatermark(LEADER, request(10, 5, false)));
+
+    // gap
+    Assert.assertEquals(1, tracker.onWatermark(LEADER, request(10, 5, true)));
+    Assert.assertTrue(tracker.getSlotState(1).dirty);
+    tracker.onScan(1);
+
+    // leader epoch changed
+    Assert.assertEquals(1, tracker.onWatermark(LEADER, request(11, 5, false)));
+    Assert.assertTrue(tracker.getSlotState(1).dirty);
+    tracker.onScan(1);
+    Assert.assertFalse(tracker.getSlotState(1).dirty);
+
+    // not the leader, ignored
+    Assert.assertEquals(0, tracker.onWatermark("other", request(12, 0, false)));
+    tracker.markDirty(1);
+    Assert.assertFalse(tracker.isStable(1, LEADER, System.currentTimeMillis(), NONE));
+  }
+
+  @Test
+  public void testInterest() {
+    tracker.onWatermark(LEADER, request(10, 0, false));
+    tracker.onScan(1);
+    config.setInterestFilterSyncEnable(false);
+    tracker.onInterest(DATA_ID);
+    Assert.assertFalse(tracker.getSlotState(1).dirty);
+    config.setInterestFilterSyncEnable(true);
+    tracker.onInterest(DATA_ID);
+    Assert.assertTrue(tracker.getSlotState(1).dirty);
+  }
+
+  @Test
+  public void testNotified() {
+    tracker.onWatermark(LEADER, request(10, 0, false));
+    tracker.onScan(1);
+    tracker.onWatermark(LEADER, request(10, 0, false));
+    final long now = System.currentTimeMillis();
+    Assert.assertTrue(tracker.isStable(1, LEADER, now, versions(10)));
+    // not pushed yet
+    Assert.assertFalse(tracker.isStable(1, LEADER, now, versions(0)));
+
+    tracker.onNotify(DC, DATA_ID, 20);
+    tracker.onNotify("otherDc", DATA_ID, 30);
+    // the push failed, the pushed version is behind the notified
+    Assert.assertFalse(tracker.isStable(1, LEADER, now, versions(10)));
+    Assert.assertFalse(tracker.isStable(1, LEADER, now, versions(19)));
+    Assert.assertTrue(tracker.isStable(1, LEADER, now, versions(20)));
+    Assert.assertTrue(tracker.getSlotState(1).notified.isEmpty());
+
+    // the subscribers are removed
+    tracker.onNotify(DC, DATA_ID, 40);
+    Assert.assertTrue(tracker.isStable(1, LEADER, now, NONE));
+    Assert.assertTrue(tracker.getSlotState(1).notified.isEmpty());
+  }
+
+  private static Map<String, DatumVersion> versions(long version) {
+    return Collections.singletonMap(DATA_ID, new DatumVersion(version));
+  }
+
+  private static DataSlotWatermarkRequest request(long epoch, long checksum, boolean gap) {
+    return new DataSlotWatermarkRequest(
+        DC, Collections.singletonMap(1, new SlotWatermark(epoch, checksum, gap)));
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.remoting.handler;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.*;
+
+import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.core.model.BatchRegisterRequest;
+import com.alipay.sofa.registry.core.model.BatchRegisterResponse;
+import com.alipay.sofa.registry.core.model.ConfiguratorRegister;
+import com.alipay.sofa.registry.core.model.PublisherRegister;
+import com.alipay.sofa.registry.core.model.RegisterResponse;
+import com.alipay.sofa.registry.core.model.SubscriberRegister;
+import com.alipay.sofa.registry.remoting.ChannelHandler;
+import com.alipay.sofa.registry.server.session.TestUtils;
+import com.alipay.sofa.registry.server.session.bootstrap.ExecutorManager;
+import com.alipay.sofa.registry.server.session.strategy.PublisherHandlerStrategy;
+import com.alipay.sofa.registry.server.session.strategy.SubscriberHandlerStrategy;
+import com.alipay.sofa.registry.server.session.strategy.WatcherHandlerStrategy;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BatchRegisterHandlerTest {
+
+  private BatchRegisterHandler newHandler() {
+    BatchRegisterHandler handler = new BatchRegisterHandler();
+    handler.sessionServerConfig = TestUtils.newSessionConfig("testDc");
+    handler.executorManager = new ExecutorManager(handler.sessionServerConfig);
+    Assert.assertNotNull(handler.getExecutor());
+    Assert.assertEquals(handler.interest(), BatchRegisterRequest.class);
+    Assert.assertEquals(handler.getConnectNodeType(), Node.NodeType.CLIENT);
+    Assert.assertEquals(handler.getType(), ChannelHandler.HandlerType.PROCESSER);
+    Assert.assertEquals(handler.getInvokeType(), ChannelHandler.InvokeType.SYNC);
+    handler.publisherHandlerStrategy = mock(PublisherHandlerStrategy.class);
+    handler.subscriberHandlerStrategy = mock(SubscriberHandlerStrategy.class);
+    handler.watcherHandlerStrategy = mock(WatcherHandlerStrategy.class);
+    return handler;
+  }
+
+  @Test
+  public void testCheckParam() {
+    BatchRegisterHandler handler = newHandler();
+    TestUtils.assertRunException(
+        IllegalArgumentException.class, () -> handler.checkParam(new BatchRegisterRequest(null)));
+    handler.checkParam(new BatchRegisterRequest());
+  }
+
+  @Test
+  public void testHandle() {
+    BatchRegisterHandler handler = newHandler();
+    BatchRegisterRequest request = new BatchRegisterRequest();
+    request.add(new PublisherRegister());
+    request.add(new SubscriberRegister());
+    request.add(new SubscriberRegister());
+    request.add(new ConfiguratorRegister());
+
+    BatchRegisterResponse response = (BatchRegisterResponse) handler.doHandle(null, request);
+    Assert.assertEquals(response.getResponses().size(), 4);
+    verify(handler.publisherHandlerStrategy, times(1))
+        .handlePublisherRegister(anyObject(), anyObject(), any());
+    verify(handler.subscriberHandlerStrategy, times(2))
+        .handleSubscriberRegister(anyObject(), anyObject(), any());
+    verify(handler.watcherHandlerStrategy, times(1))
+        .handleConfiguratorRegister(anyObject(), anyObject(), any());
+  }
+
+  @Test
+  public void testHandleSubscriberOnSubExecutor() {
+    BatchRegisterHandler handler = newHandler();
+    List<String> threads = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              threads.add(Thread.currentThread().getName());
+              ((RegisterResponse) invocation.getArguments()[2]).setSuccess(true);
+              return null;
+            })
+        .when(handler.subscriberHandlerStrategy)
+        .handleSubscriberRegister(anyObject(), anyObject(), any());
+    BatchRegisterRequest request = new BatchRegisterRequest();
+    request.add(new SubscriberRegister());
+    request.add(new PublisherRegister());
+    request.add(new SubscriberRegister());
+    BatchRegisterResponse response = (BatchRegisterResponse) handler.doHandle(null, request);
+    Assert.assertEquals(response.getResponses().size(), 3);
+    Assert.assertTrue(response.getResponses().get(0).isSuccess());
+    Assert.assertFalse(response.getResponses().get(1).isSuccess());
+    Assert.assertTrue(response.getResponses().get(2).isSuccess());
+    Assert.assertEquals(threads.size(), 2);
+    for (String thread : threads) {
+      Assert.assertTrue(thread, thread.contains("AccessSubExecutor"));
+    }
+
+    // the subscribers fail when the sub executor rejects
+    handler.executorManager.getAccessSubExecutor().shutdownNow();
+    response = (BatchRegisterResponse) handler.doHandle(null, request);
+    Assert.assertFalse(response.getResponses().get(0).isSuccess());
+    Assert.assertNotNull(response.getResponses().get(0).getMessage());
+    Assert.assertFalse(response.getResponses().get(2).isSuccess());
+    Assert.assertEquals(threads.size(), 2);
+  }
+}
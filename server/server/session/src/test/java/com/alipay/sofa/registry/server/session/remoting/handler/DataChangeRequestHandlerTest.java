@@ -30,6 +30,7 @@ import com.alipay.sofa.registry.server.session.providedata.FetchGrayPushSwitchSe
 import com.alipay.sofa.registry.server.session.providedata.FetchStopPushService;
 import com.alipay.sofa.registry.server.session.push.FirePushService;
 import com.alipay.sofa.registry.server.session.push.PushSwitchService;
+import com.alipay.sofa.registry.server.session.registry.SlotWatermarkTracker;
 import com.alipay.sofa.registry.server.session.store.Interests;
 import java.util.HashMap;
 import java.util.Map;
@@ -64,6 +65,7 @@ public class DataChangeRequestHandlerTest {
     handler.executorManager = new ExecutorManager(serverConfigBean);
     handler.firePushService = mock(FirePushService.class);
     handler.sessionInterests = mock(Interests.class);
+    handler.slotWatermarkTracker = mock(SlotWatermarkTracker.class);
     handler.pushSwitchService.setFetchStopPushService(new FetchStopPushService());
     handler.pushSwitchService.setFetchGrayPushSwitchService(new FetchGrayPushSwitchService());
 
@@ -84,6 +86,7 @@ public class DataChangeRequestHandlerTest {
     obj = handler.doHandle(null, request());
     Assert.assertNull(obj);
     verify(handler.firePushService, times(2)).fireOnChange(anyString(), anyObject());
+    verify(handler.slotWatermarkTracker, times(2)).onChange(anyString(), anyString(), anyMap());
   }
 
   private static DataChangeRequest request() {
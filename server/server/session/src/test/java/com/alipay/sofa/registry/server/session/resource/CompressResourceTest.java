@@ -16,7 +16,13 @@
  */
 package com.alipay.sofa.registry.server.session.resource;
 
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.compress.ZstdDictSampler;
 import com.alipay.sofa.registry.server.session.providedata.CompressPushService;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Assert;
 import org.junit.Test;
 
 public class CompressResourceTest {
@@ -26,4 +32,44 @@ public class CompressResourceTest {
     CompressResource resource = new CompressResource();
     resource.compressPushService = new CompressPushService();
   }
+
+  @Test
+  public void testDict() {
+    CompressResource resource = new CompressResource();
+    resource.pushSampler = new ZstdDictSampler(100, 1024 * 8, 1024 * 1024);
+    Assert.assertFalse(resource.trainDict(0).isSuccess());
+    Assert.assertFalse(resource.trainDict(1024).isSuccess());
+    Assert.assertEquals(false, resource.sampleState().get("enabled"));
+    Assert.assertTrue(resource.startSample().isSuccess());
+    Assert.assertEquals(true, resource.sampleState().get("enabled"));
+    Random random = new Random(1);
+    for (int i = 0; i < 100; i++) {
+      StringBuilder sb = new StringBuilder();
+      for (int j = 0; j < 20; j++) {
+        sb.append("{\"url\":\"bolt://192.168.")
+            .append(random.nextInt(255))
+            .append(".")
+            .append(random.nextInt(255))
+            .append(":12200?app=testApp&timeout=3000&serialization=hessian2\"}");
+      }
+      resource.pushSampler.sample(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    Assert.assertEquals(100, resource.sampleState().get("samples"));
+    GenericResponse<String> resp = resource.trainDict(1024 * 4);
+    Assert.assertTrue(resp.isSuccess());
+    // sampling is stopped and the samples are dropped after training
+    Assert.assertEquals(false, resource.sampleState().get("enabled"));
+    Assert.assertEquals(0, resource.sampleState().get("samples"));
+    Assert.assertEquals(0L, resource.sampleState().get("bytes"));
+    Assert.assertTrue(resource.stopSample().isSuccess());
+    String encoding = resp.getData();
+    Map<String, String> dicts = resource.queryDicts();
+    Assert.assertTrue(dicts.containsKey(encoding));
+
+    Assert.assertFalse(resource.addDict("").isSuccess());
+    Assert.assertFalse(resource.addDict("aGVsbG8=").isSuccess());
+    resp = resource.addDict(dicts.get(encoding));
+    Assert.assertTrue(resp.isSuccess());
+    Assert.assertEquals(encoding, resp.getData());
+  }
 }
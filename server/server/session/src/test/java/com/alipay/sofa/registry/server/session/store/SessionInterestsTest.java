@@ -16,11 +16,16 @@
  */
 package com.alipay.sofa.registry.server.session.store;
 
+import com.alipay.sofa.registry.common.model.Tuple;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
 import com.alipay.sofa.registry.common.model.store.DataInfo;
 import com.alipay.sofa.registry.common.model.store.Subscriber;
 import com.alipay.sofa.registry.server.session.AbstractSessionServerTestBase;
+import com.google.common.collect.Maps;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import org.junit.Assert;
 import org.junit.Before;
@@ -48,7 +53,7 @@ public class SessionInterestsTest extends AbstractSessionServerTestBase {
 
   @Test
   public void testCheckInterestVersion() {
-    Map<String, DatumVersion> map = interests.selectSubscribers(getDc()).o1;
+    Map<String, DatumVersion> map = selectVersions(getDc());
     Assert.assertEquals(0, map.size());
 
     Assert.assertSame(
@@ -88,16 +93,56 @@ public class SessionInterestsTest extends AbstractSessionServerTestBase {
     subscriber2.checkAndUpdateCtx(getDc(), 80, 20);
 
     // get sub2.dc1
-    map = interests.selectSubscribers(getDc() + "1").o1;
+    map = selectVersions(getDc() + "1");
     Assert.assertEquals(map.size(), 1);
     Assert.assertEquals(map.get(subscriber.getDataInfoId()).getValue(), 0);
 
     // get sub2
-    map = interests.selectSubscribers(getDc()).o1;
+    map = selectVersions(getDc());
     Assert.assertEquals(map.size(), 1);
     Assert.assertEquals(map.get(subscriber.getDataInfoId()).getValue(), 80);
   }
 
+  @Test
+  public void testSelectSubscribersIncrementally() {
+    Assert.assertEquals(0, interests.selectSubscribers(getDc()).o1.size());
+    Subscriber subscriber = randomSubscriber();
+    interests.add(subscriber);
+    final String dataInfoId = subscriber.getDataInfoId();
+    final int slotId = SlotFunctionRegistry.getFunc().slotOf(dataInfoId);
+    Map<Integer, Map<String, DatumVersion>> slots = interests.selectSubscribers(getDc()).o1;
+    Assert.assertEquals(slots.size(), 1);
+    Map<String, DatumVersion> slotVersions = slots.get(slotId);
+    Assert.assertEquals(slotVersions.get(dataInfoId).getValue(), 0);
+
+    // not notified, the unchanged slot is shared
+    subscriber.checkAndUpdateCtx(getDc(), 100, 1);
+    Assert.assertSame(slotVersions, interests.selectSubscribers(getDc()).o1.get(slotId));
+
+    interests.onPushedVersionChanged(dataInfoId);
+    slots = interests.selectSubscribers(getDc()).o1;
+    Assert.assertEquals(slots.get(slotId).get(dataInfoId).getValue(), 100);
+
+    // the subscriber marked push empty is excluded
+    subscriber.markPushEmpty(getDc(), 200);
+    interests.onPushedVersionChanged(dataInfoId);
+    Tuple<Map<Integer, Map<String, DatumVersion>>, List<Subscriber>> tuple =
+        interests.selectSubscribers(getDc());
+    Assert.assertEquals(tuple.o1.get(slotId).get(dataInfoId).getValue(), 0);
+    Assert.assertEquals(tuple.o2, Collections.singletonList(subscriber));
+
+    interests.deleteById(subscriber.getRegisterId(), dataInfoId);
+    tuple = interests.selectSubscribers(getDc());
+    Assert.assertEquals(tuple.o1.size(), 0);
+    Assert.assertEquals(tuple.o2.size(), 0);
+
+    Subscriber subscriber2 = randomSubscriber();
+    interests.add(subscriber2);
+    Assert.assertEquals(selectVersions(getDc()).size(), 1);
+    interests.deleteByConnectId(subscriber2.connectId());
+    Assert.assertEquals(selectVersions(getDc()).size(), 0);
+  }
+
   @Test
   public void testFilterIPs() {
     Assert.assertEquals(0, interests.filterIPs("", 0).size());
@@ -114,4 +159,12 @@ public class SessionInterestsTest extends AbstractSessionServerTestBase {
     Assert.assertEquals(
         1, interests.filterIPs(subscriber.getGroup(), 100).get(subscriber.getDataInfoId()).size());
   }
+
+  private Map<String, DatumVersion> selectVersions(String dataCenter) {
+    Map<String, DatumVersion> ret = Maps.newHashMap();
+    for (Map<String, DatumVersion> versions : interests.selectSubscribers(dataCenter).o1.values()) {
+      ret.putAll(versions);
+    }
+    return ret;
+  }
 }
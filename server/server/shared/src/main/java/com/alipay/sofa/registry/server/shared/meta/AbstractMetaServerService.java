@@ -26,8 +26,10 @@ import com.alipay.sofa.registry.common.model.metaserver.FetchSystemPropertyResul
 import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
 import com.alipay.sofa.registry.common.model.metaserver.SlotTableChangeEvent;
 import com.alipay.sofa.registry.common.model.metaserver.blacklist.RegistryForbiddenServerRequest;
+import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
 import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.BaseHeartBeatResponse;
 import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.HeartbeatRequest;
+import com.alipay.sofa.registry.common.model.metaserver.nodes.MetaNode;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
 import com.alipay.sofa.registry.common.model.slot.GetSlotTableStatusRequest;
 import com.alipay.sofa.registry.common.model.slot.SlotTableStatusResponse;
@@ -61,6 +63,9 @@ public abstract class AbstractMetaServerService<T extends BaseHeartBeatResponse>
   final Renewer renewer = new Renewer();
   private Thread renewerThread;
   final AtomicInteger renewFailCounter = new AtomicInteger(0);
+  // the node lists of the last heartbeat, the meta server omits them if not changed
+  volatile VersionedList<MetaNode> lastMetaNodes;
+  volatile VersionedList<SessionNode> lastSessionNodes;
   static final int MAX_RENEW_FAIL_COUNT = 3;
 
   @Override
@@ -139,9 +144,14 @@ public abstract class AbstractMetaServerService<T extends BaseHeartBeatResponse>
     boolean success = true;
     try {
       HeartbeatRequest heartbeatRequest = createRequest();
+      final VersionedList<MetaNode> metaNodes = lastMetaNodes;
+      final VersionedList<SessionNode> sessionNodes = lastSessionNodes;
+      if (metaNodes != null && sessionNodes != null) {
+        heartbeatRequest.setKnownEpochs(metaNodes.getEpoch(), sessionNodes.getEpoch());
+      }
       GenericResponse<T> resp =
           (GenericResponse<T>) metaServerManager.sendRequest(heartbeatRequest).getResult();
-      handleHeartbeatResponse(resp);
+      handleHeartbeatResponse(heartbeatRequest, resp);
 
       success = true;
     } catch (Throwable e) {
@@ -170,11 +180,20 @@ public abstract class AbstractMetaServerService<T extends BaseHeartBeatResponse>
   }
 
   void handleHeartbeatResponse(GenericResponse<T> resp) {
+    handleHeartbeatResponse(null, resp);
+  }
+
+  void handleHeartbeatResponse(HeartbeatRequest req, GenericResponse<T> resp) {
     if (resp == null) {
       throw new RuntimeException("renew node to metaServer error : resp is null");
     }
     if (resp.isSuccess()) {
-      updateState(resp.getData());
+      final T data = resp.getData();
+      // the meta server omits the parts not changed since the request
+      data.fillUnchanged(req == null ? null : req.getSlotTable(), lastMetaNodes, lastSessionNodes);
+      updateState(data);
+      this.lastMetaNodes = data.getVersionedMetaNodes();
+      this.lastSessionNodes = data.getVersionedSessionNodes();
       metaServerManager.refresh(resp.getData());
       handleRenewResult(resp.getData());
       renewFailCounter.set(0);
@@ -84,19 +84,7 @@ public final class DatumUtils {
   public static SubDatum of(Datum datum) {
     List<SubPublisher> publishers = Lists.newArrayListWithCapacity(datum.publisherSize());
     for (Publisher publisher : datum.getPubMap().values()) {
-      final URL srcAddress = publisher.getSourceAddress();
-      // temp publisher the srcAddress maybe null
-      final String srcAddressString = srcAddress == null ? null : srcAddress.buildAddressString();
-      publishers.add(
-          new SubPublisher(
-              publisher.getRegisterId(),
-              publisher.getCell(),
-              publisher.getDataList(),
-              publisher.getClientId(),
-              publisher.getVersion(),
-              srcAddressString,
-              publisher.getRegisterTimestamp(),
-              publisher.getPublishSource()));
+      publishers.add(of(publisher));
     }
     return SubDatum.normalOf(
         datum.getDataInfoId(),
@@ -109,6 +97,21 @@ public final class DatumUtils {
         datum.getRecentVersions());
   }
 
+  public static SubPublisher of(Publisher publisher) {
+    final URL srcAddress = publisher.getSourceAddress();
+    // temp publisher the srcAddress maybe null
+    final String srcAddressString = srcAddress == null ? null : srcAddress.buildAddressString();
+    return new SubPublisher(
+        publisher.getRegisterId(),
+        publisher.getCell(),
+        publisher.getDataList(),
+        publisher.getClientId(),
+        publisher.getVersion(),
+        srcAddressString,
+        publisher.getRegisterTimestamp(),
+        publisher.getPublishSource());
+  }
+
   public static long DataBoxListSize(List<DataBox> boxes) {
     if (CollectionUtils.isEmpty(boxes)) {
       return 0;
@@ -24,7 +24,9 @@ import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.BaseHear
 import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.HeartbeatRequest;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.MetaNode;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
+import com.alipay.sofa.registry.common.model.slot.Slot;
 import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.remoting.exchange.message.Response;
 import com.alipay.sofa.registry.server.shared.TestUtils;
@@ -135,6 +137,45 @@ public class MetaServerServiceTest {
     Assert.assertTrue(zones.contains("192.168.1.2"));
   }
 
+  @Test
+  public void testHandleHeartbeatRespUnchanged() {
+    MockServerService mockServerService = new MockServerService();
+    mockServerService.setMetaServerManager(Mockito.mock(MetaServerManager.class));
+    VersionedList<MetaNode> metaNodes =
+        new VersionedList<>(2, Lists.newArrayList(new MetaNode(new URL("192.168.1.1"), "dc1")));
+    VersionedList<SessionNode> sessionNodes =
+        new VersionedList<>(
+            1,
+            Lists.newArrayList(
+                new SessionNode(new URL("192.168.1.2"), "zoneA", ServerEnv.PROCESS_ID)));
+    SlotTable slotTable =
+        new SlotTable(
+            10, Lists.newArrayList(new Slot(0, "192.168.1.3", 1, Collections.emptyList())));
+    GenericResponse<BaseHeartBeatResponse> resp = new GenericResponse<>();
+    resp.fillSucceed(
+        new BaseHeartBeatResponse(true, metaNodes, slotTable, sessionNodes, "test", 100));
+    mockServerService.handleHeartbeatResponse(resp);
+    Assert.assertSame(metaNodes, mockServerService.lastMetaNodes);
+    Assert.assertSame(sessionNodes, mockServerService.lastSessionNodes);
+
+    // the meta server omits the unchanged parts and sends the slot table delta
+    SlotTable newSlotTable =
+        new SlotTable(
+            20, Lists.newArrayList(new Slot(0, "192.168.1.4", 2, Collections.emptyList())));
+    HeartbeatRequest req = new HeartbeatRequest(null, 10, "dc1", 0, null).setSlotTable(slotTable);
+    BaseHeartBeatResponse data =
+        new BaseHeartBeatResponse(true, null, null, null, "test", 100)
+            .setSlotTableDelta(SlotTableDelta.of(slotTable, newSlotTable));
+    resp.fillSucceed(data);
+    mockServerService.handleHeartbeatResponse(req, resp);
+    Assert.assertEquals(20, data.getSlotTable().getEpoch());
+    Assert.assertEquals(newSlotTable.getSlotMap(), data.getSlotTable().getSlotMap());
+    Assert.assertSame(metaNodes, data.getVersionedMetaNodes());
+    Assert.assertSame(sessionNodes, data.getVersionedSessionNodes());
+    Assert.assertEquals(Sets.newHashSet("192.168.1.4"), mockServerService.getDataServerList());
+    Assert.assertEquals(Sets.newHashSet("192.168.1.2"), mockServerService.getSessionServerList());
+  }
+
   @Test
   public void testSuspend() {
     MockServerService mockServerService = new MockServerService();
@@ -42,6 +42,14 @@ public interface AppRevisionRepository {
    */
   AppRevision queryRevision(String revision);
 
+  /**
+   * get AppRevisions in batch
+   *
+   * @param revisions
+   * @return the exist AppRevisions
+   */
+  Map<String, AppRevision> queryRevisions(Collection<String> revisions);
+
   boolean heartbeat(String revision);
 
   Collection<String> availableRevisions();
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jdbc.batch;
+
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.util.ConcurrentUtils;
+import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * queue the elements and process them in batch by a daemon thread. a batch is processed when the
+ * window elapsed or the queued elements reach the batch size
+ */
+public abstract class AbstractBatchProcessor<E> {
+
+  private final BlockingQueue<E> queue;
+
+  private final Worker worker = new Worker();
+
+  private boolean started;
+
+  protected volatile int windowMillis;
+
+  protected volatile int batchSize = 200;
+
+  protected final String name;
+
+  private final String type;
+
+  protected final Logger logger;
+
+  protected AbstractBatchProcessor(
+      String name, String type, Logger logger, int queueSize, int windowMillis) {
+    this.name = name;
+    this.type = type;
+    this.logger = logger;
+    this.windowMillis = windowMillis;
+    this.queue = new LinkedBlockingQueue<>(queueSize);
+  }
+
+  public synchronized void start() {
+    if (started) {
+      return;
+    }
+    ConcurrentUtils.createDaemonThread(name + "-" + type, worker).start();
+    started = true;
+    logger.info("{}-{} started", name, type);
+  }
+
+  /**
+   * queue the element to the next batch
+   *
+   * @param element
+   * @return false if the queue is full
+   */
+  protected boolean offer(E element) {
+    if (!queue.offer(element)) {
+      return false;
+    }
+    if (queue.size() >= batchSize) {
+      worker.wakeup();
+    }
+    return true;
+  }
+
+  /**
+   * drain at most batchSize elements from the queue and process them
+   *
+   * @return the count of the processed elements
+   */
+  protected int processBatch() {
+    final List<E> batch = Lists.newArrayListWithCapacity(batchSize);
+    queue.drainTo(batch, batchSize);
+    if (!batch.isEmpty()) {
+      process(batch);
+    }
+    return batch.size();
+  }
+
+  /**
+   * process the drained elements, the failures should be completed to the submitters
+   *
+   * @param batch
+   */
+  protected abstract void process(List<E> batch);
+
+  public int pendingSize() {
+    return queue.size();
+  }
+
+  public void setWindowMillis(int windowMillis) {
+    this.windowMillis = windowMillis;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  private final class Worker extends WakeUpLoopRunnable {
+    @Override
+    public void runUnthrowable() {
+      int processed;
+      do {
+        processed = processBatch();
+        // a full batch means there may be backlog, process it without waiting the window
+      } while (processed >= batchSize);
+    }
+
+    @Override
+    public int getWaitingMillis() {
+      return windowMillis;
+    }
+  }
+}
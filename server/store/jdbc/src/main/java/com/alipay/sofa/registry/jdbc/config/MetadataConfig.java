@@ -24,4 +24,16 @@ public interface MetadataConfig {
   int getRevisionRenewIntervalMinutes();
 
   int getInterfaceAppsIndexRenewIntervalMinutes();
+
+  int getHeartbeatGroupCommitWindowMillis();
+
+  int getHeartbeatGroupCommitBatchSize();
+
+  int getRevisionBatchLoadWindowMillis();
+
+  int getRevisionBatchLoadSize();
+
+  boolean isInformerSnapshotEnable();
+
+  String getInformerSnapshotDir();
 }
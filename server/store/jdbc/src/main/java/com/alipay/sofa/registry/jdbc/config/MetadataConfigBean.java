@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.jdbc.config;
 
+import java.io.File;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -29,6 +30,13 @@ public class MetadataConfigBean implements MetadataConfig {
 
   private int revisionRenewIntervalMinutes = 60 * 3;
   private int interfaceAppsIndexRenewIntervalMinutes = 60 * 3;
+  private int heartbeatGroupCommitWindowMillis = 20;
+  private int heartbeatGroupCommitBatchSize = 200;
+  private int revisionBatchLoadWindowMillis = 10;
+  private int revisionBatchLoadSize = 200;
+  private boolean informerSnapshotEnable = false;
+  private String informerSnapshotDir =
+      System.getProperty("user.home") + File.separator + "registry" + File.separator + "informer";
 
   public int getRevisionRenewIntervalMinutes() {
     return revisionRenewIntervalMinutes;
@@ -46,4 +54,52 @@ public class MetadataConfigBean implements MetadataConfig {
       int interfaceAppsIndexRenewIntervalMinutes) {
     this.interfaceAppsIndexRenewIntervalMinutes = interfaceAppsIndexRenewIntervalMinutes;
   }
+
+  public int getHeartbeatGroupCommitWindowMillis() {
+    return heartbeatGroupCommitWindowMillis;
+  }
+
+  public void setHeartbeatGroupCommitWindowMillis(int heartbeatGroupCommitWindowMillis) {
+    this.heartbeatGroupCommitWindowMillis = heartbeatGroupCommitWindowMillis;
+  }
+
+  public int getHeartbeatGroupCommitBatchSize() {
+    return heartbeatGroupCommitBatchSize;
+  }
+
+  public void setHeartbeatGroupCommitBatchSize(int heartbeatGroupCommitBatchSize) {
+    this.heartbeatGroupCommitBatchSize = heartbeatGroupCommitBatchSize;
+  }
+
+  public int getRevisionBatchLoadWindowMillis() {
+    return revisionBatchLoadWindowMillis;
+  }
+
+  public void setRevisionBatchLoadWindowMillis(int revisionBatchLoadWindowMillis) {
+    this.revisionBatchLoadWindowMillis = revisionBatchLoadWindowMillis;
+  }
+
+  public int getRevisionBatchLoadSize() {
+    return revisionBatchLoadSize;
+  }
+
+  public void setRevisionBatchLoadSize(int revisionBatchLoadSize) {
+    this.revisionBatchLoadSize = revisionBatchLoadSize;
+  }
+
+  public boolean isInformerSnapshotEnable() {
+    return informerSnapshotEnable;
+  }
+
+  public void setInformerSnapshotEnable(boolean informerSnapshotEnable) {
+    this.informerSnapshotEnable = informerSnapshotEnable;
+  }
+
+  public String getInformerSnapshotDir() {
+    return informerSnapshotDir;
+  }
+
+  public void setInformerSnapshotDir(String informerSnapshotDir) {
+    this.informerSnapshotDir = informerSnapshotDir;
+  }
 }
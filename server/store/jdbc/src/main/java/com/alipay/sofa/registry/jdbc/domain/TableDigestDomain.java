@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jdbc.domain;
+
+/** the digest of the rows of a table, used to check the informer container is consistent */
+public class TableDigestDomain {
+  /** the live rows which id is not larger than the loaded id */
+  private long liveCount;
+
+  /** the max id of the table */
+  private long maxId;
+
+  public TableDigestDomain() {}
+
+  public TableDigestDomain(long liveCount, long maxId) {
+    this.liveCount = liveCount;
+    this.maxId = maxId;
+  }
+
+  public long getLiveCount() {
+    return liveCount;
+  }
+
+  public void setLiveCount(long liveCount) {
+    this.liveCount = liveCount;
+  }
+
+  public long getMaxId() {
+    return maxId;
+  }
+
+  public void setMaxId(long maxId) {
+    this.maxId = maxId;
+  }
+
+  @Override
+  public String toString() {
+    return "TableDigest{" + "liveCount=" + liveCount + ", maxId=" + maxId + '}';
+  }
+}
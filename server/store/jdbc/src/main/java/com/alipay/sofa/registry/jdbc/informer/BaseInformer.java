@@ -16,16 +16,30 @@
  */
 package com.alipay.sofa.registry.jdbc.informer;
 
+import com.alipay.sofa.registry.jdbc.domain.TableDigestDomain;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
 import org.apache.commons.collections.CollectionUtils;
 
 public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer<T>> {
@@ -50,6 +64,15 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
   private static final int DB_INSERT_DELAY_MS = 1000;
   private volatile boolean allSynced = false;
 
+  private static final int SNAPSHOT_MAGIC = 0x52494E46;
+  private static final int SNAPSHOT_VERSION = 1;
+  protected int snapshotIntervalMs = 1000 * 60;
+  private volatile File snapshotFile;
+  private long snapshotLoadId = -1;
+  private long snapshotTimestamp;
+  // the container is incomplete before the first list or restore
+  private volatile boolean listRequired = true;
+
   public BaseInformer(String name, Logger logger) {
     this.name = name;
     this.logger = logger;
@@ -68,6 +91,7 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
     if (started) {
       return;
     }
+    restoreSnapshot();
     ConcurrentUtils.createDaemonThread(name + "-WatchLoop", watchLoop).start();
     ConcurrentUtils.createDaemonThread(name + "-ListLoop", listLoop).start();
     started = true;
@@ -106,6 +130,7 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
       preList(newContainer);
       this.container = newContainer;
       lastLoadId = maxId;
+      listRequired = false;
     } finally {
       syncEnd();
     }
@@ -176,6 +201,167 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
     }
   }
 
+  /**
+   * the full list is skipped if the container is consistent with the storage: the live rows equal
+   * the live entries in the container, and the table is not truncated
+   */
+  private boolean isConsistent() {
+    final C current = container;
+    if (!(current instanceof SnapshotContainer)) {
+      return false;
+    }
+    final long loadId = lastLoadId;
+    final TableDigestDomain digest = digestFromStorage(loadId);
+    if (digest == null) {
+      return false;
+    }
+    final long liveCount = ((SnapshotContainer) current).liveCount();
+    final boolean consistent = digest.getMaxId() >= loadId && digest.getLiveCount() == liveCount;
+    logger.info(
+        "{}-consistency check: {}, lastLoadId={}, liveCount={}, {}",
+        name,
+        consistent,
+        loadId,
+        liveCount,
+        digest);
+    return consistent;
+  }
+
+  @VisibleForTesting
+  void syncList() {
+    listLock.lock();
+    try {
+      if (listRequired || !isConsistent()) {
+        list();
+        recordSnapshot(true);
+      }
+    } finally {
+      listLock.unlock();
+    }
+  }
+
+  @VisibleForTesting
+  void restoreSnapshot() {
+    final File file = snapshotFile;
+    if (file == null || !file.exists()) {
+      return;
+    }
+    try {
+      final C restored = containerFactory();
+      if (!(restored instanceof SnapshotContainer)) {
+        return;
+      }
+      final DataInputStream in = openSnapshot(file);
+      final String scope = in.readUTF();
+      final long loadId = in.readLong();
+      final long timestamp = in.readLong();
+      if (!scope.equals(snapshotScope())) {
+        logger.info("{}-skip snapshot of scope {}, expect {}", name, scope, snapshotScope());
+        return;
+      }
+      ((SnapshotContainer) restored).readFrom(in);
+      this.container = restored;
+      this.lastLoadId = loadId;
+      this.snapshotLoadId = loadId;
+      this.listRequired = false;
+      logger.info(
+          "{}-restored snapshot, lastLoadId={}, liveCount={}, age={}",
+          name,
+          loadId,
+          ((SnapshotContainer) restored).liveCount(),
+          System.currentTimeMillis() - timestamp);
+    } catch (Throwable e) {
+      logger.error("{}-failed to restore snapshot {}", name, file, e);
+    }
+  }
+
+  private static DataInputStream openSnapshot(File file) throws IOException {
+    final byte[] content = Files.readAllBytes(file.toPath());
+    final int bodyLength = content.length - 8;
+    if (bodyLength < 0) {
+      throw new IOException("truncated file, length=" + content.length);
+    }
+    final CRC32 crc = new CRC32();
+    crc.update(content, 0, bodyLength);
+    if (crc.getValue() != ByteBuffer.wrap(content, bodyLength, 8).getLong()) {
+      throw new IOException("checksum mismatch");
+    }
+    final DataInputStream in =
+        new DataInputStream(new ByteArrayInputStream(content, 0, bodyLength));
+    final int magic = in.readInt();
+    final int version = in.readInt();
+    if (magic != SNAPSHOT_MAGIC || version != SNAPSHOT_VERSION) {
+      throw new IOException(String.format("unknown format, magic=%x, version=%d", magic, version));
+    }
+    return in;
+  }
+
+  @VisibleForTesting
+  void recordSnapshot(boolean force) {
+    final File file = snapshotFile;
+    final C current = container;
+    if (file == null || !(current instanceof SnapshotContainer)) {
+      return;
+    }
+    final long now = System.currentTimeMillis();
+    final long loadId = lastLoadId;
+    if (!force && (loadId == snapshotLoadId || now - snapshotTimestamp < snapshotIntervalMs)) {
+      return;
+    }
+    try {
+      writeSnapshot(file, (SnapshotContainer) current, loadId);
+      snapshotLoadId = loadId;
+      snapshotTimestamp = now;
+    } catch (Throwable e) {
+      logger.error("{}-failed to record snapshot {}", name, file, e);
+    }
+  }
+
+  private void writeSnapshot(File file, SnapshotContainer current, long loadId) throws IOException {
+    final File dir = file.getAbsoluteFile().getParentFile();
+    if (!dir.exists() && !dir.mkdirs()) {
+      throw new IOException("failed to create dir " + dir);
+    }
+    // the informers of the processes in the same host may share the file
+    final Path tmp = Files.createTempFile(dir.toPath(), file.getName(), ".tmp");
+    try {
+      try (BufferedOutputStream buffered = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+        final CheckedOutputStream checked = new CheckedOutputStream(buffered, new CRC32());
+        final DataOutputStream out = new DataOutputStream(checked);
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeUTF(snapshotScope());
+        out.writeLong(loadId);
+        out.writeLong(System.currentTimeMillis());
+        current.writeTo(out);
+        out.flush();
+        // the checksum is not covered by itself
+        new DataOutputStream(buffered).writeLong(checked.getChecksum().getValue());
+      }
+      Files.move(
+          tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+    logger.info(
+        "{}-recorded snapshot, lastLoadId={}, liveCount={}", name, loadId, current.liveCount());
+  }
+
+  /**
+   * record the container to the file, the informer restores it at start and only watches the
+   * entries after it
+   *
+   * @param snapshotFile
+   */
+  public void setSnapshotFile(File snapshotFile) {
+    this.snapshotFile = snapshotFile;
+  }
+
+  @VisibleForTesting
+  boolean isListRequired() {
+    return listRequired;
+  }
+
   protected abstract C containerFactory();
 
   protected abstract List<T> listFromStorage(long start, int limit);
@@ -184,6 +370,21 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
 
   protected void preList(C newContainer) {}
 
+  /**
+   * the digest of the live rows which id is not larger than maxId
+   *
+   * @param maxId
+   * @return null if not support, the full list is always required
+   */
+  protected TableDigestDomain digestFromStorage(long maxId) {
+    return null;
+  }
+
+  /** the snapshot of other scope is not restored, e.g. the cluster of the table */
+  protected String snapshotScope() {
+    return "";
+  }
+
   private final class WatchLoop extends WakeUpLoopRunnable {
 
     @Override
@@ -199,6 +400,7 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
       listLock.lock();
       try {
         watch();
+        recordSnapshot(false);
       } finally {
         listLock.unlock();
       }
@@ -217,12 +419,7 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
       if (!enabled) {
         return;
       }
-      listLock.lock();
-      try {
-        list();
-      } finally {
-        listLock.unlock();
-      }
+      syncList();
     }
   }
 
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jdbc.loader;
+
+import com.alipay.sofa.registry.jdbc.batch.AbstractBatchProcessor;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * coalesce the loads of the keys submitted in a short window into one batch query. the concurrent
+ * loads of the same key share the result
+ */
+public abstract class BatchLoader<K, V> extends AbstractBatchProcessor<K> {
+
+  private final Map<K, CompletableFuture<V>> loadings = Maps.newConcurrentMap();
+
+  public BatchLoader(String name, Logger logger, int queueSize) {
+    super(name, "BatchLoader", logger, queueSize, 10);
+  }
+
+  /**
+   * submit the key to the next batch, join the loading one if the key is loading
+   *
+   * @param key
+   * @return completed with null if the key not exist
+   */
+  public CompletableFuture<V> submit(K key) {
+    final CompletableFuture<V> future = new CompletableFuture<>();
+    final CompletableFuture<V> exist = loadings.putIfAbsent(key, future);
+    if (exist != null) {
+      return exist;
+    }
+    if (!offer(key)) {
+      loadings.remove(key, future);
+      future.completeExceptionally(
+          new RejectedExecutionException(
+              StringFormatter.format("{} batch load queue is full, size={}", name, pendingSize())));
+    }
+    return future;
+  }
+
+  @VisibleForTesting
+  int load() {
+    return processBatch();
+  }
+
+  @Override
+  protected void process(List<K> keys) {
+    Map<K, V> values = null;
+    Throwable exception = null;
+    try {
+      values = loadAll(keys);
+    } catch (Throwable e) {
+      logger.error("{} batch load failed, size={}", name, keys.size(), e);
+      exception = e;
+    }
+    for (K key : keys) {
+      final CompletableFuture<V> future = loadings.remove(key);
+      if (future == null) {
+        continue;
+      }
+      if (exception != null) {
+        future.completeExceptionally(exception);
+      } else {
+        future.complete(values.get(key));
+      }
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          "{} batch loaded, size={}, found={}",
+          name,
+          keys.size(),
+          values == null ? 0 : values.size());
+    }
+  }
+
+  /**
+   * load the keys in batch
+   *
+   * @param keys
+   * @return the exist values, the absent key means not exist
+   */
+  protected abstract Map<K, V> loadAll(Collection<K> keys);
+}
@@ -17,6 +17,7 @@
 package com.alipay.sofa.registry.jdbc.mapper;
 
 import com.alipay.sofa.registry.jdbc.domain.AppRevisionDomain;
+import com.alipay.sofa.registry.jdbc.domain.TableDigestDomain;
 import java.util.Date;
 import java.util.List;
 import org.apache.ibatis.annotations.Param;
@@ -51,8 +52,19 @@ public interface AppRevisionMapper {
    *
    * @param dataCenter
    * @param revisions
+   * @return effect rows number
    */
-  void batchHeartbeat(
+  int batchHeartbeat(
+      @Param("dataCenter") String dataCenter, @Param("revisions") List<String> revisions);
+
+  /**
+   * batch check the revisions exist and not deleted
+   *
+   * @param dataCenter
+   * @param revisions
+   * @return the exist revisions
+   */
+  List<String> batchCheck(
       @Param("dataCenter") String dataCenter, @Param("revisions") List<String> revisions);
 
   List<AppRevisionDomain> listRevisions(
@@ -60,6 +72,15 @@ public interface AppRevisionMapper {
       @Param("afterId") long afterId,
       @Param("limit") int limit);
 
+  /**
+   * the digest of the live revisions
+   *
+   * @param dataCenter
+   * @param maxId
+   * @return the count of the live revisions which id is not larger than maxId, and the max id
+   */
+  TableDigestDomain digest(@Param("dataCenter") String dataCenter, @Param("maxId") long maxId);
+
   int heartbeat(@Param("dataCenter") String dataCenter, @Param("revision") String revision);
 
   void replace(AppRevisionDomain domain);
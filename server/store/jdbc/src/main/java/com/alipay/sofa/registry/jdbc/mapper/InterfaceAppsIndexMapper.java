@@ -17,6 +17,7 @@
 package com.alipay.sofa.registry.jdbc.mapper;
 
 import com.alipay.sofa.registry.jdbc.domain.InterfaceAppsIndexDomain;
+import com.alipay.sofa.registry.jdbc.domain.TableDigestDomain;
 import java.util.Date;
 import java.util.List;
 import org.apache.ibatis.annotations.Param;
@@ -53,6 +54,32 @@ public interface InterfaceAppsIndexMapper {
    */
   int update(InterfaceAppsIndexDomain domain);
 
+  /**
+   * batch update the gmt_modified of the interfaces of the app
+   *
+   * @param dataCenter
+   * @param appName
+   * @param hashcodes
+   * @return effect rows number
+   */
+  int batchUpdate(
+      @Param("dataCenter") String dataCenter,
+      @Param("appName") String appName,
+      @Param("hashcodes") List<String> hashcodes);
+
+  /**
+   * batch check the interfaces of the app exist and referenced
+   *
+   * @param dataCenter
+   * @param appName
+   * @param hashcodes
+   * @return the exist hashcodes
+   */
+  List<String> batchCheck(
+      @Param("dataCenter") String dataCenter,
+      @Param("appName") String appName,
+      @Param("hashcodes") List<String> hashcodes);
+
   /**
    * query domains which gmt_modified is after than maxUpdate
    *
@@ -65,6 +92,15 @@ public interface InterfaceAppsIndexMapper {
       @Param("maxId") long maxId,
       @Param("limitCount") int limitCount);
 
+  /**
+   * the digest of the referenced interface app mappings
+   *
+   * @param dataCenter
+   * @param maxId
+   * @return the count of the referenced mappings which id is not larger than maxId, and the max id
+   */
+  TableDigestDomain digest(@Param("dataCenter") String dataCenter, @Param("maxId") long maxId);
+
   List<InterfaceAppsIndexDomain> getExpired(
       @Param("dataCenter") String dataCenter,
       @Param("beforeTime") Date beforeTime,
@@ -17,12 +17,15 @@
 package com.alipay.sofa.registry.jdbc.repository.impl;
 
 import com.alipay.sofa.registry.jdbc.domain.AppRevisionDomain;
-import com.alipay.sofa.registry.jdbc.informer.DbEntryContainer;
+import com.alipay.sofa.registry.jdbc.informer.SnapshotContainer;
 import com.google.common.collect.Maps;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Map;
 import java.util.function.BiConsumer;
 
-public class AppRevisionContainer implements DbEntryContainer<AppRevisionDomain> {
+public class AppRevisionContainer implements SnapshotContainer<AppRevisionDomain> {
   private final Map<String, String> data = Maps.newConcurrentMap();
 
   @Override
@@ -45,4 +48,26 @@ public class AppRevisionContainer implements DbEntryContainer<AppRevisionDomain>
   public void foreach(BiConsumer<String, String> f) {
     data.forEach(f);
   }
+
+  @Override
+  public long liveCount() {
+    return data.size();
+  }
+
+  @Override
+  public synchronized void writeTo(DataOutput out) throws IOException {
+    out.writeInt(data.size());
+    for (Map.Entry<String, String> e : data.entrySet()) {
+      out.writeUTF(e.getKey());
+      out.writeUTF(e.getValue());
+    }
+  }
+
+  @Override
+  public synchronized void readFrom(DataInput in) throws IOException {
+    final int size = in.readInt();
+    for (int i = 0; i < size; i++) {
+      data.put(in.readUTF(), in.readUTF());
+    }
+  }
 }
@@ -23,12 +23,16 @@ import static com.alipay.sofa.registry.jdbc.repository.impl.MetadataMetrics.Regi
 import com.alipay.sofa.registry.cache.CacheCleaner;
 import com.alipay.sofa.registry.common.model.store.AppRevision;
 import com.alipay.sofa.registry.concurrent.CachedExecutor;
+import com.alipay.sofa.registry.jdbc.config.MetadataConfig;
 import com.alipay.sofa.registry.jdbc.constant.TableEnum;
 import com.alipay.sofa.registry.jdbc.convertor.AppRevisionDomainConvertor;
 import com.alipay.sofa.registry.jdbc.domain.AppRevisionDomain;
+import com.alipay.sofa.registry.jdbc.domain.TableDigestDomain;
 import com.alipay.sofa.registry.jdbc.exception.RevisionNotExistException;
 import com.alipay.sofa.registry.jdbc.informer.BaseInformer;
+import com.alipay.sofa.registry.jdbc.loader.BatchLoader;
 import com.alipay.sofa.registry.jdbc.mapper.AppRevisionMapper;
+import com.alipay.sofa.registry.jdbc.writer.GroupCommitWriter;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.store.api.config.DefaultCommonConfig;
@@ -41,8 +45,12 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.io.File;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
@@ -68,6 +76,10 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
 
   private final CachedExecutor<String, Boolean> cachedExecutor = new CachedExecutor<>(1000 * 10);
 
+  private static final int WRITE_TIMEOUT_MILLIS = 1000 * 5;
+
+  private static final int LOAD_TIMEOUT_MILLIS = 1000 * 5;
+
   @Autowired private AppRevisionMapper appRevisionMapper;
 
   @Resource private InterfaceAppsJdbcRepository interfaceAppsJdbcRepository;
@@ -76,8 +88,14 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
 
   @Autowired private DefaultCommonConfig defaultCommonConfig;
 
+  @Autowired private MetadataConfig metadataConfig;
+
   final Informer informer;
 
+  final Writer writer;
+
+  final RevisionLoader revisionLoader;
+
   public AppRevisionJdbcRepository() {
     this.registry =
         CacheBuilder.newBuilder()
@@ -86,26 +104,39 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
             .build(
                 new CacheLoader<String, AppRevision>() {
                   @Override
-                  public AppRevision load(String revision) throws InterruptedException {
+                  public AppRevision load(String revision) throws Exception {
                     REVISION_CACHE_MISS_COUNTER.inc();
-                    AppRevisionDomain revisionDomain =
-                        appRevisionMapper.queryRevision(
-                            defaultCommonConfig.getClusterId(tableName()), revision);
-                    if (revisionDomain == null || revisionDomain.isDeleted()) {
+                    // coalesce with the concurrent misses
+                    AppRevision appRevision = awaitLoad(revisionLoader.submit(revision));
+                    if (appRevision == null) {
                       throw new RevisionNotExistException(revision);
                     }
-                    return AppRevisionDomainConvertor.convert2Revision(revisionDomain);
+                    return appRevision;
                   }
                 });
     CacheCleaner.autoClean(localRevisions, 1000 * 60 * 10);
     informer = new Informer();
+    writer = new Writer();
+    revisionLoader = new RevisionLoader();
   }
 
   @PostConstruct
   public void init() {
+    if (metadataConfig.isInformerSnapshotEnable()) {
+      informer.setSnapshotFile(
+          new File(metadataConfig.getInformerSnapshotDir(), "AppRevision.snapshot"));
+    }
     informer.setEnabled(true);
     informer.start();
 
+    writer.setWindowMillis(metadataConfig.getHeartbeatGroupCommitWindowMillis());
+    writer.setBatchSize(metadataConfig.getHeartbeatGroupCommitBatchSize());
+    writer.start();
+
+    revisionLoader.setWindowMillis(metadataConfig.getRevisionBatchLoadWindowMillis());
+    revisionLoader.setBatchSize(metadataConfig.getRevisionBatchLoadSize());
+    revisionLoader.start();
+
     Timer timer = new Timer("AppRevisionDigest", true);
     timer.scheduleAtFixedRate(
         new TimerTask() {
@@ -127,9 +158,8 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
     if (appRevision == null) {
       throw new RuntimeException("jdbc register app revision error, appRevision is null.");
     }
-    for (String interfaceName : appRevision.getInterfaceMap().keySet()) {
-      interfaceAppsJdbcRepository.register(interfaceName, appRevision.getAppName());
-    }
+    interfaceAppsJdbcRepository.register(
+        appRevision.getAppName(), appRevision.getInterfaceMap().keySet());
     localRevisions.put(appRevision.getRevision(), true);
     if (informer.getContainer().containsRevisionId(appRevision.getRevision())) {
       return;
@@ -163,6 +193,55 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
     }
   }
 
+  @Override
+  public Map<String, AppRevision> queryRevisions(Collection<String> revisions) {
+    Map<String, AppRevision> ret = Maps.newHashMapWithExpectedSize(revisions.size());
+    Map<String, CompletableFuture<AppRevision>> loadings = Maps.newHashMap();
+    for (String revision : revisions) {
+      AppRevision appRevision = registry.getIfPresent(revision);
+      if (appRevision != null) {
+        REVISION_CACHE_HIT_COUNTER.inc();
+        ret.put(revision, appRevision);
+      } else if (!loadings.containsKey(revision)) {
+        REVISION_CACHE_MISS_COUNTER.inc();
+        loadings.put(revision, revisionLoader.submit(revision));
+      }
+    }
+    awaitLoadings(loadings, ret);
+    return ret;
+  }
+
+  /** the failed revisions are skipped, the caller queries them again on the next use */
+  @VisibleForTesting
+  void awaitLoadings(
+      Map<String, CompletableFuture<AppRevision>> loadings, Map<String, AppRevision> ret) {
+    for (Map.Entry<String, CompletableFuture<AppRevision>> e : loadings.entrySet()) {
+      AppRevision appRevision;
+      try {
+        appRevision = awaitLoad(e.getValue());
+      } catch (Exception exception) {
+        if (exception instanceof InterruptedException) {
+          Thread.currentThread().interrupt();
+        }
+        LOG.error("jdbc query revision error, revision: {}", e.getKey(), exception);
+        continue;
+      }
+      if (appRevision != null) {
+        registry.put(e.getKey(), appRevision);
+        ret.put(e.getKey(), appRevision);
+      }
+    }
+  }
+
+  private static AppRevision awaitLoad(CompletableFuture<AppRevision> future) throws Exception {
+    try {
+      return future.get(LOAD_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      throw cause instanceof Exception ? (Exception) cause : e;
+    }
+  }
+
   @Override
   public boolean heartbeat(String revision) {
     localRevisions.put(revision, true);
@@ -197,9 +276,7 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
       cachedExecutor.execute(
           entry.getRevision(),
           () -> {
-            if (appRevisionMapper.heartbeat(entry.getDataCenter(), entry.getRevision()) == 0) {
-              appRevisionMapper.replace(entry);
-            }
+            writer.write(entry, WRITE_TIMEOUT_MILLIS);
             LOG.info("insert revision {}, succeed", entry.getRevision());
             return true;
           });
@@ -253,6 +330,64 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
     return TableEnum.APP_REVISION.getTableName();
   }
 
+  class Writer extends GroupCommitWriter<AppRevisionDomain> {
+
+    public Writer() {
+      super("AppRevision", LOG, 10000);
+    }
+
+    @Override
+    protected Collection<AppRevisionDomain> heartbeat(List<AppRevisionDomain> entries) {
+      Map<String, List<AppRevisionDomain>> groups = Maps.newHashMap();
+      for (AppRevisionDomain entry : entries) {
+        groups.computeIfAbsent(entry.getDataCenter(), k -> Lists.newArrayList()).add(entry);
+      }
+      List<AppRevisionDomain> misses = Lists.newArrayList();
+      for (Map.Entry<String, List<AppRevisionDomain>> group : groups.entrySet()) {
+        Set<String> revisions = Sets.newLinkedHashSet();
+        group.getValue().forEach(e -> revisions.add(e.getRevision()));
+        List<String> revisionList = Lists.newArrayList(revisions);
+        if (appRevisionMapper.batchHeartbeat(group.getKey(), revisionList) >= revisions.size()) {
+          continue;
+        }
+        Set<String> exists =
+            Sets.newHashSet(appRevisionMapper.batchCheck(group.getKey(), revisionList));
+        for (AppRevisionDomain entry : group.getValue()) {
+          if (!exists.contains(entry.getRevision())) {
+            misses.add(entry);
+          }
+        }
+      }
+      return misses;
+    }
+
+    @Override
+    protected void insert(AppRevisionDomain entry) {
+      appRevisionMapper.replace(entry);
+    }
+  }
+
+  class RevisionLoader extends BatchLoader<String, AppRevision> {
+
+    public RevisionLoader() {
+      super("AppRevision", LOG, 10000);
+    }
+
+    @Override
+    protected Map<String, AppRevision> loadAll(Collection<String> revisions) {
+      List<AppRevisionDomain> domains =
+          appRevisionMapper.batchQuery(
+              defaultCommonConfig.getClusterId(tableName()), Lists.newArrayList(revisions));
+      Map<String, AppRevision> ret = Maps.newHashMapWithExpectedSize(domains.size());
+      for (AppRevisionDomain domain : domains) {
+        if (!domain.isDeleted()) {
+          ret.put(domain.getRevision(), AppRevisionDomainConvertor.convert2Revision(domain));
+        }
+      }
+      return ret;
+    }
+  }
+
   class Informer extends BaseInformer<AppRevisionDomain, AppRevisionContainer> {
 
     public Informer() {
@@ -274,5 +409,15 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
     protected Date getNow() {
       return dateNowRepository.getNow();
     }
+
+    @Override
+    protected TableDigestDomain digestFromStorage(long maxId) {
+      return appRevisionMapper.digest(defaultCommonConfig.getClusterId(tableName()), maxId);
+    }
+
+    @Override
+    protected String snapshotScope() {
+      return defaultCommonConfig.getClusterId(tableName());
+    }
   }
 }
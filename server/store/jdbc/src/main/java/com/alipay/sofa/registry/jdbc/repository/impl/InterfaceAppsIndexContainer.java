@@ -18,13 +18,17 @@ package com.alipay.sofa.registry.jdbc.repository.impl;
 
 import com.alipay.sofa.registry.common.model.appmeta.InterfaceMapping;
 import com.alipay.sofa.registry.jdbc.domain.InterfaceAppsIndexDomain;
-import com.alipay.sofa.registry.jdbc.informer.DbEntryContainer;
+import com.alipay.sofa.registry.jdbc.informer.SnapshotContainer;
 import com.alipay.sofa.registry.util.TimestampUtil;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Map;
 import java.util.Set;
 
-public class InterfaceAppsIndexContainer implements DbEntryContainer<InterfaceAppsIndexDomain> {
+public class InterfaceAppsIndexContainer implements SnapshotContainer<InterfaceAppsIndexDomain> {
 
   private final Map<String, InterfaceMapping> data = Maps.newConcurrentMap();
 
@@ -66,6 +70,44 @@ public class InterfaceAppsIndexContainer implements DbEntryContainer<InterfaceAp
     return data.keySet();
   }
 
+  @Override
+  public long liveCount() {
+    long count = 0;
+    for (InterfaceMapping mapping : data.values()) {
+      count += mapping.getApps().size();
+    }
+    return count;
+  }
+
+  @Override
+  public synchronized void writeTo(DataOutput out) throws IOException {
+    out.writeInt(data.size());
+    for (Map.Entry<String, InterfaceMapping> e : data.entrySet()) {
+      final InterfaceMapping mapping = e.getValue();
+      out.writeUTF(e.getKey());
+      out.writeLong(mapping.getNanosVersion());
+      out.writeInt(mapping.getApps().size());
+      for (String app : mapping.getApps()) {
+        out.writeUTF(app);
+      }
+    }
+  }
+
+  @Override
+  public synchronized void readFrom(DataInput in) throws IOException {
+    final int size = in.readInt();
+    for (int i = 0; i < size; i++) {
+      final String interfaceName = in.readUTF();
+      final long nanosVersion = in.readLong();
+      final int appSize = in.readInt();
+      final Set<String> apps = Sets.newHashSetWithExpectedSize(appSize);
+      for (int j = 0; j < appSize; j++) {
+        apps.add(in.readUTF());
+      }
+      data.put(interfaceName, new InterfaceMapping(nanosVersion, apps));
+    }
+  }
+
   @Override
   public synchronized void onEntry(InterfaceAppsIndexDomain entry) {
     if (entry.isReference()) {
@@ -16,13 +16,16 @@
  */
 package com.alipay.sofa.registry.jdbc.repository.impl;
 
+import com.alipay.sofa.registry.cache.CacheCleaner;
 import com.alipay.sofa.registry.common.model.Tuple;
 import com.alipay.sofa.registry.common.model.appmeta.InterfaceMapping;
-import com.alipay.sofa.registry.concurrent.CachedExecutor;
+import com.alipay.sofa.registry.jdbc.config.MetadataConfig;
 import com.alipay.sofa.registry.jdbc.constant.TableEnum;
 import com.alipay.sofa.registry.jdbc.domain.InterfaceAppsIndexDomain;
+import com.alipay.sofa.registry.jdbc.domain.TableDigestDomain;
 import com.alipay.sofa.registry.jdbc.informer.BaseInformer;
 import com.alipay.sofa.registry.jdbc.mapper.InterfaceAppsIndexMapper;
+import com.alipay.sofa.registry.jdbc.writer.GroupCommitWriter;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.store.api.config.DefaultCommonConfig;
@@ -31,7 +34,15 @@ import com.alipay.sofa.registry.store.api.meta.RecoverConfig;
 import com.alipay.sofa.registry.store.api.repository.InterfaceAppsRepository;
 import com.alipay.sofa.registry.util.StringFormatter;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.io.File;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -49,19 +60,36 @@ public class InterfaceAppsJdbcRepository implements InterfaceAppsRepository, Rec
 
   @Autowired private DateNowRepository dateNowRepository;
 
-  private final CachedExecutor<Tuple<String, String>, Boolean> cachedExecutor =
-      new CachedExecutor<>(1000 * 10);
+  @Autowired private MetadataConfig metadataConfig;
+
+  /** the entries committed recently, skip writing them again in the silent time */
+  private final Cache<Tuple<String, String>, Boolean> committedEntries =
+      CacheBuilder.newBuilder().expireAfterWrite(10, TimeUnit.SECONDS).build();
+
+  private static final int WRITE_TIMEOUT_MILLIS = 1000 * 5;
 
   final Informer informer;
 
+  final Writer writer;
+
   public InterfaceAppsJdbcRepository() {
     informer = new Informer();
+    writer = new Writer();
+    CacheCleaner.autoClean(committedEntries, 1000 * 10);
   }
 
   @PostConstruct
   public void init() {
+    if (metadataConfig.isInformerSnapshotEnable()) {
+      informer.setSnapshotFile(
+          new File(metadataConfig.getInformerSnapshotDir(), "InterfaceAppsIndex.snapshot"));
+    }
     informer.setEnabled(true);
     informer.start();
+
+    writer.setWindowMillis(metadataConfig.getHeartbeatGroupCommitWindowMillis());
+    writer.setBatchSize(metadataConfig.getHeartbeatGroupCommitBatchSize());
+    writer.start();
   }
 
   @Override
@@ -76,20 +104,29 @@ public class InterfaceAppsJdbcRepository implements InterfaceAppsRepository, Rec
 
   @Override
   public void register(String interfaceName, String appName) {
+    register(appName, Collections.singletonList(interfaceName));
+  }
+
+  /** register the interfaces of the app, they are committed in the same group */
+  public void register(String appName, Collection<String> interfaceNames) {
     InterfaceAppsIndexContainer c = informer.getContainer();
-    if (c.containsName(interfaceName, appName)) {
-      return;
+    List<InterfaceAppsIndexDomain> entries = Lists.newArrayListWithCapacity(interfaceNames.size());
+    for (String interfaceName : interfaceNames) {
+      if (!c.containsName(interfaceName, appName)) {
+        entries.add(
+            new InterfaceAppsIndexDomain(
+                defaultCommonConfig.getClusterId(tableName()), interfaceName, appName));
+      }
     }
-    refreshEntryToStorage(
-        new InterfaceAppsIndexDomain(
-            defaultCommonConfig.getClusterId(tableName()), interfaceName, appName));
+    refreshEntriesToStorage(entries);
   }
 
   @Override
   public void renew(String interfaceName, String appName) {
-    refreshEntryToStorage(
-        new InterfaceAppsIndexDomain(
-            defaultCommonConfig.getClusterId(tableName()), interfaceName, appName));
+    refreshEntriesToStorage(
+        Collections.singletonList(
+            new InterfaceAppsIndexDomain(
+                defaultCommonConfig.getClusterId(tableName()), interfaceName, appName)));
   }
 
   @Override
@@ -97,20 +134,25 @@ public class InterfaceAppsJdbcRepository implements InterfaceAppsRepository, Rec
     informer.waitSynced();
   }
 
-  protected void refreshEntryToStorage(InterfaceAppsIndexDomain entry) {
+  protected void refreshEntriesToStorage(List<InterfaceAppsIndexDomain> entries) {
+    List<InterfaceAppsIndexDomain> pendings = Lists.newArrayListWithCapacity(entries.size());
+    List<CompletableFuture<Boolean>> futures = Lists.newArrayListWithCapacity(entries.size());
     try {
-      cachedExecutor.execute(
-          new Tuple<>(entry.getInterfaceName(), entry.getAppName()),
-          () -> {
-            if (interfaceAppsIndexMapper.update(entry) == 0) {
-              interfaceAppsIndexMapper.replace(entry);
-            }
-            LOG.info(
-                "insert interface app mapping {}=>{} succeed",
-                entry.getInterfaceName(),
-                entry.getAppName());
-            return true;
-          });
+      for (InterfaceAppsIndexDomain entry : entries) {
+        if (committedEntries.getIfPresent(key(entry)) == null) {
+          pendings.add(entry);
+          futures.add(writer.submit(entry));
+        }
+      }
+      for (int i = 0; i < pendings.size(); i++) {
+        InterfaceAppsIndexDomain entry = pendings.get(i);
+        GroupCommitWriter.await(futures.get(i), WRITE_TIMEOUT_MILLIS);
+        committedEntries.put(key(entry), true);
+        LOG.info(
+            "insert interface app mapping {}=>{} succeed",
+            entry.getInterfaceName(),
+            entry.getAppName());
+      }
     } catch (Exception e) {
       LOG.error("refresh to db failed: ", e);
       throw new RuntimeException(
@@ -118,9 +160,13 @@ public class InterfaceAppsJdbcRepository implements InterfaceAppsRepository, Rec
     }
   }
 
+  private static Tuple<String, String> key(InterfaceAppsIndexDomain entry) {
+    return new Tuple<>(entry.getInterfaceName(), entry.getAppName());
+  }
+
   @VisibleForTesting
   void cleanCache() {
-    cachedExecutor.clean();
+    committedEntries.invalidateAll();
   }
 
   public long getDataVersion() {
@@ -132,6 +178,52 @@ public class InterfaceAppsJdbcRepository implements InterfaceAppsRepository, Rec
     return TableEnum.INTERFACE_APP_INDEX.getTableName();
   }
 
+  class Writer extends GroupCommitWriter<InterfaceAppsIndexDomain> {
+
+    public Writer() {
+      super("InterfaceAppsIndex", LOG, 10000);
+    }
+
+    @Override
+    protected Collection<InterfaceAppsIndexDomain> heartbeat(
+        List<InterfaceAppsIndexDomain> entries) {
+      // the interfaces of a revision are registered together, group them by the app
+      Map<Tuple<String, String>, List<InterfaceAppsIndexDomain>> groups = Maps.newHashMap();
+      for (InterfaceAppsIndexDomain entry : entries) {
+        groups
+            .computeIfAbsent(
+                new Tuple<>(entry.getDataCenter(), entry.getAppName()), k -> Lists.newArrayList())
+            .add(entry);
+      }
+      List<InterfaceAppsIndexDomain> misses = Lists.newArrayList();
+      for (Map.Entry<Tuple<String, String>, List<InterfaceAppsIndexDomain>> group :
+          groups.entrySet()) {
+        final String dataCenter = group.getKey().getFirst();
+        final String appName = group.getKey().getSecond();
+        Set<String> hashcodes = Sets.newLinkedHashSet();
+        group.getValue().forEach(e -> hashcodes.add(e.getHashcode()));
+        List<String> hashcodeList = Lists.newArrayList(hashcodes);
+        if (interfaceAppsIndexMapper.batchUpdate(dataCenter, appName, hashcodeList)
+            >= hashcodes.size()) {
+          continue;
+        }
+        Set<String> exists =
+            Sets.newHashSet(interfaceAppsIndexMapper.batchCheck(dataCenter, appName, hashcodeList));
+        for (InterfaceAppsIndexDomain entry : group.getValue()) {
+          if (!exists.contains(entry.getHashcode())) {
+            misses.add(entry);
+          }
+        }
+      }
+      return misses;
+    }
+
+    @Override
+    protected void insert(InterfaceAppsIndexDomain entry) {
+      interfaceAppsIndexMapper.replace(entry);
+    }
+  }
+
   class Informer extends BaseInformer<InterfaceAppsIndexDomain, InterfaceAppsIndexContainer> {
     private ConflictCallback conflictCallback;
 
@@ -155,6 +247,16 @@ public class InterfaceAppsJdbcRepository implements InterfaceAppsRepository, Rec
       return dateNowRepository.getNow();
     }
 
+    @Override
+    protected TableDigestDomain digestFromStorage(long maxId) {
+      return interfaceAppsIndexMapper.digest(defaultCommonConfig.getClusterId(tableName()), maxId);
+    }
+
+    @Override
+    protected String snapshotScope() {
+      return defaultCommonConfig.getClusterId(tableName());
+    }
+
     @VisibleForTesting
     public void setConflictCallback(ConflictCallback runnable) {
       conflictCallback = runnable;
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jdbc.writer;
+
+import com.alipay.sofa.registry.jdbc.batch.AbstractBatchProcessor;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * collect the heartbeats of the entries in a short window and commit them in group: one batch
+ * heartbeat for all the entries, then insert the missing ones. the writers block until the group is
+ * committed, so the failures still return to the writers
+ */
+public abstract class GroupCommitWriter<T>
+    extends AbstractBatchProcessor<GroupCommitWriter.Pending<T>> {
+
+  public GroupCommitWriter(String name, Logger logger, int queueSize) {
+    super(name, "GroupCommit", logger, queueSize, 20);
+  }
+
+  /**
+   * write the entry and wait the group committed
+   *
+   * @param entry
+   * @param timeoutMillis
+   * @throws Exception the failure of the batch heartbeat or the insert of the entry
+   */
+  public void write(T entry, long timeoutMillis) throws Exception {
+    await(submit(entry), timeoutMillis);
+  }
+
+  /**
+   * submit the entry to the next group, the entries submitted together are committed in the same
+   * group if possible
+   *
+   * @param entry
+   * @return completed after the group committed
+   */
+  public CompletableFuture<Boolean> submit(T entry) {
+    final Pending<T> pending = new Pending<>(entry);
+    if (!offer(pending)) {
+      throw new RejectedExecutionException(
+          StringFormatter.format("{} group commit queue is full, size={}", name, pendingSize()));
+    }
+    return pending.future;
+  }
+
+  public static void await(Future<?> future, long timeoutMillis) throws Exception {
+    try {
+      future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      throw cause instanceof Exception ? (Exception) cause : e;
+    }
+  }
+
+  @VisibleForTesting
+  int commit() {
+    return processBatch();
+  }
+
+  @Override
+  protected void process(List<Pending<T>> pendings) {
+    final List<T> entries = Lists.newArrayListWithCapacity(pendings.size());
+    for (Pending<T> pending : pendings) {
+      entries.add(pending.entry);
+    }
+    final Set<T> misses = Sets.newIdentityHashSet();
+    try {
+      misses.addAll(heartbeat(entries));
+    } catch (Throwable e) {
+      logger.error("{} batch heartbeat failed, size={}", name, entries.size(), e);
+      for (Pending<T> pending : pendings) {
+        pending.future.completeExceptionally(e);
+      }
+      return;
+    }
+    for (Pending<T> pending : pendings) {
+      if (!misses.contains(pending.entry)) {
+        pending.future.complete(true);
+        continue;
+      }
+      try {
+        insert(pending.entry);
+        pending.future.complete(true);
+      } catch (Throwable e) {
+        logger.error("{} insert failed: {}", name, pending.entry, e);
+        pending.future.completeExceptionally(e);
+      }
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("{} group committed, size={}, insert={}", name, entries.size(), misses.size());
+    }
+  }
+
+  /**
+   * heartbeat the entries in batch
+   *
+   * @param entries
+   * @return the entries not exist in the storage
+   */
+  protected abstract Collection<T> heartbeat(List<T> entries);
+
+  protected abstract void insert(T entry);
+
+  static final class Pending<T> {
+    final T entry;
+    final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+    Pending(T entry) {
+      this.entry = entry;
+    }
+  }
+}
@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jdbc.informer;
+
+import com.alipay.sofa.registry.jdbc.domain.TableDigestDomain;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BaseInformerTest {
+  private static final Logger LOG = LoggerFactory.getLogger(BaseInformerTest.class);
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private final TreeMap<Long, MockEntry> storage = new TreeMap<>();
+  private File file;
+
+  @Before
+  public void before() {
+    storage.clear();
+    put(1, "a", true);
+    put(2, "b", false);
+    put(3, "c", true);
+    file = new File(folder.getRoot(), "Mock.snapshot");
+  }
+
+  @Test
+  public void testRestore() {
+    MockInformer informer = new MockInformer("dc");
+    informer.setSnapshotFile(file);
+    informer.restoreSnapshot();
+    Assert.assertTrue(informer.isListRequired());
+    informer.syncList();
+    Assert.assertEquals(1, informer.listCount);
+    Assert.assertFalse(informer.isListRequired());
+    Assert.assertTrue(file.exists());
+
+    MockInformer restored = new MockInformer("dc");
+    restored.setSnapshotFile(file);
+    restored.restoreSnapshot();
+    Assert.assertFalse(restored.isListRequired());
+    Assert.assertEquals(3, restored.getLastLoadId());
+    Assert.assertEquals(informer.getContainer().keys, restored.getContainer().keys);
+
+    // consistent with the storage, the full list is skipped
+    restored.syncList();
+    Assert.assertEquals(0, restored.listCount);
+    Assert.assertEquals(1, restored.digestCount);
+  }
+
+  @Test
+  public void testInconsistent() {
+    MockInformer informer = new MockInformer("dc");
+    informer.setSnapshotFile(file);
+    informer.syncList();
+
+    // the row is replaced while the informer is down
+    storage.remove(1L);
+    put(4, "a", false);
+    MockInformer restored = new MockInformer("dc");
+    restored.setSnapshotFile(file);
+    restored.restoreSnapshot();
+    Assert.assertFalse(restored.isListRequired());
+    restored.syncList();
+    Assert.assertEquals(1, restored.listCount);
+    Assert.assertEquals(4, restored.getLastLoadId());
+    Assert.assertEquals(1, restored.getContainer().liveCount());
+
+    // the table is truncated
+    storage.clear();
+    restored.syncList();
+    Assert.assertEquals(2, restored.listCount);
+    Assert.assertEquals(0, restored.getContainer().liveCount());
+  }
+
+  @Test
+  public void testScopeMismatch() {
+    MockInformer informer = new MockInformer("dc");
+    informer.setSnapshotFile(file);
+    informer.syncList();
+
+    MockInformer other = new MockInformer("other");
+    other.setSnapshotFile(file);
+    other.restoreSnapshot();
+    Assert.assertTrue(other.isListRequired());
+    Assert.assertEquals(0, other.getLastLoadId());
+    other.syncList();
+    Assert.assertEquals(1, other.listCount);
+  }
+
+  @Test
+  public void testCorrupt() throws IOException {
+    MockInformer informer = new MockInformer("dc");
+    informer.setSnapshotFile(file);
+    informer.syncList();
+
+    byte[] content = Files.readAllBytes(file.toPath());
+    content[content.length / 2] ^= 0xFF;
+    Files.write(file.toPath(), content);
+    MockInformer restored = new MockInformer("dc");
+    restored.setSnapshotFile(file);
+    restored.restoreSnapshot();
+    Assert.assertTrue(restored.isListRequired());
+
+    Files.write(file.toPath(), new byte[3]);
+    restored.restoreSnapshot();
+    Assert.assertTrue(restored.isListRequired());
+  }
+
+  @Test
+  public void testRecordThrottled() {
+    MockInformer informer = new MockInformer("dc");
+    informer.setSnapshotFile(file);
+    informer.syncList();
+    long modified = file.lastModified();
+    Assert.assertTrue(file.delete());
+
+    // the load id is not changed
+    informer.recordSnapshot(false);
+    Assert.assertFalse(file.exists());
+    informer.recordSnapshot(true);
+    Assert.assertTrue(file.exists());
+    Assert.assertTrue(file.lastModified() >= modified);
+  }
+
+  @Test
+  public void testNoSnapshot() {
+    MockInformer informer = new MockInformer("dc");
+    informer.digestSupported = false;
+    informer.syncList();
+    informer.syncList();
+    Assert.assertEquals(2, informer.listCount);
+  }
+
+  private void put(long id, String key, boolean live) {
+    storage.put(id, new MockEntry(id, key, live));
+  }
+
+  private static final class MockEntry implements DbEntry {
+    final long id;
+    final String key;
+    final boolean live;
+
+    MockEntry(long id, String key, boolean live) {
+      this.id = id;
+      this.key = key;
+      this.live = live;
+    }
+
+    @Override
+    public long getId() {
+      return id;
+    }
+
+    @Override
+    public Date getGmtCreate() {
+      return new Date(0);
+    }
+  }
+
+  private static final class MockContainer implements SnapshotContainer<MockEntry> {
+    final Map<String, Long> keys = Maps.newTreeMap();
+
+    @Override
+    public void onEntry(MockEntry entry) {
+      if (entry.live) {
+        keys.put(entry.key, entry.id);
+      } else {
+        keys.remove(entry.key);
+      }
+    }
+
+    @Override
+    public long liveCount() {
+      return keys.size();
+    }
+
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+      out.writeInt(keys.size());
+      for (Map.Entry<String, Long> e : keys.entrySet()) {
+        out.writeUTF(e.getKey());
+        out.writeLong(e.getValue());
+      }
+    }
+
+    @Override
+    public void readFrom(DataInput in) throws IOException {
+      int size = in.readInt();
+      for (int i = 0; i < size; i++) {
+        keys.put(in.readUTF(), in.readLong());
+      }
+    }
+  }
+
+  private final class MockInformer extends BaseInformer<MockEntry, MockContainer> {
+    final String scope;
+    boolean digestSupported = true;
+    int listCount;
+    int digestCount;
+
+    MockInformer(String scope) {
+      super("Mock", LOG);
+      this.scope = scope;
+    }
+
+    @Override
+    protected MockContainer containerFactory() {
+      return new MockContainer();
+    }
+
+    @Override
+    protected List<MockEntry> listFromStorage(long start, int limit) {
+      return Lists.newArrayList(storage.tailMap(start, false).values()).stream()
+          .limit(limit)
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    protected Date getNow() {
+      return new Date();
+    }
+
+    @Override
+    protected void preList(MockContainer newContainer) {
+      listCount++;
+    }
+
+    @Override
+    protected TableDigestDomain digestFromStorage(long maxId) {
+      if (!digestSupported) {
+        return null;
+      }
+      digestCount++;
+      TableDigestDomain digest = new TableDigestDomain();
+      digest.setLiveCount(
+          storage.headMap(maxId, true).values().stream().filter(e -> e.live).count());
+      digest.setMaxId(storage.isEmpty() ? 0 : storage.lastKey());
+      return digest;
+    }
+
+    @Override
+    protected String snapshotScope() {
+      return scope;
+    }
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jdbc.loader;
+
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BatchLoaderTest {
+  private static final Logger LOG = LoggerFactory.getLogger(BatchLoaderTest.class);
+
+  @Test
+  public void testLoad() throws Exception {
+    MockLoader loader = new MockLoader(100);
+    loader.values.put("a", "va");
+    CompletableFuture<String> a = loader.submit("a");
+    CompletableFuture<String> b = loader.submit("b");
+    // the loading key shares the future
+    Assert.assertSame(a, loader.submit("a"));
+    Assert.assertEquals(2, loader.pendingSize());
+    Assert.assertFalse(a.isDone());
+
+    Assert.assertEquals(2, loader.load());
+    Assert.assertEquals(0, loader.load());
+    Assert.assertEquals("va", a.get());
+    Assert.assertNull(b.get());
+    Assert.assertEquals(1, loader.loads.size());
+    Assert.assertEquals(Sets.newHashSet("a", "b"), Sets.newHashSet(loader.loads.get(0)));
+
+    // loaded, submit again
+    CompletableFuture<String> a1 = loader.submit("a");
+    Assert.assertNotSame(a, a1);
+    Assert.assertEquals(1, loader.load());
+    Assert.assertEquals("va", a1.get());
+  }
+
+  @Test
+  public void testFailed() throws Exception {
+    MockLoader loader = new MockLoader(100);
+    loader.failed = true;
+    CompletableFuture<String> a = loader.submit("a");
+    Assert.assertEquals(1, loader.load());
+    assertFailed(a);
+
+    loader.failed = false;
+    loader.values.put("a", "va");
+    a = loader.submit("a");
+    Assert.assertEquals(1, loader.load());
+    Assert.assertEquals("va", a.get());
+  }
+
+  @Test
+  public void testFullAndBatchSize() throws Exception {
+    MockLoader loader = new MockLoader(2);
+    loader.setBatchSize(1);
+    loader.submit("a");
+    loader.submit("b");
+    assertFailed(loader.submit("c"));
+    Assert.assertEquals(1, loader.load());
+    Assert.assertEquals(1, loader.load());
+    Assert.assertEquals(0, loader.load());
+    Assert.assertEquals(2, loader.loads.size());
+  }
+
+  @Test
+  public void testStart() throws Exception {
+    MockLoader loader = new MockLoader(100);
+    loader.values.put("a", "va");
+    loader.setWindowMillis(10);
+    loader.start();
+    loader.start();
+    Assert.assertEquals("va", loader.submit("a").get(3000, TimeUnit.MILLISECONDS));
+    Assert.assertNull(loader.submit("b").get(3000, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void testDrainBacklog() throws Exception {
+    MockLoader loader = new MockLoader(100);
+    loader.values.put("c", "vc");
+    loader.setBatchSize(2);
+    // the backlog is drained after wakeup, not waiting the window
+    loader.setWindowMillis(60000);
+    List<CompletableFuture<String>> futures = Lists.newArrayList();
+    for (String key : new String[] {"a", "b", "c", "d"}) {
+      futures.add(loader.submit(key));
+    }
+    loader.start();
+    for (CompletableFuture<String> future : futures) {
+      future.get(3000, TimeUnit.MILLISECONDS);
+    }
+    Assert.assertEquals("vc", futures.get(2).get());
+    Assert.assertEquals(2, loader.loads.size());
+  }
+
+  private static void assertFailed(CompletableFuture<String> future) throws InterruptedException {
+    try {
+      future.get();
+      Assert.fail();
+    } catch (ExecutionException e) {
+      // expect
+    }
+  }
+
+  private static final class MockLoader extends BatchLoader<String, String> {
+    final Map<String, String> values = Maps.newConcurrentMap();
+    final List<List<String>> loads = Lists.newCopyOnWriteArrayList();
+    volatile boolean failed;
+
+    MockLoader(int queueSize) {
+      super("Mock", LOG, queueSize);
+    }
+
+    @Override
+    protected Map<String, String> loadAll(Collection<String> keys) {
+      if (failed) {
+        throw new IllegalStateException("mock load failed");
+      }
+      loads.add(Lists.newArrayList(keys));
+      Map<String, String> ret = Maps.newHashMap();
+      for (String key : keys) {
+        if (values.containsKey(key)) {
+          ret.put(key, values.get(key));
+        }
+      }
+      return ret;
+    }
+  }
+}
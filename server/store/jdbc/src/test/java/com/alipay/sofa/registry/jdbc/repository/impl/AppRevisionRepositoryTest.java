@@ -40,6 +40,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import org.junit.Assert;
 import org.junit.Before;
@@ -173,6 +174,49 @@ public class AppRevisionRepositoryTest extends AbstractH2DbTestBase {
     Assert.assertEquals(cache.asMap().size(), APP_REVISION_SIZE.intValue());
   }
 
+  @Test
+  public void queryRevisions() throws Exception {
+    AppRevisionJdbcRepository repository = (AppRevisionJdbcRepository) appRevisionJdbcRepository;
+    register();
+    LoadingCache<String, AppRevision> cache = repository.getRevisions();
+    cache.invalidateAll();
+
+    List<String> revisions = Lists.newArrayList("notExistRevision");
+    for (AppRevision appRevision : appRevisionList) {
+      revisions.add(appRevision.getRevision());
+    }
+    Map<String, AppRevision> ret = appRevisionJdbcRepository.queryRevisions(revisions);
+    Assert.assertEquals(appRevisionList.size(), ret.size());
+    for (AppRevision appRevision : appRevisionList) {
+      Assert.assertEquals(
+          appRevision.getAppName(), ret.get(appRevision.getRevision()).getAppName());
+    }
+    Assert.assertEquals(cache.asMap().size(), APP_REVISION_SIZE.intValue());
+    // hit the cache
+    Assert.assertEquals(ret, appRevisionJdbcRepository.queryRevisions(revisions));
+  }
+
+  @Test
+  public void queryRevisionsPartialFail() {
+    AppRevisionJdbcRepository repository = (AppRevisionJdbcRepository) appRevisionJdbcRepository;
+    AppRevision appRevision = new AppRevision();
+    appRevision.setRevision("loadedRevision");
+    appRevision.setAppName("loadedApp");
+    CompletableFuture<AppRevision> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new RuntimeException("test"));
+    Map<String, CompletableFuture<AppRevision>> loadings = Maps.newLinkedHashMap();
+    loadings.put("failedRevision", failed);
+    loadings.put("loadedRevision", CompletableFuture.completedFuture(appRevision));
+    loadings.put("notExistRevision", CompletableFuture.completedFuture(null));
+
+    Map<String, AppRevision> ret = Maps.newHashMap();
+    repository.awaitLoadings(loadings, ret);
+    // the failed one is skipped and the loaded ones are returned
+    Assert.assertEquals(1, ret.size());
+    Assert.assertEquals("loadedApp", ret.get("loadedRevision").getAppName());
+    Assert.assertNull(repository.getRevisions().getIfPresent("failedRevision"));
+  }
+
   class HeartbeatRunner extends LoopRunnable {
 
     @Override
@@ -19,6 +19,7 @@ package com.alipay.sofa.registry.jdbc.repository.impl;
 import com.alipay.sofa.registry.common.model.appmeta.InterfaceMapping;
 import com.alipay.sofa.registry.jdbc.AbstractH2DbTestBase;
 import com.alipay.sofa.registry.jdbc.domain.InterfaceAppsIndexDomain;
+import com.alipay.sofa.registry.jdbc.domain.TableDigestDomain;
 import com.alipay.sofa.registry.store.api.repository.AppRevisionRepository;
 import com.alipay.sofa.registry.store.api.repository.InterfaceAppsRepository;
 import com.alipay.sofa.registry.util.TimestampUtil;
@@ -60,6 +61,9 @@ public class InterfaceAppsJdbcRepositoryTest extends AbstractH2DbTestBase {
       Assert.assertTrue(appNames.getApps().contains(app1));
       Assert.assertTrue(appNames.getApps().contains(app2));
     }
+    TableDigestDomain digest = impl.informer.digestFromStorage(impl.informer.getLastLoadId());
+    Assert.assertEquals(impl.informer.getContainer().liveCount(), digest.getLiveCount());
+    Assert.assertTrue(digest.getMaxId() >= impl.informer.getLastLoadId());
     AtomicInteger conflictCount = new AtomicInteger();
     impl.informer.setConflictCallback(
         ((current, newContainer) -> {
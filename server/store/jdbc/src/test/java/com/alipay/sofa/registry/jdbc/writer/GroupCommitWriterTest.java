@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jdbc.writer;
+
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GroupCommitWriterTest {
+  private static final Logger LOG = LoggerFactory.getLogger(GroupCommitWriterTest.class);
+
+  @Test
+  public void testCommit() throws Exception {
+    MockWriter writer = new MockWriter(100);
+    writer.exists.add("a");
+    writer.failed.add("c");
+    CompletableFuture<Void> a = write(writer, "a");
+    CompletableFuture<Void> b = write(writer, "b");
+    CompletableFuture<Void> c = write(writer, "c");
+    waitQueued(writer, 3);
+    Assert.assertEquals(3, writer.commit());
+    Assert.assertEquals(0, writer.commit());
+
+    a.get();
+    b.get();
+    assertFailed(c);
+    Assert.assertEquals(1, writer.heartbeats.size());
+    Assert.assertEquals(Sets.newHashSet("a", "b", "c"), Sets.newHashSet(writer.heartbeats.get(0)));
+    Assert.assertEquals(Lists.newArrayList("b"), writer.inserts);
+  }
+
+  @Test
+  public void testSubmit() throws Exception {
+    MockWriter writer = new MockWriter(100);
+    writer.exists.add("a");
+    CompletableFuture<Boolean> a = writer.submit("a");
+    CompletableFuture<Boolean> b = writer.submit("b");
+    Assert.assertFalse(a.isDone());
+    Assert.assertEquals(2, writer.commit());
+    GroupCommitWriter.await(a, 1000);
+    GroupCommitWriter.await(b, 1000);
+    // submitted together, committed in one group
+    Assert.assertEquals(Collections.singletonList(Lists.newArrayList("a", "b")), writer.heartbeats);
+    Assert.assertEquals(Lists.newArrayList("b"), writer.inserts);
+  }
+
+  @Test
+  public void testHeartbeatFailed() throws Exception {
+    MockWriter writer = new MockWriter(100);
+    writer.heartbeatFailed = true;
+    CompletableFuture<Void> a = write(writer, "a");
+    waitQueued(writer, 1);
+    Assert.assertEquals(1, writer.commit());
+    assertFailed(a);
+    Assert.assertTrue(writer.inserts.isEmpty());
+  }
+
+  @Test
+  public void testBatchSize() throws Exception {
+    MockWriter writer = new MockWriter(100);
+    writer.setBatchSize(2);
+    List<CompletableFuture<Void>> futures = Lists.newArrayList();
+    for (int i = 0; i < 5; i++) {
+      futures.add(write(writer, String.valueOf(i)));
+    }
+    waitQueued(writer, 5);
+    Assert.assertEquals(2, writer.commit());
+    Assert.assertEquals(2, writer.commit());
+    Assert.assertEquals(1, writer.commit());
+    for (CompletableFuture<Void> f : futures) {
+      f.get();
+    }
+    Assert.assertEquals(3, writer.heartbeats.size());
+  }
+
+  @Test
+  public void testFullAndTimeout() throws Exception {
+    MockWriter writer = new MockWriter(1);
+    write(writer, "a");
+    waitQueued(writer, 1);
+    try {
+      writer.write("b", 1000);
+      Assert.fail();
+    } catch (RejectedExecutionException e) {
+      // expect
+    }
+    writer = new MockWriter(10);
+    try {
+      writer.write("c", 10);
+      Assert.fail();
+    } catch (TimeoutException e) {
+      // expect
+    }
+  }
+
+  @Test
+  public void testStart() throws Exception {
+    MockWriter writer = new MockWriter(100);
+    writer.setWindowMillis(10);
+    writer.start();
+    writer.start();
+    writer.write("a", 3000);
+    writer.write("b", 3000);
+    Assert.assertEquals(Lists.newArrayList("a", "b"), writer.inserts);
+  }
+
+  private static void assertFailed(CompletableFuture<Void> future) throws InterruptedException {
+    try {
+      future.get();
+      Assert.fail();
+    } catch (ExecutionException e) {
+      // expect
+    }
+  }
+
+  private static CompletableFuture<Void> write(MockWriter writer, String entry) {
+    return CompletableFuture.runAsync(
+        () -> {
+          try {
+            writer.write(entry, 3000);
+          } catch (Exception e) {
+            throw new RuntimeException(e);
+          }
+        });
+  }
+
+  private static void waitQueued(MockWriter writer, int size) throws InterruptedException {
+    for (int i = 0; i < 300 && writer.pendingSize() < size; i++) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(size, writer.pendingSize());
+  }
+
+  private static final class MockWriter extends GroupCommitWriter<String> {
+    final Set<String> exists = Sets.newConcurrentHashSet();
+    final Set<String> failed = Sets.newConcurrentHashSet();
+    final List<List<String>> heartbeats = Lists.newCopyOnWriteArrayList();
+    final List<String> inserts = Lists.newCopyOnWriteArrayList();
+    volatile boolean heartbeatFailed;
+
+    MockWriter(int queueSize) {
+      super("Mock", LOG, queueSize);
+    }
+
+    @Override
+    protected Collection<String> heartbeat(List<String> entries) {
+      if (heartbeatFailed) {
+        throw new IllegalStateException("mock heartbeat failed");
+      }
+      heartbeats.add(Lists.newArrayList(entries));
+      return entries.stream().filter(e -> !exists.contains(e)).collect(Collectors.toList());
+    }
+
+    @Override
+    protected void insert(String entry) {
+      if (failed.contains(entry)) {
+        throw new IllegalStateException("mock insert failed");
+      }
+      inserts.add(entry);
+    }
+  }
+}
@@ -21,6 +21,7 @@ import com.alipay.sofa.registry.store.api.repository.AppRevisionRepository;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -46,6 +47,18 @@ public class AppRevisionRaftRepository implements AppRevisionRepository {
     return registry.get(revision);
   }
 
+  @Override
+  public Map<String, AppRevision> queryRevisions(Collection<String> revisions) {
+    Map<String, AppRevision> ret = new HashMap<>(revisions.size());
+    for (String revision : revisions) {
+      AppRevision appRevision = registry.get(revision);
+      if (appRevision != null) {
+        ret.put(revision, appRevision);
+      }
+    }
+    return ret;
+  }
+
   @Override
   public boolean heartbeat(String revision) {
     return false;